@@ -0,0 +1,216 @@
+package com.ps.aspect;
+
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.ps.cache.ReferenceDataCache;
+import com.ps.config.props.MetricsProperties;
+import com.ps.constants.IDoctorConstants;
+import com.ps.dto.request.AdminProfileRequest;
+import com.ps.dto.request.DoctorProfileRequest;
+import com.ps.dto.request.LoginRequest;
+import com.ps.dto.request.PasswordRequest;
+import com.ps.dto.request.PatientProfileRequest;
+import com.ps.entity.Degree;
+import com.ps.rest.DataRestController;
+import com.ps.service.IDataService;
+import com.ps.util.JwtUtil;
+import com.ps.util.TestDataUtil;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * This class measures the overhead {@link MetricsAspect} adds to a controller call,
+ * {@link DataRestController#getDoctorDegrees()} called by a logged in doctor, against the previous
+ * logging aspect, with the percentiles and histogram configured in application properties.
+ * Logs are written at the INFO level of application properties, formatted and encoded
+ * as in the log file but discarded, so that the disk does not skew the baseline.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MetricsAspectBenchmark {
+
+	private DataRestController controller;
+	private DataRestController metricsProxy;
+	private DataRestController loggingProxy;
+
+	@Setup
+	public void setUp() {
+		configureLogging();
+		SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+		SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(TestDataUtil.getDoctorEmail(), null,
+				List.of(new SimpleGrantedAuthority(IDoctorConstants.DOCTOR_ROLE))));
+
+		List<Degree> degrees = List.of(new Degree());
+		IDataService dataService = (IDataService) Proxy.newProxyInstance(IDataService.class.getClassLoader(),
+				new Class<?>[] {IDataService.class}, (proxy, method, args) -> degrees);
+		controller = new DataRestController();
+		ReflectionTestUtils.setField(controller, "dataService", dataService);
+		ReflectionTestUtils.setField(controller, "referenceDataCache", new ReferenceDataCache());
+
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		meterRegistry.config().meterFilter(new MeterFilter() {
+
+			@Override
+			public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+				return DistributionStatisticConfig.builder()
+						.percentiles(0.5, 0.95, 0.99)
+						.percentilesHistogram(true)
+						.build()
+						.merge(config);
+			}
+		});
+		MetricsProperties metricsProperties = new MetricsProperties();
+		metricsProperties.setArgumentLogSampleInterval(100);
+		MetricsAspect metricsAspect = new MetricsAspect();
+		ReflectionTestUtils.setField(metricsAspect, "meterRegistry", meterRegistry);
+		ReflectionTestUtils.setField(metricsAspect, "metricsProperties", metricsProperties);
+		metricsProxy = proxy(metricsAspect);
+		loggingProxy = proxy(new LoggingAspect());
+	}
+
+	@TearDown
+	public void tearDown() {
+		SecurityContextHolder.clearContext();
+		((LoggerContext) LoggerFactory.getILoggerFactory()).reset();
+	}
+
+	/**
+	 * Benchmark of the controller called directly, without any aspect.
+	 *
+	 */
+	@Benchmark
+	public ResponseEntity<?> direct() {
+		return controller.getDoctorDegrees();
+	}
+
+	/**
+	 * Benchmark of the previous logging aspect, the baseline.
+	 *
+	 */
+	@Benchmark
+	public ResponseEntity<?> loggingAspect() {
+		return loggingProxy.getDoctorDegrees();
+	}
+
+	/**
+	 * Benchmark {@link MetricsAspect#timeControllerMethods(ProceedingJoinPoint)}.
+	 *
+	 */
+	@Benchmark
+	public ResponseEntity<?> metricsAspect() {
+		return metricsProxy.getDoctorDegrees();
+	}
+
+	private DataRestController proxy(Object aspect) {
+		AspectJProxyFactory factory = new AspectJProxyFactory(controller);
+		factory.setProxyTargetClass(true);
+		factory.addAspect(aspect);
+		return factory.getProxy();
+	}
+
+	/**
+	 * Replaces the default console logging by the file log pattern at INFO level, written to a discarding stream.
+	 */
+	private static void configureLogging() {
+		LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+		context.reset();
+		PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+		encoder.setContext(context);
+		encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%t] %-40.40logger{39} : %m%n");
+		encoder.start();
+		OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+		appender.setContext(context);
+		appender.setEncoder(encoder);
+		appender.setOutputStream(OutputStream.nullOutputStream());
+		appender.start();
+		ch.qos.logback.classic.Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+		root.setLevel(Level.INFO);
+		root.addAppender(appender);
+	}
+
+	/**
+	 * The controller advice of the logging aspect as it was before calls were recorded by timers.
+	 */
+	@Aspect
+	static class LoggingAspect {
+
+		private static final Logger LOG = LoggerFactory.getLogger(LoggingAspect.class);
+
+		@Around("execution(* com.ps.rest..*(..)) && @within(org.springframework.web.bind.annotation.RestController)")
+		public Object logControllerMethods(ProceedingJoinPoint joinPoint) throws Throwable {
+			String className = joinPoint.getTarget().getClass().getSimpleName();
+			String methodName = joinPoint.getSignature().getName();
+			Object[] arguments = joinPoint.getArgs();
+
+			LOG.info("Entering {}.{}", className, methodName);
+			String email = JwtUtil.getEmailFromToken();
+			if (!(email == null || email.equals("anonymousUser"))) {
+				LOG.info(" -| Email: {}", email);
+			}
+			for (Object arg : arguments) {
+				if (arg instanceof PatientProfileRequest request) {
+					LOG.info(" -| Email: {}", request.getEmail());
+				} else if (arg instanceof LoginRequest request) {
+					LOG.info(" -| Email/Phone: {}", request.getUser());
+				} else if (arg instanceof DoctorProfileRequest request) {
+					LOG.info(" -| Email: {}", request.getEmail());
+				} else if (arg instanceof AdminProfileRequest request) {
+					LOG.info(" -| Email: {}", request.getEmail());
+				} else if (arg instanceof PasswordRequest) {
+					LOG.info(" -| Password Change Request");
+				} else {
+					LOG.info(" -| {}", arg);
+				}
+			}
+
+			Object result;
+			long startTime = System.currentTimeMillis();
+			try {
+				result = joinPoint.proceed();
+			} catch (Throwable e) {
+				LOG.error("Exception in {}.{}, Message: {}", className, methodName, e.getMessage(), e);
+				throw e;
+			}
+			long executionTime = System.currentTimeMillis() - startTime;
+			if (result instanceof ResponseEntity<?> response) {
+				LOG.info("Exiting {}.{}, Status: {}, Execution Time: {}ms", className, methodName, response.getStatusCode(), executionTime);
+			} else {
+				LOG.info("Exiting {}.{}, Execution Time: {}ms", className, methodName, executionTime);
+			}
+			return result;
+		}
+	}
+}
@@ -0,0 +1,233 @@
+package com.ps.filter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.ps.config.props.JwtProperties;
+import com.ps.constants.ICommonConstants;
+import com.ps.constants.IDoctorConstants;
+import com.ps.dto.JwtPrincipal;
+import com.ps.util.JwtUtil;
+import com.ps.util.TestDataUtil;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * This class measures authenticating a request carrying a bearer token with {@link SecurityFilter},
+ * against the previous filter that built a parser and verified the token three times per request,
+ * once each for its validity, subject and roles. The contended benchmarks run {@value #THREADS} threads
+ * sharing the principal cache, against a cache guarded by one lock as it was before it was made concurrent.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SecurityFilterBenchmark {
+
+	private static final String SECRETE_KEY = "smarthealth-secrete-key-with-long-as-possible-to-avoid-exception";
+	private static final int THREADS = 8;
+
+	private SecurityFilter securityFilter;
+	private SecurityFilter uncachedSecurityFilter;
+	private SecurityFilter lockedCacheSecurityFilter;
+	private LegacySecurityFilter legacySecurityFilter;
+	private String authorization;
+
+	@Setup
+	public void setUp() {
+		JwtUtil jwtUtil = jwtUtil(10_000);
+		securityFilter = new SecurityFilter();
+		ReflectionTestUtils.setField(securityFilter, "jwtUtil", jwtUtil);
+		uncachedSecurityFilter = new SecurityFilter();
+		ReflectionTestUtils.setField(uncachedSecurityFilter, "jwtUtil", jwtUtil(0));
+		lockedCacheSecurityFilter = new SecurityFilter();
+		ReflectionTestUtils.setField(lockedCacheSecurityFilter, "jwtUtil", new LockedCacheJwtUtil(jwtUtil(0), 10_000));
+		legacySecurityFilter = new LegacySecurityFilter();
+		authorization = "Bearer " + jwtUtil.generateToken(TestDataUtil.getDoctorEmail(), Set.of(IDoctorConstants.DOCTOR_ROLE));
+	}
+
+	/**
+	 * Benchmark of the previous filter, the baseline.
+	 *
+	 */
+	@Benchmark
+	public Authentication legacyFilter() throws ServletException, IOException {
+		return authenticate(legacySecurityFilter);
+	}
+
+	/**
+	 * Benchmark {@link SecurityFilter} with a token already verified, answered from the principal cache.
+	 *
+	 */
+	@Benchmark
+	public Authentication cachedFilter() throws ServletException, IOException {
+		return authenticate(securityFilter);
+	}
+
+	/**
+	 * Benchmark {@link SecurityFilter} with the principal cache disabled, verifying the token once per request.
+	 *
+	 */
+	@Benchmark
+	public Authentication uncachedFilter() throws ServletException, IOException {
+		return authenticate(uncachedSecurityFilter);
+	}
+
+	/**
+	 * Benchmark {@link SecurityFilter} with a token already verified, answered from the principal cache
+	 * by {@value #THREADS} threads at once.
+	 *
+	 */
+	@Benchmark
+	@Threads(THREADS)
+	public Authentication cachedFilterContended() throws ServletException, IOException {
+		return authenticate(securityFilter);
+	}
+
+	/**
+	 * Benchmark of {@value #THREADS} threads answered from the cache guarded by one lock, the contended baseline.
+	 *
+	 */
+	@Benchmark
+	@Threads(THREADS)
+	public Authentication lockedCacheFilterContended() throws ServletException, IOException {
+		return authenticate(lockedCacheSecurityFilter);
+	}
+
+	private Authentication authenticate(OncePerRequestFilter filter) throws ServletException, IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Authorization", authorization);
+		try {
+			filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+			return SecurityContextHolder.getContext().getAuthentication();
+		} finally {
+			SecurityContextHolder.clearContext();
+		}
+	}
+
+	private static JwtUtil jwtUtil(int principalCacheSize) {
+		JwtProperties jwtProperties = new JwtProperties();
+		jwtProperties.setExpirationTimeInMinutes(840L);
+		jwtProperties.setSecreteKey(SECRETE_KEY);
+		jwtProperties.setPrincipalCacheSize(principalCacheSize);
+		JwtUtil jwtUtil = new JwtUtil();
+		ReflectionTestUtils.setField(jwtUtil, "jwtProperties", jwtProperties);
+		jwtUtil.init();
+		return jwtUtil;
+	}
+
+	/**
+	 * The principal cache as it was before it was made concurrent: an access ordered LRU map guarded by itself,
+	 * locked by every request, cache hits included.
+	 */
+	private static class LockedCacheJwtUtil extends JwtUtil {
+
+		private final JwtUtil jwtUtil;
+		private final Map<String, JwtPrincipal> principalCache;
+
+		LockedCacheJwtUtil(JwtUtil jwtUtil, int principalCacheSize) {
+			this.jwtUtil = jwtUtil;
+			this.principalCache = new LinkedHashMap<>(16, 0.75f, true) {
+
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, JwtPrincipal> eldest) {
+					return size() > principalCacheSize;
+				}
+			};
+		}
+
+		@Override
+		public JwtPrincipal resolvePrincipal(String token) {
+			long now = System.currentTimeMillis();
+			JwtPrincipal principal;
+			synchronized (principalCache) {
+				principal = principalCache.get(token);
+				if (principal != null && principal.isExpired(now)) {
+					principalCache.remove(token);
+					return null;
+				}
+			}
+			if (principal != null) {
+				return principal;
+			}
+			principal = jwtUtil.resolvePrincipal(token);
+			if (principal != null) {
+				synchronized (principalCache) {
+					principalCache.put(token, principal);
+				}
+			}
+			return principal;
+		}
+	}
+
+	/**
+	 * The filter as it was before tokens were resolved once into a cached principal.
+	 */
+	private static class LegacySecurityFilter extends OncePerRequestFilter {
+
+		@Override
+		protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+				throws ServletException, IOException {
+			String header = request.getHeader("Authorization");
+			if (header != null && header.startsWith("Bearer ")) {
+				String token = header.substring(7);
+				if (isTokenValid(token)) {
+					List<SimpleGrantedAuthority> authorities = getRoles(token).stream().map(SimpleGrantedAuthority::new).toList();
+					SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(getClaims(token).getSubject(), null, authorities));
+				}
+			}
+			filterChain.doFilter(request, response);
+		}
+
+		private Claims getClaims(String token) {
+			return Jwts.parserBuilder()
+					.setSigningKey(SECRETE_KEY.getBytes())
+					.build()
+					.parseClaimsJws(token)
+					.getBody();
+		}
+
+		@SuppressWarnings("unchecked")
+		private List<String> getRoles(String token) {
+			return getClaims(token).get(ICommonConstants.ROLE, List.class);
+		}
+
+		private boolean isTokenValid(String token) {
+			try {
+				getClaims(token);
+				return true;
+			} catch (Exception e) {
+				return false;
+			}
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package com.ps.mapper;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.beans.BeanUtils;
+
+import com.ps.dto.request.DoctorProfileRequest;
+import com.ps.dto.response.ADSResponse;
+import com.ps.dto.response.AVResponse;
+import com.ps.dto.response.DoctorProfileResponse;
+import com.ps.entity.Availability;
+import com.ps.entity.Doctor;
+import com.ps.util.TestDataUtil;
+
+/**
+ * This class measures the MapStruct generated {@link DoctorMapper} and {@link AvailabilityMapper}
+ * on the entities and requests of the test fixtures.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MapperBenchmark {
+
+	private final DoctorMapper doctorMapper = new DoctorMapperImpl();
+	private final AvailabilityMapper availabilityMapper = new AvailabilityMapperImpl();
+
+	private Doctor doctor;
+	private DoctorProfileRequest request;
+	private Availability availability;
+
+	@Setup
+	public void setUp() {
+		doctor = TestDataUtil.getDoctor();
+		request = new DoctorProfileRequest();
+		BeanUtils.copyProperties(doctor, request);
+		availability = TestDataUtil.getAvailability();
+	}
+
+	/**
+	 * Benchmark {@link DoctorMapper#toDoctor(DoctorProfileRequest)}.
+	 *
+	 */
+	@Benchmark
+	public Doctor toDoctor() {
+		return doctorMapper.toDoctor(request);
+	}
+
+	/**
+	 * Benchmark {@link DoctorMapper#toDoctorProfileResponse(Doctor)}.
+	 *
+	 */
+	@Benchmark
+	public DoctorProfileResponse toDoctorProfileResponse() {
+		return doctorMapper.toDoctorProfileResponse(doctor);
+	}
+
+	/**
+	 * Benchmark {@link DoctorMapper#updateDoctorFromRequest(DoctorProfileRequest, Doctor)}.
+	 *
+	 */
+	@Benchmark
+	public Doctor updateDoctorFromRequest() {
+		Doctor target = new Doctor();
+		doctorMapper.updateDoctorFromRequest(request, target);
+		return target;
+	}
+
+	/**
+	 * Benchmark {@link DoctorMapper#toADSResponse(Doctor)}.
+	 *
+	 */
+	@Benchmark
+	public ADSResponse toADSResponse() {
+		return doctorMapper.toADSResponse(doctor);
+	}
+
+	/**
+	 * Benchmark {@link AvailabilityMapper#toResponse(Availability)}.
+	 *
+	 */
+	@Benchmark
+	public AVResponse toAVResponse() {
+		return availabilityMapper.toResponse(availability);
+	}
+}
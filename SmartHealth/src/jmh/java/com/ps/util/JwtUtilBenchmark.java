@@ -0,0 +1,72 @@
+package com.ps.util;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.ps.config.props.JwtProperties;
+import com.ps.constants.IDoctorConstants;
+import com.ps.dto.JwtPrincipal;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * This class measures generating and verifying tokens with {@link JwtUtil},
+ * with the signing key and expiration of application properties.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtUtilBenchmark {
+
+	private JwtUtil jwtUtil;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		JwtProperties jwtProperties = new JwtProperties();
+		jwtProperties.setExpirationTimeInMinutes(840L);
+		jwtProperties.setSecreteKey("smarthealth-secrete-key-with-long-as-possible-to-avoid-exception");
+		jwtProperties.setPrincipalCacheSize(10_000);
+		jwtUtil = new JwtUtil();
+		ReflectionTestUtils.setField(jwtUtil, "jwtProperties", jwtProperties);
+		jwtUtil.init();
+		token = jwtUtil.generateToken(TestDataUtil.getDoctorEmail(), Set.of(IDoctorConstants.DOCTOR_ROLE));
+	}
+
+	/**
+	 * Benchmark {@link JwtUtil#generateToken(String, Set)}.
+	 *
+	 */
+	@Benchmark
+	public String generateToken() {
+		return jwtUtil.generateToken(TestDataUtil.getDoctorEmail(), Set.of(IDoctorConstants.DOCTOR_ROLE));
+	}
+
+	/**
+	 * Benchmark {@link JwtUtil#getClaims(String)}, parsing and verifying the signature of a token.
+	 *
+	 */
+	@Benchmark
+	public Claims getClaims() {
+		return jwtUtil.getClaims(token);
+	}
+
+	/**
+	 * Benchmark {@link JwtUtil#resolvePrincipal(String)} of a token already verified, answered from the principal cache.
+	 *
+	 */
+	@Benchmark
+	public JwtPrincipal resolveCachedPrincipal() {
+		return jwtUtil.resolvePrincipal(token);
+	}
+}
@@ -0,0 +1,74 @@
+package com.ps.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ps.dto.response.ADSResponse;
+import com.ps.dto.response.ApiResponse;
+
+/**
+ * This class measures preparing a page of search results with {@link CommonUtil#prepareResponseMap(Object, Page)}
+ * and serializing it wrapped in an {@link ApiResponse}, with an {@link ObjectMapper} configured as Spring Boot does.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseBenchmark {
+
+	private static final int PAGE_SIZE = 10;
+
+	private ObjectMapper objectMapper;
+	private List<ADSResponse> content;
+	private Page<ADSResponse> page;
+	private ApiResponse<?> response;
+
+	@Setup
+	public void setUp() {
+		objectMapper = Jackson2ObjectMapperBuilder.json()
+				.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+				.build();
+		content = new ArrayList<>(PAGE_SIZE);
+		for (int i = 0; i < PAGE_SIZE; i++) {
+			content.add(TestConverterUtil.toADSResponse(TestDataUtil.getDoctor()));
+		}
+		page = new PageImpl<>(content, PageRequest.of(3, PAGE_SIZE), 1_000);
+		response = CommonUtil.prepareResponseWithContent(CommonUtil.prepareResponseMap(content, page), HttpStatus.OK).getBody();
+	}
+
+	/**
+	 * Benchmark {@link CommonUtil#prepareResponseMap(Object, Page)}.
+	 *
+	 */
+	@Benchmark
+	public Map<String, Object> prepareResponseMap() {
+		return CommonUtil.prepareResponseMap(content, page);
+	}
+
+	/**
+	 * Benchmark serializing a page of doctors wrapped in an {@link ApiResponse}.
+	 *
+	 */
+	@Benchmark
+	public byte[] serializeApiResponse() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(response);
+	}
+}
@@ -0,0 +1,94 @@
+package com.ps.util;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.ps.entity.Availability;
+import com.ps.entity.Doctor;
+import com.ps.entity.SlotInput;
+import com.ps.enu.AGMode;
+
+/**
+ * This class measures the in-memory part of slot generation done by
+ * {@link com.ps.service.impl.AvailabilityServiceImpl#generateAvailabilitySlots(com.ps.dto.request.AGRequest, Doctor)}:
+ * splitting the slot inputs of every day with {@link AvailabilityUtil#splitSlots}, then checking each
+ * candidate against the occupied intervals of its day before it is inserted.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SlotSplittingBenchmark {
+
+	@Param({"15", "90"})
+	private int days;
+
+	@Param({"10", "30"})
+	private int gapInMinutes;
+
+	private Doctor doctor;
+	private List<SlotInput> slotInputs;
+	private LocalDate startDate;
+
+	@Setup
+	public void setUp() {
+		doctor = TestDataUtil.getDoctor();
+		slotInputs = List.of(new SlotInput(LocalTime.of(9, 0), LocalTime.of(13, 0), gapInMinutes),
+							 new SlotInput(LocalTime.of(14, 0), LocalTime.of(18, 0), gapInMinutes));
+		startDate = LocalDate.now().plusDays(1);
+	}
+
+	/**
+	 * Benchmark {@link AvailabilityUtil#splitSlots} over all days of a generation request.
+	 *
+	 */
+	@Benchmark
+	public List<Availability> splitSlots() {
+		return split();
+	}
+
+	/**
+	 * Benchmark {@link AvailabilityUtil#splitSlots} followed by the overlap check of every candidate.
+	 *
+	 */
+	@Benchmark
+	public List<Availability> splitAndCheckOverlaps() {
+		List<Availability> candidates = split();
+		Map<LocalDate, NavigableMap<LocalTime, LocalTime>> occupied = new HashMap<>();
+		List<Availability> accepted = new ArrayList<>(candidates.size());
+		for (Availability candidate : candidates) {
+			NavigableMap<LocalTime, LocalTime> day = occupied.computeIfAbsent(candidate.getDate(), d -> new TreeMap<>());
+			if (!AvailabilityUtil.isOverlapping(day, candidate.getStartTime(), candidate.getEndTime())) {
+				AvailabilityUtil.occupy(day, candidate.getStartTime(), candidate.getEndTime());
+				accepted.add(candidate);
+			}
+		}
+		return accepted;
+	}
+
+	private List<Availability> split() {
+		List<Availability> candidates = new ArrayList<>();
+		LocalDate date = startDate;
+		for (int i = 0; i < days; i++) {
+			AvailabilityUtil.splitSlots(doctor, date, slotInputs, AGMode.CUSTOM_ONE_TIME, candidates);
+			date = date.plusDays(1);
+		}
+		return candidates;
+	}
+}
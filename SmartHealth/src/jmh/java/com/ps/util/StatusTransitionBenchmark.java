@@ -0,0 +1,50 @@
+package com.ps.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.ps.constants.IAdminConstants;
+import com.ps.constants.IDoctorConstants;
+import com.ps.constants.IPatientConstants;
+import com.ps.enu.AppointmentStatus;
+
+/**
+ * This class measures {@link AppointmentUtil#isStatusTransitionValid(String, AppointmentStatus, AppointmentStatus)}
+ * over every current status and every target status each role may request.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StatusTransitionBenchmark {
+
+	private static final AppointmentStatus[] PATIENT_TARGETS = {AppointmentStatus.P_CANCELLED};
+	private static final AppointmentStatus[] DOCTOR_TARGETS = {AppointmentStatus.APPROVED, AppointmentStatus.D_CANCELLED, AppointmentStatus.COMPLETED};
+	private static final AppointmentStatus[] ADMIN_TARGETS = {AppointmentStatus.APPROVED, AppointmentStatus.D_CANCELLED, AppointmentStatus.COMPLETED, AppointmentStatus.P_CANCELLED};
+
+	/**
+	 * Benchmark {@link AppointmentUtil#isStatusTransitionValid(String, AppointmentStatus, AppointmentStatus)}.
+	 *
+	 */
+	@Benchmark
+	public void isStatusTransitionValid(Blackhole blackhole) {
+		check(IPatientConstants.PATIENT_ROLE, PATIENT_TARGETS, blackhole);
+		check(IDoctorConstants.DOCTOR_ROLE, DOCTOR_TARGETS, blackhole);
+		check(IAdminConstants.ADMIN_ROLE, ADMIN_TARGETS, blackhole);
+	}
+
+	private static void check(String role, AppointmentStatus[] targets, Blackhole blackhole) {
+		for (AppointmentStatus current : AppointmentStatus.values()) {
+			for (AppointmentStatus target : targets) {
+				blackhole.consume(AppointmentUtil.isStatusTransitionValid(role, current, target));
+			}
+		}
+	}
+}
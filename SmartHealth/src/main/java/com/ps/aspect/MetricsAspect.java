@@ -0,0 +1,197 @@
+package com.ps.aspect;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.ps.config.props.MetricsProperties;
+import com.ps.dto.request.AdminProfileRequest;
+import com.ps.dto.request.DoctorProfileRequest;
+import com.ps.dto.request.LoginRequest;
+import com.ps.dto.request.PasswordRequest;
+import com.ps.dto.request.PatientProfileRequest;
+import com.ps.exception.ResourceException;
+import com.ps.util.JwtUtil;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Aspect recording the latency of methods in controllers and services.
+ * Applies to all methods within @RestController and @Service annotated classes.
+ * <p>
+ * Every call is recorded by a Micrometer {@link Timer}, {@value #CONTROLLER_METRIC} or
+ * {@value #SERVICE_METRIC}, tagged with the class, the method and the exception thrown
+ * ({@code none} on success), which counts the calls and tracks their latency distribution.
+ * Timers are resolved once per method and exception class, so recording a call is lock-free and allocation-free;
+ * percentiles and histograms are configured by the {@code management.metrics.distribution}
+ * properties and exposed through the actuator metrics endpoint.
+ * <p>
+ * With DEBUG logging enabled, the arguments of one in {@code smarthealth.metrics.argument-log-sample-interval}
+ * controller calls are logged, sensitive request bodies reduced to their email.
+ */
+@Aspect
+@Component
+public class MetricsAspect {
+
+	private static final Logger LOG = LoggerFactory.getLogger(MetricsAspect.class);
+	static final String CONTROLLER_METRIC = "smarthealth.controller.calls";
+	static final String SERVICE_METRIC = "smarthealth.service.calls";
+	private static final String NO_EXCEPTION = "none";
+	private static final String BUSINESS_EXCEPTION_PACKAGE = ResourceException.class.getPackageName();
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private MetricsProperties metricsProperties;
+
+	private final Map<Method, MethodTimers> controllerTimers = new ConcurrentHashMap<>();
+	private final Map<Method, MethodTimers> serviceTimers = new ConcurrentHashMap<>();
+
+	/**
+     * Records the execution of methods in @RestController classes, and logs the
+     * arguments of sampled calls at DEBUG level.
+     *
+     * @param joinPoint the join point representing the method execution
+     * @return the result of the method execution
+     * @throws Throwable if an error occurs during method execution
+     */
+	@Around("execution(* com.ps.rest..*(..)) && @within(org.springframework.web.bind.annotation.RestController)")
+	public Object timeControllerMethods(ProceedingJoinPoint joinPoint) throws Throwable {
+		if (LOG.isDebugEnabled() && isSampled()) {
+			logArguments(joinPoint);
+		}
+		return time(joinPoint, CONTROLLER_METRIC, controllerTimers);
+	}
+
+	/**
+     * Records the execution of methods in @Service implementation classes.
+     *
+     * @param joinPoint the join point representing the method execution
+     * @return the result of the method execution
+     * @throws Throwable if an error occurs during method execution
+     */
+	@Around("execution(* com.ps.service.impl..*(..)) && @within(org.springframework.stereotype.Service)")
+	public Object timeServiceImplMethods(ProceedingJoinPoint joinPoint) throws Throwable {
+		return time(joinPoint, SERVICE_METRIC, serviceTimers);
+	}
+
+	private Object time(ProceedingJoinPoint joinPoint, String metric, Map<Method, MethodTimers> timers) throws Throwable {
+		long start = System.nanoTime();
+		Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+		MethodTimers methodTimers = timers.get(method);
+		if (methodTimers == null) {
+			methodTimers = timers.computeIfAbsent(method, key -> new MethodTimers(metric, joinPoint.getTarget().getClass().getSimpleName(), joinPoint.getSignature().getName()));
+		}
+		Object result;
+		try {
+			result = joinPoint.proceed();
+		} catch (Throwable e) {
+			methodTimers.failure(e.getClass()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			if (isBusinessException(e)) {
+				LOG.error("Exception in {}.{}, Message: {}", methodTimers.className, methodTimers.methodName, e.getMessage());
+			} else {
+				LOG.error("Exception in {}.{}, Message: {}", methodTimers.className, methodTimers.methodName, e.getMessage(), e);
+			}
+			throw e;
+		}
+		methodTimers.success().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		return result;
+	}
+
+	/**
+	 * Business exceptions are the ones of the {@code com.ps.exception} package, mapped to a response status by
+	 * {@link com.ps.exception.handler.GlobalExceptionHandler}; their message is enough, other exceptions are
+	 * logged with their stack trace.
+	 */
+	private static boolean isBusinessException(Throwable e) {
+		return e.getClass().getPackageName().equals(BUSINESS_EXCEPTION_PACKAGE);
+	}
+
+	private boolean isSampled() {
+		int interval = metricsProperties.getArgumentLogSampleInterval();
+		return interval <= 1 || ThreadLocalRandom.current().nextInt(interval) == 0;
+	}
+
+	/**
+	 * Logs the caller and the key request parameters (avoid sensitive data like passwords).
+	 */
+	private void logArguments(ProceedingJoinPoint joinPoint) {
+		LOG.debug("Entering {}.{}", joinPoint.getTarget().getClass().getSimpleName(), joinPoint.getSignature().getName());
+		String email = JwtUtil.getEmailFromToken();
+		if (!(email == null || email.equals("anonymousUser"))) {
+			LOG.debug(" -| Email: {}", email);
+		}
+		for (Object arg : joinPoint.getArgs()) {
+			if (arg instanceof PatientProfileRequest request) {
+				LOG.debug(" -| Email: {}", request.getEmail());
+			} else if (arg instanceof LoginRequest request) {
+				LOG.debug(" -| Email/Phone: {}", request.getUser());
+			} else if (arg instanceof DoctorProfileRequest request) {
+				LOG.debug(" -| Email: {}", request.getEmail());
+			} else if (arg instanceof AdminProfileRequest request) {
+				LOG.debug(" -| Email: {}", request.getEmail());
+			} else if (arg instanceof PasswordRequest) {
+				LOG.debug(" -| Password Change Request");
+			} else {
+				LOG.debug(" -| {}", arg);
+			}
+		}
+	}
+
+	/**
+	 * Timers of a method, the one of successful calls and one per exception class thrown.
+	 */
+	private final class MethodTimers {
+
+		private final String metric;
+		private final String className;
+		private final String methodName;
+		// Resolved on first use, a method that only fails has no timer of successful calls
+		private volatile Timer success;
+		private final Map<Class<?>, Timer> failures = new ConcurrentHashMap<>();
+
+		private MethodTimers(String metric, String className, String methodName) {
+			this.metric = metric;
+			this.className = className;
+			this.methodName = methodName;
+		}
+
+		private Timer success() {
+			Timer timer = success;
+			if (timer == null) {
+				// Registering twice on a race returns the same timer
+				success = timer = timer(NO_EXCEPTION);
+			}
+			return timer;
+		}
+
+		private Timer failure(Class<?> exception) {
+			Timer timer = failures.get(exception);
+			if (timer == null) {
+				timer = failures.computeIfAbsent(exception, key -> timer(key.getSimpleName()));
+			}
+			return timer;
+		}
+
+		private Timer timer(String exception) {
+			return Timer.builder(metric)
+					.tag("class", className)
+					.tag("method", methodName)
+					.tag("exception", exception)
+					.register(meterRegistry);
+		}
+	}
+}
@@ -0,0 +1,350 @@
+package com.ps.cache;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.ps.dto.NameFilter;
+import com.ps.dto.request.DSRequest;
+import com.ps.dto.response.DSResponse;
+import com.ps.event.AppointmentChangedEvent;
+import com.ps.event.DoctorChangedEvent;
+import com.ps.event.SlotsChangedEvent;
+import com.ps.repo.AvailabilityRepository;
+import com.ps.repo.DoctorRepository;
+import com.ps.util.VirtualSlots;
+
+/**
+ * In-memory, denormalized index of the doctors patients can book an appointment with.
+ * <p>
+ * Per searchable (active, profile complete) doctor it keeps the details shown in search results,
+ * the degree, department and specialization ids, the lowercase name and the number of open
+ * ({@code AVAILABLE}) slots per day. Searches are answered from memory, ranked by soonest
+ * availability, in time proportional to the number of doctors rather than the number of slots.
+ * When virtual slots are enabled, the {@link VirtualSlots} of a doctor are counted as open slots too.
+ * <p>
+ * The index is loaded on first use, a doctor is refreshed (after commit) when their slots,
+ * appointments or profile change, and the whole index is reloaded every
+ * {@code smarthealth.slots.search-index-refresh-interval-in-minutes} to pick up changes
+ * made by other application instances.
+ * <p>
+ * Refreshes query the database without any lock and publish their result per doctor. Every change of a doctor
+ * takes a new stamp, and an entry only replaces the details or the open slots of a doctor read for an older stamp,
+ * so a slower refresh never overwrites a newer one. A reload builds the new index aside and swaps it in,
+ * then refreshes again the doctors changed while it was loading, whose rows it may have read before the change.
+ */
+@Component
+public class DoctorSearchIndex {
+
+	private static final Logger LOG = LoggerFactory.getLogger(DoctorSearchIndex.class);
+
+	@Autowired
+	private DoctorRepository doctorRepository;
+
+	@Autowired
+	private AvailabilityRepository availabilityRepository;
+
+	@Autowired
+	private NameIndex nameIndex;
+
+	@Autowired
+	private VirtualSlots virtualSlots;
+
+	// Serializes reloads only, a lock rather than a monitor so that virtual threads waiting on the database are not pinned
+	private final ReentrantLock reloadLock = new ReentrantLock();
+
+	private volatile Map<Integer, Entry> doctors;
+	// Last change stamp of each doctor, never removed, doctors are few
+	private final ConcurrentMap<Integer, Long> changes = new ConcurrentHashMap<>();
+
+	/**
+	 * Searches doctors having open slots from today onwards, or on the requested date,
+	 * ordered by their next open day, then by name. When {@link NameIndex} resolves the name
+	 * filter, only the matching doctors are looked at.
+	 *
+	 * @param request  the search criteria, all optional
+	 * @param pageable the page to return, its sort is ignored
+	 * @return the page of matching doctors
+	 */
+	public Page<DSResponse> search(DSRequest request, Pageable pageable) {
+		ensureLoaded();
+		LocalDate today = LocalDate.now();
+		LocalDate date = request.getDate();
+		NameFilter nameFilter = nameIndex.resolveDoctorName(request.getName());
+		String name = nameFilter.getName() == null ? null : nameFilter.getName().toLowerCase();
+		Integer degreeId = request.getDegree() == null ? null : request.getDegree().getId();
+		Integer departmentId = request.getDepartment() == null ? null : request.getDepartment().getId();
+		Integer specializationId = request.getSpecialization() == null ? null : request.getSpecialization().getId();
+
+		List<Match> matches = new ArrayList<>();
+		Map<Integer, Entry> current = doctors;
+		Collection<Entry> candidates = nameFilter.isResolved()
+				? nameFilter.getIds().stream().map(current::get).filter(Objects::nonNull).toList()
+				: current.values();
+		for (Entry entry : candidates) {
+			if ((name != null && !entry.lowerName.contains(name))
+					|| (degreeId != null && !entry.degreeIds.contains(degreeId))
+					|| (departmentId != null && !entry.departmentIds.contains(departmentId))
+					|| (specializationId != null && !entry.specializationIds.contains(specializationId)))
+				continue;
+			LocalDate nextDate = date == null ? entry.openSlots.ceilingKey(today)
+					: (!date.isBefore(today) && entry.openSlots.containsKey(date) ? date : null);
+			if (nextDate != null)
+				matches.add(new Match(entry, nextDate));
+		}
+		matches.sort(Comparator.comparing((Match match) -> match.nextDate)
+				.thenComparing(match -> match.entry.lowerName)
+				.thenComparing(match -> match.entry.id));
+
+		int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), matches.size()) : 0;
+		int to = pageable.isPaged() ? Math.min(from + pageable.getPageSize(), matches.size()) : matches.size();
+		List<DSResponse> content = new ArrayList<>(to - from);
+		for (Match match : matches.subList(from, to)) {
+			content.add(match.entry.toResponse());
+		}
+		return new PageImpl<>(content, pageable, matches.size());
+	}
+
+	/**
+	 * Refreshes the open slots of a doctor whose appointments changed, once the change is committed.
+	 *
+	 * @param event the appointment change event
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onAppointmentChanged(AppointmentChangedEvent event) {
+		refreshOpenSlots(event.getDoctorId());
+	}
+
+	/**
+	 * Refreshes the open slots of a doctor whose slots were generated or deleted, once the change is committed.
+	 *
+	 * @param event the slots change event
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onSlotsChanged(SlotsChangedEvent event) {
+		refreshOpenSlots(event.getDoctorId());
+	}
+
+	/**
+	 * Refreshes (or removes, when no longer searchable) a doctor whose details changed, once the change is committed.
+	 *
+	 * @param event the doctor change event
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onDoctorChanged(DoctorChangedEvent event) {
+		refreshDoctor(event.getDoctorId());
+	}
+
+	/**
+	 * Reloads the whole index from the database and swaps it in atomically.
+	 */
+	@Scheduled(fixedDelayString = "${smarthealth.slots.search-index-refresh-interval-in-minutes}",
+			   initialDelayString = "${smarthealth.slots.search-index-refresh-interval-in-minutes}", timeUnit = TimeUnit.MINUTES)
+	public void reload() {
+		reloadLock.lock();
+		try {
+			long start = System.currentTimeMillis();
+			Map<Integer, Long> loadedChanges = Map.copyOf(changes);
+			Map<Integer, Entry> loaded = new ConcurrentHashMap<>();
+			for (Entry entry : load(null).values()) {
+				long stamp = loadedChanges.getOrDefault(entry.id, 0L);
+				loaded.put(entry.id, entry.withStamps(entry.openSlots, stamp, stamp));
+			}
+			doctors = loaded;
+			// Doctors changed during the load, their refresh may have been published to the previous index
+			changes.forEach((doctorId, stamp) -> {
+				if (stamp > loadedChanges.getOrDefault(doctorId, 0L))
+					refreshDoctor(doctorId);
+			});
+			LOG.info("Doctor search index loaded; doctors: {}, Time Taken:{}ms", loaded.size(), System.currentTimeMillis() - start);
+		} finally {
+			reloadLock.unlock();
+		}
+	}
+
+	private void refreshOpenSlots(Integer doctorId) {
+		if (doctorId == null)
+			return;
+		long stamp = changes.merge(doctorId, 1L, Long::sum);
+		Map<Integer, Entry> current = doctors;
+		if (current == null || !current.containsKey(doctorId))
+			return;
+		NavigableMap<LocalDate, Integer> openSlots = new TreeMap<>();
+		for (Object[] row : availabilityRepository.countOpenSlotsByDoctorAndDate(doctorId, LocalDate.now())) {
+			openSlots.put((LocalDate) row[1], ((Long) row[2]).intValue());
+		}
+		for (Object[] row : virtualSlots.countOpenSlots(doctorId)) {
+			openSlots.merge((LocalDate) row[1], ((Long) row[2]).intValue(), Integer::sum);
+		}
+		doctors.computeIfPresent(doctorId, (id, entry) -> entry.slotsStamp < stamp ? entry.withStamps(openSlots, entry.detailsStamp, stamp) : entry);
+	}
+
+	private void refreshDoctor(Integer doctorId) {
+		if (doctorId == null)
+			return;
+		long stamp = changes.merge(doctorId, 1L, Long::sum);
+		if (doctors == null)
+			return;
+		Entry loaded = load(doctorId).get(doctorId);
+		doctors.compute(doctorId, (id, entry) -> {
+			if (entry != null && entry.detailsStamp >= stamp) {
+				// A later refresh of the doctor was published first, only its open slots may be older
+				return loaded != null && entry.slotsStamp < stamp ? entry.withStamps(loaded.openSlots, entry.detailsStamp, stamp) : entry;
+			}
+			if (loaded == null)
+				return null;
+			return entry != null && entry.slotsStamp > stamp ? loaded.withStamps(entry.openSlots, stamp, entry.slotsStamp)
+					: loaded.withStamps(loaded.openSlots, stamp, stamp);
+		});
+	}
+
+	private void ensureLoaded() {
+		if (doctors == null) {
+			reloadLock.lock();
+			try {
+				if (doctors == null) {
+					reload();
+				}
+			} finally {
+				reloadLock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Loads the entries of all searchable doctors, or of the given one only.
+	 */
+	private Map<Integer, Entry> load(Integer doctorId) {
+		Map<Integer, Entry> entries = new HashMap<>();
+		for (Object[] row : doctorRepository.findSearchableDoctors(doctorId)) {
+			entries.put((Integer) row[0], new Entry((Integer) row[0], (String) row[1], (Integer) row[2], (String) row[3]));
+		}
+		for (Object[] row : doctorRepository.findSearchableDoctorDegrees(doctorId)) {
+			Entry entry = entries.get(row[0]);
+			if (entry != null) {
+				entry.degreeIds.add((Integer) row[1]);
+				entry.degrees.add((String) row[2]);
+			}
+		}
+		for (Object[] row : doctorRepository.findSearchableDoctorSpecializations(doctorId)) {
+			Entry entry = entries.get(row[0]);
+			if (entry != null) {
+				entry.specializationIds.add((Integer) row[1]);
+				entry.specializations.add((String) row[2]);
+			}
+		}
+		for (Object[] row : doctorRepository.findSearchableDoctorDepartments(doctorId)) {
+			Entry entry = entries.get(row[0]);
+			if (entry != null) {
+				entry.departmentIds.add((Integer) row[1]);
+				entry.departments.add((String) row[2]);
+			}
+		}
+		for (Object[] row : availabilityRepository.countOpenSlotsByDoctorAndDate(doctorId, LocalDate.now())) {
+			Entry entry = entries.get(row[0]);
+			if (entry != null)
+				entry.openSlots.put((LocalDate) row[1], ((Long) row[2]).intValue());
+		}
+		for (Object[] row : virtualSlots.countOpenSlots(doctorId)) {
+			Entry entry = entries.get(row[0]);
+			if (entry != null)
+				entry.openSlots.merge((LocalDate) row[1], ((Long) row[2]).intValue(), Integer::sum);
+		}
+		return entries;
+	}
+
+	/**
+	 * Indexed doctor, only mutated while it is being loaded, before it is published to searches.
+	 * It carries the change stamps its details and its open slots were read for.
+	 */
+	private static final class Entry {
+
+		private final Integer id;
+		private final String name;
+		private final String lowerName;
+		private final Integer yearOfExperience;
+		private final String profilePicPath;
+		private final List<Integer> degreeIds;
+		private final List<String> degrees;
+		private final List<Integer> specializationIds;
+		private final List<String> specializations;
+		private final List<Integer> departmentIds;
+		private final List<String> departments;
+		private final NavigableMap<LocalDate, Integer> openSlots;
+		private final long detailsStamp;
+		private final long slotsStamp;
+
+		private Entry(Integer id, String name, Integer yearOfExperience, String profilePicPath) {
+			this(id, name, yearOfExperience, profilePicPath, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(),
+					new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new TreeMap<>(), 0L, 0L);
+		}
+
+		private Entry(Integer id, String name, Integer yearOfExperience, String profilePicPath, List<Integer> degreeIds, List<String> degrees,
+				List<Integer> specializationIds, List<String> specializations, List<Integer> departmentIds, List<String> departments,
+				NavigableMap<LocalDate, Integer> openSlots, long detailsStamp, long slotsStamp) {
+			this.id = id;
+			this.name = name;
+			this.lowerName = name == null ? "" : name.toLowerCase();
+			this.yearOfExperience = yearOfExperience;
+			this.profilePicPath = profilePicPath;
+			this.degreeIds = degreeIds;
+			this.degrees = degrees;
+			this.specializationIds = specializationIds;
+			this.specializations = specializations;
+			this.departmentIds = departmentIds;
+			this.departments = departments;
+			this.openSlots = openSlots;
+			this.detailsStamp = detailsStamp;
+			this.slotsStamp = slotsStamp;
+		}
+
+		private Entry withStamps(NavigableMap<LocalDate, Integer> openSlots, long detailsStamp, long slotsStamp) {
+			return new Entry(id, name, yearOfExperience, profilePicPath, degreeIds, degrees, specializationIds, specializations,
+					departmentIds, departments, openSlots, detailsStamp, slotsStamp);
+		}
+
+		private DSResponse toResponse() {
+			DSResponse response = new DSResponse();
+			response.setId(id);
+			response.setName(name);
+			response.setYearOfExperience(yearOfExperience);
+			response.setProfilePicPath(profilePicPath);
+			response.setDegrees(new ArrayList<>(degrees));
+			response.setSpecializations(new ArrayList<>(specializations));
+			response.setDepartments(new ArrayList<>(departments));
+			return response;
+		}
+	}
+
+	private static final class Match {
+
+		private final Entry entry;
+		private final LocalDate nextDate;
+
+		private Match(Entry entry, LocalDate nextDate) {
+			this.entry = entry;
+			this.nextDate = nextDate;
+		}
+	}
+}
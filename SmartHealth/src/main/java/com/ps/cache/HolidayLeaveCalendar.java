@@ -0,0 +1,208 @@
+package com.ps.cache;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ps.enu.LeaveStatus;
+import com.ps.repo.DoctorLeaveRepository;
+import com.ps.repo.HolidayRepository;
+
+/**
+ * In-memory calendar of holidays and approved doctor leaves.
+ * <p>
+ * Holidays are kept as a sorted date set and approved leaves as per-doctor sorted,
+ * non-overlapping date intervals, so blocked-day checks are O(log n) memory lookups
+ * instead of database queries. The calendar is loaded on first use, updated incrementally
+ * (after commit) when holidays or leaves change, and fully reloaded every
+ * {@code smarthealth.slots.calendar-refresh-interval-in-minutes} to pick up changes
+ * made by other application instances. An incremental update arriving during a reload waits
+ * for it and is applied to the reloaded calendar, as the reload may have read the database before the commit.
+ */
+@Component
+public class HolidayLeaveCalendar {
+
+	private static final Logger LOG = LoggerFactory.getLogger(HolidayLeaveCalendar.class);
+
+	@Autowired
+	private HolidayRepository holidayRepository;
+
+	@Autowired
+	private DoctorLeaveRepository leaveRepository;
+
+	private volatile NavigableSet<LocalDate> holidays;
+	private volatile Map<Integer, NavigableMap<LocalDate, LocalDate>> leaves;
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * Checks whether slots must not be generated for the given doctor on the given date.
+	 *
+	 * @param doctorId the doctor id
+	 * @param date     the date to check
+	 * @return {@code true} if the date is a Sunday, a holiday or an approved leave day of the doctor
+	 */
+	public boolean isBlocked(Integer doctorId, LocalDate date) {
+		return date.getDayOfWeek() == DayOfWeek.SUNDAY || isHoliday(date) || isOnLeave(doctorId, date);
+	}
+
+	/**
+	 * Checks whether the given date is a holiday.
+	 *
+	 * @param date the date to check
+	 * @return {@code true} if the date is a holiday
+	 */
+	public boolean isHoliday(LocalDate date) {
+		ensureLoaded();
+		return holidays.contains(date);
+	}
+
+	/**
+	 * Checks whether the given doctor has an approved leave on the given date.
+	 *
+	 * @param doctorId the doctor id
+	 * @param date     the date to check
+	 * @return {@code true} if an approved leave covers the date
+	 */
+	public boolean isOnLeave(Integer doctorId, LocalDate date) {
+		ensureLoaded();
+		NavigableMap<LocalDate, LocalDate> doctorLeaves = leaves.get(doctorId);
+		if (doctorLeaves == null) {
+			return false;
+		}
+		Map.Entry<LocalDate, LocalDate> leave = doctorLeaves.floorEntry(date);
+		return leave != null && !leave.getValue().isBefore(date);
+	}
+
+	/**
+	 * Registers a holiday once the current transaction (if any) commits.
+	 *
+	 * @param date the holiday date
+	 */
+	public void addHoliday(LocalDate date) {
+		afterCommit(() -> {
+			if (holidays != null)
+				holidays.add(date);
+		});
+	}
+
+	/**
+	 * Removes a holiday once the current transaction (if any) commits.
+	 *
+	 * @param date the holiday date
+	 */
+	public void removeHoliday(LocalDate date) {
+		afterCommit(() -> {
+			if (holidays != null)
+				holidays.remove(date);
+		});
+	}
+
+	/**
+	 * Registers an approved leave of a doctor once the current transaction (if any) commits.
+	 *
+	 * @param doctorId the doctor id
+	 * @param from     first day of the leave
+	 * @param to       last day of the leave
+	 */
+	public void addLeave(Integer doctorId, LocalDate from, LocalDate to) {
+		afterCommit(() -> {
+			Map<Integer, NavigableMap<LocalDate, LocalDate>> current = leaves;
+			if (current != null)
+				addLeave(current, doctorId, from, to);
+		});
+	}
+
+	/**
+	 * Reloads holidays and approved leaves from the database and swaps them in atomically.
+	 */
+	@Scheduled(fixedDelayString = "${smarthealth.slots.calendar-refresh-interval-in-minutes}", 
+			   initialDelayString = "${smarthealth.slots.calendar-refresh-interval-in-minutes}", timeUnit = TimeUnit.MINUTES)
+	public void reload() {
+		lock.lock();
+		try {
+			NavigableSet<LocalDate> loadedHolidays = new ConcurrentSkipListSet<>(holidayRepository.findAllHolidayDates());
+			Map<Integer, NavigableMap<LocalDate, LocalDate>> loadedLeaves = new ConcurrentHashMap<>();
+			for (Object[] leave : leaveRepository.findDoctorIdAndDatesByStatus(LeaveStatus.APPROVED)) {
+				addLeave(loadedLeaves, (Integer) leave[0], (LocalDate) leave[1], (LocalDate) leave[2]);
+			}
+			holidays = loadedHolidays;
+			leaves = loadedLeaves;
+			LOG.info("Holiday and leave calendar loaded; holidays: {}, doctorsWithLeaves: {}", loadedHolidays.size(), loadedLeaves.size());
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void ensureLoaded() {
+		if (holidays == null || leaves == null) {
+			lock.lock();
+			try {
+				if (holidays == null || leaves == null) {
+					reload();
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Adds a leave interval to a doctor's leaves, merging it with touching or overlapping intervals.
+	 */
+	private static void addLeave(Map<Integer, NavigableMap<LocalDate, LocalDate>> leaves, Integer doctorId, LocalDate from, LocalDate to) {
+		NavigableMap<LocalDate, LocalDate> doctorLeaves = leaves.computeIfAbsent(doctorId, id -> new ConcurrentSkipListMap<>());
+		synchronized (doctorLeaves) {
+			Map.Entry<LocalDate, LocalDate> floor = doctorLeaves.floorEntry(from);
+			if (floor != null && !floor.getValue().plusDays(1).isBefore(from)) {
+				from = floor.getKey();
+				to = floor.getValue().isAfter(to) ? floor.getValue() : to;
+			}
+			Map.Entry<LocalDate, LocalDate> next;
+			while ((next = doctorLeaves.ceilingEntry(from)) != null && !next.getKey().isAfter(to.plusDays(1))) {
+				to = next.getValue().isAfter(to) ? next.getValue() : to;
+				doctorLeaves.remove(next.getKey());
+			}
+			doctorLeaves.put(from, to);
+		}
+	}
+
+	private void afterCommit(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					applyLocked(action);
+				}
+			});
+		} else {
+			applyLocked(action);
+		}
+	}
+
+	/**
+	 * Applies an incremental update once no reload is running, so it lands in the calendar being swapped in.
+	 */
+	private void applyLocked(Runnable action) {
+		lock.lock();
+		try {
+			action.run();
+		} finally {
+			lock.unlock();
+		}
+	}
+}
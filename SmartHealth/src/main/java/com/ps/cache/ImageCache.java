@@ -0,0 +1,133 @@
+package com.ps.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+
+import com.ps.config.props.ImageProperties;
+import com.ps.constants.IExceptionConstants;
+import com.ps.dto.ImageFile;
+import com.ps.exception.ResourceException;
+import com.ps.util.DataUtil;
+
+/**
+ * Bounded, least recently used in-memory cache of small images.
+ * <p>
+ * Hot images like the default profile picture, rendered dozens of times by the find-a-doctor page,
+ * are served from memory; an entry is checked against the file on disk at most every
+ * {@code smarthealth.images.cache-revalidate-interval-in-seconds}. Images bigger than
+ * {@code smarthealth.images.cacheable-file-size-in-kb} are only resolved (size, last modified
+ * and entity tag) and left to be sent from disk.
+ */
+@Component
+public class ImageCache {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ImageCache.class);
+
+	@Autowired
+	private ImageProperties imageProperties;
+
+	// Access ordered, guarded by this
+	private final Map<Path, CachedImage> images = new LinkedHashMap<>(16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Path, CachedImage> eldest) {
+			return size() > imageProperties.getCacheSize();
+		}
+	};
+
+	/**
+	 * Resolves the image at given path, from memory when it is cached and recently checked.
+	 *
+	 * @param path the image path
+	 * @return the resolved image
+	 * @throws ResourceException if the image doesn't exist or can't be read
+	 */
+	public ImageFile get(Path path) {
+		return find(path).orElseThrow(() -> new ResourceException(IExceptionConstants.RESOURCE_NOT_FOUND + path, HttpStatus.INTERNAL_SERVER_ERROR));
+	}
+
+	/**
+	 * Resolves the image at given path if it exists, from memory when it is cached and recently checked.
+	 *
+	 * @param path the image path
+	 * @return the resolved image, empty if there is no such file
+	 * @throws ResourceException if the image can't be read
+	 */
+	public Optional<ImageFile> find(Path path) {
+		long now = System.currentTimeMillis();
+		CachedImage cached;
+		synchronized (this) {
+			cached = images.get(path);
+		}
+		if (cached != null && now - cached.checkedAt < imageProperties.getCacheRevalidateIntervalInSeconds() * 1000L) {
+			return Optional.of(cached.image);
+		}
+		return load(path, cached, now);
+	}
+
+	private Optional<ImageFile> load(Path path, CachedImage cached, long now) {
+		try {
+			BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+			if (!attributes.isRegularFile()) {
+				throw new NoSuchFileException(path.toString());
+			}
+			long size = attributes.size();
+			long lastModified = attributes.lastModifiedTime().toMillis();
+			if (cached != null && cached.image.getSize() == size && cached.image.getLastModified() == lastModified) {
+				cached.checkedAt = now;
+				return Optional.of(cached.image);
+			}
+
+			String eTag = DataUtil.getImageETag(size, lastModified);
+			MediaType contentType = MediaTypeFactory.getMediaType(path.getFileName().toString()).orElse(MediaType.APPLICATION_OCTET_STREAM);
+			if (size > imageProperties.getCacheableFileSizeInKb() * 1024L) {
+				remove(path);
+				return Optional.of(new ImageFile(path, size, lastModified, eTag, contentType, null));
+			}
+
+			ImageFile image = new ImageFile(path, size, lastModified, eTag, contentType, Files.readAllBytes(path));
+			synchronized (this) {
+				images.put(path, new CachedImage(image, now));
+			}
+			LOG.debug("Image cached: {}, size: {}", path, size);
+			return Optional.of(image);
+		} catch (NoSuchFileException exception) {
+			remove(path);
+			return Optional.empty();
+		} catch (IOException exception) {
+			LOG.error("IOException in ImageCache.load {}", exception.getMessage(), exception);
+			throw new ResourceException(IExceptionConstants.RESOURCE_FETCH_FAIL, HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+	}
+
+	private synchronized void remove(Path path) {
+		images.remove(path);
+	}
+
+	private static final class CachedImage {
+
+		private final ImageFile image;
+		private volatile long checkedAt;
+
+		private CachedImage(ImageFile image, long checkedAt) {
+			this.image = image;
+			this.checkedAt = checkedAt;
+		}
+	}
+}
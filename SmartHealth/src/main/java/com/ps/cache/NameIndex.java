@@ -0,0 +1,366 @@
+package com.ps.cache;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.ps.config.props.SearchProperties;
+import com.ps.dto.NameFilter;
+import com.ps.event.DoctorChangedEvent;
+import com.ps.event.PatientChangedEvent;
+import com.ps.repo.DoctorRepository;
+import com.ps.repo.DoctorRepository.DoctorIdNameProjection;
+import com.ps.repo.PatientRepository;
+import com.ps.repo.PatientRepository.PatientIdNameProjection;
+
+/**
+ * In-memory trigram index of doctor and patient names.
+ * <p>
+ * Resolves a name filter, which the repositories would otherwise match with
+ * {@code LOWER(name) LIKE '%text%'} on every row, to the ids of the matching doctors or patients,
+ * so that queries are constrained with {@code id IN (...)} instead. Candidates are the ids of the
+ * rarest trigram of the searched text, each verified against the lowercase name, so results
+ * are exactly those of the {@code LIKE}. Filters shorter than a trigram, containing {@code LIKE}
+ * wildcards, or matching more than {@code smarthealth.search.name-index-max-ids} ids are left to the query.
+ * <p>
+ * The index is built once the application is ready and updated (after commit) when a doctor or
+ * patient registers or updates the profile. Changes made by other application instances are synced
+ * every {@code smarthealth.search.name-index-sync-interval-in-seconds} from the doctors and patients
+ * created or updated since the previous sync, and the index is rebuilt every
+ * {@code smarthealth.search.name-index-refresh-interval-in-minutes}. Changes made while it is rebuilt
+ * are applied again to the rebuilt index once it is swapped in.
+ */
+@Component
+public class NameIndex {
+
+	private static final Logger LOG = LoggerFactory.getLogger(NameIndex.class);
+	private static final int LOAD_BATCH_SIZE = 10_000;
+	// Changes are synced from a bit before the previous sync, to cover transactions committed after it
+	// with an earlier timestamp, and clock differences between application instances
+	private static final long SYNC_OVERLAP_IN_SECONDS = 60;
+
+	@Autowired
+	private DoctorRepository doctorRepository;
+
+	@Autowired
+	private PatientRepository patientRepository;
+
+	@Autowired
+	private SearchProperties searchProperties;
+
+	private volatile Names doctors;
+	private volatile Names patients;
+	private volatile boolean reloading;
+	private volatile LocalDateTime syncedAt;
+	private final Set<Integer> reloadChangedDoctorIds = ConcurrentHashMap.newKeySet();
+	private final Set<Integer> reloadChangedPatientIds = ConcurrentHashMap.newKeySet();
+	private final ReentrantLock reloadLock = new ReentrantLock();
+
+	/**
+	 * Resolves a doctor name filter.
+	 *
+	 * @param name the searched text, may be {@code null}
+	 * @return the filter to pass to the repository
+	 */
+	public NameFilter resolveDoctorName(String name) {
+		return resolve(doctors, name);
+	}
+
+	/**
+	 * Resolves a patient name filter.
+	 *
+	 * @param name the searched text, may be {@code null}
+	 * @return the filter to pass to the repository
+	 */
+	public NameFilter resolvePatientName(String name) {
+		return resolve(patients, name);
+	}
+
+	/**
+	 * Updates the name of a registered or updated doctor, once the change is committed.
+	 *
+	 * @param event the doctor change event
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onDoctorChanged(DoctorChangedEvent event) {
+		if (reloading)
+			reloadChangedDoctorIds.add(event.getDoctorId());
+		updateDoctor(doctors, event.getDoctorId());
+	}
+
+	/**
+	 * Updates the name of a registered or updated patient, once the change is committed.
+	 *
+	 * @param event the patient change event
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onPatientChanged(PatientChangedEvent event) {
+		if (reloading)
+			reloadChangedPatientIds.add(event.getPatientId());
+		updatePatient(patients, event.getPatientId());
+	}
+
+	/**
+	 * Builds the index once the application is ready; until then name filters are left to the queries.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void init() {
+		reload();
+	}
+
+	/**
+	 * Rebuilds both indexes from the database and swaps them in atomically, then applies the changes
+	 * notified while they were loaded, which the loaded indexes may have missed.
+	 */
+	@Scheduled(fixedDelayString = "${smarthealth.search.name-index-refresh-interval-in-minutes}",
+			   initialDelayString = "${smarthealth.search.name-index-refresh-interval-in-minutes}", timeUnit = TimeUnit.MINUTES)
+	public void reload() {
+		reloadLock.lock();
+		reloading = true;
+		try {
+			long start = System.currentTimeMillis();
+			LocalDateTime loadedAt = LocalDateTime.now();
+			Names loadedDoctors = new Names();
+			List<DoctorIdNameProjection> doctorBatch;
+			int afterId = 0;
+			do {
+				doctorBatch = doctorRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+				for (DoctorIdNameProjection doctor : doctorBatch) {
+					loadedDoctors.put(doctor.getId(), doctor.getName());
+					afterId = doctor.getId();
+				}
+			} while (doctorBatch.size() == LOAD_BATCH_SIZE);
+
+			Names loadedPatients = new Names();
+			List<PatientIdNameProjection> patientBatch;
+			afterId = 0;
+			do {
+				patientBatch = patientRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+				for (PatientIdNameProjection patient : patientBatch) {
+					loadedPatients.put(patient.getId(), patient.getName());
+					afterId = patient.getId();
+				}
+			} while (patientBatch.size() == LOAD_BATCH_SIZE);
+
+			doctors = loadedDoctors;
+			patients = loadedPatients;
+			syncedAt = loadedAt;
+			LOG.info("Name index loaded; doctors: {}, patients: {}, Time Taken:{}ms", loadedDoctors.size(), loadedPatients.size(), System.currentTimeMillis() - start);
+		} finally {
+			reloading = false;
+			for (Iterator<Integer> ids = reloadChangedDoctorIds.iterator(); ids.hasNext();) {
+				updateDoctor(doctors, ids.next());
+				ids.remove();
+			}
+			for (Iterator<Integer> ids = reloadChangedPatientIds.iterator(); ids.hasNext();) {
+				updatePatient(patients, ids.next());
+				ids.remove();
+			}
+			reloadLock.unlock();
+		}
+	}
+
+	/**
+	 * Applies the names of the doctors and patients created or updated since the previous sync,
+	 * including by other application instances. Skipped while the index is not loaded or being rebuilt.
+	 */
+	@Scheduled(fixedDelayString = "${smarthealth.search.name-index-sync-interval-in-seconds}",
+			   initialDelayString = "${smarthealth.search.name-index-sync-interval-in-seconds}", timeUnit = TimeUnit.SECONDS)
+	public void sync() {
+		if (!reloadLock.tryLock())
+			return;
+		try {
+			Names currentDoctors = doctors;
+			Names currentPatients = patients;
+			if (currentDoctors == null || currentPatients == null)
+				return;
+			LocalDateTime now = LocalDateTime.now();
+			LocalDateTime since = syncedAt.minusSeconds(SYNC_OVERLAP_IN_SECONDS);
+			List<DoctorIdNameProjection> changedDoctors = doctorRepository.findChangedSince(since);
+			for (DoctorIdNameProjection doctor : changedDoctors) {
+				currentDoctors.put(doctor.getId(), doctor.getName());
+			}
+			List<PatientIdNameProjection> changedPatients = patientRepository.findChangedSince(since);
+			for (PatientIdNameProjection patient : changedPatients) {
+				currentPatients.put(patient.getId(), patient.getName());
+			}
+			syncedAt = now;
+			LOG.debug("Name index synced; doctors: {}, patients: {}", changedDoctors.size(), changedPatients.size());
+		} finally {
+			reloadLock.unlock();
+		}
+	}
+
+	private void updateDoctor(Names names, Integer id) {
+		if (names != null)
+			names.put(id, doctorRepository.findNameById(id).orElse(null));
+	}
+
+	private void updatePatient(Names names, Integer id) {
+		if (names != null)
+			names.put(id, patientRepository.findNameById(id).orElse(null));
+	}
+
+	private NameFilter resolve(Names names, String name) {
+		if (name == null || names == null)
+			return NameFilter.byName(name);
+		String text = normalize(name);
+		if (text.length() < 3 || text.indexOf('%') >= 0 || text.indexOf('_') >= 0)
+			return NameFilter.byName(name);
+		List<Integer> ids = names.find(text, searchProperties.getNameIndexMaxIds());
+		return ids == null ? NameFilter.byName(name) : NameFilter.byIds(ids);
+	}
+
+	private static String normalize(String name) {
+		return name.toLowerCase(Locale.ROOT);
+	}
+
+	private static long[] trigrams(String text) {
+		if (text.length() < 3)
+			return new long[0];
+		long[] keys = new long[text.length() - 2];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+		}
+		Arrays.sort(keys);
+		int distinct = 0;
+		for (int i = 0; i < keys.length; i++) {
+			if (i == 0 || keys[i] != keys[i - 1])
+				keys[distinct++] = keys[i];
+		}
+		return Arrays.copyOf(keys, distinct);
+	}
+
+	/**
+	 * Lowercase names by id, with a posting list of ids per trigram.
+	 */
+	private static final class Names {
+
+		private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+		private final Map<Long, Postings> postings = new HashMap<>();
+		// Indexed by id, ids are dense as they are generated by the database
+		private String[] names = new String[1024];
+		private int size;
+
+		private int size() {
+			lock.readLock().lock();
+			try {
+				return size;
+			} finally {
+				lock.readLock().unlock();
+			}
+		}
+
+		private void put(int id, String name) {
+			lock.writeLock().lock();
+			try {
+				if (id < names.length && names[id] != null) {
+					for (long key : trigrams(names[id])) {
+						Postings ids = postings.get(key);
+						ids.remove(id);
+						if (ids.size == 0)
+							postings.remove(key);
+					}
+					names[id] = null;
+					size--;
+				}
+				if (name == null)
+					return;
+				if (id >= names.length)
+					names = Arrays.copyOf(names, Math.max(id + 1, names.length * 2));
+				String text = normalize(name);
+				names[id] = text;
+				size++;
+				for (long key : trigrams(text)) {
+					postings.computeIfAbsent(key, k -> new Postings()).add(id);
+				}
+			} finally {
+				lock.writeLock().unlock();
+			}
+		}
+
+		/**
+		 * Finds the ids whose name contains given text, of at least three characters.
+		 *
+		 * @return the ids in ascending order, {@code null} if there are more than {@code max}
+		 */
+		private List<Integer> find(String text, int max) {
+			lock.readLock().lock();
+			try {
+				Postings rarest = null;
+				for (long key : trigrams(text)) {
+					Postings ids = postings.get(key);
+					if (ids == null)
+						return List.of();
+					if (rarest == null || ids.size < rarest.size)
+						rarest = ids;
+				}
+				List<Integer> matches = new ArrayList<>();
+				for (int i = 0; i < rarest.size; i++) {
+					int id = rarest.ids[i];
+					if (names[id].contains(text)) {
+						if (matches.size() == max)
+							return null;
+						matches.add(id);
+					}
+				}
+				return matches;
+			} finally {
+				lock.readLock().unlock();
+			}
+		}
+	}
+
+	/**
+	 * Sorted, growable list of ids.
+	 */
+	private static final class Postings {
+
+		private int[] ids = new int[4];
+		private int size;
+
+		private void add(int id) {
+			if (size == ids.length)
+				ids = Arrays.copyOf(ids, size * 2);
+			if (size == 0 || ids[size - 1] < id) {
+				ids[size++] = id;
+				return;
+			}
+			int index = Arrays.binarySearch(ids, 0, size, id);
+			if (index >= 0)
+				return;
+			index = -index - 1;
+			System.arraycopy(ids, index, ids, index + 1, size - index);
+			ids[index] = id;
+			size++;
+		}
+
+		private void remove(int id) {
+			int index = Arrays.binarySearch(ids, 0, size, id);
+			if (index < 0)
+				return;
+			System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+			size--;
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package com.ps.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps track of the reference data caches (degrees, departments, specializations,
+ * relations and holidays) filled by {@link org.springframework.cache.annotation.Cacheable} methods.
+ * <p>
+ * Every cache has a last modified time, reset whenever the cache is evicted, from which the
+ * {@code ETag} and {@code Last-Modified} validators of the reference data endpoints are built,
+ * so that browsers can revalidate with a {@code 304 Not Modified} response without any database hit.
+ */
+@Component
+public class ReferenceDataCache {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ReferenceDataCache.class);
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	private final long startedAt = System.currentTimeMillis();
+	private final Map<String, Long> lastModified = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the time the given cache was last evicted, or application start time if it never was.
+	 *
+	 * @param cacheName the cache name
+	 * @return last modified time in epoch milliseconds
+	 */
+	public long getLastModified(String cacheName) {
+		return lastModified.getOrDefault(cacheName, startedAt);
+	}
+
+	/**
+	 * Returns the entity tag of the current content of the given cache.
+	 *
+	 * @param cacheName the cache name
+	 * @return the entity tag
+	 */
+	public String getETag(String cacheName) {
+		return "\"" + cacheName + "-" + getLastModified(cacheName) + "\"";
+	}
+
+	/**
+	 * Clears the given cache once the current transaction (if any) commits,
+	 * so that the next read reloads it from database and clients get a new entity tag.
+	 *
+	 * @param cacheName the cache name
+	 */
+	public void evict(String cacheName) {
+		Runnable action = () -> {
+			Cache cache = cacheManager.getCache(cacheName);
+			if (cache != null)
+				cache.clear();
+			// Never go back in time, so that an entity tag can't be reused for different content
+			lastModified.merge(cacheName, System.currentTimeMillis(), (previous, now) -> Math.max(previous + 1, now));
+			LOG.info("Reference data cache evicted: {}", cacheName);
+		};
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		} else {
+			action.run();
+		}
+	}
+}
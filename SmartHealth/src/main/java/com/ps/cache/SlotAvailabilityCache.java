@@ -0,0 +1,247 @@
+package com.ps.cache;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.ps.config.props.SlotsProperties;
+import com.ps.dto.response.AVResponse;
+import com.ps.event.AppointmentChangedEvent;
+import com.ps.event.SlotsChangedEvent;
+import com.ps.repo.AvailabilityRepository;
+import com.ps.util.VirtualSlots;
+
+/**
+ * Bounded, least recently used in-memory cache of the bookable ({@code AVAILABLE} and
+ * {@code RE_AVAILABLE}) slots of doctors, from today onwards.
+ * <p>
+ * Per cached doctor and day it keeps the slot ids with their start and end second of the day,
+ * sorted by start time, in plain arrays; the slots patients can book are answered from memory.
+ * A doctor is loaded on first use with a single indexed query. The days of a cached doctor are
+ * reloaded (after commit) when their slots or appointments change, the whole doctor when the
+ * changed days are not known, and an entry older than
+ * {@code smarthealth.slots.view-cache-ttl-in-seconds} is reloaded to pick up changes
+ * made by other application instances. When virtual slots are enabled, the {@link VirtualSlots} of the
+ * doctor are cached along with the stored ones.
+ */
+@Component
+public class SlotAvailabilityCache {
+
+	private static final Logger LOG = LoggerFactory.getLogger(SlotAvailabilityCache.class);
+
+	@Autowired
+	private AvailabilityRepository availabilityRepository;
+
+	@Autowired
+	private SlotsProperties slotsProperties;
+
+	@Autowired
+	private VirtualSlots virtualSlots;
+
+	// Access ordered, guarded by this
+	private final Map<Integer, DoctorSlots> doctors = new LinkedHashMap<>(16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, DoctorSlots> eldest) {
+			return size() > slotsProperties.getViewCacheSize();
+		}
+	};
+
+	// Incremented on every change of a doctor, a load of the doctor started before a change is not cached.
+	// Never removed, so that a doctor evicted and changed again does not get back an earlier stamp
+	private final ConcurrentMap<Integer, Long> changes = new ConcurrentHashMap<>();
+
+	/**
+	 * Retrieves the bookable slots of a doctor, grouped by date.
+	 * <ul>
+	 *   <li>When the date is not given or is in the past, the slots from now onwards.</li>
+	 *   <li>When the date is today, the slots of today not yet ended.</li>
+	 *   <li>When the date is in the future, the slots of that date.</li>
+	 * </ul>
+	 *
+	 * @param doctorId the doctor's ID
+	 * @param date     the requested date, may be {@code null}
+	 * @return a sorted map of the slots (ID, start and end time) per date
+	 */
+	public Map<LocalDate, List<AVResponse>> viewSlots(Integer doctorId, LocalDate date) {
+		LocalDate today = LocalDate.now();
+		int now = LocalTime.now().toSecondOfDay();
+		NavigableMap<LocalDate, DaySlots> days = get(doctorId, today).days;
+
+		Map<LocalDate, List<AVResponse>> responseMap = new TreeMap<>();
+		if (date != null && date.isAfter(today)) {
+			DaySlots day = days.get(date);
+			if (day != null)
+				responseMap.put(date, day.toResponses(-1));
+			return responseMap;
+		}
+		NavigableMap<LocalDate, DaySlots> range = date != null && date.isEqual(today)
+				? days.subMap(today, true, today, true)
+				: days.tailMap(today, true);
+		for (Map.Entry<LocalDate, DaySlots> entry : range.entrySet()) {
+			List<AVResponse> slots = entry.getValue().toResponses(entry.getKey().isEqual(today) ? now : -1);
+			if (!slots.isEmpty())
+				responseMap.put(entry.getKey(), slots);
+		}
+		return responseMap;
+	}
+
+	/**
+	 * Reloads the days of a cached doctor whose appointments changed, once the change is committed.
+	 *
+	 * @param event the appointment change event
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onAppointmentChanged(AppointmentChangedEvent event) {
+		refresh(event.getDoctorId(), event.getDates());
+	}
+
+	/**
+	 * Reloads the days of a cached doctor whose slots were generated, deleted or cancelled, once the change is committed.
+	 *
+	 * @param event the slots change event
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onSlotsChanged(SlotsChangedEvent event) {
+		refresh(event.getDoctorId(), event.getDates());
+	}
+
+	private DoctorSlots get(Integer doctorId, LocalDate today) {
+		long now = System.currentTimeMillis();
+		DoctorSlots cached;
+		synchronized (this) {
+			cached = doctors.get(doctorId);
+		}
+		if (cached != null && now - cached.loadedAt < slotsProperties.getViewCacheTtlInSeconds() * 1000L)
+			return cached;
+
+		long stamp = changes.getOrDefault(doctorId, 0L);
+		List<Object[]> rows = new ArrayList<>(availabilityRepository.findBookableSlotsByDoctorIdFrom(doctorId, today));
+		rows.addAll(virtualSlots.findOpenSlots(doctorId, null));
+		DoctorSlots loaded = new DoctorSlots(now, group(rows));
+		synchronized (this) {
+			if (changes.getOrDefault(doctorId, 0L) == stamp)
+				doctors.put(doctorId, loaded);
+		}
+		LOG.debug("Slots cached for doctorId: {}, days: {}", doctorId, loaded.days.size());
+		return loaded;
+	}
+
+	private void refresh(Integer doctorId, Collection<LocalDate> dates) {
+		if (doctorId == null)
+			return;
+		long stamp = changes.merge(doctorId, 1L, Long::sum);
+		DoctorSlots cached;
+		synchronized (this) {
+			cached = doctors.get(doctorId);
+			if (cached == null || dates == null || dates.isEmpty()) {
+				doctors.remove(doctorId);
+				return;
+			}
+		}
+		List<Object[]> rows = new ArrayList<>(availabilityRepository.findBookableSlotsByDoctorIdAndDateIn(doctorId, dates));
+		rows.addAll(virtualSlots.findOpenSlots(doctorId, dates));
+		Map<LocalDate, DaySlots> reloaded = group(rows);
+		synchronized (this) {
+			if (changes.get(doctorId) != stamp || doctors.get(doctorId) != cached) {
+				// Raced with another change, the next lookup loads the doctor again
+				doctors.remove(doctorId);
+				return;
+			}
+			NavigableMap<LocalDate, DaySlots> days = new TreeMap<>(cached.days);
+			for (LocalDate date : dates) {
+				DaySlots day = reloaded.get(date);
+				if (day == null)
+					days.remove(date);
+				else
+					days.put(date, day);
+			}
+			doctors.put(doctorId, new DoctorSlots(cached.loadedAt, days));
+		}
+	}
+
+	/**
+	 * Groups the rows (id, date, start time, end time) of slots by date.
+	 */
+	private static NavigableMap<LocalDate, DaySlots> group(List<Object[]> rows) {
+		Map<LocalDate, List<Object[]>> rowsByDate = new HashMap<>();
+		for (Object[] row : rows) {
+			rowsByDate.computeIfAbsent((LocalDate) row[1], date -> new ArrayList<>()).add(row);
+		}
+		NavigableMap<LocalDate, DaySlots> days = new TreeMap<>();
+		rowsByDate.forEach((date, dateRows) -> days.put(date, new DaySlots(dateRows)));
+		return days;
+	}
+
+	/**
+	 * Cached slots of a doctor, from the day they were loaded onwards. Immutable once cached.
+	 */
+	private static final class DoctorSlots {
+
+		private final long loadedAt;
+		private final NavigableMap<LocalDate, DaySlots> days;
+
+		private DoctorSlots(long loadedAt, NavigableMap<LocalDate, DaySlots> days) {
+			this.loadedAt = loadedAt;
+			this.days = days;
+		}
+	}
+
+	/**
+	 * Slots of a doctor on a day, sorted by start time.
+	 */
+	private static final class DaySlots {
+
+		private final int[] ids;
+		private final int[] startSeconds;
+		private final int[] endSeconds;
+
+		private DaySlots(List<Object[]> rows) {
+			Object[][] sorted = rows.toArray(new Object[0][]);
+			Arrays.sort(sorted, (a, b) -> ((LocalTime) a[2]).compareTo((LocalTime) b[2]));
+			ids = new int[sorted.length];
+			startSeconds = new int[sorted.length];
+			endSeconds = new int[sorted.length];
+			for (int i = 0; i < sorted.length; i++) {
+				ids[i] = (Integer) sorted[i][0];
+				startSeconds[i] = ((LocalTime) sorted[i][2]).toSecondOfDay();
+				endSeconds[i] = ((LocalTime) sorted[i][3]).toSecondOfDay();
+			}
+		}
+
+		/**
+		 * Maps the slots ending after given second of the day to responses.
+		 */
+		private List<AVResponse> toResponses(int afterSecond) {
+			List<AVResponse> responses = new ArrayList<>(ids.length);
+			for (int i = 0; i < ids.length; i++) {
+				if (endSeconds[i] <= afterSecond)
+					continue;
+				AVResponse response = new AVResponse();
+				response.setId(ids[i]);
+				response.setStartTime(LocalTime.ofSecondOfDay(startSeconds[i]));
+				response.setEndTime(LocalTime.ofSecondOfDay(endSeconds[i]));
+				responses.add(response);
+			}
+			return responses;
+		}
+	}
+}
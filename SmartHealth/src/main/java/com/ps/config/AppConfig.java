@@ -1,5 +1,7 @@
 package com.ps.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -7,18 +9,22 @@
 
 /**
  * Configuration class for application-wide beans and settings.
+ * Also enables caching of reference data, see {@link com.ps.cache.ReferenceDataCache}.
  */
 @Configuration
+@EnableCaching
 public class AppConfig {
 	
 	/**
      * Creates and registers a BCryptPasswordEncoder bean for password encryption.
-     * This bean is used by Spring Security to hash and verify passwords.
+     * This bean is used by Spring Security to hash and verify passwords,
+     * see {@link com.ps.util.PasswordUtil} for hashing on request paths.
      *
+     * @param strength the BCrypt cost of new hashes
      * @return a BCryptPasswordEncoder instance
      */
 	@Bean
-	PasswordEncoder passwordEncoder() { 
-		return new BCryptPasswordEncoder();
+	PasswordEncoder passwordEncoder(@Value("${smarthealth.password.bcrypt-strength}") int strength) { 
+		return new BCryptPasswordEncoder(strength);
 	}
 }
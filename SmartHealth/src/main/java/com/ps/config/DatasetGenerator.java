@@ -0,0 +1,359 @@
+package com.ps.config;
+
+import java.sql.Types;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.ps.cache.DoctorSearchIndex;
+import com.ps.cache.HolidayLeaveCalendar;
+import com.ps.cache.NameIndex;
+import com.ps.config.props.DatagenProperties;
+import com.ps.constants.ICommonConstants;
+import com.ps.constants.IDoctorConstants;
+import com.ps.constants.IPatientConstants;
+import com.ps.entity.Availability;
+import com.ps.entity.Doctor;
+import com.ps.entity.SlotInput;
+import com.ps.enu.AGMode;
+import com.ps.enu.AppointmentStatus;
+import com.ps.enu.LeaveStatus;
+import com.ps.enu.SlotStatus;
+import com.ps.schedule.AppointmentRollupUpdater;
+import com.ps.util.AvailabilityUtil;
+
+/**
+ * Generates a synthetic, production-sized dataset when the application runs with the
+ * {@value ICommonConstants#DATAGEN_PROFILE} profile, for load tests and benchmarks, e.g.
+ * {@code gradle bootRun --args='--spring.profiles.active=datagen --smarthealth.datagen.doctors=2000'}
+ * against MySQL, or against H2 with
+ * {@code --spring.datasource.url=jdbc:h2:file:./build/datagen/smarthealth;MODE=MySQL;DATABASE_TO_LOWER=TRUE}.
+ * <p>
+ * The dataset, sized by the {@code smarthealth.datagen} properties, holds doctors with their degrees,
+ * departments, specializations and AG preferences, patients with their sub profiles, holidays, doctor leaves
+ * in every {@link LeaveStatus}, {@code slot-months} months of slots split from the AG preference of each doctor,
+ * skipping the days {@link HolidayLeaveCalendar#isBlocked} would (Sundays, holidays and approved leaves), and
+ * appointments on {@code booked-percentage} percent of them, in every {@link AppointmentStatus} consistent with
+ * the date of the slot relative to today, the middle of the slot months when a start date is configured.
+ * <p>
+ * Rows are written with explicit ids following the existing ones, as multi-row inserts of
+ * {@code batch-size} rows, so tens of millions of slots take minutes rather than hours.
+ * All values are drawn from a single random generator seeded with {@code seed} and every date and timestamp derives
+ * from the start date, so the same seed and start date always produce the same dataset, a start date is therefore
+ * required for reproducible runs. The password hash, computed once for every user, is the only exception.
+ * Generation is skipped when the database already holds doctors or patients.
+ */
+@Component
+@Profile(ICommonConstants.DATAGEN_PROFILE)
+public class DatasetGenerator implements CommandLineRunner {
+
+	private static final Logger LOG = LoggerFactory.getLogger(DatasetGenerator.class);
+	private static final String[] GENDERS = {"Male", "Female"};
+	private static final int[] GAPS_IN_MINUTES = {10, 15, 20, 30};
+	private static final AGMode[] AG_MODES = {AGMode.AUTO, AGMode.CUSTOM_CONTINUOUS};
+	// Typed null, so that the driver isn't asked for the type of the parameter
+	private static final SqlParameterValue NO_NOTE = new SqlParameterValue(Types.VARCHAR, null);
+	private static final LeaveStatus[] LEAVE_STATUSES = LeaveStatus.values();
+	private static final AppointmentStatus[] PAST_STATUSES = {AppointmentStatus.COMPLETED, AppointmentStatus.COMPLETED,
+			AppointmentStatus.COMPLETED, AppointmentStatus.COMPLETED, AppointmentStatus.COMPLETED, AppointmentStatus.COMPLETED,
+			AppointmentStatus.COMPLETED, AppointmentStatus.P_CANCELLED, AppointmentStatus.D_CANCELLED, AppointmentStatus.REJECTED};
+	private static final AppointmentStatus[] FUTURE_STATUSES = {AppointmentStatus.BOOKED, AppointmentStatus.BOOKED,
+			AppointmentStatus.BOOKED, AppointmentStatus.BOOKED, AppointmentStatus.APPROVED, AppointmentStatus.APPROVED,
+			AppointmentStatus.APPROVED, AppointmentStatus.P_CANCELLED, AppointmentStatus.D_CANCELLED, AppointmentStatus.REJECTED};
+
+	@Autowired
+	private DatagenProperties datagenProperties;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private AppointmentRollupUpdater appointmentRollupUpdater;
+
+	@Autowired
+	private HolidayLeaveCalendar holidayLeaveCalendar;
+
+	@Autowired
+	private DoctorSearchIndex doctorSearchIndex;
+
+	@Autowired
+	private NameIndex nameIndex;
+
+	@Autowired
+	private ApplicationContext applicationContext;
+
+	@Override
+	public void run(String... args) {
+		if (count("doctor") > 0 || count("patient") > 0) {
+			LOG.warn("Dataset generation skipped, the database already holds doctors or patients");
+		} else {
+			generate();
+			appointmentRollupUpdater.rebuild();
+			holidayLeaveCalendar.reload();
+			doctorSearchIndex.reload();
+			nameIndex.reload();
+		}
+		if (Boolean.TRUE.equals(datagenProperties.getExitOnCompletion()))
+			System.exit(SpringApplication.exit(applicationContext));
+	}
+
+	private void generate() {
+		long start = System.currentTimeMillis();
+		SplittableRandom random = new SplittableRandom(datagenProperties.getSeed());
+		int months = Math.max(1, datagenProperties.getSlotMonths());
+		LocalDate from;
+		// The day splitting past from future appointments
+		LocalDate today;
+		if (datagenProperties.getStartDate() == null || datagenProperties.getStartDate().isBlank()) {
+			LOG.warn("No start date configured, the dataset depends on the day of generation");
+			today = LocalDate.now();
+			from = today.withDayOfMonth(1).minusMonths(months / 2);
+		} else {
+			from = LocalDate.parse(datagenProperties.getStartDate());
+			today = from.plusMonths(months / 2);
+		}
+		LocalDate to = from.plusMonths(months);
+		LocalDateTime createdAt = from.minusMonths(1).atStartOfDay();
+		String password = passwordEncoder.encode(datagenProperties.getPassword());
+		int batchSize = Math.max(1, datagenProperties.getBatchSize());
+
+		List<Integer> degrees = jdbcTemplate.queryForList("SELECT id FROM degree ORDER BY id", Integer.class);
+		List<Integer> departments = jdbcTemplate.queryForList("SELECT id FROM department ORDER BY id", Integer.class);
+		List<Integer> specializations = jdbcTemplate.queryForList("SELECT id FROM specialization ORDER BY id", Integer.class);
+		List<Integer> relations = jdbcTemplate.queryForList("SELECT id FROM relation ORDER BY id", Integer.class);
+
+		// Holidays
+		Set<LocalDate> holidays = new TreeSet<>();
+		int span = (int) ChronoUnit.DAYS.between(from, to);
+		int holidayCount = Math.min(datagenProperties.getHolidays(), span);
+		while (holidays.size() < holidayCount) {
+			holidays.add(from.plusDays(random.nextInt(span)));
+		}
+		BatchInsert holidayInsert = new BatchInsert("holiday", "id, holiday_date, reason, creation_time", batchSize);
+		int holidayId = nextId("holiday");
+		for (LocalDate holiday : holidays) {
+			holidayInsert.add(holidayId, holiday, "Holiday " + holidayId, createdAt);
+			holidayId++;
+		}
+		holidayInsert.flush();
+
+		// Patients and sub profiles
+		int patients = datagenProperties.getPatients();
+		int firstPatientId = nextId("patient");
+		int[] firstSubProfileIds = new int[patients];
+		int[] subProfileCounts = new int[patients];
+		BatchInsert patientInsert = new BatchInsert("patient",
+				"id, name, email, phone, password, dob, gender, height, weight, is_active, profile_complete, creation_time", batchSize);
+		BatchInsert patientRoleInsert = new BatchInsert("patient_roles", "patient_id, roles", batchSize, patientInsert);
+		BatchInsert subProfileInsert = new BatchInsert("sub_profile", "id, patient_id, relation_id, name, phone", batchSize, patientInsert);
+		int subProfileId = nextId("sub_profile");
+		for (int i = 0; i < patients; i++) {
+			int patientId = firstPatientId + i;
+			patientInsert.add(patientId, "Patient " + patientId, "patient" + patientId + "@datagen.smarthealth.com",
+					String.format("9%09d", patientId), password, LocalDate.of(1950, 1, 1).plusDays(random.nextInt(25_000)),
+					GENDERS[random.nextInt(GENDERS.length)], 140 + random.nextInt(60), 40 + random.nextInt(70), true, true, createdAt);
+			patientRoleInsert.add(patientId, IPatientConstants.PATIENT_ROLE);
+			firstSubProfileIds[i] = subProfileId;
+			subProfileCounts[i] = relations.isEmpty() ? 0 : random.nextInt(datagenProperties.getMaxSubProfilesPerPatient() + 1);
+			for (int j = 0; j < subProfileCounts[i]; j++) {
+				subProfileInsert.add(subProfileId, patientId, relations.get(random.nextInt(relations.size())),
+						"Member " + subProfileId, String.format("7%09d", subProfileId));
+				subProfileId++;
+			}
+		}
+		subProfileInsert.flush();
+		patientRoleInsert.flush();
+
+		// Doctors, AG preferences, leaves, slots and appointments
+		int doctors = datagenProperties.getDoctors();
+		int firstDoctorId = nextId("doctor");
+		int slotInputId = nextId("slot_input");
+		int leaveId = nextId("doctor_leave");
+		int slotId = nextId("availability");
+		int appointmentId = nextId("appointment");
+		BatchInsert doctorInsert = new BatchInsert("doctor", "id, name, email, phone, password, dob, gender, year_of_experience, "
+				+ "address, registration_number, profile_complete, is_active, creation_time", batchSize);
+		BatchInsert doctorRoleInsert = new BatchInsert("doctor_roles", "doctor_id, roles", batchSize, doctorInsert);
+		BatchInsert doctorDegreeInsert = new BatchInsert("doctor_degrees", "doctor_id, degrees_id", batchSize, doctorInsert);
+		BatchInsert doctorDepartmentInsert = new BatchInsert("doctor_departments", "doctor_id, departments_id", batchSize, doctorInsert);
+		BatchInsert doctorSpecializationInsert = new BatchInsert("doctor_specializations", "doctor_id, specializations_id", batchSize, doctorInsert);
+		BatchInsert slotInputInsert = new BatchInsert("slot_input", "id, start_time, end_time, gap_in_minutes", batchSize);
+		BatchInsert preferenceInsert = new BatchInsert("ag_preference", "doctor_id, mode, days_ahead, start_date, last_generated_on, "
+				+ "is_active, skip_holiday, created_at", batchSize, doctorInsert);
+		BatchInsert preferenceSlotInputInsert = new BatchInsert("ag_preference_slot_inputs", "agpreference_doctor_id, slot_inputs_id",
+				batchSize, slotInputInsert, preferenceInsert);
+		BatchInsert leaveInsert = new BatchInsert("doctor_leave", "id, doctor_id, from_date, to_date, days, reason, status, creation_time",
+				batchSize, doctorInsert);
+		BatchInsert slotInsert = new BatchInsert("availability", "id, doctor_id, date, start_time, end_time, status, mode, created_at",
+				batchSize, doctorInsert);
+		BatchInsert appointmentInsert = new BatchInsert("appointment", "id, availability_id, patient_id, sub_profile_id, created_at, note, status",
+				batchSize, slotInsert, patientInsert, subProfileInsert);
+		int leaves = datagenProperties.getLeavesPerDoctor();
+		int periodDays = leaves > 0 ? span / leaves : 0;
+		int bookedPercentage = patients > 0 ? datagenProperties.getBookedPercentage() : 0;
+		for (int i = 0; i < doctors; i++) {
+			int doctorId = firstDoctorId + i;
+			doctorInsert.add(doctorId, "Doctor " + doctorId, "doctor" + doctorId + "@datagen.smarthealth.com",
+					String.format("8%09d", doctorId), password, LocalDate.of(1950, 1, 1).plusDays(random.nextInt(15_000)),
+					GENDERS[random.nextInt(GENDERS.length)], 1 + random.nextInt(35), "Clinic " + doctorId,
+					String.format("REG%08d", doctorId), true, true, createdAt);
+			doctorRoleInsert.add(doctorId, IDoctorConstants.DOCTOR_ROLE);
+			if (!degrees.isEmpty())
+				doctorDegreeInsert.add(doctorId, degrees.get(random.nextInt(degrees.size())));
+			if (!departments.isEmpty())
+				doctorDepartmentInsert.add(doctorId, departments.get(random.nextInt(departments.size())));
+			if (!specializations.isEmpty())
+				doctorSpecializationInsert.add(doctorId, specializations.get(random.nextInt(specializations.size())));
+
+			// A morning and an evening session, split with the same gap
+			AGMode mode = AG_MODES[random.nextInt(AG_MODES.length)];
+			int gap = GAPS_IN_MINUTES[random.nextInt(GAPS_IN_MINUTES.length)];
+			List<SlotInput> slotInputs = List.of(
+					new SlotInput(LocalTime.of(8 + random.nextInt(3), 0), LocalTime.of(12 + random.nextInt(2), 0), gap),
+					new SlotInput(LocalTime.of(16 + random.nextInt(2), 0), LocalTime.of(19 + random.nextInt(3), 0), gap));
+			preferenceInsert.add(doctorId, mode.name(), 30, from, to.minusDays(1), true, true, createdAt);
+			for (SlotInput slotInput : slotInputs) {
+				slotInputInsert.add(slotInputId, slotInput.getStartTime(), slotInput.getEndTime(), slotInput.getGapInMinutes());
+				preferenceSlotInputInsert.add(doctorId, slotInputId);
+				slotInputId++;
+			}
+
+			// One leave in each of as many equal periods of the slot months, only approved leaves free the doctor
+			Set<LocalDate> leaveDays = new HashSet<>();
+			for (int j = 0; j < leaves && periodDays > 0; j++) {
+				int days = 1 + random.nextInt(Math.min(3, periodDays));
+				LocalDate leaveFrom = from.plusDays((long) j * periodDays + random.nextInt(periodDays - days + 1));
+				LeaveStatus status = LEAVE_STATUSES[random.nextInt(LEAVE_STATUSES.length)];
+				leaveInsert.add(leaveId++, doctorId, leaveFrom, leaveFrom.plusDays(days - 1L), days, "Leave of doctor " + doctorId,
+						status.name(), leaveFrom.minusDays(7).atStartOfDay());
+				if (status == LeaveStatus.APPROVED)
+					leaveFrom.datesUntil(leaveFrom.plusDays(days)).forEach(leaveDays::add);
+			}
+
+			Doctor doctor = new Doctor();
+			doctor.setId(doctorId);
+			List<Availability> candidates = new ArrayList<>();
+			for (LocalDate date = from; date.isBefore(to); date = date.plusDays(1)) {
+				if (date.getDayOfWeek() == DayOfWeek.SUNDAY || holidays.contains(date) || leaveDays.contains(date))
+					continue;
+				candidates.clear();
+				AvailabilityUtil.splitSlots(doctor, date, slotInputs, mode, candidates);
+				AppointmentStatus[] statuses = date.isBefore(today) ? PAST_STATUSES : FUTURE_STATUSES;
+				for (Availability candidate : candidates) {
+					AppointmentStatus status = random.nextInt(100) < bookedPercentage ? statuses[random.nextInt(statuses.length)] : null;
+					slotInsert.add(slotId, doctorId, date, candidate.getStartTime(), candidate.getEndTime(),
+							(status == null ? SlotStatus.AVAILABLE : slotStatusOf(status)).name(), mode.name(), date.minusDays(30).atStartOfDay());
+					if (status != null) {
+						int patient = random.nextInt(patients);
+						Integer subProfile = subProfileCounts[patient] > 0 && random.nextInt(5) == 0
+								? firstSubProfileIds[patient] + random.nextInt(subProfileCounts[patient])
+								: null;
+						appointmentInsert.add(appointmentId++, slotId, firstPatientId + patient, new SqlParameterValue(Types.INTEGER, subProfile),
+								date.minusDays(1 + random.nextInt(14)).atTime(candidate.getStartTime()), NO_NOTE, status.name());
+					}
+					slotId++;
+				}
+			}
+			if (doctors >= 10 && (i + 1) % (doctors / 10) == 0)
+				LOG.info("Generated {} of {} doctors, slots: {}, appointments: {}", i + 1, doctors, slotInsert.rows, appointmentInsert.rows);
+		}
+		for (BatchInsert insert : Arrays.asList(doctorRoleInsert, doctorDegreeInsert, doctorDepartmentInsert, doctorSpecializationInsert,
+				preferenceSlotInputInsert, leaveInsert, slotInsert, appointmentInsert)) {
+			insert.flush();
+		}
+		LOG.info("Dataset generated from {} to {}; doctors: {}, patients: {}, sub profiles: {}, holidays: {}, leaves: {}, slots: {}, "
+				+ "appointments: {}, Time Taken:{}ms", from, to, doctorInsert.rows, patientInsert.rows, subProfileInsert.rows,
+				holidayInsert.rows, leaveInsert.rows, slotInsert.rows, appointmentInsert.rows, System.currentTimeMillis() - start);
+	}
+
+	/**
+	 * Status of a slot holding an appointment, as left by the booking flow: only a cancellation changes the slot,
+	 * a rejected appointment keeps its slot booked.
+	 */
+	private static SlotStatus slotStatusOf(AppointmentStatus status) {
+		switch (status) {
+			case P_CANCELLED:
+				return SlotStatus.RE_AVAILABLE;
+			case D_CANCELLED:
+				return SlotStatus.CANCELLED;
+			default:
+				return SlotStatus.BOOKED;
+		}
+	}
+
+	private int count(String table) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+	}
+
+	private int nextId(String table) {
+		Integer max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Integer.class);
+		return max == null ? 1 : max + 1;
+	}
+
+	/**
+	 * Buffer of rows of a table written as a single multi-row insert once {@code batchSize} rows are buffered.
+	 * The buffers of the referenced tables are flushed first, so that foreign keys hold.
+	 */
+	private final class BatchInsert {
+
+		private final String sql;
+		private final int columns;
+		private final int batchSize;
+		private final BatchInsert[] parents;
+		private final List<Object> values = new ArrayList<>();
+		private long rows;
+
+		private BatchInsert(String table, String columnNames, int batchSize, BatchInsert... parents) {
+			this.columns = columnNames.split(",").length;
+			this.sql = "INSERT INTO " + table + " (" + columnNames + ") VALUES ";
+			this.batchSize = batchSize;
+			this.parents = parents;
+		}
+
+		private void add(Object... row) {
+			values.addAll(Arrays.asList(row));
+			rows++;
+			if (values.size() == batchSize * columns)
+				flush();
+		}
+
+		private void flush() {
+			for (BatchInsert parent : parents) {
+				parent.flush();
+			}
+			if (values.isEmpty())
+				return;
+			String row = "(" + "?, ".repeat(columns - 1) + "?)";
+			StringBuilder statement = new StringBuilder(sql.length() + values.size() / columns * (row.length() + 2)).append(sql);
+			for (int i = 0; i < values.size() / columns; i++) {
+				statement.append(i == 0 ? "" : ", ").append(row);
+			}
+			jdbcTemplate.update(statement.toString(), values.toArray());
+			values.clear();
+		}
+	}
+}
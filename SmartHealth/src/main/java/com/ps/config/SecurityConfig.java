@@ -51,7 +51,8 @@ SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity) throws Except
 				.requestMatchers("/appointment/change/status/**", "/appointment/view/all/**").hasAnyAuthority(IDoctorConstants.DOCTOR_ROLE, IPatientConstants.PATIENT_ROLE)
 				.requestMatchers("/patient/**", "/appointment/**").hasAuthority(IPatientConstants.PATIENT_ROLE)
 				.requestMatchers("/availability/**").hasAuthority(IDoctorConstants.DOCTOR_ROLE)
-				.requestMatchers("/admin/**").hasAuthority(IAdminConstants.ADMIN_ROLE)
+				.requestMatchers("/actuator/health").permitAll()
+				.requestMatchers("/admin/**", "/actuator/**").hasAuthority(IAdminConstants.ADMIN_ROLE)
 				.anyRequest().authenticated()
 				)
 		.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -0,0 +1,23 @@
+package com.ps.config.props;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Properties class for configuring dashboard settings.
+ * Maps to 'smarthealth.dashboard' prefix in properties file.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("smarthealth.dashboard")
+public class DashboardProperties {
+
+	private Integer statsSnapshotTtlInSeconds;
+	private Integer queryParallelism;
+	private Integer queryQueueSize;
+	private Long queryTimeoutInMillis;
+}
@@ -0,0 +1,31 @@
+package com.ps.config.props;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Properties class for configuring the synthetic dataset generated with the 'datagen' profile.
+ * Maps to 'smarthealth.datagen' prefix in properties file.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("smarthealth.datagen")
+public class DatagenProperties {
+
+	private Long seed;
+	private Integer doctors;
+	private Integer patients;
+	private Integer maxSubProfilesPerPatient;
+	private String startDate;
+	private Integer slotMonths;
+	private Integer bookedPercentage;
+	private Integer leavesPerDoctor;
+	private Integer holidays;
+	private String password;
+	private Integer batchSize;
+	private Boolean exitOnCompletion;
+}
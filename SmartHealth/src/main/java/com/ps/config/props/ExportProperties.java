@@ -0,0 +1,20 @@
+package com.ps.config.props;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Properties class for configuring admin export settings.
+ * Maps to 'smarthealth.export' prefix in properties file.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("smarthealth.export")
+public class ExportProperties {
+
+	private Integer maxConcurrentExports;
+}
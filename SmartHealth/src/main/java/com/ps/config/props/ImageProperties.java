@@ -0,0 +1,28 @@
+package com.ps.config.props;
+
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Properties class for configuring image serving settings.
+ * Maps to 'smarthealth.images' prefix in properties file.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("smarthealth.images")
+public class ImageProperties {
+
+	private Integer cacheSize;
+	private Integer cacheableFileSizeInKb;
+	private Integer cacheRevalidateIntervalInSeconds;
+	private Integer versionedMaxAgeInDays;
+	private Integer defaultMaxAgeInMinutes;
+	private List<Integer> variantSizes;
+	private Integer variantParallelism;
+}
@@ -18,4 +18,5 @@ public class JwtProperties {
 
 	private Long expirationTimeInMinutes;
 	private String secreteKey;
+	private Integer principalCacheSize;
 }
@@ -0,0 +1,20 @@
+package com.ps.config.props;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Properties class for configuring request metrics settings.
+ * Maps to 'smarthealth.metrics' prefix in properties file.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("smarthealth.metrics")
+public class MetricsProperties {
+
+	private Integer argumentLogSampleInterval;
+}
@@ -0,0 +1,23 @@
+package com.ps.config.props;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Properties class for configuring password hashing settings.
+ * Maps to 'smarthealth.password' prefix in properties file.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("smarthealth.password")
+public class PasswordProperties {
+
+	private Integer bcryptStrength;
+	private Integer hashingThreads;
+	private Integer hashingQueueSize;
+	private Long hashingTimeoutInMillis;
+}
@@ -0,0 +1,22 @@
+package com.ps.config.props;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Properties class for configuring search settings.
+ * Maps to 'smarthealth.search' prefix in properties file.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("smarthealth.search")
+public class SearchProperties {
+
+	private Integer nameIndexMaxIds;
+	private Integer nameIndexRefreshIntervalInMinutes;
+	private Integer nameIndexSyncIntervalInSeconds;
+}
@@ -17,4 +17,12 @@
 public class SlotsProperties {
 
 	private Integer maximumGenerationDays;
+	private Integer batchSize;
+	private Integer generationParallelism;
+	private Integer calendarRefreshIntervalInMinutes;
+	private Integer leaveJobChunkDays;
+	private Integer leaveJobMaxAttempts;
+	private Integer viewCacheSize;
+	private Integer viewCacheTtlInSeconds;
+	private Boolean virtualSlotsEnabled;
 }
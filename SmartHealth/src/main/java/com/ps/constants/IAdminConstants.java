@@ -31,6 +31,7 @@ public interface IAdminConstants {
 	String TOTAL_DOCTORS = "totalDoctors";
 	String ACTIVE_DOCTORS = "activeDoctors";
 	String INCOMPLETE_PROFILE_DOCTORS = "incompleteProfileDoctors";
+	String SNAPSHOT_AGE_IN_SECONDS = "snapshotAgeInSeconds";
 	
 	String DOCTOR_ID = "doctorId";
 	String DOCTOR_NAME = "doctorName";
@@ -56,4 +57,16 @@ public interface IAdminConstants {
 	String TOTAL = "total";
 	String UPCOMING_LEAVES = "upcomingLeaves";
 	String TODAYS_APPOINTMENTS = "todaysAppointments";
+	String SLOT_GENERATION = "slotGeneration";
+	String LEAVE_SLOT_JOBS = "leaveSlotJobs";
+	
+	String NAME = "name";
+	String EMAIL = "email";
+	String PHONE = "phone";
+	String IS_ACTIVE = "isActive";
+	String PROFILE_COMPLETE = "profileComplete";
+	String MODE = "mode";
+	int EXPORT_CHUNK_SIZE = 1000;
+	String EXPORT_CSV_CONTENT_TYPE = "text/csv";
+	String EXPORT_NDJSON_CONTENT_TYPE = "application/x-ndjson";
 }
@@ -0,0 +1,17 @@
+package com.ps.constants;
+
+/**
+ * Interface containing names of the application caches.
+ */
+public interface ICacheConstants {
+
+	String DEGREES = "degrees";
+	String DEPARTMENTS = "departments";
+	String SPECIALIZATIONS = "specializations";
+	String RELATIONS = "relations";
+	String HOLIDAYS = "holidays";
+
+	// Only the first unsorted holiday pages of the default size are cached, so clients can't grow the cache
+	int HOLIDAYS_PAGE_SIZE = 10;
+	int HOLIDAYS_CACHED_PAGES = 10;
+}
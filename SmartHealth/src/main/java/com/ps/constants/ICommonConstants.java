@@ -7,4 +7,9 @@ public interface ICommonConstants {
 
 	String ROLE = "Role";
 	String TOKEN = "Token";
+	String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+	String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+	String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+	String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+	String DATAGEN_PROFILE = "datagen";
 }
@@ -31,6 +31,9 @@ public interface IExceptionConstants {
 	String SUB_PROFILE_NOT_FOUND = "No Sub-Profile found";
 	String SUB_PROFILE_MISMATHCED = "Sub-Profile mismatched with Patient";
 	String CANT_BOOK_PAST_SLOTS = "You can't book slots in past";
+	String SLOT_JUST_TAKEN = "Selected Slot has just been booked by someone else, please choose another slot";
+	String DOCTOR_ON_LEAVE = "Doctor is on leave on the selected date, please choose another date";
+	String HOLIDAY_ON_DATE = "Selected date is a holiday, please choose another date";
 	String NOT_ABLE_TO_DELETE_SLOT = "Not able to delete Slot(s)";
 	String NO_APPOINTMENT_FOR_SLOT = "No Appointment found for given slot";
 	String INVALID_STATUS_IN_CHANGE_REQUEST = "Invalid Status for status change request";
@@ -47,4 +50,6 @@ public interface IExceptionConstants {
 	String INVALID_ADMIN_TOKEN_ROLE = "Admin Token/Role is not Valid";
 	String APPOINTMENT_STATUS_CHANGE_FAIL = "Not able to change status to %s as current status is: %s";
 	String APPOINTMENT_UPDATE_STATUS_FAIL = "Unable to update appointment status";
+	String INVALID_CURSOR = "Invalid cursor, use the nextCursor of the previous page or an empty cursor for the first page";
+	String SERVER_BUSY = "Server is busy, please try again shortly";
 }
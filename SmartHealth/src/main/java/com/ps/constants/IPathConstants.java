@@ -95,4 +95,11 @@ public interface IPathConstants {
 	String APPOINTMENT_COUNT_PATH = "appointmentCount";
 	String UPCOMING_LEAVES = "upcoming-leaves";
 	String TODAYS_APPOINTMENTS = "todays-appointments";
+	String SLOT_GENERATION_STATS = "slot-generation-stats";
+	String LEAVE_SLOT_JOBS = "leave-slot-jobs";
+	String EXPORT = "export";
+	String EXPORT_DOCTOR_PATH = EXPORT + ISymbolConstants.FORWARD_SLASH + DOCTOR_PATH;
+	String EXPORT_PATIENT_PATH = EXPORT + ISymbolConstants.FORWARD_SLASH + PATIENT_PATH;
+	String EXPORT_SLOTS_PATH = EXPORT + ISymbolConstants.FORWARD_SLASH + SLOTS;
+	String EXPORT_APPOINTMENTS_PATH = EXPORT + ISymbolConstants.FORWARD_SLASH + APPOINTMENT;
 }
@@ -10,6 +10,7 @@ public interface IRequestConstants {
 	String FILE = "file";
 	String PASSWORD = "password";
 	String FILE_NAME = "fileName";
+	String IMAGE_SIZE = "size";
 	String ID = "id";
 	String FROM = "from";
 	String TO = "to";
@@ -20,4 +21,6 @@ public interface IRequestConstants {
 	String APPOINTMENT_ID = "appointmentId";
 	String DOCTOR_ID = "doctorId";
 	String PATIENT_ID = "patientId";
+	String CURSOR = "cursor";
+	String FORMAT = "format";
 }
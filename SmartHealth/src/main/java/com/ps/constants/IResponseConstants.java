@@ -74,6 +74,7 @@ public interface IResponseConstants {
 	String IS_LAST_PAGE = "isLastPage";
 	String HAS_PREVIOUS_PAGE = "hasPreviousPage";
 	String HAS_NEXT_PAGE = "hasNextPage";
+	String NEXT_CURSOR = "nextCursor";
 	String STATS = "stats";
 	String TODAYS_APPOINTMENTS = "todaysAppointments";
 	String UPCOMING_APPOINTMENTS = "upcomingAppointments";
@@ -87,5 +88,6 @@ public interface IResponseConstants {
 	String COMPLETED_APPOINTMENTS = "completedAppointments";
 	String CANCELLED_APPOINTMENTS = "cancelledAppointments";
 	String HEALTH_ACTIVITY = "healthActivity";
+	String PARTIAL = "partial";
 	
 }
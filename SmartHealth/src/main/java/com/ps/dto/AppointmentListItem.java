@@ -0,0 +1,30 @@
+package com.ps.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import com.ps.enu.AppointmentStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Read model of an appointment row in appointment listing and search pages.
+ * Populated directly by constructor queries joining appointment, slot, doctor and patient,
+ * so a page is loaded without initializing any entity association.
+ */
+@Getter
+@AllArgsConstructor
+public class AppointmentListItem {
+
+	private final Integer id;
+	private final Integer slotId;
+	private final String doctorName;
+	private final String patientName;
+	private final LocalDate date;
+	private final LocalTime startTime;
+	private final LocalTime endTime;
+	private final AppointmentStatus status;
+	private final LocalDateTime bookedOn;
+}
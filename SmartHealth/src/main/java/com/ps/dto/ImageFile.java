@@ -0,0 +1,24 @@
+package com.ps.dto;
+
+import java.nio.file.Path;
+
+import org.springframework.http.MediaType;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Image file resolved for serving, with the validators of it's current content.
+ * Content is present only when the image is held in memory by {@link com.ps.cache.ImageCache}.
+ */
+@Getter
+@AllArgsConstructor
+public class ImageFile {
+
+	private final Path path;
+	private final long size;
+	private final long lastModified;
+	private final String eTag;
+	private final MediaType contentType;
+	private final byte[] content;
+}
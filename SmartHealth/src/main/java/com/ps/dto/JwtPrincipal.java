@@ -0,0 +1,26 @@
+package com.ps.dto;
+
+import java.util.List;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Verified identity extracted from a JSON Web Token (JWT).
+ * Holds the subject (email), granted authorities and the token expiry so it can be cached
+ * and reused for subsequent requests carrying the same token.
+ */
+@Getter
+@AllArgsConstructor
+public class JwtPrincipal {
+
+	private final String email;
+	private final List<SimpleGrantedAuthority> authorities;
+	private final long expiresAt;
+	
+	public boolean isExpired(long now) {
+		return now >= expiresAt;
+	}
+}
@@ -0,0 +1,30 @@
+package com.ps.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Name filter of a repository search, resolved by {@link com.ps.cache.NameIndex}.
+ * <p>
+ * When resolved, the filter is the (possibly empty) list of ids whose name contains the searched text
+ * and {@code name} is {@code null}; otherwise {@code name} is matched by the query itself and
+ * {@code ids} is empty.
+ */
+@Getter
+@AllArgsConstructor
+public class NameFilter {
+
+	private final String name;
+	private final boolean resolved;
+	private final List<Integer> ids;
+
+	public static NameFilter byName(String name) {
+		return new NameFilter(name, false, List.of());
+	}
+
+	public static NameFilter byIds(List<Integer> ids) {
+		return new NameFilter(null, true, ids);
+	}
+}
@@ -0,0 +1,29 @@
+package com.ps.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import com.ps.enu.AGMode;
+import com.ps.enu.SlotStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Read model of an availability slot row in slot search pages.
+ * Populated directly by a constructor query joining slot and doctor,
+ * so a page is loaded without initializing the lazy doctor association.
+ */
+@Getter
+@AllArgsConstructor
+public class SlotListItem {
+
+	private final Integer id;
+	private final LocalDate date;
+	private final LocalTime startTime;
+	private final LocalTime endTime;
+	private final SlotStatus status;
+	private final AGMode mode;
+	private final Integer doctorId;
+	private final String doctorName;
+}
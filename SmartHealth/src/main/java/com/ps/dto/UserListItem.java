@@ -0,0 +1,21 @@
+package com.ps.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Read model of a doctor or patient row in user exports.
+ * Populated directly by a constructor query, so exported users are
+ * never attached to the persistence context.
+ */
+@Getter
+@AllArgsConstructor
+public class UserListItem {
+
+	private final Integer id;
+	private final String name;
+	private final String email;
+	private final String phone;
+	private final Boolean isActive;
+	private final Boolean profileComplete;
+}
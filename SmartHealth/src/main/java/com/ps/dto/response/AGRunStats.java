@@ -0,0 +1,25 @@
+package com.ps.dto.response;
+
+import java.time.LocalDateTime;
+
+import lombok.Data;
+
+/**
+ * Data Transfer Object (DTO) representing the throughput of a scheduled Availability Generation run.
+ * Holds per-run counters for processed, up-to-date and failed doctors along with generated slots.
+ */
+@Data
+public class AGRunStats {
+
+	private LocalDateTime startedAt;
+	private long durationInMillis;
+	private int parallelism;
+	private int doctors;
+	private int processedDoctors;
+	private int upToDateDoctors;
+	private int failedDoctors;
+	private long generatedSlots;
+	private long skippedSlots;
+	private double doctorsPerSecond;
+	private double slotsPerSecond;
+}
@@ -0,0 +1,19 @@
+package com.ps.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) representing the outcome of an Availability Generation run.
+ * Holds the number of slots persisted and the number of candidate slots skipped
+ * because they already exist, overlap an existing slot or fall in the past.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AGSummary {
+
+	private int generated;
+	private int skipped;
+}
@@ -0,0 +1,32 @@
+package com.ps.dto.response;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.ps.enu.LeaveSlotJobStatus;
+
+import lombok.Data;
+
+/**
+ * Data Transfer Object (DTO) representing the progress of the background job releasing the slots of an approved leave.
+ * Holds the days processed so far along with the deleted slots and the cancelled slots and appointments.
+ */
+@Data
+public class LeaveSlotJobResponse {
+
+	private Integer id;
+	private Integer leaveId;
+	private Integer doctorId;
+	private LocalDate from;
+	private LocalDate to;
+	private LocalDate nextDate;
+	private LeaveSlotJobStatus status;
+	private long days;
+	private long processedDays;
+	private Integer deletedSlots;
+	private Integer cancelledSlots;
+	private Integer cancelledAppointments;
+	private Integer attempts;
+	private LocalDateTime creationTime;
+	private LocalDateTime updationTime;
+}
@@ -14,8 +14,10 @@
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import lombok.Data;
 
 /**
@@ -24,6 +26,8 @@
  */
 @Entity
 @Data
+@Table(indexes = {@Index(name = "idx_appointment_availability_status", columnList = "availability_id, status"),
+				  @Index(name = "idx_appointment_patient_status", columnList = "patient_id, status")})
 public class Appointment {
 
 	@Id
@@ -0,0 +1,52 @@
+package com.ps.entity;
+
+import java.time.LocalDate;
+
+import com.ps.enu.AppointmentStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+/**
+ * Entity representing the number of appointments of a doctor on a day having a given status.
+ * Maintained incrementally on appointment changes so that trend and dashboard statistics
+ * don't need to aggregate raw appointments.
+ */
+@Data
+@Entity
+@Table(name = "appointment_rollup",
+	   uniqueConstraints = {@UniqueConstraint(name = "uk_appointment_rollup_doctor_date_status", columnNames = {"doctor_id", "appointment_date", "status"})},
+	   indexes = {@Index(name = "idx_appointment_rollup_date", columnList = "appointment_date")})
+public class AppointmentRollup {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Integer id;
+	
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "doctor_id", nullable = false, foreignKey = @ForeignKey(name = "fk_appointment_rollup_doctor"))
+	private Doctor doctor;
+	
+	@Column(nullable = false)
+	private LocalDate appointmentDate;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false)
+	private AppointmentStatus status;
+	
+	@Column(nullable = false)
+	private Long total;
+}
@@ -18,6 +18,7 @@
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -29,7 +30,10 @@
  */
 @Data
 @Entity
-@Table(uniqueConstraints = {@UniqueConstraint(columnNames = {"doctor_id", "date", "start_time", "end_time"})})
+@Table(uniqueConstraints = {@UniqueConstraint(columnNames = {"doctor_id", "date", "start_time", "end_time"})},
+	   indexes = {@Index(name = "idx_availability_doctor_status_date", columnList = "doctor_id, status, date"),
+			      @Index(name = "idx_availability_status_date", columnList = "status, date"),
+			      @Index(name = "idx_availability_date_start_time", columnList = "date, start_time")})
 public class Availability {
 
 	@Id
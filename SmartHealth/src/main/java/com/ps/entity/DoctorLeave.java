@@ -16,8 +16,10 @@
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import lombok.Data;
 
 /**
@@ -26,6 +28,8 @@
  */
 @Entity
 @Data
+@Table(indexes = {@Index(name = "idx_doctor_leave_doctor_dates", columnList = "doctor_id, from_date, to_date"),
+				  @Index(name = "idx_doctor_leave_status", columnList = "status")})
 public class DoctorLeave {
 
 	@Id
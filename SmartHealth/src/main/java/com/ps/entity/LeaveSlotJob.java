@@ -0,0 +1,80 @@
+package com.ps.entity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import com.ps.enu.LeaveSlotJobStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Entity representing the background job which deletes the available slots and cancels the booked
+ * slots and appointments of an approved leave, a chunk of days at a time.
+ * {@code nextDate} is the first day still to be processed, so that an interrupted job resumes where it stopped.
+ * {@code attempts} counts the runs of the job which failed.
+ */
+@Entity
+@Data
+@Table(name = "leave_slot_job", indexes = {@Index(name = "idx_leave_slot_job_status", columnList = "status")})
+public class LeaveSlotJob {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Integer id;
+	
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "leave_id", nullable = false, unique = true)
+	private DoctorLeave leave;
+	
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "doctor_id", nullable = false)
+	private Doctor doctor;
+	
+	@Column(name = "from_date", nullable = false)
+	private LocalDate from;
+
+	@Column(name = "to_date", nullable = false)
+	private LocalDate to;
+	
+	@Column(nullable = false)
+	private LocalDate nextDate;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false)
+	private LeaveSlotJobStatus status = LeaveSlotJobStatus.PENDING;
+	
+	@Column(nullable = false)
+	private Integer deletedSlots = 0;
+	
+	@Column(nullable = false)
+	private Integer cancelledSlots = 0;
+	
+	@Column(nullable = false)
+	private Integer cancelledAppointments = 0;
+	
+	@Column(nullable = false)
+	private Integer attempts = 0;
+	
+	@Column(updatable = false)
+	@CreationTimestamp
+	private LocalDateTime creationTime;
+
+	@Column(insertable = false)
+	@UpdateTimestamp
+	private LocalDateTime updationTime;
+}
@@ -0,0 +1,10 @@
+package com.ps.enu;
+
+/**
+ * Enum representing the file format of an admin export.
+ * Used to choose how the exported rows are written to the response.
+ */
+public enum ExportFormat {
+    CSV,        // Comma separated values with a header line
+    NDJSON      // Newline delimited JSON, one object per line
+}
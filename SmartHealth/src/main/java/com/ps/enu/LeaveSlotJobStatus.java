@@ -0,0 +1,10 @@
+package com.ps.enu;
+
+/**
+ * Enum representing the status of the background job releasing the slots of an approved leave.
+ */
+public enum LeaveSlotJobStatus {
+    PENDING,    // Slots of some days of the leave are still to be deleted or cancelled
+    COMPLETED,  // Slots of all days of the leave have been deleted or cancelled
+    FAILED      // Gave up after smarthealth.slots.leave-job-max-attempts failed runs, the days left are not processed
+}
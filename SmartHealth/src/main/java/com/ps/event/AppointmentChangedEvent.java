@@ -0,0 +1,23 @@
+package com.ps.event;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Application event published whenever an appointment is booked or its status changes,
+ * directly or as a consequence of a slot status change.
+ * Carries the doctor and the days whose appointments were affected so that
+ * listeners can refresh only the data derived from them.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class AppointmentChangedEvent {
+
+	private final Integer doctorId;
+	private final Set<LocalDate> dates;
+}
@@ -0,0 +1,17 @@
+package com.ps.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Application event published whenever a doctor registers or the searchable details
+ * of a doctor change, like the profile, the profile picture or the activation status.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class DoctorChangedEvent {
+
+	private final Integer doctorId;
+}
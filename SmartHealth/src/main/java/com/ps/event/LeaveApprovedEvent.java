@@ -0,0 +1,16 @@
+package com.ps.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Application event published whenever a leave is approved and its slots are queued to be released.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class LeaveApprovedEvent {
+
+	private final Integer leaveId;
+}
@@ -0,0 +1,16 @@
+package com.ps.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Application event published whenever a patient registers or updates the profile.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class PatientChangedEvent {
+
+	private final Integer patientId;
+}
@@ -0,0 +1,22 @@
+package com.ps.event;
+
+import java.nio.file.Path;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Application event published whenever a profile picture is uploaded.
+ * Carries the path of the stored original picture so that listeners
+ * can derive resized variants from it, and the path of the uploaded picture
+ * it replaces, {@code null} if none, so that listeners can delete it.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ProfilePictureUploadedEvent {
+
+	private final Path path;
+	private final Path replacedPath;
+}
@@ -0,0 +1,23 @@
+package com.ps.event;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Application event published whenever availability slots of a doctor are generated
+ * or deleted, outside of an appointment change.
+ * Carries the doctor and the days whose slots were affected, {@code null} dates
+ * meaning that any day of the doctor may have been affected.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class SlotsChangedEvent {
+
+	private final Integer doctorId;
+	private final Set<LocalDate> dates;
+}
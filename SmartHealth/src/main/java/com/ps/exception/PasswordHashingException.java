@@ -0,0 +1,26 @@
+package com.ps.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class PasswordHashingException extends RuntimeException {
+
+	private static final long serialVersionUID = -6052189356741528914L;
+	private HttpStatus status;
+
+	public PasswordHashingException() {
+		super();
+	}
+
+	public PasswordHashingException(String msg) {
+		super(msg);
+	}
+
+	public PasswordHashingException(String msg, HttpStatus status) {
+		super(msg);
+		this.status = status;
+	}
+
+	public HttpStatus getStatus() {
+		return status;
+	}
+}
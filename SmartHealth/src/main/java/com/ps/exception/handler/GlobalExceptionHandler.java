@@ -7,18 +7,23 @@
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import com.ps.constants.IExceptionConstants;
 import com.ps.dto.response.ErrorResponse;
 import com.ps.exception.AdminException;
 import com.ps.exception.AppointmentException;
 import com.ps.exception.AvailabilityException;
 import com.ps.exception.DoctorException;
+import com.ps.exception.PasswordHashingException;
 import com.ps.exception.PatientException;
 import com.ps.exception.ProfileException;
 import com.ps.exception.ResourceException;
@@ -94,6 +99,23 @@ public ResponseEntity<?> hadleSQLIntegrityConstraintViolationException(SQLIntegr
 		return ResponseEntity.internalServerError().body(prepareErrorResponse(exception.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR));
 	}
 
+	@ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+	public ResponseEntity<?> handleConnectionUnavailableException(Exception exception) {
+		LOG.warn("Database connection unavailable: {}", exception.getMessage());
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, "1")
+				.body(prepareErrorResponse(IExceptionConstants.SERVER_BUSY, HttpStatus.SERVICE_UNAVAILABLE));
+	}
+
+	@ExceptionHandler(PasswordHashingException.class)
+	public ResponseEntity<?> handlePasswordHashingException(PasswordHashingException exception) {
+		LOG.warn("Request rejected, password hashing workers saturated: {}", exception.getMessage());
+		HttpStatus status = (exception.getStatus() != null) ? exception.getStatus() : HttpStatus.SERVICE_UNAVAILABLE;
+		return ResponseEntity.status(status)
+				.header(HttpHeaders.RETRY_AFTER, "1")
+				.body(prepareErrorResponse(IExceptionConstants.SERVER_BUSY, status));
+	}
+
 	private static ErrorResponse prepareErrorResponse(String message, HttpStatus status) {
 		ErrorResponse errorResponse = new ErrorResponse();
 		errorResponse.setMessage(message);
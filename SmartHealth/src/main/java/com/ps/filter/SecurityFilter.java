@@ -1,18 +1,16 @@
 package com.ps.filter;
 
 import java.io.IOException;
-import java.util.List;
-import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.ps.dto.JwtPrincipal;
 import com.ps.util.JwtUtil;
 
 import jakarta.servlet.FilterChain;
@@ -24,8 +22,9 @@
  * Custom Spring Security filter that validates JSON Web Tokens (JWT) for each incoming HTTP request.
  * <p>
  * This filter extends {@link OncePerRequestFilter} to guarantee execution only once per request.
- * It extracts the JWT from the {@code Authorization} header, validates it using {@link JwtUtil},
- * and, if valid, sets the authentication context in Spring Security.
+ * It extracts the JWT from the {@code Authorization} header, resolves it once using {@link JwtUtil}
+ * (served from the verified token cache when possible), and, if valid, sets the authentication
+ * context in Spring Security.
  * </p>
  *
  * <p><b>Workflow:</b></p>
@@ -70,13 +69,10 @@ protected void doFilterInternal(HttpServletRequest request, HttpServletResponse
 		String token = extractToken(request);
 		LOG.debug("Entering SecurityFilter.doFilterInternal, Token: {}", token);
 		if(token != null) {
-			if(jwtUtil.isTokenValid(token)) {
-				String email = jwtUtil.getSubject(token);
-				List<SimpleGrantedAuthority> roles = jwtUtil.getRoles(token)
-						.stream()
-						.map(SimpleGrantedAuthority::new)
-						.collect(Collectors.toList());
-				UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(email, null, roles);
+			JwtPrincipal principal = jwtUtil.resolvePrincipal(token);
+			if(principal != null) {
+				String email = principal.getEmail();
+				UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(email, null, principal.getAuthorities());
 				SecurityContextHolder.getContext().setAuthentication(auth);
 				LOG.debug("Authentication set for user: {}", email);
 			} else {
@@ -12,7 +12,18 @@
 
 public interface AGPreferenceRepository extends JpaRepository<AGPreference, Integer> {
 
-	List<AGPreference> findByModeInAndIsActive(List<AGMode> mode, boolean isActive);
+	@Query("SELECT a.id FROM AGPreference a WHERE a.mode IN :modes AND a.isActive = :isActive")
+	List<Integer> findIdsByModeInAndIsActive(@Param("modes") List<AGMode> modes, @Param("isActive") boolean isActive);
+	
+	@Query("""
+			SELECT a.id, a.mode, a.daysAhead, a.startDate, a.endDate, s.startTime, s.endTime, s.gapInMinutes
+			FROM AGPreference a
+			JOIN a.slotInputs s
+			WHERE a.mode IN :modes
+			  AND a.isActive = true
+			  AND (:doctorId IS NULL OR a.id = :doctorId)
+			""")
+	List<Object[]> findActiveSlotRules(@Param("modes") List<AGMode> modes, @Param("doctorId") Integer doctorId);
 	
 	@Query("SELECT a FROM AGPreference a JOIN a.doctor d WHERE d.email = :email")
 	Optional<AGPreference> findByDoctorEmail(@Param("email") String email);
@@ -10,6 +10,8 @@
 
 import com.ps.entity.Admin;
 
+import jakarta.transaction.Transactional;
+
 public interface AdminRepository extends JpaRepository<Admin, Integer> {
 	
 	List<Admin> findByEmailOrPhone(String email, String phone);
@@ -25,6 +27,7 @@ public interface AdminRepository extends JpaRepository<Admin, Integer> {
 	
 	@Query("UPDATE Admin a SET a.password=:password WHERE a.email=:email")
 	@Modifying
+	@Transactional
 	int updatePassword(@Param("password") String password, @Param("email") String email);
 	
 	@Query("UPDATE Admin a SET a.profilePicPath=:profilePicPath WHERE a.email=:email")
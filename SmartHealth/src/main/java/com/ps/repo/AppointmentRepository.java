@@ -7,12 +7,13 @@
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-import com.ps.dto.response.DailyAppointments;
+import com.ps.dto.AppointmentListItem;
 import com.ps.entity.Appointment;
 import com.ps.enu.AppointmentStatus;
 
@@ -33,26 +34,49 @@ int updateStatusByAvailabilityIds(@Param("status") AppointmentStatus status, @Pa
 	
 	Optional<Appointment> findTopByAvailabilityIdOrderByIdDesc(Integer id);
 	
-	@Query("""
-			SELECT a FROM Appointment a
-			WHERE a.patient.email = :email
+	@Query(value = """
+			SELECT new com.ps.dto.AppointmentListItem(a.id, av.id, d.name, p.name, av.date, av.startTime, av.endTime, a.status, a.createdAt)
+			FROM Appointment a JOIN a.availability av JOIN av.doctor d JOIN a.patient p
+			WHERE p.email = :email
 			  AND (:status IS NULL OR a.status = :status)
-			  AND (:date IS NULL OR a.availability.date = :date)
-			  AND (:name IS NULL OR LOWER(a.availability.doctor.name) LIKE LOWER(CONCAT('%', :name, '%')))
+			  AND (:date IS NULL OR av.date = :date)
+			  AND (:name IS NULL OR LOWER(d.name) LIKE LOWER(CONCAT('%', :name, '%')))
+			  AND (:nameResolved = false OR d.id IN :nameIds)
+			""",
+			countQuery = """
+			SELECT COUNT(a) FROM Appointment a JOIN a.availability av JOIN av.doctor d JOIN a.patient p
+			WHERE p.email = :email
+			  AND (:status IS NULL OR a.status = :status)
+			  AND (:date IS NULL OR av.date = :date)
+			  AND (:name IS NULL OR LOWER(d.name) LIKE LOWER(CONCAT('%', :name, '%')))
+			  AND (:nameResolved = false OR d.id IN :nameIds)
 			""")
-	Page<Appointment> filterAppointmentsForPatient(@Param("email") String email, @Param("name") String name,
+	Page<AppointmentListItem> filterAppointmentsForPatient(@Param("email") String email, @Param("name") String name,
+										 @Param("nameResolved") boolean nameResolved, @Param("nameIds") List<Integer> nameIds,
 										 @Param("date") LocalDate date, @Param("status") AppointmentStatus status, 
 										 Pageable pageable);
 	
-	@Query("""
-			SELECT a FROM Appointment a
-			WHERE a.availability.doctor.email = :email
+	@Query(value = """
+			SELECT new com.ps.dto.AppointmentListItem(a.id, av.id, d.name, p.name, av.date, av.startTime, av.endTime, a.status, a.createdAt)
+			FROM Appointment a JOIN a.availability av JOIN av.doctor d JOIN a.patient p
+			WHERE d.email = :email
 			  AND (:status IS NULL OR a.status = :status)
-			  AND (:date IS NULL OR a.availability.date = :date)
-			  AND (:name IS NULL OR LOWER(a.patient.name) LIKE LOWER(CONCAT('%', :name, '%')))
-			  AND (:slotId IS NULL OR a.availability.id = :slotId)
+			  AND (:date IS NULL OR av.date = :date)
+			  AND (:name IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%')))
+			  AND (:nameResolved = false OR p.id IN :nameIds)
+			  AND (:slotId IS NULL OR av.id = :slotId)
+			""",
+			countQuery = """
+			SELECT COUNT(a) FROM Appointment a JOIN a.availability av JOIN av.doctor d JOIN a.patient p
+			WHERE d.email = :email
+			  AND (:status IS NULL OR a.status = :status)
+			  AND (:date IS NULL OR av.date = :date)
+			  AND (:name IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%')))
+			  AND (:nameResolved = false OR p.id IN :nameIds)
+			  AND (:slotId IS NULL OR av.id = :slotId)
 			""")
-	Page<Appointment> filterAppointemtnsForDoctor(@Param("email") String email, @Param("name") String name,
+	Page<AppointmentListItem> filterAppointemtnsForDoctor(@Param("email") String email, @Param("name") String name,
+										 @Param("nameResolved") boolean nameResolved, @Param("nameIds") List<Integer> nameIds,
 										 @Param("date") LocalDate date, @Param("status") AppointmentStatus status, 
 										 @Param("slotId") Integer slotId, Pageable pageable);
 	
@@ -60,78 +84,89 @@ Page<Appointment> filterAppointemtnsForDoctor(@Param("email") String email, @Par
 	@Query("UPDATE Appointment a SET a.status = :status, a.updatedAt = :updatedAt WHERE a.id = :id")
 	int updateStatusByAppId(@Param("status") AppointmentStatus status, @Param("id") Integer id, @Param("updatedAt") LocalDateTime updatedAt);
 
-	long count();
-	
-	long countByStatus(AppointmentStatus status);
+	@Query("SELECT a.status, COUNT(a) FROM Appointment a GROUP BY a.status")
+	List<Object[]> countGroupByStatus();
 	
-	@Query("""
-			SELECT a FROM Appointment a
-		    WHERE (:doctorId IS NULL OR a.availability.doctor.id = :doctorId)
+	@Query(value = """
+			SELECT new com.ps.dto.AppointmentListItem(a.id, av.id, d.name, p.name, av.date, av.startTime, av.endTime, a.status, a.createdAt)
+			FROM Appointment a JOIN a.availability av JOIN av.doctor d JOIN a.patient p
+		    WHERE (:doctorId IS NULL OR d.id = :doctorId)
+		      AND (:patientId IS NULL OR p.id = :patientId)
+		      AND (:date IS NULL OR av.date = :date)
+		      AND (:status IS NULL OR a.status = :status)
+			""",
+			countQuery = """
+			SELECT COUNT(a) FROM Appointment a JOIN a.availability av
+		    WHERE (:doctorId IS NULL OR av.doctor.id = :doctorId)
 		      AND (:patientId IS NULL OR a.patient.id = :patientId)
-		      AND (:date IS NULL OR a.availability.date = :date)
+		      AND (:date IS NULL OR av.date = :date)
 		      AND (:status IS NULL OR a.status = :status)
 			""")
-	Page<Appointment> searchAppointments(@Param("doctorId") Integer doctorId, @Param("patientId") Integer patientId,
+	Page<AppointmentListItem> searchAppointments(@Param("doctorId") Integer doctorId, @Param("patientId") Integer patientId,
 			@Param("date") LocalDate date, @Param("status") AppointmentStatus status, Pageable pageable);
+
+	/**
+	 * Retrieves a chunk of the appointments matching the filters of {@link #searchAppointments(Integer, Integer, LocalDate, AppointmentStatus, Pageable)}
+	 * in id order after the given id, for exports read chunk by chunk.
+	 */
+	@Query("""
+			SELECT new com.ps.dto.AppointmentListItem(a.id, av.id, d.name, p.name, av.date, av.startTime, av.endTime, a.status, a.createdAt)
+			FROM Appointment a JOIN a.availability av JOIN av.doctor d JOIN a.patient p
+		    WHERE a.id > :afterId
+		      AND (:doctorId IS NULL OR d.id = :doctorId)
+		      AND (:patientId IS NULL OR p.id = :patientId)
+		      AND (:date IS NULL OR av.date = :date)
+		      AND (:status IS NULL OR a.status = :status)
+		    ORDER BY a.id ASC
+			""")
+	Slice<AppointmentListItem> exportAppointmentsAfter(@Param("doctorId") Integer doctorId, @Param("patientId") Integer patientId,
+			@Param("date") LocalDate date, @Param("status") AppointmentStatus status, 
+			@Param("afterId") Integer afterId, Pageable pageable);
 	
-	long countByAvailabilityDoctorEmailAndAvailabilityDate(String email, LocalDate date);
+	@Query("""
+			SELECT new com.ps.dto.AppointmentListItem(a.id, av.id, d.name, p.name, av.date, av.startTime, av.endTime, a.status, a.createdAt)
+			FROM Appointment a JOIN a.availability av JOIN av.doctor d JOIN a.patient p
+		    WHERE a.id > :afterId
+		      AND (:doctorId IS NULL OR d.id = :doctorId)
+		      AND (:patientId IS NULL OR p.id = :patientId)
+		      AND (:date IS NULL OR av.date = :date)
+		      AND (:status IS NULL OR a.status = :status)
+		    ORDER BY a.id ASC
+			""")
+	Slice<AppointmentListItem> searchAppointmentsAfter(@Param("doctorId") Integer doctorId, @Param("patientId") Integer patientId,
+			@Param("date") LocalDate date, @Param("status") AppointmentStatus status, @Param("afterId") Integer afterId, Pageable pageable);
 	
-	long countByAvailabilityDoctorEmailAndAvailabilityDateGreaterThanEqual(String email, LocalDate date);
-
-	long countByAvailabilityDoctorEmailAndAvailabilityDateGreaterThanEqualAndStatus(String email, LocalDate date, AppointmentStatus status);
-
-	long countByAvailabilityDoctorEmailAndAvailabilityDateAndStatusIn(String email, LocalDate date, List<AppointmentStatus> status);
+	/**
+	 * Counts the appointments of a doctor from today onwards per status, along with how many of them are today.
+	 *
+	 * @return rows of (status, count from today, count of today)
+	 */
+	@Query("""
+			SELECT a.status, COUNT(a), COALESCE(SUM(CASE WHEN av.date = :today THEN 1 ELSE 0 END), 0)
+			FROM Appointment a JOIN a.availability av
+			WHERE av.doctor.email = :email AND av.date >= :today
+			GROUP BY a.status
+			""")
+	List<Object[]> countByDoctorEmailFromGroupByStatus(@Param("email") String email, @Param("today") LocalDate today);
 	
 	List<Appointment> findByAvailabilityDoctorEmailAndAvailabilityDate(String email, LocalDate date);
 	
+	/**
+	 * Counts all the appointments of a patient per status, along with how many of them are from today onwards.
+	 *
+	 * @return rows of (status, count, count from today)
+	 */
 	@Query("""
-		    SELECT new com.ps.dto.response.DailyAppointments(
-		        a.availability.date,
-		        SUM(CASE WHEN a.status = 'BOOKED' THEN 1 ELSE 0 END),
-		        SUM(CASE WHEN a.status = 'APPROVED' THEN 1 ELSE 0 END),
-		        SUM(CASE WHEN a.status = 'COMPLETED' THEN 1 ELSE 0 END),
-		        SUM(CASE WHEN a.status = 'D_CANCELLED' OR a.status = 'P_CANCELLED' THEN 1 ELSE 0 END)
-		    )
-		    FROM Appointment a
-		    WHERE a.availability.doctor.email = :email
-		      AND a.availability.date >= :startDate
-		      AND a.availability.date <= :today
-		    GROUP BY a.availability.date
-		    ORDER BY a.availability.date ASC
-		""")
-	List<DailyAppointments> findAppointmentsTrendsByDate(@Param("email") String email, @Param("startDate") LocalDate startDate, @Param("today") LocalDate today);
-
-	long countByPatientEmailAndAvailabilityDateGreaterThanEqual(String email, LocalDate date);
-	
-	long countByPatientEmailAndStatus(String email, AppointmentStatus status);
-
-	long countByPatientEmailAndStatusIn(String email, List<AppointmentStatus> status);
+			SELECT a.status, COUNT(a), COALESCE(SUM(CASE WHEN av.date >= :today THEN 1 ELSE 0 END), 0)
+			FROM Appointment a JOIN a.availability av
+			WHERE a.patient.email = :email
+			GROUP BY a.status
+			""")
+	List<Object[]> countByPatientEmailGroupByStatus(@Param("email") String email, @Param("today") LocalDate today);
 	
 	List<Appointment> findByPatientEmailAndAvailabilityDateGreaterThanEqual(String email, LocalDate date);
 	
-	@Query("""
-		    SELECT new com.ps.dto.response.DailyAppointments(
-		        a.availability.date,
-		        SUM(CASE WHEN a.status = 'BOOKED' THEN 1 ELSE 0 END),
-		        SUM(CASE WHEN a.status = 'APPROVED' THEN 1 ELSE 0 END),
-		        SUM(CASE WHEN a.status = 'COMPLETED' THEN 1 ELSE 0 END),
-		        SUM(CASE WHEN a.status = 'D_CANCELLED' OR a.status = 'P_CANCELLED' THEN 1 ELSE 0 END)
-		    )
-		    FROM Appointment a
-		    WHERE a.availability.date >= :startDate
-		      AND a.availability.date <= :today
-		    GROUP BY a.availability.date
-		    ORDER BY a.availability.date ASC
-		""")
-	List<DailyAppointments> findAppointmentsTrendsByDate(@Param("startDate") LocalDate startDate, @Param("today") LocalDate today);
-	
-	@Query("""
-			SELECT a.availability.date, COUNT(a)
-	        FROM Appointment a
-	        WHERE a.availability.date BETWEEN :startDate AND :endDate
-	        GROUP BY DATE(a.availability.date)
-	        """)
-	List<Object[]> countAppointmentsByDate(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
-
-	List<Appointment> findByAvailabilityDateOrderByAvailabilityStartTimeAsc(LocalDate date);
+	// Inner join, so that the slots of the day are found through their date index
+	@Query("SELECT a FROM Appointment a JOIN a.availability av WHERE av.date = :date ORDER BY av.startTime ASC")
+	List<Appointment> findByAvailabilityDateOrderByAvailabilityStartTimeAsc(@Param("date") LocalDate date);
 }
@@ -0,0 +1,102 @@
+package com.ps.repo;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.ps.dto.response.DailyAppointments;
+import com.ps.entity.AppointmentRollup;
+
+public interface AppointmentRollupRepository extends JpaRepository<AppointmentRollup, Integer> {
+
+	/**
+	 * Writes the appointment counts of a doctor on the given days in place, inserting the missing rows and updating
+	 * the existing ones on the unique (doctor, date, status) key, so that concurrent updates of the same days
+	 * never delete and re-insert the same rows. An existing row is recounted by a correlated subquery rather than
+	 * taking the inserted count from {@code VALUES()}, which MySQL 8.0.20 deprecates: its row alias replacement only
+	 * applies to {@code INSERT ... VALUES}, and an update of a grouped select can't refer to the select's columns.
+	 */
+	@Modifying
+	@Query(nativeQuery = true, value = """
+			INSERT INTO appointment_rollup (doctor_id, appointment_date, status, total)
+			SELECT av.doctor_id, av.date, a.status, COUNT(*)
+			FROM appointment a JOIN availability av ON av.id = a.availability_id
+			WHERE av.doctor_id = :doctorId
+			  AND av.date IN :dates
+			GROUP BY av.doctor_id, av.date, a.status
+			ON DUPLICATE KEY UPDATE total = (SELECT COUNT(*)
+			                                 FROM appointment a2 JOIN availability av2 ON av2.id = a2.availability_id
+			                                 WHERE av2.doctor_id = appointment_rollup.doctor_id
+			                                   AND av2.date = appointment_rollup.appointment_date
+			                                   AND a2.status = appointment_rollup.status)
+			""")
+	int upsertByDoctorIdAndAppointmentDateIn(@Param("doctorId") Integer doctorId, @Param("dates") Collection<LocalDate> dates);
+	
+	/**
+	 * Zeroes the counts of a doctor on the given days for the statuses no appointment has anymore,
+	 * which {@link #upsertByDoctorIdAndAppointmentDateIn(Integer, Collection)} doesn't write.
+	 */
+	@Modifying
+	@Query("""
+			UPDATE AppointmentRollup r SET r.total = 0
+			WHERE r.doctor.id = :doctorId
+			  AND r.appointmentDate IN :dates
+			  AND r.total > 0
+			  AND NOT EXISTS (SELECT a.id FROM Appointment a JOIN a.availability av
+			                  WHERE av.doctor = r.doctor AND av.date = r.appointmentDate AND a.status = r.status)
+			""")
+	int resetStaleByDoctorIdAndAppointmentDateIn(@Param("doctorId") Integer doctorId, @Param("dates") Collection<LocalDate> dates);
+	
+	@Modifying
+	@Query("""
+			INSERT INTO AppointmentRollup (doctor, appointmentDate, status, total)
+			SELECT av.doctor, av.date, a.status, COUNT(a)
+			FROM Appointment a JOIN a.availability av
+			GROUP BY av.doctor, av.date, a.status
+			""")
+	int insertAll();
+	
+	@Query("""
+		    SELECT new com.ps.dto.response.DailyAppointments(
+		        r.appointmentDate,
+		        SUM(CASE WHEN r.status = 'BOOKED' THEN r.total ELSE 0 END),
+		        SUM(CASE WHEN r.status = 'APPROVED' THEN r.total ELSE 0 END),
+		        SUM(CASE WHEN r.status = 'COMPLETED' THEN r.total ELSE 0 END),
+		        SUM(CASE WHEN r.status = 'D_CANCELLED' OR r.status = 'P_CANCELLED' THEN r.total ELSE 0 END)
+		    )
+		    FROM AppointmentRollup r
+		    WHERE r.appointmentDate BETWEEN :startDate AND :endDate
+		    GROUP BY r.appointmentDate
+		    ORDER BY r.appointmentDate ASC
+		""")
+	List<DailyAppointments> findTrendsByDate(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+	
+	@Query("""
+		    SELECT new com.ps.dto.response.DailyAppointments(
+		        r.appointmentDate,
+		        SUM(CASE WHEN r.status = 'BOOKED' THEN r.total ELSE 0 END),
+		        SUM(CASE WHEN r.status = 'APPROVED' THEN r.total ELSE 0 END),
+		        SUM(CASE WHEN r.status = 'COMPLETED' THEN r.total ELSE 0 END),
+		        SUM(CASE WHEN r.status = 'D_CANCELLED' OR r.status = 'P_CANCELLED' THEN r.total ELSE 0 END)
+		    )
+		    FROM AppointmentRollup r
+		    WHERE r.doctor.email = :email
+		      AND r.appointmentDate BETWEEN :startDate AND :endDate
+		    GROUP BY r.appointmentDate
+		    ORDER BY r.appointmentDate ASC
+		""")
+	List<DailyAppointments> findTrendsByDoctorEmailAndDate(@Param("email") String email, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+	
+	@Query("""
+			SELECT r.appointmentDate, SUM(r.total)
+	        FROM AppointmentRollup r
+	        WHERE r.appointmentDate BETWEEN :startDate AND :endDate
+	        GROUP BY r.appointmentDate
+	        """)
+	List<Object[]> countByDate(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
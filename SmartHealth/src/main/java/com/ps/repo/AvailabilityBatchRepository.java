@@ -0,0 +1,14 @@
+package com.ps.repo;
+
+import java.util.List;
+
+import com.ps.entity.Availability;
+
+/**
+ * Repository fragment for writing availability slots in JDBC batches
+ * instead of issuing a single row insert per slot.
+ */
+public interface AvailabilityBatchRepository {
+
+	int batchInsert(List<Availability> availabilities);
+}
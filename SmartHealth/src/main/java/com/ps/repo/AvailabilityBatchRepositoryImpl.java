@@ -0,0 +1,69 @@
+package com.ps.repo;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ps.config.props.SlotsProperties;
+import com.ps.entity.Availability;
+
+/**
+ * JDBC implementation of {@link AvailabilityBatchRepository}.
+ * <p>
+ * {@link Availability} uses identity generated keys, which disables Hibernate insert batching,
+ * so slots are written by multi-row inserts of {@code smarthealth.slots.batch-size} rows each.
+ * Rows clashing with the unique (doctor, date, start time, end time) constraint are ignored,
+ * keeping concurrent runs idempotent. Each insert is a single statement rather than a JDBC batch,
+ * because a batch rewritten by the driver reports {@link java.sql.Statement#SUCCESS_NO_INFO}
+ * instead of the rows inserted, while the update count of a multi-row insert leaves out the ignored rows.
+ */
+public class AvailabilityBatchRepositoryImpl implements AvailabilityBatchRepository {
+
+	private static final String INSERT_AVAILABILITY = "INSERT IGNORE INTO availability (doctor_id, date, start_time, end_time, status, mode, created_at) VALUES ";
+	private static final String VALUES_ROW = "(?, ?, ?, ?, ?, ?, ?)";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private SlotsProperties slotsProperties;
+
+	/**
+	 * Inserts the given availability slots, skipping those already stored.
+	 *
+	 * @param availabilities the slots to insert
+	 * @return the number of inserted rows, without the skipped duplicates
+	 */
+	@Override
+	public int batchInsert(List<Availability> availabilities) {
+		if (availabilities.isEmpty()) {
+			return 0;
+		}
+		Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+		int batchSize = Math.max(1, slotsProperties.getBatchSize());
+		int inserted = 0;
+		for (int from = 0; from < availabilities.size(); from += batchSize) {
+			List<Availability> batch = availabilities.subList(from, Math.min(from + batchSize, availabilities.size()));
+			String sql = INSERT_AVAILABILITY + String.join(", ", Collections.nCopies(batch.size(), VALUES_ROW));
+			inserted += jdbcTemplate.update(sql, ps -> {
+				int index = 1;
+				for (Availability availability : batch) {
+					ps.setInt(index++, availability.getDoctor().getId());
+					ps.setDate(index++, Date.valueOf(availability.getDate()));
+					ps.setTime(index++, Time.valueOf(availability.getStartTime()));
+					ps.setTime(index++, Time.valueOf(availability.getEndTime()));
+					ps.setString(index++, availability.getStatus().name());
+					ps.setString(index++, availability.getMode().name());
+					ps.setTimestamp(index++, createdAt);
+				}
+			});
+		}
+		return inserted;
+	}
+}
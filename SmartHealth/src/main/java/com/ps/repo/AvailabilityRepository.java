@@ -3,35 +3,27 @@
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.ps.dto.SlotListItem;
 import com.ps.entity.Availability;
-import com.ps.entity.Doctor;
 import com.ps.enu.SlotStatus;
 
-public interface AvailabilityRepository extends JpaRepository<Availability, Integer> {
+import jakarta.persistence.LockModeType;
+
+public interface AvailabilityRepository extends JpaRepository<Availability, Integer>, AvailabilityBatchRepository {
 
-	boolean existsByDoctorAndDateAndStartTimeAndEndTime(Doctor doctor, LocalDate date, LocalTime startTime, LocalTime endTime);
-	
-	@Query("""
-			SELECT CASE WHEN COUNT(a) > 0 THEN true ELSE false END
-			FROM Availability a
-			WHERE a.doctor.id = :doctorId
-			  AND a.date = :date
-			  AND (:startTime < a.endTime AND :endTime > a.startTime)
-	""")
-	boolean hasOverlappingSlot(@Param("doctorId") Integer doctorId, @Param("date") LocalDate date, 
-							   @Param("startTime") LocalTime startTime, @Param("endTime") LocalTime endTime);
-	
-	
 	@Query("""
 			SELECT a 
 			FROM Availability a
@@ -66,42 +58,95 @@ int deleteByDateAndTimeRange(@Param("email") String email, @Param("startDate") L
 								 @Param("endTime") LocalTime endTime, @Param("status") List<SlotStatus> status);
 	
 	@Query("""
-			SELECT a FROM Availability a
-			WHERE a.doctor.id = :id 
+			SELECT a.id, a.date, a.startTime, a.endTime
+			FROM Availability a
+			WHERE a.doctor.id = :doctorId
 			  AND a.status IN ('AVAILABLE', 'RE_AVAILABLE')
-			  AND (
-				  		(:date IS NULL AND ((a.date > :today) OR (a.date = :today AND a.endTime > :time)))
-				   	 OR (:date < :today AND ((a.date > :today) OR (a.date = :today AND a.endTime > :time)))
-				   	 OR (:date = :today AND a.endTime > :time)
-				   	 OR (:date > :today AND a.date = :date)
-			   	  )
+			  AND a.date >= :from
 			""")
-	List<Availability> viewSlots(@Param("id") Integer doctorId, @Param("date") LocalDate date, 
-								 @Param("today") LocalDate today, @Param("time") LocalTime time);
+	List<Object[]> findBookableSlotsByDoctorIdFrom(@Param("doctorId") Integer doctorId, @Param("from") LocalDate from);
+	
+	@Query("""
+			SELECT a.id, a.date, a.startTime, a.endTime
+			FROM Availability a
+			WHERE a.doctor.id = :doctorId
+			  AND a.status IN ('AVAILABLE', 'RE_AVAILABLE')
+			  AND a.date IN (:dates)
+			""")
+	List<Object[]> findBookableSlotsByDoctorIdAndDateIn(@Param("doctorId") Integer doctorId, @Param("dates") Collection<LocalDate> dates);
 	
 	@Query("SELECT a FROM Availability a WHERE a.id = :id AND a.status IN ('AVAILABLE', 'RE_AVAILABLE')")
 	Optional<Availability> fetchByIdAndStatusIn(@Param("id") Integer id);
 	
+	/**
+	 * Books a slot if it is still open and its doctor has no approved leave on its date, in a single conditional update,
+	 * so that neither a concurrent booking nor a leave approved since the slot was read can be overlooked.
+	 */
+	@Modifying
+	@Query("""
+			UPDATE Availability a SET a.status = 'BOOKED', a.updatedAt = :updatedAt
+			WHERE a.id = :id
+			  AND a.status IN ('AVAILABLE', 'RE_AVAILABLE')
+			  AND NOT EXISTS (SELECT l.id FROM DoctorLeave l
+			                  WHERE l.doctor = a.doctor AND l.status = 'APPROVED' AND a.date BETWEEN l.from AND l.to)
+			""")
+	int claimSlot(@Param("id") Integer id, @Param("updatedAt") LocalDateTime updatedAt);
+	
 	@Modifying
 	@Query("UPDATE Availability a SET a.status = :status, a.updatedAt = :updatedAt WHERE a.id = :id")
 	int updateStatusById(@Param("status") SlotStatus status, @Param("id") Integer id, @Param("updatedAt") LocalDateTime updatedAt);
 
 	@Modifying
-	@Query("UPDATE Availability a SET a.status = :status, a.updatedAt = :updatedAt WHERE a.id IN :ids")
-	int updateStatusByIds(@Param("status") SlotStatus status, @Param("ids") List<Integer> ids, @Param("updatedAt") LocalDateTime updatedAt);
-	
-	long count();
+	@Query("UPDATE Availability a SET a.status = :status, a.updatedAt = :updatedAt WHERE a.id IN :ids AND a.status IN :expected")
+	int updateStatusByIds(@Param("status") SlotStatus status, @Param("ids") List<Integer> ids, @Param("expected") List<SlotStatus> expected,
+			@Param("updatedAt") LocalDateTime updatedAt);
 	
-	long countByStatus(SlotStatus status);
+	@Query("SELECT a.status, COUNT(a) FROM Availability a GROUP BY a.status")
+	List<Object[]> countGroupByStatus();
 	
-	@Query("""
-			SELECT a FROM Availability a
+	@Query(value = """
+			SELECT new com.ps.dto.SlotListItem(a.id, a.date, a.startTime, a.endTime, a.status, a.mode, d.id, d.name)
+			FROM Availability a JOIN a.doctor d
+		    WHERE (:id IS NULL OR d.id = :id)
+		      AND (:date IS NULL OR a.date = :date)
+		      AND (:status IS NULL OR a.status = :status)
+			""",
+			countQuery = """
+			SELECT COUNT(a) FROM Availability a
 		    WHERE (:id IS NULL OR a.doctor.id = :id)
 		      AND (:date IS NULL OR a.date = :date)
 		      AND (:status IS NULL OR a.status = :status)
 			""")
-	Page<Availability> searchAvailability(@Param("id") Integer id, @Param("date") LocalDate date, @Param("status") SlotStatus status,
+	Page<SlotListItem> searchAvailability(@Param("id") Integer id, @Param("date") LocalDate date, @Param("status") SlotStatus status,
 			Pageable pageable);
+
+	/**
+	 * Retrieves a chunk of the slots matching the filters of {@link #searchAvailability(Integer, LocalDate, SlotStatus, Pageable)} in id order
+	 * after the given id, for exports read chunk by chunk.
+	 */
+	@Query("""
+			SELECT new com.ps.dto.SlotListItem(a.id, a.date, a.startTime, a.endTime, a.status, a.mode, d.id, d.name)
+			FROM Availability a JOIN a.doctor d
+		    WHERE a.id > :afterId
+		      AND (:id IS NULL OR d.id = :id)
+		      AND (:date IS NULL OR a.date = :date)
+		      AND (:status IS NULL OR a.status = :status)
+		    ORDER BY a.id ASC
+			""")
+	Slice<SlotListItem> exportAvailabilityAfter(@Param("id") Integer id, @Param("date") LocalDate date, @Param("status") SlotStatus status, 
+			@Param("afterId") Integer afterId, Pageable pageable);
+	
+	@Query("""
+			SELECT new com.ps.dto.SlotListItem(a.id, a.date, a.startTime, a.endTime, a.status, a.mode, d.id, d.name)
+			FROM Availability a JOIN a.doctor d
+		    WHERE a.id > :afterId
+		      AND (:id IS NULL OR d.id = :id)
+		      AND (:date IS NULL OR a.date = :date)
+		      AND (:status IS NULL OR a.status = :status)
+		    ORDER BY a.id ASC
+			""")
+	Slice<SlotListItem> searchAvailabilityAfter(@Param("id") Integer id, @Param("date") LocalDate date, @Param("status") SlotStatus status,
+			@Param("afterId") Integer afterId, Pageable pageable);
 	
 	@Modifying
 	@Query("DELETE FROM Availability a WHERE a.id = :id AND a.status = 'AVAILABLE'")
@@ -109,4 +154,43 @@ Page<Availability> searchAvailability(@Param("id") Integer id, @Param("date") Lo
 	
 	List<Availability> findByDoctorIdAndDateBetween(Integer id, LocalDate from, LocalDate to);
 	
+	/**
+	 * Reads the open slots of a doctor between two dates and locks them until the end of the transaction (SELECT ... FOR UPDATE),
+	 * so that none of them can be booked between this read and their release.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("""
+			SELECT a.id, a.status, a.date
+			FROM Availability a
+			WHERE a.doctor.id = :doctorId
+			  AND a.date BETWEEN :from AND :to
+			  AND a.status IN ('AVAILABLE', 'BOOKED', 'RE_AVAILABLE')
+			""")
+	List<Object[]> findOpenSlotsByDoctorIdAndDateBetween(@Param("doctorId") Integer doctorId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+	
+	@Modifying
+	@Query("DELETE FROM Availability a WHERE a.id IN :ids AND a.status = 'AVAILABLE'")
+	int deleteAvailableByIds(@Param("ids") List<Integer> ids);
+	
+	@Query("SELECT a.doctor.id FROM Availability a WHERE a.id = :id")
+	Optional<Integer> findDoctorIdById(@Param("id") Integer id);
+	
+	@Query("""
+			SELECT a.doctor.id, a.date, a.startTime, a.endTime
+			FROM Availability a
+			WHERE a.date BETWEEN :from AND :to
+			  AND (:doctorId IS NULL OR a.doctor.id = :doctorId)
+			""")
+	List<Object[]> findSlotTimesByDoctorAndDateBetween(@Param("doctorId") Integer doctorId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+	
+	@Query("""
+			SELECT a.doctor.id, a.date, COUNT(a)
+			FROM Availability a
+			WHERE a.status = 'AVAILABLE'
+			  AND a.date >= :today
+			  AND (:doctorId IS NULL OR a.doctor.id = :doctorId)
+			GROUP BY a.doctor.id, a.date
+			""")
+	List<Object[]> countOpenSlotsByDoctorAndDate(@Param("doctorId") Integer doctorId, @Param("today") LocalDate today);
+	
 }
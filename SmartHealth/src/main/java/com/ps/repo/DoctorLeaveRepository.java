@@ -6,7 +6,9 @@
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -14,6 +16,8 @@
 import com.ps.entity.DoctorLeave;
 import com.ps.enu.LeaveStatus;
 
+import jakarta.persistence.LockModeType;
+
 public interface DoctorLeaveRepository extends JpaRepository<DoctorLeave, Integer> {
 
 	@Query("""
@@ -45,19 +49,47 @@ AND l.status IN ('BOOKED', 'APPROVED')
 	Page<DoctorLeave> searchLeavesByAdmin(@Param("id") Integer id, @Param("from") LocalDate from, @Param("to") LocalDate to,
 			@Param("status") LeaveStatus status, Pageable pageable);
 	
+	@Query("""
+			SELECT l FROM DoctorLeave l
+			WHERE l.id > :afterId
+			  AND (:id IS NULL OR l.doctor.id = :id)
+			  AND (:from IS NULL OR l.from >= :from)
+			  AND (:to IS NULL OR l.to <= :to)
+			  AND (:status IS NULL OR l.status = :status)
+			ORDER BY l.id ASC
+			""")
+	Slice<DoctorLeave> searchLeavesByAdminAfter(@Param("id") Integer id, @Param("from") LocalDate from, @Param("to") LocalDate to,
+			@Param("status") LeaveStatus status, @Param("afterId") Integer afterId, Pageable pageable);
+	
 	@Modifying
 	@Query("UPDATE DoctorLeave l SET l.status = :status, l.updationTime = :updatedAt WHERE l.id = :id")
 	int changeLeaveStatus(@Param("id") Integer id, @Param("updatedAt") LocalDateTime updatedAt,  @Param("status") LeaveStatus status);
 	
+	@Query("SELECT l.doctor.id, l.from, l.to FROM DoctorLeave l WHERE l.status = :status")
+	List<Object[]> findDoctorIdAndDatesByStatus(@Param("status") LeaveStatus status);
+	
 	@Query("""
 			SELECT CASE WHEN COUNT(l) > 0 THEN true ELSE false END
 			FROM DoctorLeave l
-			WHERE l.doctor.email = :email
-			  AND :date >= l.from 
-			  AND :date <= l.to
+			WHERE l.doctor.id = :doctorId
+			  AND l.status = 'APPROVED'
+			  AND :date BETWEEN l.from AND l.to
+			""")
+	boolean isOnApprovedLeave(@Param("doctorId") Integer doctorId, @Param("date") LocalDate date);
+	
+	/**
+	 * Retrieves the approved leaves of a doctor covering the given date with a locking read, which, unlike a plain
+	 * read of the transaction snapshot, sees the leaves approved since the transaction started, and holds the read
+	 * leaves until the transaction ends.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_READ)
+	@Query("""
+			SELECT l FROM DoctorLeave l
+			WHERE l.doctor.id = :doctorId
 			  AND l.status = 'APPROVED'
+			  AND :date BETWEEN l.from AND l.to
 			""")
-	boolean existsByDoctorAndDay(@Param("email") String email, @Param("date") LocalDate date);
+	List<DoctorLeave> lockApprovedLeaves(@Param("doctorId") Integer doctorId, @Param("date") LocalDate date);
 	
 	List<DoctorLeave> findTop10ByFromGreaterThanEqualAndStatusOrderByFromAsc(LocalDate from, LeaveStatus status);
 }
@@ -1,21 +1,25 @@
 package com.ps.repo;
 
-import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.ps.dto.UserListItem;
 import com.ps.entity.Degree;
 import com.ps.entity.Department;
 import com.ps.entity.Doctor;
 import com.ps.entity.Specialization;
 
+import jakarta.transaction.Transactional;
+
 public interface DoctorRepository extends JpaRepository<Doctor, Integer> {
 
 	List<Doctor> findByEmailOrPhone(String email, String phone);
@@ -34,30 +38,48 @@ public interface DoctorRepository extends JpaRepository<Doctor, Integer> {
 
 	@Query("UPDATE Doctor d SET d.password=:password WHERE d.email=:email")
 	@Modifying
+	@Transactional
 	int updatePassword(@Param("password") String password, @Param("email") String email);
 
 	@Query("""
-			SELECT DISTINCT d FROM Doctor d
-			JOIN Availability a ON a.doctor = d
+			SELECT d.id, d.name, d.yearOfExperience, d.profilePicPath FROM Doctor d
 			WHERE d.isActive = true
 			  AND d.profileComplete = true
-			  AND a.status = 'AVAILABLE'
-			  AND a.date >= :today
-			  AND (:name IS NULL OR LOWER(d.name) LIKE LOWER(CONCAT('%', :name, '%')))
-			  AND (:department IS NULL OR :department MEMBER OF d.departments)
-			  AND (:specialization IS NULL OR :specialization MEMBER OF d.specializations)
-			  AND (:degree IS NULL OR :degree MEMBER OF d.degrees)
-			  AND (:date IS NULL OR a.date = :date)
+			  AND (:id IS NULL OR d.id = :id)
 			""")
-	Page<Doctor> searchDoctorsWithSlots(@Param("name") String name, @Param("department") Department department,
-   							   @Param("specialization") Specialization specialization, @Param("degree") Degree degree,
-   							   @Param("date") LocalDate date, @Param("today") LocalDate today, Pageable pageable);
-
-	long count();
-
-	long countByProfileCompleteFalse();
+	List<Object[]> findSearchableDoctors(@Param("id") Integer id);
+	
+	@Query("""
+			SELECT d.id, x.id, x.name FROM Doctor d JOIN d.degrees x
+			WHERE d.isActive = true
+			  AND d.profileComplete = true
+			  AND (:id IS NULL OR d.id = :id)
+			""")
+	List<Object[]> findSearchableDoctorDegrees(@Param("id") Integer id);
+	
+	@Query("""
+			SELECT d.id, x.id, x.name FROM Doctor d JOIN d.specializations x
+			WHERE d.isActive = true
+			  AND d.profileComplete = true
+			  AND (:id IS NULL OR d.id = :id)
+			""")
+	List<Object[]> findSearchableDoctorSpecializations(@Param("id") Integer id);
+	
+	@Query("""
+			SELECT d.id, x.id, x.name FROM Doctor d JOIN d.departments x
+			WHERE d.isActive = true
+			  AND d.profileComplete = true
+			  AND (:id IS NULL OR d.id = :id)
+			""")
+	List<Object[]> findSearchableDoctorDepartments(@Param("id") Integer id);
 
-	long countByIsActiveTrue();
+	@Query("""
+			SELECT COUNT(d),
+			       COALESCE(SUM(CASE WHEN d.isActive = true THEN 1 ELSE 0 END), 0),
+			       COALESCE(SUM(CASE WHEN d.profileComplete = false THEN 1 ELSE 0 END), 0)
+			FROM Doctor d
+			""")
+	List<Object[]> countProfileStats();
 
 	@Query("""
 			SELECT d FROM Doctor d
@@ -80,6 +102,127 @@ Page<Doctor> searchDoctors(@Param("id") Integer id, @Param("name") String name,
 			@Param("registrationNumber") String registrationNumber, @Param("profileComplete") Boolean profileComplete, 
 			@Param("isActive") Boolean isActive, Pageable pageable);
 	
+	@Query("""
+			SELECT d FROM Doctor d
+			WHERE d.id > :afterId
+			  AND (:id IS NULL OR d.id = :id)
+			  AND (:name IS NULL OR LOWER(d.name) LIKE LOWER(CONCAT('%', :name, '%')))
+			  AND (:email IS NULL OR LOWER(d.email) LIKE LOWER(CONCAT('%', :email, '%')))
+			  AND (:phone IS NULL OR d.phone LIKE CONCAT('%', :phone, '%'))
+			  AND (:gender IS NULL OR d.gender = :gender)
+			  AND (:degree IS NULL OR :degree MEMBER OF d.degrees)
+			  AND (:specialization IS NULL OR :specialization MEMBER OF d.specializations)
+			  AND (:department IS NULL OR :department MEMBER OF d.departments)
+			  AND (:yearOfExperience IS NULL OR d.yearOfExperience = :yearOfExperience)
+			  AND (:registrationNumber IS NULL OR d.registrationNumber LIKE CONCAT('%', :registrationNumber, '%'))
+			  AND (:profileComplete IS NULL OR d.profileComplete = :profileComplete)
+			  AND (:isActive IS NULL OR d.isActive = :isActive)
+			ORDER BY d.id ASC
+			""")
+	Slice<Doctor> searchDoctorsAfter(@Param("id") Integer id, @Param("name") String name, @Param("email") String email, @Param("phone") String phone, 
+			@Param("gender") String gender, @Param("degree") Degree degree, @Param("specialization") Specialization specialization, 
+			@Param("department") Department department, @Param("yearOfExperience") Integer yearOfExperience,
+			@Param("registrationNumber") String registrationNumber, @Param("profileComplete") Boolean profileComplete, 
+			@Param("isActive") Boolean isActive, @Param("afterId") Integer afterId, Pageable pageable);
+	
+	@Query("""
+			SELECT d FROM Doctor d
+			WHERE (:id IS NULL OR d.id = :id)
+			  AND d.id IN :ids
+			  AND (:email IS NULL OR LOWER(d.email) LIKE LOWER(CONCAT('%', :email, '%')))
+			  AND (:phone IS NULL OR d.phone LIKE CONCAT('%', :phone, '%'))
+			  AND (:gender IS NULL OR d.gender = :gender)
+			  AND (:degree IS NULL OR :degree MEMBER OF d.degrees)
+			  AND (:specialization IS NULL OR :specialization MEMBER OF d.specializations)
+			  AND (:department IS NULL OR :department MEMBER OF d.departments)
+			  AND (:yearOfExperience IS NULL OR d.yearOfExperience = :yearOfExperience)
+			  AND (:registrationNumber IS NULL OR d.registrationNumber LIKE CONCAT('%', :registrationNumber, '%'))
+			  AND (:profileComplete IS NULL OR d.profileComplete = :profileComplete)
+			  AND (:isActive IS NULL OR d.isActive = :isActive)
+			""")
+	Page<Doctor> searchDoctorsByIds(@Param("id") Integer id, @Param("ids") List<Integer> ids, @Param("email") String email, @Param("phone") String phone, 
+			@Param("gender") String gender, @Param("degree") Degree degree, @Param("specialization") Specialization specialization, 
+			@Param("department") Department department, @Param("yearOfExperience") Integer yearOfExperience,
+			@Param("registrationNumber") String registrationNumber, @Param("profileComplete") Boolean profileComplete, 
+			@Param("isActive") Boolean isActive, Pageable pageable);
+	
+	@Query("""
+			SELECT d FROM Doctor d
+			WHERE d.id > :afterId
+			  AND (:id IS NULL OR d.id = :id)
+			  AND d.id IN :ids
+			  AND (:email IS NULL OR LOWER(d.email) LIKE LOWER(CONCAT('%', :email, '%')))
+			  AND (:phone IS NULL OR d.phone LIKE CONCAT('%', :phone, '%'))
+			  AND (:gender IS NULL OR d.gender = :gender)
+			  AND (:degree IS NULL OR :degree MEMBER OF d.degrees)
+			  AND (:specialization IS NULL OR :specialization MEMBER OF d.specializations)
+			  AND (:department IS NULL OR :department MEMBER OF d.departments)
+			  AND (:yearOfExperience IS NULL OR d.yearOfExperience = :yearOfExperience)
+			  AND (:registrationNumber IS NULL OR d.registrationNumber LIKE CONCAT('%', :registrationNumber, '%'))
+			  AND (:profileComplete IS NULL OR d.profileComplete = :profileComplete)
+			  AND (:isActive IS NULL OR d.isActive = :isActive)
+			ORDER BY d.id ASC
+			""")
+	Slice<Doctor> searchDoctorsByIdsAfter(@Param("id") Integer id, @Param("ids") List<Integer> ids, @Param("email") String email, @Param("phone") String phone, 
+			@Param("gender") String gender, @Param("degree") Degree degree, @Param("specialization") Specialization specialization, 
+			@Param("department") Department department, @Param("yearOfExperience") Integer yearOfExperience,
+			@Param("registrationNumber") String registrationNumber, @Param("profileComplete") Boolean profileComplete, 
+			@Param("isActive") Boolean isActive, @Param("afterId") Integer afterId, Pageable pageable);
+	
+	/**
+	 * Retrieves a chunk of the doctors matching the filters of {@link #searchDoctors} in id order
+	 * after the given id, for exports read chunk by chunk.
+	 */
+	@Query("""
+			SELECT new com.ps.dto.UserListItem(d.id, d.name, d.email, d.phone, d.isActive, d.profileComplete) FROM Doctor d
+			WHERE d.id > :afterId
+			  AND (:id IS NULL OR d.id = :id)
+			  AND (:name IS NULL OR LOWER(d.name) LIKE LOWER(CONCAT('%', :name, '%')))
+			  AND (:email IS NULL OR LOWER(d.email) LIKE LOWER(CONCAT('%', :email, '%')))
+			  AND (:phone IS NULL OR d.phone LIKE CONCAT('%', :phone, '%'))
+			  AND (:gender IS NULL OR d.gender = :gender)
+			  AND (:degree IS NULL OR :degree MEMBER OF d.degrees)
+			  AND (:specialization IS NULL OR :specialization MEMBER OF d.specializations)
+			  AND (:department IS NULL OR :department MEMBER OF d.departments)
+			  AND (:yearOfExperience IS NULL OR d.yearOfExperience = :yearOfExperience)
+			  AND (:registrationNumber IS NULL OR d.registrationNumber LIKE CONCAT('%', :registrationNumber, '%'))
+			  AND (:profileComplete IS NULL OR d.profileComplete = :profileComplete)
+			  AND (:isActive IS NULL OR d.isActive = :isActive)
+			ORDER BY d.id ASC
+			""")
+	Slice<UserListItem> exportDoctorsAfter(@Param("id") Integer id, @Param("name") String name, @Param("email") String email, @Param("phone") String phone, 
+			@Param("gender") String gender, @Param("degree") Degree degree, @Param("specialization") Specialization specialization, 
+			@Param("department") Department department, @Param("yearOfExperience") Integer yearOfExperience,
+			@Param("registrationNumber") String registrationNumber, @Param("profileComplete") Boolean profileComplete, 
+			@Param("isActive") Boolean isActive, @Param("afterId") Integer afterId, Pageable pageable);
+	
+	/**
+	 * Retrieves a chunk of the doctors matching the filters of {@link #searchDoctorsByIds} in id order
+	 * after the given id, for exports read chunk by chunk.
+	 */
+	@Query("""
+			SELECT new com.ps.dto.UserListItem(d.id, d.name, d.email, d.phone, d.isActive, d.profileComplete) FROM Doctor d
+			WHERE d.id > :afterId
+			  AND (:id IS NULL OR d.id = :id)
+			  AND d.id IN :ids
+			  AND (:email IS NULL OR LOWER(d.email) LIKE LOWER(CONCAT('%', :email, '%')))
+			  AND (:phone IS NULL OR d.phone LIKE CONCAT('%', :phone, '%'))
+			  AND (:gender IS NULL OR d.gender = :gender)
+			  AND (:degree IS NULL OR :degree MEMBER OF d.degrees)
+			  AND (:specialization IS NULL OR :specialization MEMBER OF d.specializations)
+			  AND (:department IS NULL OR :department MEMBER OF d.departments)
+			  AND (:yearOfExperience IS NULL OR d.yearOfExperience = :yearOfExperience)
+			  AND (:registrationNumber IS NULL OR d.registrationNumber LIKE CONCAT('%', :registrationNumber, '%'))
+			  AND (:profileComplete IS NULL OR d.profileComplete = :profileComplete)
+			  AND (:isActive IS NULL OR d.isActive = :isActive)
+			ORDER BY d.id ASC
+			""")
+	Slice<UserListItem> exportDoctorsByIdsAfter(@Param("id") Integer id, @Param("ids") List<Integer> ids, @Param("email") String email, @Param("phone") String phone, 
+			@Param("gender") String gender, @Param("degree") Degree degree, @Param("specialization") Specialization specialization, 
+			@Param("department") Department department, @Param("yearOfExperience") Integer yearOfExperience,
+			@Param("registrationNumber") String registrationNumber, @Param("profileComplete") Boolean profileComplete, 
+			@Param("isActive") Boolean isActive, @Param("afterId") Integer afterId, Pageable pageable);
+	
 	@Modifying
 	@Query("UPDATE Doctor d SET d.isActive = :isActive WHERE d.id = :id")
 	int toggleStatus(@Param("id") Integer id, @Param("isActive") boolean isActive);
@@ -90,4 +233,15 @@ public interface DoctorIdNameProjection {
 	}
 	
 	List<DoctorIdNameProjection> findAllProjectedBy();
+	
+	List<DoctorIdNameProjection> findByIdGreaterThanOrderByIdAsc(Integer id, Pageable pageable);
+	
+	@Query("SELECT d.name FROM Doctor d WHERE d.id = :id")
+	Optional<String> findNameById(@Param("id") Integer id);
+	
+	/**
+	 * Retrieves the id and name of the doctors created or updated since the given time, for the name index.
+	 */
+	@Query("SELECT d.id AS id, d.name AS name FROM Doctor d WHERE d.creationTime >= :since OR d.updationTime >= :since")
+	List<DoctorIdNameProjection> findChangedSince(@Param("since") LocalDateTime since);
 }
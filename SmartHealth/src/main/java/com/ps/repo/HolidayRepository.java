@@ -1,12 +1,17 @@
 package com.ps.repo;
 
 import java.time.LocalDate;
+import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import com.ps.entity.Holiday;
 
 public interface HolidayRepository extends JpaRepository<Holiday, Integer> {
 
+	@Query("SELECT h.holidayDate FROM Holiday h")
+	List<LocalDate> findAllHolidayDates();
+	
 	boolean existsByHolidayDate(LocalDate holidayDate);
 }
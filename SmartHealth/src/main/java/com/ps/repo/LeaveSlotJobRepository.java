@@ -0,0 +1,15 @@
+package com.ps.repo;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.ps.entity.LeaveSlotJob;
+import com.ps.enu.LeaveSlotJobStatus;
+
+public interface LeaveSlotJobRepository extends JpaRepository<LeaveSlotJob, Integer> {
+
+	List<LeaveSlotJob> findByStatusOrderByIdAsc(LeaveSlotJobStatus status);
+	
+	List<LeaveSlotJob> findTop10ByOrderByIdDesc();
+}
@@ -1,17 +1,22 @@
 package com.ps.repo;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.ps.dto.UserListItem;
 import com.ps.entity.Patient;
 
+import jakarta.transaction.Transactional;
+
 public interface PatientRepository extends JpaRepository<Patient, Integer> {
 
 	List<Patient> findByEmailOrPhone(String email, String phone);
@@ -23,6 +28,7 @@ public interface PatientRepository extends JpaRepository<Patient, Integer> {
 
 	@Query("UPDATE Patient p SET p.password=:password WHERE p.email=:email")
 	@Modifying
+	@Transactional
 	int updatePassword(@Param("password") String password, @Param("email") String email);
 
 	@Query("UPDATE Patient p SET p.profilePicPath=:profilePicPath WHERE p.email=:email")
@@ -32,11 +38,13 @@ public interface PatientRepository extends JpaRepository<Patient, Integer> {
 	@Query("SELECT p.profilePicPath FROM Patient p WHERE p.email=:email")
 	String getProfilePicName(@Param("email") String email);
 
-	long count();
-
-	long countByProfileCompleteFalse();
-
-	long countByIsActiveTrue();
+	@Query("""
+			SELECT COUNT(p),
+			       COALESCE(SUM(CASE WHEN p.isActive = true THEN 1 ELSE 0 END), 0),
+			       COALESCE(SUM(CASE WHEN p.profileComplete = false THEN 1 ELSE 0 END), 0)
+			FROM Patient p
+			""")
+	List<Object[]> countProfileStats();
 
 	@Query("""
 			SELECT p FROM Patient p
@@ -51,6 +59,92 @@ public interface PatientRepository extends JpaRepository<Patient, Integer> {
 	Page<Patient> searchPatients(@Param("id") Integer id, @Param("name") String name, @Param("email") String email, @Param("phone") String phone, 
 			@Param("gender") String gender, @Param("profileComplete") Boolean profileComplete, @Param("isActive") Boolean isActive, 
 			Pageable pageable);
+	
+	@Query("""
+			SELECT p FROM Patient p
+			WHERE p.id > :afterId
+			  AND (:id IS NULL OR p.id = :id)
+			  AND (:name IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%')))
+			  AND (:email IS NULL OR LOWER(p.email) LIKE LOWER(CONCAT('%', :email, '%')))
+			  AND (:phone IS NULL OR p.phone LIKE CONCAT('%', :phone, '%'))
+			  AND (:gender IS NULL OR p.gender = :gender)
+			  AND (:profileComplete IS NULL OR p.profileComplete = :profileComplete)
+			  AND (:isActive IS NULL OR p.isActive = :isActive)
+			ORDER BY p.id ASC
+			""")
+	Slice<Patient> searchPatientsAfter(@Param("id") Integer id, @Param("name") String name, @Param("email") String email, @Param("phone") String phone, 
+			@Param("gender") String gender, @Param("profileComplete") Boolean profileComplete, @Param("isActive") Boolean isActive, 
+			@Param("afterId") Integer afterId, Pageable pageable);
+	
+	@Query("""
+			SELECT p FROM Patient p
+			WHERE (:id IS NULL OR p.id = :id)
+			  AND p.id IN :ids
+			  AND (:email IS NULL OR LOWER(p.email) LIKE LOWER(CONCAT('%', :email, '%')))
+			  AND (:phone IS NULL OR p.phone LIKE CONCAT('%', :phone, '%'))
+			  AND (:gender IS NULL OR p.gender = :gender)
+			  AND (:profileComplete IS NULL OR p.profileComplete = :profileComplete)
+			  AND (:isActive IS NULL OR p.isActive = :isActive)
+			""")
+	Page<Patient> searchPatientsByIds(@Param("id") Integer id, @Param("ids") List<Integer> ids, @Param("email") String email, @Param("phone") String phone, 
+			@Param("gender") String gender, @Param("profileComplete") Boolean profileComplete, @Param("isActive") Boolean isActive, 
+			Pageable pageable);
+	
+	@Query("""
+			SELECT p FROM Patient p
+			WHERE p.id > :afterId
+			  AND (:id IS NULL OR p.id = :id)
+			  AND p.id IN :ids
+			  AND (:email IS NULL OR LOWER(p.email) LIKE LOWER(CONCAT('%', :email, '%')))
+			  AND (:phone IS NULL OR p.phone LIKE CONCAT('%', :phone, '%'))
+			  AND (:gender IS NULL OR p.gender = :gender)
+			  AND (:profileComplete IS NULL OR p.profileComplete = :profileComplete)
+			  AND (:isActive IS NULL OR p.isActive = :isActive)
+			ORDER BY p.id ASC
+			""")
+	Slice<Patient> searchPatientsByIdsAfter(@Param("id") Integer id, @Param("ids") List<Integer> ids, @Param("email") String email, @Param("phone") String phone, 
+			@Param("gender") String gender, @Param("profileComplete") Boolean profileComplete, @Param("isActive") Boolean isActive, 
+			@Param("afterId") Integer afterId, Pageable pageable);
+
+	/**
+	 * Retrieves a chunk of the patients matching the filters of {@link #searchPatients} in id order
+	 * after the given id, for exports read chunk by chunk.
+	 */
+	@Query("""
+			SELECT new com.ps.dto.UserListItem(p.id, p.name, p.email, p.phone, p.isActive, p.profileComplete) FROM Patient p
+			WHERE p.id > :afterId
+			  AND (:id IS NULL OR p.id = :id)
+			  AND (:name IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%')))
+			  AND (:email IS NULL OR LOWER(p.email) LIKE LOWER(CONCAT('%', :email, '%')))
+			  AND (:phone IS NULL OR p.phone LIKE CONCAT('%', :phone, '%'))
+			  AND (:gender IS NULL OR p.gender = :gender)
+			  AND (:profileComplete IS NULL OR p.profileComplete = :profileComplete)
+			  AND (:isActive IS NULL OR p.isActive = :isActive)
+			ORDER BY p.id ASC
+			""")
+	Slice<UserListItem> exportPatientsAfter(@Param("id") Integer id, @Param("name") String name, @Param("email") String email, @Param("phone") String phone, 
+			@Param("gender") String gender, @Param("profileComplete") Boolean profileComplete, @Param("isActive") Boolean isActive, 
+			@Param("afterId") Integer afterId, Pageable pageable);
+	
+	/**
+	 * Retrieves a chunk of the patients matching the filters of {@link #searchPatientsByIds} in id order
+	 * after the given id, for exports read chunk by chunk.
+	 */
+	@Query("""
+			SELECT new com.ps.dto.UserListItem(p.id, p.name, p.email, p.phone, p.isActive, p.profileComplete) FROM Patient p
+			WHERE p.id > :afterId
+			  AND (:id IS NULL OR p.id = :id)
+			  AND p.id IN :ids
+			  AND (:email IS NULL OR LOWER(p.email) LIKE LOWER(CONCAT('%', :email, '%')))
+			  AND (:phone IS NULL OR p.phone LIKE CONCAT('%', :phone, '%'))
+			  AND (:gender IS NULL OR p.gender = :gender)
+			  AND (:profileComplete IS NULL OR p.profileComplete = :profileComplete)
+			  AND (:isActive IS NULL OR p.isActive = :isActive)
+			ORDER BY p.id ASC
+			""")
+	Slice<UserListItem> exportPatientsByIdsAfter(@Param("id") Integer id, @Param("ids") List<Integer> ids, @Param("email") String email, @Param("phone") String phone, 
+			@Param("gender") String gender, @Param("profileComplete") Boolean profileComplete, @Param("isActive") Boolean isActive, 
+			@Param("afterId") Integer afterId, Pageable pageable);
 
 	@Modifying
 	@Query("UPDATE Patient p SET p.isActive = :isActive WHERE p.id = :id")
@@ -62,4 +156,15 @@ public interface PatientIdNameProjection {
 	}
 	
 	List<PatientIdNameProjection> findAllProjectedBy();
+	
+	List<PatientIdNameProjection> findByIdGreaterThanOrderByIdAsc(Integer id, Pageable pageable);
+	
+	@Query("SELECT p.name FROM Patient p WHERE p.id = :id")
+	Optional<String> findNameById(@Param("id") Integer id);
+	
+	/**
+	 * Retrieves the id and name of the patients created or updated since the given time, for the name index.
+	 */
+	@Query("SELECT p.id AS id, p.name AS name FROM Patient p WHERE p.creationTime >= :since OR p.updationTime >= :since")
+	List<PatientIdNameProjection> findChangedSince(@Param("since") LocalDateTime since);
 }
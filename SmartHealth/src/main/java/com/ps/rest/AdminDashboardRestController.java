@@ -75,4 +75,25 @@ public ResponseEntity<?> getTodaysAppointments() {
 		return CommonUtil.prepareResponseWithContent(adminDashboardService.todaysAppointments(), HttpStatus.OK);
 	}
 	
+	/**
+     * Retrieves throughput statistics of the last nightly availability slots generation run.
+     *
+     * @return {@link ResponseEntity} containing doctors/sec, slots/sec and per-run counters,
+     *         or an empty value if the job has not run since startup.
+     */
+	@GetMapping(IPathConstants.SLOT_GENERATION_STATS)
+	public ResponseEntity<?> getSlotGenerationStats() {
+		return CommonUtil.prepareResponseWithContent(adminDashboardService.getSlotGenerationStats(), HttpStatus.OK);
+	}
+	
+	/**
+     * Retrieves the progress of the most recent background jobs releasing the slots of approved leaves.
+     *
+     * @return {@link ResponseEntity} containing per job the processed days out of the leave days
+     *         along with the deleted slots and the cancelled slots and appointments.
+     */
+	@GetMapping(IPathConstants.LEAVE_SLOT_JOBS)
+	public ResponseEntity<?> getLeaveSlotJobs() {
+		return CommonUtil.prepareResponseWithContent(adminDashboardService.getLeaveSlotJobs(), HttpStatus.OK);
+	}
 }
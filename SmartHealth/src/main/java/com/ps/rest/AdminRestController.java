@@ -3,12 +3,16 @@
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Semaphore;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,7 +23,10 @@
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.ps.config.props.ExportProperties;
+import com.ps.constants.IAdminConstants;
 import com.ps.constants.IDoctorConstants;
 import com.ps.constants.IExceptionConstants;
 import com.ps.constants.IPathConstants;
@@ -30,11 +37,14 @@
 import com.ps.dto.request.ADSRequest;
 import com.ps.dto.request.APSRequest;
 import com.ps.enu.AppointmentStatus;
+import com.ps.enu.ExportFormat;
 import com.ps.enu.LeaveStatus;
 import com.ps.enu.SlotStatus;
+import com.ps.exception.AdminException;
 import com.ps.service.IAdminService;
 import com.ps.util.CommonUtil;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.validation.Valid;
 
 /**
@@ -48,38 +58,82 @@ public class AdminRestController {
 	@Autowired
 	private IAdminService adminService;
 
+	@Autowired
+	private ExportProperties exportProperties;
+
+	private Semaphore exportPermits;
+
+	@PostConstruct
+	public void init() {
+		exportPermits = new Semaphore(Math.max(1, exportProperties.getMaxConcurrentExports()));
+	}
+
 	/**
 	 * Retrieves a list of doctors based on optional filter parameters for admin viewing.
 	 * All parameters are optional, and the method filters results accordingly.
 	 * 
 	 * @param dsRequest containing fields to filter list of doctor
 	 * @param pageable pagination details
+	 * @param cursor optional, switches to cursor pagination: empty for the first page, then the nextCursor of the previous page
 	 * @return
 	 */
 	@PostMapping(IPathConstants.SEARCH_DOCTOR_PATH)
 	public ResponseEntity<?> searchDoctors(@RequestBody(required = false) @Valid ADSRequest dsRequest, 
-			@PageableDefault(page = 0, size = 10) Pageable pageable) {
+			@PageableDefault(page = 0, size = 10) Pageable pageable, @RequestParam(name = IRequestConstants.CURSOR, required = false) String cursor) {
 
 		pageable = PageRequest.of(pageable.getPageNumber(), 10, pageable.getSort());
+		if (cursor != null)
+			return CommonUtil.prepareResponseWithContent(adminService.searchDoctorsByCursor(dsRequest, cursor, pageable.getPageSize()), HttpStatus.OK);
 		return CommonUtil.prepareResponseWithContent(adminService.searchDoctors(dsRequest, pageable), HttpStatus.OK);
 	}
 
+	/**
+	 * Export doctors matching the same optional filter parameters as {@link #searchDoctors(ADSRequest, Pageable, String)},
+	 * without pagination. Rows are streamed to the response as they are read from the database.
+	 * 
+	 * @param dsRequest containing fields to filter list of doctor
+	 * @param format file format of the export, CSV by default
+	 * @return
+	 */
+	@PostMapping(IPathConstants.EXPORT_DOCTOR_PATH)
+	public ResponseEntity<StreamingResponseBody> exportDoctors(@RequestBody(required = false) @Valid ADSRequest dsRequest, 
+			@RequestParam(name = IRequestConstants.FORMAT, defaultValue = "CSV") ExportFormat format) {
+		return prepareExportResponse(IAdminConstants.DOCTORS, format, outputStream -> adminService.exportDoctors(dsRequest, format, outputStream));
+	}
+
 	/**
 	 * Retrieves a list of patients based on optional filter parameters for admin viewing.
 	 * All parameters are optional, and the method filters results accordingly.
 	 * 
 	 * @param apsRequest containing fields to filter list of patient
 	 * @param pageable pagination details
+	 * @param cursor optional, switches to cursor pagination: empty for the first page, then the nextCursor of the previous page
 	 * @return
 	 */
 	@PostMapping(IPathConstants.SEARCH_PATIENT_PATH)
 	public ResponseEntity<?> searchPatients(@RequestBody(required = false) APSRequest apsRequest, 
-			@PageableDefault(page = 0, size = 10) Pageable pageable) {
+			@PageableDefault(page = 0, size = 10) Pageable pageable, @RequestParam(name = IRequestConstants.CURSOR, required = false) String cursor) {
 
 		pageable = PageRequest.of(pageable.getPageNumber(), 10, pageable.getSort());
+		if (cursor != null)
+			return CommonUtil.prepareResponseWithContent(adminService.searchPatientsByCursor(apsRequest, cursor, pageable.getPageSize()), HttpStatus.OK);
 		return CommonUtil.prepareResponseWithContent(adminService.searchPatients(apsRequest, pageable), HttpStatus.OK);
 	}
 
+	/**
+	 * Export patients matching the same optional filter parameters as {@link #searchPatients(APSRequest, Pageable, String)},
+	 * without pagination. Rows are streamed to the response as they are read from the database.
+	 * 
+	 * @param apsRequest containing fields to filter list of patient
+	 * @param format file format of the export, CSV by default
+	 * @return
+	 */
+	@PostMapping(IPathConstants.EXPORT_PATIENT_PATH)
+	public ResponseEntity<StreamingResponseBody> exportPatients(@RequestBody(required = false) APSRequest apsRequest, 
+			@RequestParam(name = IRequestConstants.FORMAT, defaultValue = "CSV") ExportFormat format) {
+		return prepareExportResponse(IAdminConstants.PATIENTS, format, outputStream -> adminService.exportPatients(apsRequest, format, outputStream));
+	}
+
 	/**
 	 * Retrieve details of particular user based on given role and unique id for admin viewing.
 	 * Both role and id are mandatory parameters to view detail of a user by admin.
@@ -145,19 +199,43 @@ public ResponseEntity<?> getUsersList(@PathVariable(IRequestConstants.ROLE) Stri
 	 * @param date view slots for particular date
 	 * @param status fetch slots with given status
 	 * @param pageable pagination details
+	 * @param cursor optional, switches to cursor pagination: empty for the first page, then the nextCursor of the previous page
 	 * @return
 	 */
 	@GetMapping(IPathConstants.SEARCH_SLOTS_PATH)
 	public ResponseEntity<?> searchAvailabilitySlots(@RequestParam(name = IRequestConstants.DOCTOR_ID, required = false) Integer doctorId,
 			@RequestParam(name = IRequestConstants.DATE, required = false) LocalDate date, @RequestParam(name = IRequestConstants.STATUS, required=false) SlotStatus status,
-			Pageable pageable) {
+			Pageable pageable, @RequestParam(name = IRequestConstants.CURSOR, required = false) String cursor) {
 		Map<String, Object> requestMap = new HashMap<>();
 		requestMap.put(IRequestConstants.DOCTOR_ID, doctorId);
 		requestMap.put(IRequestConstants.DATE, date);
 		requestMap.put(IRequestConstants.STATUS, status);
+		if (cursor != null)
+			return CommonUtil.prepareResponseWithContent(adminService.searchAvailabilitySlotsByCursor(requestMap, cursor, pageable.getPageSize()), HttpStatus.OK);
 		return CommonUtil.prepareResponseWithContent(adminService.searchAvailabilitySlots(requestMap, pageable), HttpStatus.OK);
 	}
 
+	/**
+	 * Export availability slots matching the same optional filter parameters as slot search, without pagination.
+	 * Rows are streamed to the response as they are read from the database.
+	 * 
+	 * @param doctorId unique number to export slots of a doctor
+	 * @param date export slots of particular date
+	 * @param status export slots with given status
+	 * @param format file format of the export, CSV by default
+	 * @return
+	 */
+	@GetMapping(IPathConstants.EXPORT_SLOTS_PATH)
+	public ResponseEntity<StreamingResponseBody> exportAvailabilitySlots(@RequestParam(name = IRequestConstants.DOCTOR_ID, required = false) Integer doctorId,
+			@RequestParam(name = IRequestConstants.DATE, required = false) LocalDate date, @RequestParam(name = IRequestConstants.STATUS, required=false) SlotStatus status,
+			@RequestParam(name = IRequestConstants.FORMAT, defaultValue = "CSV") ExportFormat format) {
+		Map<String, Object> requestMap = new HashMap<>();
+		requestMap.put(IRequestConstants.DOCTOR_ID, doctorId);
+		requestMap.put(IRequestConstants.DATE, date);
+		requestMap.put(IRequestConstants.STATUS, status);
+		return prepareExportResponse(IAdminConstants.SLOTS, format, outputStream -> adminService.exportAvailabilitySlots(requestMap, format, outputStream));
+	}
+
 	/**
 	 * Delete particular slot by providing it's id by admin.
 	 * 
@@ -209,12 +287,14 @@ public ResponseEntity<?> changeAvailabilityAppointmentStatus(@RequestParam(IRequ
 	 * @param date view appointments for particular date
 	 * @param status view appointments of given status
 	 * @param pageable pagination details
+	 * @param cursor optional, switches to cursor pagination: empty for the first page, then the nextCursor of the previous page
 	 * @return
 	 */
 	@GetMapping(IPathConstants.SEARCH_APPOINTMENTS_PATH)
 	public ResponseEntity<?> searchAppointments(@RequestParam(name = IRequestConstants.DOCTOR_ID, required = false) Integer doctorId,
 			@RequestParam(name = IRequestConstants.PATIENT_ID, required=false) Integer patientId, @RequestParam(name = IRequestConstants.DATE, required = false) LocalDate date, 
-			@RequestParam(name = IRequestConstants.STATUS, required=false) AppointmentStatus status, @PageableDefault(page = 0,size = 10) Pageable pageable) {
+			@RequestParam(name = IRequestConstants.STATUS, required=false) AppointmentStatus status, @PageableDefault(page = 0,size = 10) Pageable pageable,
+			@RequestParam(name = IRequestConstants.CURSOR, required = false) String cursor) {
 
 		Map<String, Object> requestMap = new HashMap<>();
 		requestMap.put(IRequestConstants.DOCTOR_ID, doctorId);
@@ -222,9 +302,35 @@ public ResponseEntity<?> searchAppointments(@RequestParam(name = IRequestConstan
 		requestMap.put(IRequestConstants.DATE, date);
 		requestMap.put(IRequestConstants.STATUS, status);
 		pageable = PageRequest.of(pageable.getPageNumber(), 10, pageable.getSort());
+		if (cursor != null)
+			return CommonUtil.prepareResponseWithContent(adminService.searchAppointmentsByCursor(requestMap, cursor, pageable.getPageSize()), HttpStatus.OK);
 		return CommonUtil.prepareResponseWithContent(adminService.searchAppointments(requestMap, pageable), HttpStatus.OK);
 	}
 
+	/**
+	 * Export appointments matching the same optional filter parameters as appointment search, without pagination.
+	 * Rows are streamed to the response as they are read from the database.
+	 * 
+	 * @param doctorId unique number to filter appointments based on doctor
+	 * @param patientId unique number to filter appointments based on patient 
+	 * @param date export appointments of particular date
+	 * @param status export appointments of given status
+	 * @param format file format of the export, CSV by default
+	 * @return
+	 */
+	@GetMapping(IPathConstants.EXPORT_APPOINTMENTS_PATH)
+	public ResponseEntity<StreamingResponseBody> exportAppointments(@RequestParam(name = IRequestConstants.DOCTOR_ID, required = false) Integer doctorId,
+			@RequestParam(name = IRequestConstants.PATIENT_ID, required=false) Integer patientId, @RequestParam(name = IRequestConstants.DATE, required = false) LocalDate date, 
+			@RequestParam(name = IRequestConstants.STATUS, required=false) AppointmentStatus status,
+			@RequestParam(name = IRequestConstants.FORMAT, defaultValue = "CSV") ExportFormat format) {
+		Map<String, Object> requestMap = new HashMap<>();
+		requestMap.put(IRequestConstants.DOCTOR_ID, doctorId);
+		requestMap.put(IRequestConstants.PATIENT_ID, patientId);
+		requestMap.put(IRequestConstants.DATE, date);
+		requestMap.put(IRequestConstants.STATUS, status);
+		return prepareExportResponse(IAdminConstants.APPOINTMENTS, format, outputStream -> adminService.exportAppointments(requestMap, format, outputStream));
+	}
+
 	/**
 	 * Change status of appointment for given appointment id to new status.
 	 * 
@@ -246,12 +352,13 @@ public ResponseEntity<?> changeAppointmentStatus(@PathVariable(IRequestConstants
 	 * @param to date range ending
 	 * @param status view leaves of particular status
 	 * @param pageable pagination details
+	 * @param cursor optional, switches to cursor pagination: empty for the first page, then the nextCursor of the previous page
 	 * @return
 	 */
 	@GetMapping(IPathConstants.VIEW_LEAVE_PATH)
 	public ResponseEntity<?> searchLeaves(@RequestParam(name = IRequestConstants.DOCTOR_ID, required = false) Integer doctorId, @RequestParam(name = IRequestConstants.FROM, required = false) LocalDate from, 
 			@RequestParam(name = IRequestConstants.TO, required = false) LocalDate to, @RequestParam(name = IRequestConstants.STATUS, required = false) LeaveStatus status,
-			@PageableDefault(page = 0,size = 10) Pageable pageable) {
+			@PageableDefault(page = 0,size = 10) Pageable pageable, @RequestParam(name = IRequestConstants.CURSOR, required = false) String cursor) {
 
 		Map<String, Object> requestMap = new HashMap<>();
 		requestMap.put(IRequestConstants.DOCTOR_ID, doctorId);
@@ -259,6 +366,8 @@ public ResponseEntity<?> searchLeaves(@RequestParam(name = IRequestConstants.DOC
 		requestMap.put(IRequestConstants.TO, to);
 		requestMap.put(IRequestConstants.STATUS, status);
 		pageable = PageRequest.of(pageable.getPageNumber(), 10, pageable.getSort());
+		if (cursor != null)
+			return CommonUtil.prepareResponseWithContent(adminService.searchLeavesByCursor(requestMap, cursor, pageable.getPageSize()), HttpStatus.OK);
 		return CommonUtil.prepareResponseWithContent(adminService.searchLeaves(requestMap, pageable), HttpStatus.OK);
 	}
 
@@ -301,4 +410,29 @@ public ResponseEntity<?> deleteHoliday(@PathVariable(IRequestConstants.ID) Integ
 		return CommonUtil.prepareResponseWithMessage(IResponseConstants.HOLIDAY_DELETE_SUCCESS, HttpStatus.OK);
 	}
 
+	/**
+	 * Prepare the response of an export, written as an attachment named after the exported rows.
+	 * The body is written on an async request thread, after the controller method returns.
+	 * At most {@code smarthealth.export.max-concurrent-exports} exports are written at the same time,
+	 * each holding a permit until its body is written; beyond that the export is refused with {@code 503}.
+	 */
+	private ResponseEntity<StreamingResponseBody> prepareExportResponse(String name, ExportFormat format, StreamingResponseBody body) {
+		if (!exportPermits.tryAcquire())
+			throw new AdminException(IExceptionConstants.SERVER_BUSY, HttpStatus.SERVICE_UNAVAILABLE);
+		String contentType = format == ExportFormat.NDJSON ? IAdminConstants.EXPORT_NDJSON_CONTENT_TYPE : IAdminConstants.EXPORT_CSV_CONTENT_TYPE;
+		ContentDisposition contentDisposition = ContentDisposition.attachment()
+				.filename(name + "." + format.name().toLowerCase())
+				.build();
+		return ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType(contentType))
+				.header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition.toString())
+				.body(outputStream -> {
+					try {
+						body.writeTo(outputStream);
+					} finally {
+						exportPermits.release();
+					}
+				});
+	}
+
 }
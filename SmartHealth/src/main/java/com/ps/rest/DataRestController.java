@@ -1,23 +1,38 @@
 package com.ps.rest;
 
+import java.util.concurrent.TimeUnit;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.ps.cache.ReferenceDataCache;
+import com.ps.config.props.ImageProperties;
+import com.ps.constants.ICacheConstants;
 import com.ps.constants.IPathConstants;
 import com.ps.constants.IRequestConstants;
 import com.ps.constants.IResponseConstants;
+import com.ps.dto.ImageFile;
 import com.ps.service.IDataService;
+import com.ps.util.DataUtil;
 
 /**
  * This rest controller is used to retrieve open resources.
  * Like list of degrees, departments etc.
+ * Reference data responses carry {@code ETag} and {@code Last-Modified} validators,
+ * so that browsers revalidate them and get {@code 304 Not Modified} while they are unchanged.
  */
 @RestController
 @RequestMapping(IPathConstants.DATA_PATH)
@@ -26,6 +41,12 @@ public class DataRestController {
 	@Autowired
 	private IDataService dataService;
 	
+	@Autowired
+	private ReferenceDataCache referenceDataCache;
+	
+	@Autowired
+	private ImageProperties imageProperties;
+	
 	/**
 	 * Retrieve list of degrees
 	 * 
@@ -33,7 +54,7 @@ public class DataRestController {
 	 */
 	@GetMapping(IPathConstants.DOCTOR_DEGREE)
 	public ResponseEntity<?> getDoctorDegrees() {
-		return ResponseEntity.ok(dataService.getDoctorDegrees());
+		return withValidators(ICacheConstants.DEGREES, dataService.getDoctorDegrees());
 	}
 	
 	/**
@@ -43,7 +64,7 @@ public ResponseEntity<?> getDoctorDegrees() {
 	 */
 	@GetMapping(IPathConstants.DOCTOR_DEPARTMENT)
 	public ResponseEntity<?> getDoctorDepartment() {
-		return ResponseEntity.ok(dataService.getDoctorDepartment());
+		return withValidators(ICacheConstants.DEPARTMENTS, dataService.getDoctorDepartment());
 	}
 	
 	/**
@@ -53,7 +74,7 @@ public ResponseEntity<?> getDoctorDepartment() {
 	 */
 	@GetMapping(IPathConstants.DOCTOR_SPECIALIZATION)
 	public ResponseEntity<?> getDoctorSpecializations() {
-		return ResponseEntity.ok(dataService.getDoctorSpecializations());
+		return withValidators(ICacheConstants.SPECIALIZATIONS, dataService.getDoctorSpecializations());
 	}
 
 	/**
@@ -63,22 +84,55 @@ public ResponseEntity<?> getDoctorSpecializations() {
 	 */
 	@GetMapping(IPathConstants.PATIENT_RELATION_PROFILE)
 	public ResponseEntity<?> getPatientRelations() {
-		return ResponseEntity.ok(dataService.getPatientRelations());
+		return withValidators(ICacheConstants.RELATIONS, dataService.getPatientRelations());
 	}
 	
 	/**
 	 * Retrieve resource by it's name and for provided role.
+	 * Versioned profile pictures never change, so browsers may cache them for long,
+	 * other images are cached for a short time and then revalidated with their entity tag.
+	 * Small images are written from memory, others are handed over to the container's
+	 * sendfile when it is supported, or streamed from disk (with range support) otherwise.
 	 * 
+	 * @param fileName name of the image file
+	 * @param role role whose image storage path is used
+	 * @param size requested size in pixels, a resized variant is served when available
+	 * @param webRequest current request, to evaluate conditional headers
 	 * @return
 	 */
 	@GetMapping(IPathConstants.PICTURE_BY_FILE_NAME)
 	public ResponseEntity<?> getPictureByName(
 			@PathVariable(IRequestConstants.FILE_NAME) String fileName,
-			@RequestParam(name = IRequestConstants.ROLE, required = false) String role) {
+			@RequestParam(name = IRequestConstants.ROLE, required = false) String role,
+			@RequestParam(name = IRequestConstants.IMAGE_SIZE, required = false) Integer size,
+			WebRequest webRequest) {
 		if (fileName.isBlank() || fileName.equals("null")) {
 			return ResponseEntity.badRequest().body(IResponseConstants.FILE_NAME_CONSTRAINTS);
 		}
-		return ResponseEntity.ok(dataService.getPictureByName(fileName, role));
+		ImageFile image = dataService.getPictureByName(fileName, role, size);
+		// A missing variant falls back to the original, which must not be cached for long under the variant's URL
+		boolean immutable = DataUtil.isVersionedImageName(fileName)
+				&& (size == null || !image.getPath().getFileName().toString().equals(fileName));
+		CacheControl cacheControl = immutable
+				? CacheControl.maxAge(imageProperties.getVersionedMaxAgeInDays(), TimeUnit.DAYS).cachePublic().immutable()
+				: CacheControl.maxAge(imageProperties.getDefaultMaxAgeInMinutes(), TimeUnit.MINUTES).cachePublic();
+		if (webRequest.checkNotModified(image.getETag(), image.getLastModified())) {
+			// validators are already set by checkNotModified
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+		}
+		
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+				.cacheControl(cacheControl)
+				.eTag(image.getETag())
+				.lastModified(image.getLastModified())
+				.contentType(image.getContentType());
+		if (image.getContent() != null) {
+			return response.body(new ByteArrayResource(image.getContent()));
+		}
+		if (DataUtil.sendFile(webRequest, image)) {
+			return response.header(HttpHeaders.ACCEPT_RANGES, "bytes").contentLength(image.getSize()).build();
+		}
+		return response.body(new FileSystemResource(image.getPath()));
 	}
 	
 	/**
@@ -88,7 +142,23 @@ public ResponseEntity<?> getPictureByName(
 	 * @return
 	 */
 	@GetMapping(IPathConstants.VIEW_HOLIDAYS)
-	public ResponseEntity<?> viewHolidays(@PageableDefault(page = 0,size = 10) Pageable pageable) {
-		return ResponseEntity.ok(dataService.viewHolidays(pageable));
+	public ResponseEntity<?> viewHolidays(@PageableDefault(page = 0,size = ICacheConstants.HOLIDAYS_PAGE_SIZE) Pageable pageable) {
+		return withValidators(ICacheConstants.HOLIDAYS, dataService.viewHolidays(pageable));
+	}
+	
+	/**
+	 * Build OK response of given cached reference data with it's validators.
+	 * A conditional GET request matching them is answered with 304 and no body.
+	 * 
+	 * @param cacheName name of the cache holding the data
+	 * @param body reference data
+	 * @return
+	 */
+	private ResponseEntity<?> withValidators(String cacheName, Object body) {
+		return ResponseEntity.ok()
+				.cacheControl(CacheControl.noCache())
+				.eTag(referenceDataCache.getETag(cacheName))
+				.lastModified(referenceDataCache.getLastModified(cacheName))
+				.body(body);
 	}
 }
@@ -0,0 +1,101 @@
+package com.ps.schedule;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ps.entity.AppointmentRollup;
+import com.ps.event.AppointmentChangedEvent;
+import com.ps.repo.AppointmentRollupRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Component responsible for maintaining the {@link AppointmentRollup} table.
+ * <p>
+ * Responsibilities:
+ * <ul>
+ *   <li>Recompute the rollup rows of the affected doctor and days whenever an
+ *       {@link AppointmentChangedEvent} is published, once the change is committed. The rows are upserted
+ *       in place rather than deleted and re-inserted, so concurrent updates of the same day neither fail
+ *       on the unique key nor deadlock on the gaps locked by their deletes.</li>
+ *   <li>Backfill the rollup table at startup when it is empty.</li>
+ *   <li>Rebuild the whole rollup table nightly, to repair any drift caused by a failed incremental update.</li>
+ * </ul>
+ *
+ * @see AppointmentRollupRepository
+ */
+@Component
+public class AppointmentRollupUpdater {
+
+	private static final Logger LOG = LoggerFactory.getLogger(AppointmentRollupUpdater.class);
+	
+	@Autowired
+	private AppointmentRollupRepository appointmentRollupRepository;
+	
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	
+	private TransactionTemplate transactionTemplate;
+	
+	@PostConstruct
+	public void init() {
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+	}
+	
+	/**
+	 * Recomputes the rollup rows of the doctor and days affected by an appointment change.
+	 * Runs after the publishing transaction has been committed, in a new transaction,
+	 * so that a failure here never rolls back the appointment change itself.
+	 *
+	 * @param event the appointment change event
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onAppointmentChanged(AppointmentChangedEvent event) {
+		if (event.getDates() == null || event.getDates().isEmpty())
+			return;
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				appointmentRollupRepository.upsertByDoctorIdAndAppointmentDateIn(event.getDoctorId(), event.getDates());
+				appointmentRollupRepository.resetStaleByDoctorIdAndAppointmentDateIn(event.getDoctorId(), event.getDates());
+			});
+		} catch (Exception e) {
+			LOG.error("Appointment rollup update failed for {}, it will be repaired by the next rebuild", event, e);
+		}
+	}
+	
+	/**
+	 * Backfills the rollup table at startup if it is empty, e.g. on the first start after it was introduced.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void backfillIfEmpty() {
+		if (appointmentRollupRepository.count() == 0) {
+			rebuild();
+		}
+	}
+	
+	/**
+     * Scheduled job that rebuilds the whole rollup table from appointments in a single transaction.
+     *
+     * <p>Runs at the 1:30AM every day, as per the cron expression {@code 0 30 1 * * *}.</p>
+     */
+	@Scheduled(cron = "0 30 1 * * *")
+	public void rebuild() {
+		LOG.info("Started Schedular AppointmentRollupUpdater.rebuild");
+		long start = System.currentTimeMillis();
+		Integer inserted = transactionTemplate.execute(status -> {
+			appointmentRollupRepository.deleteAllInBatch();
+			return appointmentRollupRepository.insertAll();
+		});
+		LOG.info("Ended Schedular AppointmentRollupUpdater.rebuild, Time Taken:{}ms, rows:{}", System.currentTimeMillis() - start, inserted);
+	}
+}
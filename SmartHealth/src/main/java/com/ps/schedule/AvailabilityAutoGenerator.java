@@ -1,24 +1,32 @@
 package com.ps.schedule;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.ps.config.props.SlotsProperties;
 import com.ps.dto.request.AGRequest;
+import com.ps.dto.response.AGRunStats;
+import com.ps.dto.response.AGSummary;
 import com.ps.entity.AGPreference;
 import com.ps.enu.AGMode;
 import com.ps.repo.AGPreferenceRepository;
 import com.ps.service.IAvailabilityService;
 import com.ps.util.AvailabilityUtil;
 
-import jakarta.transaction.Transactional;
-
 /**
  * Scheduled component responsible for automatically generating availability slots for doctors.
  * <p>
@@ -33,7 +41,9 @@
  *   <li>Run at scheduled intervals to check for slot generation needs.</li>
  *   <li>Skip slot generation if already generated up to the target date.</li>
  *   <li>Support multiple generation modes like {@code AUTO} and {@code CUSTOM_CONTINUOUS}.</li>
- *   <li>Ensure transactional execution for data consistency.</li>
+ *   <li>Process each doctor in its own transaction on a bounded worker pool, so a failing
+ *       preference does not roll back the rest of the run.</li>
+ *   <li>Record throughput of the last run (doctors/sec, slots/sec).</li>
  * </ul>
  *
  * @see AGPreferenceRepository
@@ -51,50 +61,130 @@ public class AvailabilityAutoGenerator {
 	
 	@Autowired
 	private IAvailabilityService availabilityService;
+	
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+	
+	@Autowired
+	private SlotsProperties slotsProperties;
+	
+	private volatile AGRunStats lastRunStats;
 
 	/**
      * Scheduled job that generates availability slots for doctors based on stored preferences.
      * <p>
      * This method:
      * <ol>
-     *   <li>Retrieves active preferences in modes {@link AGMode#AUTO} or {@link AGMode#CUSTOM_CONTINUOUS}.</li>
-     *   <li>Calculates the target generation date based on {@code daysAhead} and {@code startDate}.</li>
-     *   <li>Skips processing if slots are already generated until the target date.</li>
-     *   <li>Generates new slots by preparing an {@link AGRequest} and delegating to
-     *       {@link IAvailabilityService#generateAvailabilitySlots(AGRequest, com.example.Doctor)}.</li>
+     *   <li>Retrieves ids of active preferences in modes {@link AGMode#AUTO} or {@link AGMode#CUSTOM_CONTINUOUS}.</li>
+     *   <li>Submits one unit of work per doctor to a pool of {@code smarthealth.slots.generation-parallelism} workers.</li>
+     *   <li>Each unit runs in its own transaction, see {@link #generateAvailabilitySlots(Integer)}.</li>
+     *   <li>Logs and keeps the run's throughput, available through {@link #getLastRunStats()}.</li>
      * </ol>
      * </p>
      *
-     * <p>Runs at the 1AM every day, as per the cron expression {@code 0 0 1 * * *}.</p>
-     *
-     * @see AvailabilityUtil#prepareAGRequest(int, java.time.LocalDate, Object, AGMode, boolean)
+     * <p>Runs at the 1AM every day, as per the cron expression {@code 0 0 1 * * *}. Skipped when
+     * {@code smarthealth.slots.virtual-slots-enabled} is set, the slots being computed from the preferences.</p>
      */
-	@Transactional
 	@Scheduled(cron = "0 0 1 * * *")
 	public void generateAvailabilitySlots() {
+		if (Boolean.TRUE.equals(slotsProperties.getVirtualSlotsEnabled())) {
+			LOG.info("Skipped Schedular AvailabilityAutoGenerator.generateAvailabilitySlots, availability slots are virtual");
+			return;
+		}
 		LOG.info("Started Schedular AvailabilityAutoGenerator.generateAvailabilitySlots");
 
 		long start = System.currentTimeMillis();
-		List<AGPreference> preferences = agPreferenceRepository.findByModeInAndIsActive(List.of(AGMode.AUTO, AGMode.CUSTOM_CONTINUOUS), true);
+		AGRunStats stats = new AGRunStats();
+		stats.setStartedAt(LocalDateTime.now());
+		int parallelism = Math.max(1, slotsProperties.getGenerationParallelism());
+		stats.setParallelism(parallelism);
+		
+		List<Integer> preferenceIds = agPreferenceRepository.findIdsByModeInAndIsActive(List.of(AGMode.AUTO, AGMode.CUSTOM_CONTINUOUS), true);
+		stats.setDoctors(preferenceIds.size());
+		
+		AtomicInteger processed = new AtomicInteger();
+		AtomicInteger upToDate = new AtomicInteger();
+		AtomicInteger failed = new AtomicInteger();
+		AtomicLong generated = new AtomicLong();
+		AtomicLong skipped = new AtomicLong();
 		
-		for (AGPreference preference : preferences) {
-			int daysAhead = preference.getDaysAhead();
-			LocalDate lastGeneratedOn = preference.getLastGeneratedOn();
-			LocalDate today = LocalDate.now();
-			LocalDate target = today.plusDays(daysAhead);
-			if (ChronoUnit.DAYS.between(preference.getStartDate(), today) < 0)
-				target = preference.getStartDate().plusDays(daysAhead);
-			if (ChronoUnit.DAYS.between(lastGeneratedOn, target) <= 0) {
-				LOG.info("Availability Slots already generated till targeted date, doctorId:{}, targetDate:{}, lastGeneratedOn:{}", preference.getDoctor().getId(), target, lastGeneratedOn);
-			} else {
-				if (lastGeneratedOn.isBefore(today))
-					lastGeneratedOn = today;
-				daysAhead = (int) ChronoUnit.DAYS.between(lastGeneratedOn, target);
-				AGRequest request = AvailabilityUtil.prepareAGRequest(daysAhead, lastGeneratedOn, preference.getSlotInputs(), AGMode.SCHEDULED, preference.getSkipHoliday());
-				availabilityService.generateAvailabilitySlots(request, preference.getDoctor());
-			}
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+		try {
+			CompletableFuture<?>[] futures = preferenceIds.stream().map(id -> CompletableFuture.runAsync(() -> {
+				try {
+					AGSummary summary = transactionTemplate.execute(status -> generateAvailabilitySlots(id));
+					if (summary == null) {
+						upToDate.incrementAndGet();
+					} else {
+						processed.incrementAndGet();
+						generated.addAndGet(summary.getGenerated());
+						skipped.addAndGet(summary.getSkipped());
+					}
+				} catch (Exception e) {
+					failed.incrementAndGet();
+					LOG.error("Availability Slots generation failed for doctorId:{}", id, e);
+				}
+			}, executor)).toArray(CompletableFuture[]::new);
+			CompletableFuture.allOf(futures).join();
+		} finally {
+			executor.shutdown();
 		}
 		
-		LOG.info("Ended Schedular AvailabilityAutoGenerator.generateAvailabilitySlots, Time Taken:{}ms", (System.currentTimeMillis() - start));
+		long duration = Math.max(1, System.currentTimeMillis() - start);
+		stats.setDurationInMillis(duration);
+		stats.setProcessedDoctors(processed.get());
+		stats.setUpToDateDoctors(upToDate.get());
+		stats.setFailedDoctors(failed.get());
+		stats.setGeneratedSlots(generated.get());
+		stats.setSkippedSlots(skipped.get());
+		stats.setDoctorsPerSecond(preferenceIds.size() * 1000.0 / duration);
+		stats.setSlotsPerSecond(generated.get() * 1000.0 / duration);
+		lastRunStats = stats;
+		
+		LOG.info("Ended Schedular AvailabilityAutoGenerator.generateAvailabilitySlots, Time Taken:{}ms, doctors:{}, processed:{}, upToDate:{}, failed:{}, generatedSlots:{}, doctors/sec:{}, slots/sec:{}",
+				duration, stats.getDoctors(), stats.getProcessedDoctors(), stats.getUpToDateDoctors(), stats.getFailedDoctors(),
+				stats.getGeneratedSlots(), String.format("%.2f", stats.getDoctorsPerSecond()), String.format("%.2f", stats.getSlotsPerSecond()));
+	}
+	
+	/**
+	 * Generates availability slots for a single doctor's preference.
+	 * <p>
+	 * Calculates the target date based on {@code daysAhead} and {@code startDate}, and delegates to
+	 * {@link IAvailabilityService#generateAvailabilitySlots(AGRequest, com.ps.entity.Doctor)} when
+	 * slots are not yet generated till that date. Must be called within a transaction.
+	 *
+	 * @param preferenceId id of the {@link AGPreference} (same as the doctor id)
+	 * @return the generation summary, or {@code null} if slots are already generated till the target date
+	 * @see AvailabilityUtil#prepareAGRequest(int, java.time.LocalDate, List, AGMode, boolean)
+	 */
+	private AGSummary generateAvailabilitySlots(Integer preferenceId) {
+		AGPreference preference = agPreferenceRepository.findById(preferenceId).orElse(null);
+		if (preference == null)
+			return null;
+		
+		int daysAhead = preference.getDaysAhead();
+		LocalDate lastGeneratedOn = preference.getLastGeneratedOn();
+		LocalDate today = LocalDate.now();
+		LocalDate target = today.plusDays(daysAhead);
+		if (ChronoUnit.DAYS.between(preference.getStartDate(), today) < 0)
+			target = preference.getStartDate().plusDays(daysAhead);
+		if (ChronoUnit.DAYS.between(lastGeneratedOn, target) <= 0) {
+			LOG.info("Availability Slots already generated till targeted date, doctorId:{}, targetDate:{}, lastGeneratedOn:{}", preference.getDoctor().getId(), target, lastGeneratedOn);
+			return null;
+		}
+		if (lastGeneratedOn.isBefore(today))
+			lastGeneratedOn = today;
+		daysAhead = (int) ChronoUnit.DAYS.between(lastGeneratedOn, target);
+		AGRequest request = AvailabilityUtil.prepareAGRequest(daysAhead, lastGeneratedOn, preference.getSlotInputs(), AGMode.SCHEDULED, preference.getSkipHoliday());
+		return availabilityService.generateAvailabilitySlots(request, preference.getDoctor());
+	}
+	
+	/**
+	 * Returns the throughput statistics of the last completed run.
+	 *
+	 * @return the {@link AGRunStats} of the last run, or {@code null} if the job has not run yet
+	 */
+	public AGRunStats getLastRunStats() {
+		return lastRunStats;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,261 @@
+package com.ps.schedule;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ps.config.props.SlotsProperties;
+import com.ps.entity.LeaveSlotJob;
+import com.ps.enu.AppointmentStatus;
+import com.ps.enu.LeaveSlotJobStatus;
+import com.ps.enu.SlotStatus;
+import com.ps.event.AppointmentChangedEvent;
+import com.ps.event.LeaveApprovedEvent;
+import com.ps.event.SlotsChangedEvent;
+import com.ps.repo.AppointmentRepository;
+import com.ps.repo.AvailabilityRepository;
+import com.ps.repo.LeaveSlotJobRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Component responsible for running the {@link LeaveSlotJob}s queued when leaves are approved.
+ * <p>
+ * Responsibilities:
+ * <ul>
+ *   <li>Run the pending jobs on a background worker whenever a {@link LeaveApprovedEvent} is published,
+ *       once the approval is committed.</li>
+ *   <li>Resume the pending jobs at startup and every {@code smarthealth.slots.leave-job-poll-interval-in-minutes},
+ *       e.g. after a restart in the middle of a job.</li>
+ * </ul>
+ * Jobs only run on the worker of this component, never on the scheduler thread shared by the other scheduled tasks.
+ * A job failing {@code smarthealth.slots.leave-job-max-attempts} times is marked {@link LeaveSlotJobStatus#FAILED}
+ * and no longer retried.
+ * A job processes {@code smarthealth.slots.leave-job-chunk-days} days per transaction: available slots are deleted,
+ * booked and re-available slots are cancelled and the appointments of booked slots are cancelled by doctor, each with
+ * a single set-based statement. The open slots of a chunk are locked when they are read, so a booking in flight is
+ * either committed before and cancelled by the chunk, or waits for the chunk and fails as the slot is no longer open.
+ * The progress is committed along with each chunk, and each statement only touches slots and appointments still in
+ * their original status, so re-running a chunk is harmless.
+ *
+ * @see LeaveSlotJobRepository
+ */
+@Component
+public class LeaveSlotJobRunner {
+
+	private static final Logger LOG = LoggerFactory.getLogger(LeaveSlotJobRunner.class);
+
+	@Autowired
+	private LeaveSlotJobRepository leaveSlotJobRepository;
+
+	@Autowired
+	private AvailabilityRepository availabilityRepository;
+
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+
+	@Autowired
+	private SlotsProperties slotsProperties;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private TransactionTemplate transactionTemplate;
+
+	private ExecutorService executor;
+	private final ReentrantLock runLock = new ReentrantLock();
+
+	@PostConstruct
+	public void init() {
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		executor = Executors.newSingleThreadExecutor();
+	}
+
+	@PreDestroy
+	public void destroy() {
+		executor.shutdown();
+	}
+
+	/**
+	 * Queues the pending jobs, including the one of the approved leave, to run in the background.
+	 * Runs after the approval has been committed, so that the job is visible to the worker.
+	 *
+	 * @param event the leave approval event
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onLeaveApproved(LeaveApprovedEvent event) {
+		executor.execute(this::runPendingJobs);
+	}
+
+	/**
+	 * Resumes the jobs left pending by the previous run of the application.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void resumePendingJobs() {
+		executor.execute(this::runPendingJobs);
+	}
+
+	/**
+	 * Queues the pending jobs to run in the background, e.g. the ones which failed or were interrupted.
+	 */
+	@Scheduled(fixedDelayString = "${smarthealth.slots.leave-job-poll-interval-in-minutes}",
+			   initialDelayString = "${smarthealth.slots.leave-job-poll-interval-in-minutes}", timeUnit = TimeUnit.MINUTES)
+	public void pollPendingJobs() {
+		executor.execute(this::runPendingJobs);
+	}
+
+	/**
+	 * Runs the pending jobs, oldest first. A failed job stays pending and is retried by the next run,
+	 * until it has failed {@code smarthealth.slots.leave-job-max-attempts} times.
+	 */
+	public void runPendingJobs() {
+		runLock.lock();
+		try {
+			for (LeaveSlotJob job : leaveSlotJobRepository.findByStatusOrderByIdAsc(LeaveSlotJobStatus.PENDING)) {
+				try {
+					run(job.getId());
+				} catch (Exception e) {
+					recordFailure(job.getId(), e);
+				}
+			}
+		} finally {
+			runLock.unlock();
+		}
+	}
+
+	/**
+	 * Counts a failed run of a job, and gives the job up once it has failed the maximum number of times.
+	 * The stack trace is only logged when the job is given up, the earlier failures log their message.
+	 */
+	private void recordFailure(Integer jobId, Exception e) {
+		int maxAttempts = Math.max(1, slotsProperties.getLeaveJobMaxAttempts());
+		LeaveSlotJob job;
+		try {
+			job = transactionTemplate.execute(status -> {
+				LeaveSlotJob failed = leaveSlotJobRepository.findById(jobId).orElse(null);
+				if (failed == null || failed.getStatus() != LeaveSlotJobStatus.PENDING)
+					return failed;
+				failed.setAttempts(failed.getAttempts() + 1);
+				if (failed.getAttempts() >= maxAttempts) {
+					failed.setStatus(LeaveSlotJobStatus.FAILED);
+				}
+				return leaveSlotJobRepository.save(failed);
+			});
+		} catch (RuntimeException recordingFailure) {
+			e.addSuppressed(recordingFailure);
+			LOG.error("Leave slot job {} failed and its attempt could not be recorded, it will be resumed by the next run", jobId, e);
+			return;
+		}
+		if (job != null && job.getStatus() == LeaveSlotJobStatus.FAILED) {
+			LOG.error("Leave slot job {} failed {} times, it is given up from {}", jobId, job.getAttempts(), job.getNextDate(), e);
+		} else {
+			LOG.warn("Leave slot job {} failed, attempt {} of {}, it will be resumed by the next run: {}", jobId,
+					job == null ? null : job.getAttempts(), maxAttempts, e.getMessage());
+		}
+	}
+
+	private void run(Integer jobId) {
+		long start = System.currentTimeMillis();
+		int chunkDays = Math.max(1, slotsProperties.getLeaveJobChunkDays());
+		boolean completed;
+		do {
+			completed = transactionTemplate.execute(status -> processChunk(jobId, chunkDays));
+		} while (!completed);
+		LOG.info("Leave slot job {} completed, Time Taken:{}ms", jobId, System.currentTimeMillis() - start);
+	}
+
+	/**
+	 * Releases the slots of the next chunk of days of a job and records the progress.
+	 *
+	 * @return {@code true} if no day of the job is left to process
+	 */
+	private boolean processChunk(Integer jobId, int chunkDays) {
+		LeaveSlotJob job = leaveSlotJobRepository.findById(jobId).orElse(null);
+		if (job == null || job.getStatus() == LeaveSlotJobStatus.COMPLETED)
+			return true;
+
+		Integer doctorId = job.getDoctor().getId();
+		LocalDate from = job.getNextDate();
+		LocalDate to = from.plusDays(chunkDays - 1L);
+		if (to.isAfter(job.getTo())) {
+			to = job.getTo();
+		}
+
+		List<Integer> slotsToDelete = new ArrayList<>();
+		List<Integer> slotsToCancel = new ArrayList<>();
+		List<Integer> bookedSlots = new ArrayList<>();
+		Set<LocalDate> releasedDates = new HashSet<>();
+		Set<LocalDate> cancelledDates = new HashSet<>();
+		for (Object[] row : availabilityRepository.findOpenSlotsByDoctorIdAndDateBetween(doctorId, from, to)) {
+			Integer slotId = (Integer) row[0];
+			switch ((SlotStatus) row[1]) {
+				case AVAILABLE:
+					slotsToDelete.add(slotId);
+					releasedDates.add((LocalDate) row[2]);
+					break;
+				case BOOKED:
+					slotsToCancel.add(slotId);
+					bookedSlots.add(slotId);
+					cancelledDates.add((LocalDate) row[2]);
+					break;
+				case RE_AVAILABLE:
+					slotsToCancel.add(slotId);
+					releasedDates.add((LocalDate) row[2]);
+					break;
+				default:
+					break;
+			}
+		}
+
+		LocalDateTime now = LocalDateTime.now();
+		if (!slotsToDelete.isEmpty()) {
+			job.setDeletedSlots(job.getDeletedSlots() + availabilityRepository.deleteAvailableByIds(slotsToDelete));
+		}
+		if (!bookedSlots.isEmpty()) {
+			job.setCancelledAppointments(job.getCancelledAppointments() + appointmentRepository.updateStatusByAvailabilityIds(AppointmentStatus.D_CANCELLED,
+					bookedSlots, now, List.of(AppointmentStatus.BOOKED, AppointmentStatus.APPROVED)));
+			eventPublisher.publishEvent(new AppointmentChangedEvent(doctorId, cancelledDates));
+		}
+		if (!slotsToCancel.isEmpty()) {
+			job.setCancelledSlots(job.getCancelledSlots() + availabilityRepository.updateStatusByIds(SlotStatus.CANCELLED, slotsToCancel,
+					List.of(SlotStatus.BOOKED, SlotStatus.RE_AVAILABLE), now));
+		}
+		if (!releasedDates.isEmpty()) {
+			eventPublisher.publishEvent(new SlotsChangedEvent(doctorId, releasedDates));
+		}
+
+		job.setNextDate(to.plusDays(1));
+		if (job.getNextDate().isAfter(job.getTo())) {
+			job.setStatus(LeaveSlotJobStatus.COMPLETED);
+		}
+		leaveSlotJobRepository.save(job);
+		LOG.info("Leave slot job {} processed {} to {} of doctorId: {}, deleted slots: {}, cancelled slots: {}, cancelled appointments: {}",
+				jobId, from, to, doctorId, job.getDeletedSlots(), job.getCancelledSlots(), job.getCancelledAppointments());
+		return job.getStatus() == LeaveSlotJobStatus.COMPLETED;
+	}
+}
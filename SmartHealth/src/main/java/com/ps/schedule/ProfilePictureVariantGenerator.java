@@ -0,0 +1,122 @@
+package com.ps.schedule;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.ps.config.props.ImageProperties;
+import com.ps.config.props.PathProperties;
+import com.ps.event.ProfilePictureUploadedEvent;
+import com.ps.util.DataUtil;
+import com.ps.util.ProfileUtil;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Component responsible for generating the resized variants of profile pictures.
+ * <p>
+ * Responsibilities:
+ * <ul>
+ *   <li>Generate the {@code smarthealth.images.variant-sizes} variants of a picture whenever a
+ *       {@link ProfilePictureUploadedEvent} is published, once the upload is committed,
+ *       on a pool of {@code smarthealth.images.variant-parallelism} workers.</li>
+ *   <li>Delete the picture replaced by the upload and its variants, once the new variants are generated.</li>
+ *   <li>Generate the missing variants of the default profile picture at startup.</li>
+ * </ul>
+ * Until a variant exists, the original picture is served in its place.
+ *
+ * @see ProfileUtil#createVariant(Path, Path, int)
+ */
+@Component
+public class ProfilePictureVariantGenerator {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ProfilePictureVariantGenerator.class);
+
+	@Autowired
+	private ImageProperties imageProperties;
+
+	@Autowired
+	private PathProperties pathProperties;
+
+	private ExecutorService executor;
+
+	@PostConstruct
+	public void init() {
+		executor = Executors.newFixedThreadPool(Math.max(1, imageProperties.getVariantParallelism()));
+	}
+
+	@PreDestroy
+	public void destroy() {
+		executor.shutdown();
+	}
+
+	/**
+	 * Queues the generation of the variants of an uploaded profile picture, and the deletion of the picture it replaces.
+	 * Runs after the upload has been committed, so that pictures of a rolled back upload are never resized
+	 * and the replaced picture is kept until no user refers to it anymore.
+	 *
+	 * @param event the profile picture upload event
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProfilePictureUploaded(ProfilePictureUploadedEvent event) {
+		executor.execute(() -> {
+			generateVariants(event.getPath(), true);
+			if (event.getReplacedPath() != null)
+				deletePicture(event.getReplacedPath());
+		});
+	}
+
+	/**
+	 * Generates the missing variants of the default profile picture, e.g. on the first start after variants were introduced.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void generateDefaultVariants() {
+		Path path = Paths.get(pathProperties.getImageStoragePath() + pathProperties.getDefaultProfilePicName());
+		if (Files.isRegularFile(path)) {
+			executor.execute(() -> generateVariants(path, false));
+		}
+	}
+
+	private void generateVariants(Path original, boolean overwrite) {
+		long start = System.currentTimeMillis();
+		String fileName = original.getFileName().toString();
+		for (Integer size : imageProperties.getVariantSizes()) {
+			Path variant = original.resolveSibling(DataUtil.getVariantFileName(fileName, size));
+			if (!overwrite && Files.exists(variant))
+				continue;
+			try {
+				if (!ProfileUtil.createVariant(original, variant, size)) {
+					LOG.warn("Profile picture {} is not a readable image or is too large, variants are not generated", original);
+					return;
+				}
+			} catch (Exception e) {
+				LOG.error("Profile picture variant {}px generation failed for {}", size, original, e);
+			}
+		}
+		LOG.info("Profile picture variants generated for {}, Time Taken:{}ms", original, System.currentTimeMillis() - start);
+	}
+
+	private void deletePicture(Path original) {
+		String fileName = original.getFileName().toString();
+		try {
+			for (Integer size : imageProperties.getVariantSizes()) {
+				Files.deleteIfExists(original.resolveSibling(DataUtil.getVariantFileName(fileName, size)));
+			}
+			Files.deleteIfExists(original);
+			LOG.info("Replaced profile picture {} deleted with its variants", original);
+		} catch (Exception e) {
+			LOG.error("Replaced profile picture {} deletion failed", original, e);
+		}
+	}
+}
@@ -9,4 +9,6 @@ public interface IAdminDashboardService {
 	Map<String, Object> getAppointmentCount();
 	Map<String, Object> getUpcomingLeaves();
 	Map<String, Object> todaysAppointments();
+	Map<String, Object> getSlotGenerationStats();
+	Map<String, Object> getLeaveSlotJobs();
 }
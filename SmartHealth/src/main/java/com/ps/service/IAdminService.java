@@ -1,5 +1,6 @@
 package com.ps.service;
 
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -12,6 +13,7 @@
 import com.ps.dto.response.ADSResponse;
 import com.ps.dto.response.APSResponse;
 import com.ps.enu.AppointmentStatus;
+import com.ps.enu.ExportFormat;
 import com.ps.enu.LeaveStatus;
 import com.ps.repo.DoctorRepository.DoctorIdNameProjection;
 import com.ps.repo.PatientRepository.PatientIdNameProjection;
@@ -19,19 +21,28 @@
 public interface IAdminService {
 
 	Map<String, Object> searchDoctors(ADSRequest adsRequest, Pageable pageable);
+	Map<String, Object> searchDoctorsByCursor(ADSRequest adsRequest, String cursor, int size);
+	long exportDoctors(ADSRequest adsRequest, ExportFormat format, OutputStream outputStream);
 	Map<String, Object> searchPatients(APSRequest apsRequest, Pageable pageable);
+	Map<String, Object> searchPatientsByCursor(APSRequest apsRequest, String cursor, int size);
+	long exportPatients(APSRequest apsRequest, ExportFormat format, OutputStream outputStream);
 	ADSResponse viewDoctorProfile(Integer id);
 	APSResponse viewPatientProfile(Integer id);
 	int toggleStatus(Integer id, String role);
 	List<DoctorIdNameProjection> getDoctorsList();
 	List<PatientIdNameProjection> getPatientList();
 	Map<String, Object> searchAvailabilitySlots(Map<String, Object> requestMap, Pageable pageable);
+	Map<String, Object> searchAvailabilitySlotsByCursor(Map<String, Object> requestMap, String cursor, int size);
+	long exportAvailabilitySlots(Map<String, Object> requestMap, ExportFormat format, OutputStream outputStream);
 	int deleteAvailabilitySlot(Integer id);
 	ADResponse viewSlotDetails(Integer id, Integer appointmentId);
 	String changeAvailabilityAppointmentStatus(Map<String, Object> requestMap);
 	Map<String, Object> searchAppointments(Map<String, Object> requestMap, Pageable pageable);
+	Map<String, Object> searchAppointmentsByCursor(Map<String, Object> requestMap, String cursor, int size);
+	long exportAppointments(Map<String, Object> requestMap, ExportFormat format, OutputStream outputStream);
 	String changeAppointmentStatus(Integer id, AppointmentStatus newStatus);
 	Map<String, Object> searchLeaves(Map<String, Object> requestMap, Pageable pageable);
+	Map<String, Object> searchLeavesByCursor(Map<String, Object> requestMap, String cursor, int size);
 	String changeLeaveStatus(Integer id, String role, LeaveStatus status);
 	boolean addHoliday(HolidayDTO holidayDTO);
 	void deleteHoliday(Integer id);
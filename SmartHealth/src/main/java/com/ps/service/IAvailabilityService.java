@@ -9,6 +9,7 @@
 import com.ps.dto.request.AVRequest;
 import com.ps.dto.response.ADResponse;
 import com.ps.dto.response.AGPreferenceResponse;
+import com.ps.dto.response.AGSummary;
 import com.ps.entity.Doctor;
 
 public interface IAvailabilityService {
@@ -16,7 +17,7 @@ public interface IAvailabilityService {
 	void generateAvailabilitySlots(AGRequest request);
 	boolean activateAGPreference();
 	boolean setDefaultAGPreference(Doctor doctor);
-	void generateAvailabilitySlots(AGRequest request, Doctor doctor);
+	AGSummary generateAvailabilitySlots(AGRequest request, Doctor doctor);
 	AGPreferenceResponse getAGPreference();
 	Map<String, Object>  getAvailabilityData(AVRequest request, Pageable pageable);
 	int deleteAvailabilitySlot(Integer id);
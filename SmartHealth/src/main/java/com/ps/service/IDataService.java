@@ -3,9 +3,9 @@
 import java.util.List;
 import java.util.Map;
 
-import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Pageable;
 
+import com.ps.dto.ImageFile;
 import com.ps.entity.Degree;
 import com.ps.entity.Department;
 import com.ps.entity.Relation;
@@ -17,6 +17,6 @@ public interface IDataService {
 	List<Department> getDoctorDepartment();
 	List<Specialization> getDoctorSpecializations();
 	List<Relation> getPatientRelations();
-	Resource getPictureByName(String fileName, String role);
+	ImageFile getPictureByName(String fileName, String role, Integer size);
 	Map<String, Object> viewHolidays(Pageable pageable);
 }
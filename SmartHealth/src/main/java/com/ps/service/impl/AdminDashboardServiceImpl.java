@@ -5,23 +5,35 @@
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import com.ps.config.props.DashboardProperties;
 import com.ps.constants.IAdminConstants;
+import com.ps.dto.response.AGRunStats;
 import com.ps.dto.response.DailyAppointments;
+import com.ps.dto.response.LeaveSlotJobResponse;
 import com.ps.entity.Appointment;
 import com.ps.entity.DoctorLeave;
 import com.ps.enu.AppointmentStatus;
 import com.ps.enu.LeaveStatus;
 import com.ps.enu.SlotStatus;
+import com.ps.event.AppointmentChangedEvent;
 import com.ps.repo.AppointmentRepository;
+import com.ps.repo.AppointmentRollupRepository;
 import com.ps.repo.AvailabilityRepository;
 import com.ps.repo.DoctorLeaveRepository;
 import com.ps.repo.DoctorRepository;
+import com.ps.repo.LeaveSlotJobRepository;
 import com.ps.repo.PatientRepository;
+import com.ps.schedule.AvailabilityAutoGenerator;
 import com.ps.service.IAdminDashboardService;
 import com.ps.util.AdminUtil;
 
@@ -38,6 +50,9 @@ public class AdminDashboardServiceImpl implements IAdminDashboardService {
 	@Autowired
 	private AppointmentRepository appointmentRepository;
 	
+	@Autowired
+	private AppointmentRollupRepository appointmentRollupRepository;
+	
 	@Autowired
 	private PatientRepository patientRepository;
 	
@@ -46,53 +61,139 @@ public class AdminDashboardServiceImpl implements IAdminDashboardService {
 	
 	@Autowired
 	private DoctorLeaveRepository doctorLeaveRepository;
+	
+	@Autowired
+	private LeaveSlotJobRepository leaveSlotJobRepository;
+	
+	@Autowired
+	private AvailabilityAutoGenerator availabilityAutoGenerator;
+	
+	@Autowired
+	private DashboardProperties dashboardProperties;
+	
+	private static final Logger LOG = LoggerFactory.getLogger(AdminDashboardServiceImpl.class);
+	
+	private final AtomicLong statsVersion = new AtomicLong();
+	private volatile DashboardStatsSnapshot statsSnapshot;
+	private final ReentrantLock refreshLock = new ReentrantLock();
 
 	/**
      * Retrieves dashboard statistics including slots, appointments, patients, and doctors.
+     * Statistics are served from a snapshot which is recomputed once it is older than the configured
+     * time to live or after it has been invalidated by an {@link AppointmentChangedEvent}.
      *
-     * @return Map containing nested statistics for slots, appointments, patients, and doctors.
-     * @throws IllegalStateException If data access is attempted after 11:00 PM IST on July 26, 2025.
+     * @return Map containing nested statistics for slots, appointments, patients, and doctors
+     *         along with the age of the snapshot in seconds.
      */
 	@Override
 	public Map<String, Object> getDashboardStats() {
+		long now = System.currentTimeMillis();
+		DashboardStatsSnapshot snapshot = statsSnapshot;
+		if (!isSnapshotValid(snapshot, now)) {
+			snapshot = refreshDashboardStats(now);
+		}
+		Map<String, Object> responseMap = new HashMap<>(snapshot.stats);
+		responseMap.put(IAdminConstants.SNAPSHOT_AGE_IN_SECONDS, Math.max(0, now - snapshot.takenAt) / 1000);
+		return responseMap;
+	}
 
-		Map<String, Long> slots = new HashMap<>();
-		slots.put(IAdminConstants.TOTAL_SLOTS, availabilityRepository.count());
-		slots.put(IAdminConstants.AVAILABLE_SLOTS, availabilityRepository.countByStatus(SlotStatus.AVAILABLE));
-		slots.put(IAdminConstants.RE_AVAILABLE_SLOTS, availabilityRepository.countByStatus(SlotStatus.RE_AVAILABLE));
-		slots.put(IAdminConstants.BOOKED_SLOTS, availabilityRepository.countByStatus(SlotStatus.BOOKED));
-		slots.put(IAdminConstants.CANCELLED_SLOTS, availabilityRepository.countByStatus(SlotStatus.CANCELLED));
-
-		Map<String, Long> appointments = new HashMap<>();
-		appointments.put(IAdminConstants.TOTAL_APPOINTMENTS, appointmentRepository.count());
-		appointments.put(IAdminConstants.BOOKED_APPOINTMENTS, appointmentRepository.countByStatus(AppointmentStatus.BOOKED));
-		appointments.put(IAdminConstants.APPROVED_APPOINTMENTS, appointmentRepository.countByStatus(AppointmentStatus.APPROVED));
-		appointments.put(IAdminConstants.REJECTED_APPOINTMENTS, appointmentRepository.countByStatus(AppointmentStatus.REJECTED));
-		appointments.put(IAdminConstants.COMPLETED_APPOINTMENTS, appointmentRepository.countByStatus(AppointmentStatus.COMPLETED));
-		appointments.put(IAdminConstants.P_CANCELLED_APPOINTMENTS, appointmentRepository.countByStatus(AppointmentStatus.P_CANCELLED));
-		appointments.put(IAdminConstants.D_CANCELLED_APPOINTMENTS, appointmentRepository.countByStatus(AppointmentStatus.D_CANCELLED));
+	/**
+	 * Invalidates the dashboard statistics snapshot once an appointment has been booked or its status has changed,
+	 * so that the next dashboard load reflects the change.
+	 *
+	 * @param event the appointment change event
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onAppointmentChanged(AppointmentChangedEvent event) {
+		statsVersion.incrementAndGet();
+	}
+
+	/**
+	 * Recomputes the dashboard statistics snapshot unless another thread has already refreshed it.
+	 *
+	 * @param now current time in milliseconds
+	 * @return valid snapshot of dashboard statistics
+	 */
+	private DashboardStatsSnapshot refreshDashboardStats(long now) {
+		refreshLock.lock();
+		try {
+			DashboardStatsSnapshot snapshot = statsSnapshot;
+			if (isSnapshotValid(snapshot, now)) {
+				return snapshot;
+			}
+			long version = statsVersion.get();
 		
-		Map<String, Long> patients = new HashMap<>();
-		patients.put(IAdminConstants.TOTAL_PATIENTS, patientRepository.count());
-		patients.put(IAdminConstants.ACTIVE_PATIENTS, patientRepository.countByIsActiveTrue());
-		patients.put(IAdminConstants.INCOMPLETE_PROFILE_PATIENTS, patientRepository.countByProfileCompleteFalse());
-
-		Map<String, Long> doctors = new HashMap<>();
-		doctors.put(IAdminConstants.TOTAL_DOCTORS, doctorRepository.count());
-		doctors.put(IAdminConstants.ACTIVE_DOCTORS, doctorRepository.countByIsActiveTrue());
-		doctors.put(IAdminConstants.INCOMPLETE_PROFILE_DOCTORS, doctorRepository.countByProfileCompleteFalse());
+			Map<SlotStatus, Long> slotCounts = prepareStatusCountMap(availabilityRepository.countGroupByStatus());
+			Map<String, Long> slots = new HashMap<>();
+			slots.put(IAdminConstants.TOTAL_SLOTS, slotCounts.values().stream().mapToLong(Long::longValue).sum());
+			slots.put(IAdminConstants.AVAILABLE_SLOTS, slotCounts.getOrDefault(SlotStatus.AVAILABLE, 0L));
+			slots.put(IAdminConstants.RE_AVAILABLE_SLOTS, slotCounts.getOrDefault(SlotStatus.RE_AVAILABLE, 0L));
+			slots.put(IAdminConstants.BOOKED_SLOTS, slotCounts.getOrDefault(SlotStatus.BOOKED, 0L));
+			slots.put(IAdminConstants.CANCELLED_SLOTS, slotCounts.getOrDefault(SlotStatus.CANCELLED, 0L));
+
+			Map<AppointmentStatus, Long> appointmentCounts = prepareStatusCountMap(appointmentRepository.countGroupByStatus());
+			Map<String, Long> appointments = new HashMap<>();
+			appointments.put(IAdminConstants.TOTAL_APPOINTMENTS, appointmentCounts.values().stream().mapToLong(Long::longValue).sum());
+			appointments.put(IAdminConstants.BOOKED_APPOINTMENTS, appointmentCounts.getOrDefault(AppointmentStatus.BOOKED, 0L));
+			appointments.put(IAdminConstants.APPROVED_APPOINTMENTS, appointmentCounts.getOrDefault(AppointmentStatus.APPROVED, 0L));
+			appointments.put(IAdminConstants.REJECTED_APPOINTMENTS, appointmentCounts.getOrDefault(AppointmentStatus.REJECTED, 0L));
+			appointments.put(IAdminConstants.COMPLETED_APPOINTMENTS, appointmentCounts.getOrDefault(AppointmentStatus.COMPLETED, 0L));
+			appointments.put(IAdminConstants.P_CANCELLED_APPOINTMENTS, appointmentCounts.getOrDefault(AppointmentStatus.P_CANCELLED, 0L));
+			appointments.put(IAdminConstants.D_CANCELLED_APPOINTMENTS, appointmentCounts.getOrDefault(AppointmentStatus.D_CANCELLED, 0L));
 		
-		Map<String, Object> responseMap = new HashMap<>();
-		responseMap.put(IAdminConstants.SLOTS, slots);
-		responseMap.put(IAdminConstants.APPOINTMENTS, appointments);
-		responseMap.put(IAdminConstants.PATIENTS, patients);
-		responseMap.put(IAdminConstants.DOCTORS, doctors);
-		return responseMap;
+			Map<String, Object> stats = new HashMap<>();
+			stats.put(IAdminConstants.SLOTS, slots);
+			stats.put(IAdminConstants.APPOINTMENTS, appointments);
+			stats.put(IAdminConstants.PATIENTS, prepareProfileStatsMap(patientRepository.countProfileStats(), 
+					IAdminConstants.TOTAL_PATIENTS, IAdminConstants.ACTIVE_PATIENTS, IAdminConstants.INCOMPLETE_PROFILE_PATIENTS));
+			stats.put(IAdminConstants.DOCTORS, prepareProfileStatsMap(doctorRepository.countProfileStats(), 
+					IAdminConstants.TOTAL_DOCTORS, IAdminConstants.ACTIVE_DOCTORS, IAdminConstants.INCOMPLETE_PROFILE_DOCTORS));
+		
+			snapshot = new DashboardStatsSnapshot(stats, now, version);
+			statsSnapshot = snapshot;
+			LOG.debug("Dashboard statistics snapshot refreshed in {} ms", System.currentTimeMillis() - now);
+			return snapshot;
+		} finally {
+			refreshLock.unlock();
+		}
+	}
+
+	/**
+	 * Checks whether the given snapshot is neither expired nor invalidated by an appointment change.
+	 */
+	private boolean isSnapshotValid(DashboardStatsSnapshot snapshot, long now) {
+		return snapshot != null 
+				&& snapshot.version == statsVersion.get()
+				&& now - snapshot.takenAt < dashboardProperties.getStatsSnapshotTtlInSeconds() * 1000L;
+	}
+
+	/**
+	 * Converts rows of (status, count) returned by grouped count queries into a map.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <E extends Enum<E>> Map<E, Long> prepareStatusCountMap(List<Object[]> rows) {
+		Map<E, Long> counts = new HashMap<>();
+		for (Object[] row : rows) {
+			counts.put((E) row[0], ((Number) row[1]).longValue());
+		}
+		return counts;
+	}
+
+	/**
+	 * Converts the single (total, active, incomplete profile) row returned by profile count queries into a map.
+	 */
+	private static Map<String, Long> prepareProfileStatsMap(List<Object[]> rows, String totalKey, String activeKey, String incompleteKey) {
+		Object[] row = rows.isEmpty() ? new Object[3] : rows.get(0);
+		Map<String, Long> stats = new HashMap<>();
+		stats.put(totalKey, row[0] == null ? 0L : ((Number) row[0]).longValue());
+		stats.put(activeKey, row[1] == null ? 0L : ((Number) row[1]).longValue());
+		stats.put(incompleteKey, row[2] == null ? 0L : ((Number) row[2]).longValue());
+		return stats;
 	}
 
 	 /**
      * Retrieves appointment trends for the last 10 days (including today).
-     * Ensures that even days with no appointments are represented in the returned data.
+     * Reads the daily appointment rollup, ensures that even days with no appointments are represented in the returned data.
      *
      * @return a map containing the daily appointment trend list under the key
      *         {@link IAdminConstants#APPOINTMENT_PERFORMANCE_TREND}.
@@ -102,7 +203,7 @@ public Map<String, Object> getAppointmentTrend() {
 		
 		LocalDate today = LocalDate.now();
 		LocalDate startDate = today.minusDays(9);
-		List<DailyAppointments> dailyAppointments = appointmentRepository.findAppointmentsTrendsByDate(startDate, today);
+		List<DailyAppointments> dailyAppointments = appointmentRollupRepository.findTrendsByDate(startDate, today);
 		Map<String, DailyAppointments> dailyAppointmentsMap = dailyAppointments.stream().collect(Collectors.toMap(DailyAppointments::getDay, s -> s));
 		List<DailyAppointments> finalList = new ArrayList<>();
 		for (int i=0; i < 10; i++) {
@@ -117,7 +218,7 @@ public Map<String, Object> getAppointmentTrend() {
 	
 	/**
      * Retrieves appointment counts for the last 30 days (including today).
-     * The result includes the total number of appointments for each day within the date range.
+     * The result includes the total number of appointments for each day within the date range, read from the daily appointment rollup.
      *
      * @return a map containing a list of daily appointment counts under the key
      *         {@link IAdminConstants#APPOINTMENT_COUNT}.
@@ -126,7 +227,7 @@ public Map<String, Object> getAppointmentTrend() {
 	public Map<String, Object> getAppointmentCount() {
 		LocalDate endDate = LocalDate.now();
 		LocalDate startDate = endDate.minusDays(29);
-		List<Object[]> results = appointmentRepository.countAppointmentsByDate(startDate, endDate);
+		List<Object[]> results = appointmentRollupRepository.countByDate(startDate, endDate);
 	    Map<LocalDate, Long> countsMap = results.stream().collect(Collectors.toMap(row -> (LocalDate) row[0], row -> (Long) row[1]));
 
 	    List<Map<String, Object>> responseList = new ArrayList<>();
@@ -175,4 +276,45 @@ public Map<String, Object> todaysAppointments() {
 		return response;
 	}
 
+	/**
+     * Retrieves throughput statistics of the last scheduled availability slots generation run.
+     *
+     * @return Map containing the {@link AGRunStats} of the last run under {@code slotGeneration}.
+     */
+	@Override
+	public Map<String, Object> getSlotGenerationStats() {
+		Map<String, Object> response = new HashMap<>();
+		response.put(IAdminConstants.SLOT_GENERATION, availabilityAutoGenerator.getLastRunStats());
+		return response;
+	}
+
+	/**
+     * Retrieves the progress of the 10 most recent background jobs releasing the slots of approved leaves.
+     *
+     * @return Map containing the list of {@link LeaveSlotJobResponse} under {@code leaveSlotJobs}, most recent first.
+     */
+	@Override
+	public Map<String, Object> getLeaveSlotJobs() {
+		List<LeaveSlotJobResponse> jobs = leaveSlotJobRepository.findTop10ByOrderByIdDesc().stream().map(AdminUtil::prepareLeaveSlotJobResponse).collect(Collectors.toList());
+		Map<String, Object> response = new HashMap<>();
+		response.put(IAdminConstants.LEAVE_SLOT_JOBS, jobs);
+		return response;
+	}
+
+	/**
+	 * Immutable snapshot of dashboard statistics along with the time it was taken at
+	 * and the invalidation version it was computed for.
+	 */
+	private static final class DashboardStatsSnapshot {
+		
+		private final Map<String, Object> stats;
+		private final long takenAt;
+		private final long version;
+		
+		private DashboardStatsSnapshot(Map<String, Object> stats, long takenAt, long version) {
+			this.stats = stats;
+			this.takenAt = takenAt;
+			this.version = version;
+		}
+	}
 }
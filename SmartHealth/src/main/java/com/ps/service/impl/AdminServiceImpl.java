@@ -1,29 +1,45 @@
 package com.ps.service.impl;
 
+import java.io.OutputStream;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import com.ps.cache.HolidayLeaveCalendar;
+import com.ps.cache.NameIndex;
+import com.ps.cache.ReferenceDataCache;
 import com.ps.config.props.SlotsProperties;
+import com.ps.constants.IAdminConstants;
+import com.ps.constants.ICacheConstants;
 import com.ps.constants.IDoctorConstants;
 import com.ps.constants.IExceptionConstants;
 import com.ps.constants.IPatientConstants;
 import com.ps.constants.IRequestConstants;
 import com.ps.constants.IResponseConstants;
+import com.ps.dto.AppointmentListItem;
 import com.ps.dto.HolidayDTO;
+import com.ps.dto.NameFilter;
+import com.ps.dto.SlotListItem;
 import com.ps.dto.SubProfileDTO;
+import com.ps.dto.UserListItem;
 import com.ps.dto.request.ADSRequest;
 import com.ps.dto.request.APSRequest;
 import com.ps.dto.response.ADResponse;
@@ -31,15 +47,19 @@
 import com.ps.dto.response.AGPreferenceResponse;
 import com.ps.dto.response.APSResponse;
 import com.ps.entity.Appointment;
-import com.ps.entity.Availability;
 import com.ps.entity.Doctor;
 import com.ps.entity.DoctorLeave;
 import com.ps.entity.Holiday;
+import com.ps.entity.LeaveSlotJob;
 import com.ps.entity.Patient;
 import com.ps.entity.SubProfile;
 import com.ps.enu.AppointmentStatus;
+import com.ps.enu.ExportFormat;
 import com.ps.enu.LeaveStatus;
 import com.ps.enu.SlotStatus;
+import com.ps.event.DoctorChangedEvent;
+import com.ps.event.LeaveApprovedEvent;
+import com.ps.event.SlotsChangedEvent;
 import com.ps.exception.AdminException;
 import com.ps.exception.AppointmentException;
 import com.ps.exception.AvailabilityException;
@@ -55,6 +75,7 @@
 import com.ps.repo.DoctorRepository;
 import com.ps.repo.DoctorRepository.DoctorIdNameProjection;
 import com.ps.repo.HolidayRepository;
+import com.ps.repo.LeaveSlotJobRepository;
 import com.ps.repo.PatientRepository;
 import com.ps.repo.PatientRepository.PatientIdNameProjection;
 import com.ps.repo.SubProfileRepository;
@@ -63,6 +84,7 @@
 import com.ps.service.IAvailabilityService;
 import com.ps.util.AdminUtil;
 import com.ps.util.CommonUtil;
+import com.ps.util.ExportWriter;
 import com.ps.util.ProfileUtil;
 
 import jakarta.transaction.Transactional;
@@ -101,6 +123,9 @@ public class AdminServiceImpl implements IAdminService {
 	@Autowired
 	private DoctorLeaveRepository leaveRepository;
 	
+	@Autowired
+	private LeaveSlotJobRepository leaveSlotJobRepository;
+	
 	@Autowired
 	private SlotsProperties slotsProperties;
 	
@@ -119,6 +144,18 @@ public class AdminServiceImpl implements IAdminService {
 	@Autowired
 	private HolidayMapper holidayMapper;
 	
+	@Autowired
+	private HolidayLeaveCalendar holidayLeaveCalendar;
+	
+	@Autowired
+	private ReferenceDataCache referenceDataCache;
+	
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+	
+	@Autowired
+	private NameIndex nameIndex;
+	
 	/**
 	 * Retrieve filtered list of doctors. Filter works based on input parameters and all
 	 * parameters are optional. Null values are handled at repository level, if no parameter(s) are 
@@ -127,14 +164,63 @@ public class AdminServiceImpl implements IAdminService {
 	 */
 	@Override
 	public Map<String, Object> searchDoctors(ADSRequest adsRequest, Pageable pageable) {
-		Page<Doctor> pages = doctorRepository.searchDoctors(adsRequest.getId(), adsRequest.getName(), adsRequest.getEmail(), adsRequest.getPhone(), 
-				adsRequest.getGender(), adsRequest.getDegree(), adsRequest.getSpecialization(), adsRequest.getDepartment(), 
-				adsRequest.getYearOfExperience(), adsRequest.getRegistrationNumber(), adsRequest.getProfileComplete(), 
-				adsRequest.getIsActive(), pageable);
+		NameFilter name = nameIndex.resolveDoctorName(adsRequest.getName());
+		Page<Doctor> pages = name.isResolved()
+				? doctorRepository.searchDoctorsByIds(adsRequest.getId(), name.getIds(), adsRequest.getEmail(), adsRequest.getPhone(), 
+						adsRequest.getGender(), adsRequest.getDegree(), adsRequest.getSpecialization(), adsRequest.getDepartment(), 
+						adsRequest.getYearOfExperience(), adsRequest.getRegistrationNumber(), adsRequest.getProfileComplete(), 
+						adsRequest.getIsActive(), pageable)
+				: doctorRepository.searchDoctors(adsRequest.getId(), name.getName(), adsRequest.getEmail(), adsRequest.getPhone(), 
+						adsRequest.getGender(), adsRequest.getDegree(), adsRequest.getSpecialization(), adsRequest.getDepartment(), 
+						adsRequest.getYearOfExperience(), adsRequest.getRegistrationNumber(), adsRequest.getProfileComplete(), 
+						adsRequest.getIsActive(), pageable);
 		List<ADSResponse> response = pages.getContent().stream().map(AdminUtil::prepareADSResponseForSeachDoctors).collect(Collectors.toList());
 		return CommonUtil.prepareResponseMap(response, pages);
 	}
 
+	/**
+	 * Retrieve filtered list of doctors in cursor (keyset) pagination mode. Seeks past the id encoded in the given
+	 * cursor instead of skipping rows by offset and doesn't count total records, so deep pages cost the same as the first one.
+	 * 
+	 */
+	@Override
+	public Map<String, Object> searchDoctorsByCursor(ADSRequest adsRequest, String cursor, int size) {
+		NameFilter name = nameIndex.resolveDoctorName(adsRequest.getName());
+		Slice<Doctor> slice = name.isResolved()
+				? doctorRepository.searchDoctorsByIdsAfter(adsRequest.getId(), name.getIds(), adsRequest.getEmail(), adsRequest.getPhone(), 
+						adsRequest.getGender(), adsRequest.getDegree(), adsRequest.getSpecialization(), adsRequest.getDepartment(), 
+						adsRequest.getYearOfExperience(), adsRequest.getRegistrationNumber(), adsRequest.getProfileComplete(), 
+						adsRequest.getIsActive(), AdminUtil.decodeCursor(cursor), PageRequest.of(0, size))
+				: doctorRepository.searchDoctorsAfter(adsRequest.getId(), name.getName(), adsRequest.getEmail(), adsRequest.getPhone(), 
+						adsRequest.getGender(), adsRequest.getDegree(), adsRequest.getSpecialization(), adsRequest.getDepartment(), 
+						adsRequest.getYearOfExperience(), adsRequest.getRegistrationNumber(), adsRequest.getProfileComplete(), 
+						adsRequest.getIsActive(), AdminUtil.decodeCursor(cursor), PageRequest.of(0, size));
+		List<ADSResponse> response = slice.getContent().stream().map(AdminUtil::prepareADSResponseForSeachDoctors).collect(Collectors.toList());
+		return CommonUtil.prepareCursorResponseMap(response, slice, AdminUtil.prepareNextCursor(slice, Doctor::getId));
+	}
+
+	/**
+	 * Exports the doctors matching the filters of {@link #searchDoctors(ADSRequest, Pageable)}, in id order.
+	 * Rows are read from the database in chunks of {@value IAdminConstants#EXPORT_CHUNK_SIZE}, each by a short keyset query,
+	 * and written as they are read, so the export runs in constant memory whatever the number of doctors and holds
+	 * no connection between two chunks. The rows are not read from a single snapshot: a doctor changed during the export
+	 * is written as it was when its chunk was read.
+	 * 
+	 */
+	@Override
+	public long exportDoctors(ADSRequest adsRequest, ExportFormat format, OutputStream outputStream) {
+		ADSRequest request = adsRequest != null ? adsRequest : new ADSRequest();
+		NameFilter name = nameIndex.resolveDoctorName(request.getName());
+		return exportUsers((afterId, chunk) -> name.isResolved()
+				? doctorRepository.exportDoctorsByIdsAfter(request.getId(), name.getIds(), request.getEmail(), request.getPhone(), 
+						request.getGender(), request.getDegree(), request.getSpecialization(), request.getDepartment(), 
+						request.getYearOfExperience(), request.getRegistrationNumber(), request.getProfileComplete(), request.getIsActive(), afterId, chunk)
+				: doctorRepository.exportDoctorsAfter(request.getId(), name.getName(), request.getEmail(), request.getPhone(), 
+						request.getGender(), request.getDegree(), request.getSpecialization(), request.getDepartment(), 
+						request.getYearOfExperience(), request.getRegistrationNumber(), request.getProfileComplete(), request.getIsActive(), afterId, chunk), 
+				format, outputStream);
+	}
+
 	/**
 	 * Retrieve filtered list of patients. Filter works based on input parameters and all 
 	 * parameters are optional. Null values are handled at repository level, if no parameter(s) are
@@ -143,11 +229,77 @@ public Map<String, Object> searchDoctors(ADSRequest adsRequest, Pageable pageabl
 	 */
 	@Override
 	public Map<String, Object> searchPatients(APSRequest apsRequest, Pageable pageable) {
-		Page<Patient> pages = patientRepository.searchPatients(apsRequest.getId(), apsRequest.getName(), apsRequest.getEmail(), apsRequest.getPhone(), apsRequest.getGender(), apsRequest.getProfileComplete(), apsRequest.getIsActive(), pageable);
+		NameFilter name = nameIndex.resolvePatientName(apsRequest.getName());
+		Page<Patient> pages = name.isResolved()
+				? patientRepository.searchPatientsByIds(apsRequest.getId(), name.getIds(), apsRequest.getEmail(), apsRequest.getPhone(), apsRequest.getGender(), apsRequest.getProfileComplete(), apsRequest.getIsActive(), pageable)
+				: patientRepository.searchPatients(apsRequest.getId(), name.getName(), apsRequest.getEmail(), apsRequest.getPhone(), apsRequest.getGender(), apsRequest.getProfileComplete(), apsRequest.getIsActive(), pageable);
 		List<APSResponse> response = pages.getContent().stream().map(AdminUtil::prepareAPSResponseForSeachPatients).collect(Collectors.toList());
 		return CommonUtil.prepareResponseMap(response, pages);
 	}
 	
+	/**
+	 * Retrieve filtered list of patients in cursor (keyset) pagination mode, without counting total records.
+	 * 
+	 */
+	@Override
+	public Map<String, Object> searchPatientsByCursor(APSRequest apsRequest, String cursor, int size) {
+		NameFilter name = nameIndex.resolvePatientName(apsRequest.getName());
+		Slice<Patient> slice = name.isResolved()
+				? patientRepository.searchPatientsByIdsAfter(apsRequest.getId(), name.getIds(), apsRequest.getEmail(), apsRequest.getPhone(), 
+						apsRequest.getGender(), apsRequest.getProfileComplete(), apsRequest.getIsActive(), AdminUtil.decodeCursor(cursor), PageRequest.of(0, size))
+				: patientRepository.searchPatientsAfter(apsRequest.getId(), name.getName(), apsRequest.getEmail(), apsRequest.getPhone(), 
+						apsRequest.getGender(), apsRequest.getProfileComplete(), apsRequest.getIsActive(), AdminUtil.decodeCursor(cursor), PageRequest.of(0, size));
+		List<APSResponse> response = slice.getContent().stream().map(AdminUtil::prepareAPSResponseForSeachPatients).collect(Collectors.toList());
+		return CommonUtil.prepareCursorResponseMap(response, slice, AdminUtil.prepareNextCursor(slice, Patient::getId));
+	}
+	
+	/**
+	 * Exports the patients matching the filters of {@link #searchPatients(APSRequest, Pageable)}, in id order,
+	 * read in chunks as for {@link #exportDoctors(ADSRequest, ExportFormat, OutputStream)}.
+	 * 
+	 */
+	@Override
+	public long exportPatients(APSRequest apsRequest, ExportFormat format, OutputStream outputStream) {
+		APSRequest request = apsRequest != null ? apsRequest : new APSRequest();
+		NameFilter name = nameIndex.resolvePatientName(request.getName());
+		return exportUsers((afterId, chunk) -> name.isResolved()
+				? patientRepository.exportPatientsByIdsAfter(request.getId(), name.getIds(), request.getEmail(), request.getPhone(), 
+						request.getGender(), request.getProfileComplete(), request.getIsActive(), afterId, chunk)
+				: patientRepository.exportPatientsAfter(request.getId(), name.getName(), request.getEmail(), request.getPhone(), 
+						request.getGender(), request.getProfileComplete(), request.getIsActive(), afterId, chunk), 
+				format, outputStream);
+	}
+
+	private long exportUsers(BiFunction<Integer, Pageable, Slice<UserListItem>> chunkAfter, ExportFormat format, OutputStream outputStream) {
+		try (ExportWriter writer = new ExportWriter(format, outputStream, IAdminConstants.ID, IAdminConstants.NAME, IAdminConstants.EMAIL, 
+				IAdminConstants.PHONE, IAdminConstants.IS_ACTIVE, IAdminConstants.PROFILE_COMPLETE)) {
+			return export(writer, chunkAfter, UserListItem::getId, 
+					user -> writer.write(user.getId(), user.getName(), user.getEmail(), user.getPhone(), user.getIsActive(), user.getProfileComplete()));
+		}
+	}
+
+	/**
+	 * Writes the rows of an export, read chunk by chunk in id order, each chunk starting after the last id of the previous one.
+	 *
+	 * @param writer     the writer of the export
+	 * @param chunkAfter reads the chunk of rows after the given id
+	 * @param id         the id of a row
+	 * @param row        writes a row
+	 * @return the number of rows written
+	 */
+	private <T> long export(ExportWriter writer, BiFunction<Integer, Pageable, Slice<T>> chunkAfter, ToIntFunction<T> id, Consumer<T> row) {
+		Pageable chunk = PageRequest.of(0, IAdminConstants.EXPORT_CHUNK_SIZE);
+		int afterId = 0;
+		Slice<T> slice;
+		do {
+			slice = chunkAfter.apply(afterId, chunk);
+			slice.forEach(row);
+			if (slice.hasContent())
+				afterId = id.applyAsInt(slice.getContent().get(slice.getNumberOfElements() - 1));
+		} while (slice.hasNext());
+		return writer.getRows();
+	}
+	
 	/**
 	 * Retrieves doctor information from provided id. Also add doctor's availability generation
 	 * preference data along with doctor information. Prepare response and send to controller level.
@@ -192,6 +344,7 @@ public int toggleStatus(Integer id, String role) {
 			case IDoctorConstants.DOCTOR_ROLE:
 				Doctor doctor = doctorRepository.findById(id).orElseThrow(() -> new DoctorException(IExceptionConstants.DOCTOR_NOT_FOUND, HttpStatus.BAD_REQUEST));
 				toggled = doctorRepository.toggleStatus(id, !doctor.getIsActive());
+				eventPublisher.publishEvent(new DoctorChangedEvent(id));
 				break;
 				
 			case IPatientConstants.PATIENT_ROLE:
@@ -234,11 +387,38 @@ public List<PatientIdNameProjection> getPatientList() {
 	 */
 	@Override
 	public Map<String, Object> searchAvailabilitySlots(Map<String, Object> requestMap, Pageable pageable) {
-		Page<Availability> pages = availabilityRepository.searchAvailability((Integer) requestMap.get(IRequestConstants.DOCTOR_ID), (LocalDate) requestMap.get(IRequestConstants.DATE), (SlotStatus) requestMap.get(IRequestConstants.STATUS), pageable);
+		Page<SlotListItem> pages = availabilityRepository.searchAvailability((Integer) requestMap.get(IRequestConstants.DOCTOR_ID), (LocalDate) requestMap.get(IRequestConstants.DATE), (SlotStatus) requestMap.get(IRequestConstants.STATUS), pageable);
 		List<Map<String, Object>> response = pages.getContent().stream().map(AdminUtil::prepareSearchAvailabilitySlots).collect(Collectors.toList());
 		return CommonUtil.prepareResponseMap(response, pages);
 	}
 
+	/**
+	 * Retrieves filtered availability slots in cursor (keyset) pagination mode, without counting total records.
+	 * 
+	 */
+	@Override
+	public Map<String, Object> searchAvailabilitySlotsByCursor(Map<String, Object> requestMap, String cursor, int size) {
+		Slice<SlotListItem> slice = availabilityRepository.searchAvailabilityAfter((Integer) requestMap.get(IRequestConstants.DOCTOR_ID), (LocalDate) requestMap.get(IRequestConstants.DATE), (SlotStatus) requestMap.get(IRequestConstants.STATUS), AdminUtil.decodeCursor(cursor), PageRequest.of(0, size));
+		List<Map<String, Object>> response = slice.getContent().stream().map(AdminUtil::prepareSearchAvailabilitySlots).collect(Collectors.toList());
+		return CommonUtil.prepareCursorResponseMap(response, slice, AdminUtil.prepareNextCursor(slice, SlotListItem::getId));
+	}
+
+	/**
+	 * Exports the availability slots matching the filters of {@link #searchAvailabilitySlots(Map, Pageable)}, in id order,
+	 * read in chunks as for {@link #exportDoctors(ADSRequest, ExportFormat, OutputStream)}.
+	 * 
+	 */
+	@Override
+	public long exportAvailabilitySlots(Map<String, Object> requestMap, ExportFormat format, OutputStream outputStream) {
+		try (ExportWriter writer = new ExportWriter(format, outputStream, IAdminConstants.ID, IAdminConstants.DATE, IAdminConstants.FROM, IAdminConstants.TO, 
+				IAdminConstants.STATUS, IAdminConstants.MODE, IAdminConstants.DOCTOR_ID, IAdminConstants.DOCTOR_NAME)) {
+			return export(writer, (afterId, chunk) -> availabilityRepository.exportAvailabilityAfter((Integer) requestMap.get(IRequestConstants.DOCTOR_ID), 
+					(LocalDate) requestMap.get(IRequestConstants.DATE), (SlotStatus) requestMap.get(IRequestConstants.STATUS), afterId, chunk), 
+					SlotListItem::getId, slot -> writer.write(slot.getId(), slot.getDate(), slot.getStartTime(), slot.getEndTime(), slot.getStatus(), 
+							slot.getMode(), slot.getDoctorId(), slot.getDoctorName()));
+		}
+	}
+
 	/**
 	 * Delete particular slot based on given id of slot.
 	 * 
@@ -246,8 +426,10 @@ public Map<String, Object> searchAvailabilitySlots(Map<String, Object> requestMa
 	@Override
 	@Transactional
 	public int deleteAvailabilitySlot(Integer id) {
+		Optional<Integer> doctorId = availabilityRepository.findDoctorIdById(id);
 		int deleted = availabilityRepository.deleteByIdAndStatus(id);
 		if (deleted == 1) {
+			doctorId.ifPresent(value -> eventPublisher.publishEvent(new SlotsChangedEvent(value, null)));
 			return deleted;
 		} else {
 			throw new AvailabilityException(IExceptionConstants.NOT_ABLE_TO_DELETE_SLOT, HttpStatus.INTERNAL_SERVER_ERROR);
@@ -279,11 +461,40 @@ public String changeAvailabilityAppointmentStatus(Map<String, Object> requestMap
 	 */
 	@Override
 	public Map<String, Object> searchAppointments(Map<String, Object> requestMap, Pageable pageable) {
-		Page<Appointment> pages = appointmentRepository.searchAppointments((Integer) requestMap.get(IRequestConstants.DOCTOR_ID), (Integer) requestMap.get(IRequestConstants.PATIENT_ID), (LocalDate) requestMap.get(IRequestConstants.DATE), (AppointmentStatus) requestMap.get(IRequestConstants.STATUS), pageable);
+		Page<AppointmentListItem> pages = appointmentRepository.searchAppointments((Integer) requestMap.get(IRequestConstants.DOCTOR_ID), (Integer) requestMap.get(IRequestConstants.PATIENT_ID), (LocalDate) requestMap.get(IRequestConstants.DATE), (AppointmentStatus) requestMap.get(IRequestConstants.STATUS), pageable);
 		List<Map<String, Object>> response = pages.getContent().stream().map(AdminUtil::prepareSearchAppointments).collect(Collectors.toList());
 		return CommonUtil.prepareResponseMap(response, pages);
 	}
 
+	/**
+	 * Retrieves filtered appointments in cursor (keyset) pagination mode, without counting total records.
+	 * 
+	 */
+	@Override
+	public Map<String, Object> searchAppointmentsByCursor(Map<String, Object> requestMap, String cursor, int size) {
+		Slice<AppointmentListItem> slice = appointmentRepository.searchAppointmentsAfter((Integer) requestMap.get(IRequestConstants.DOCTOR_ID), (Integer) requestMap.get(IRequestConstants.PATIENT_ID), (LocalDate) requestMap.get(IRequestConstants.DATE), (AppointmentStatus) requestMap.get(IRequestConstants.STATUS), AdminUtil.decodeCursor(cursor), PageRequest.of(0, size));
+		List<Map<String, Object>> response = slice.getContent().stream().map(AdminUtil::prepareSearchAppointments).collect(Collectors.toList());
+		return CommonUtil.prepareCursorResponseMap(response, slice, AdminUtil.prepareNextCursor(slice, AppointmentListItem::getId));
+	}
+
+	/**
+	 * Exports the appointments matching the filters of {@link #searchAppointments(Map, Pageable)}, in id order,
+	 * read in chunks as for {@link #exportDoctors(ADSRequest, ExportFormat, OutputStream)}.
+	 * 
+	 */
+	@Override
+	public long exportAppointments(Map<String, Object> requestMap, ExportFormat format, OutputStream outputStream) {
+		try (ExportWriter writer = new ExportWriter(format, outputStream, IAdminConstants.ID, IAdminConstants.SLOT_ID, IAdminConstants.DOCTOR_NAME, IAdminConstants.PATIENT_NAME, 
+				IAdminConstants.DATE, IAdminConstants.FROM, IAdminConstants.TO, IAdminConstants.STATUS, IAdminConstants.BOOKED_ON)) {
+			return export(writer, (afterId, chunk) -> appointmentRepository.exportAppointmentsAfter((Integer) requestMap.get(IRequestConstants.DOCTOR_ID), 
+					(Integer) requestMap.get(IRequestConstants.PATIENT_ID), (LocalDate) requestMap.get(IRequestConstants.DATE), 
+					(AppointmentStatus) requestMap.get(IRequestConstants.STATUS), afterId, chunk), 
+					AppointmentListItem::getId, appointment -> writer.write(appointment.getId(), appointment.getSlotId(), appointment.getDoctorName(), 
+							appointment.getPatientName(), appointment.getDate(), appointment.getStartTime(), appointment.getEndTime(), appointment.getStatus(), 
+							appointment.getBookedOn()));
+		}
+	}
+
 	/**
 	 * Change status of appointment to requested new status based on given appointment id.
 	 * 
@@ -306,6 +517,17 @@ public Map<String, Object> searchLeaves(Map<String, Object> requestMap, Pageable
 		return CommonUtil.prepareResponseMap(response, pages);
 	}
 
+	/**
+	 * Retrieves filtered leaves in cursor (keyset) pagination mode, without counting total records.
+	 * 
+	 */
+	@Override
+	public Map<String, Object> searchLeavesByCursor(Map<String, Object> requestMap, String cursor, int size) {
+		Slice<DoctorLeave> slice = leaveRepository.searchLeavesByAdminAfter((Integer) requestMap.get(IRequestConstants.DOCTOR_ID), (LocalDate) requestMap.get(IRequestConstants.FROM), (LocalDate) requestMap.get(IRequestConstants.TO), (LeaveStatus) requestMap.get(IRequestConstants.STATUS), AdminUtil.decodeCursor(cursor), PageRequest.of(0, size));
+		List<Map<String, Object>> response = slice.getContent().stream().map(AdminUtil::prepareSearchLeavesMap).collect(Collectors.toList());
+		return CommonUtil.prepareCursorResponseMap(response, slice, AdminUtil.prepareNextCursor(slice, DoctorLeave::getId));
+	}
+
 	/**
 	 * Approve or Reject leave. Based on role (currently doctor only) retrieve current leave status
 	 * and based on it update it to requested new status.
@@ -326,9 +548,11 @@ public String changeLeaveStatus(Integer id, String role, LeaveStatus status) {
 			if (changed != 1) {
 		        throw new AppointmentException(IResponseConstants.LEAVE_STATUS_UPDATE_FAILED, HttpStatus.INTERNAL_SERVER_ERROR);
 		    }
-			// If leave approved then delete available slots, cancel booked and re_available slots and cancel appointments of booked slot
+			// If leave approved then queue the deletion of available slots, cancellation of booked and re_available slots and of appointments of booked slots
 			if (status == LeaveStatus.APPROVED) {
-				deleteSlotOrCancelAppointment(leave, now);				
+				queueLeaveSlotJob(leave);
+				holidayLeaveCalendar.addLeave(leave.getDoctor().getId(), leave.getFrom(), leave.getTo());
+				eventPublisher.publishEvent(new SlotsChangedEvent(leave.getDoctor().getId(), null));
 			}
 			
 			return AdminUtil.getSuccessMessageForLeaveStausChange(status);
@@ -341,15 +565,13 @@ public String changeLeaveStatus(Integer id, String role, LeaveStatus status) {
 	 * This method is used when status of any leave request changed to {@code LeaveStatus.APPROVED}.
 	 * Availability slots generation in advance is limited by some days (as defined in properties file).
 	 * So, if {@code LeaveStatus.APPROVED} leave fall under that period where slots may be generated then
-	 * check for slots and if slots are generated then check it status, if status is {@link SlotStatus.AVAILABLE} or
-	 * {@link SlotStatus.RE_AVAILABLE} then cancel slot, if {@link SlotStatus.BOOKED} then cancel slot and also mark 
-	 * associated appointment as cancelled by doctor.
+	 * queue a {@link LeaveSlotJob} for those days, which is run in background by {@link com.ps.schedule.LeaveSlotJobRunner} once
+	 * the approval is committed: {@link SlotStatus.AVAILABLE} slots are deleted, {@link SlotStatus.RE_AVAILABLE} slots
+	 * are cancelled and {@link SlotStatus.BOOKED} slots are cancelled along with their appointments (cancelled by doctor).
 	 * 
 	 * @param leave
-	 * @param now
 	 */
-	private void deleteSlotOrCancelAppointment(DoctorLeave leave, LocalDateTime now) {
-		Integer doctorId = leave.getDoctor().getId();
+	private void queueLeaveSlotJob(DoctorLeave leave) {
 		LocalDate from = leave.getFrom();
 		LocalDate to = leave.getTo();
 		LocalDate today = LocalDate.now();
@@ -357,49 +579,22 @@ private void deleteSlotOrCancelAppointment(DoctorLeave leave, LocalDateTime now)
 		
 		// As we are restricting slot generation for maximum defined days(for example 15) from current date
 		// So if from date is after that date(e.g.: 15 days after today) after which no slots are generated then no need to modify/delete slots/appointments
-		if (!from.isAfter(limitDate)) {
+		if (!from.isAfter(limitDate) && !to.isBefore(today)) {
 			if (to.isAfter(limitDate)) {
 				to = limitDate;
 			}
 			if (from.isBefore(today)) {
 				from = today;
 			}
-
-			List<Availability> slots = availabilityRepository.findByDoctorIdAndDateBetween(doctorId, from, to);
-			if (!slots.isEmpty()) {
-				List<Availability> slotsToDelete = new ArrayList<>();
-		        List<Integer> slotsToCancel = new ArrayList<>();
-		        List<Integer> appointmentsToCancel = new ArrayList<>();
-		        
-		        for (Availability slot : slots) {
-		        	switch (slot.getStatus()) {
-						case AVAILABLE:
-							slotsToDelete.add(slot);
-							break;
-						case BOOKED:
-							slotsToCancel.add(slot.getId());
-							appointmentsToCancel.add(slot.getId());
-							break;
-						case RE_AVAILABLE:
-							slotsToCancel.add(slot.getId());
-							break;
-						default:
-							break;
-					}
-		        }
-		        
-		        if (!slotsToDelete.isEmpty()) {
-		        	availabilityRepository.deleteAll(slotsToDelete);
-		        }
-		        if (!slotsToCancel.isEmpty()) {
-		        	availabilityRepository.updateStatusByIds(SlotStatus.CANCELLED, slotsToCancel, now);
-		        }
-		        if (!appointmentsToCancel.isEmpty()) {
-		        	appointmentRepository.updateStatusByAvailabilityIds(AppointmentStatus.D_CANCELLED, appointmentsToCancel, now, List.of(AppointmentStatus.BOOKED, AppointmentStatus.APPROVED));
-		        }
-			} else {
-				LOG.info("No Slots found for doctorId: {} for date from: {} to: {}", doctorId, from, to);
-			}
+			
+			LeaveSlotJob job = new LeaveSlotJob();
+			job.setLeave(leave);
+			job.setDoctor(leave.getDoctor());
+			job.setFrom(from);
+			job.setTo(to);
+			job.setNextDate(from);
+			leaveSlotJobRepository.save(job);
+			eventPublisher.publishEvent(new LeaveApprovedEvent(leave.getId()));
 		} else {
 			LOG.info("Applied Leave dates doesn't fall under maximum slot generation days");
 		}
@@ -415,7 +610,12 @@ public boolean addHoliday(HolidayDTO holidayDTO) {
 			throw new AdminException(IExceptionConstants.HOLIDAY_SUNDAY_CONFLICT, HttpStatus.BAD_REQUEST);
 		}
 		Holiday holiday = holidayMapper.toHoliday(holidayDTO);
-		return holidayRepository.save(holiday) != null;
+		boolean saved = holidayRepository.save(holiday) != null;
+		if (saved) {
+			holidayLeaveCalendar.addHoliday(holiday.getHolidayDate());
+			referenceDataCache.evict(ICacheConstants.HOLIDAYS);
+		}
+		return saved;
 	}
 
 	/**
@@ -424,7 +624,10 @@ public boolean addHoliday(HolidayDTO holidayDTO) {
 	 */
 	@Override
 	public void deleteHoliday(Integer id) {
+		Optional<Holiday> holiday = holidayRepository.findById(id);
 		holidayRepository.deleteById(id);
+		holiday.ifPresent(h -> holidayLeaveCalendar.removeHoliday(h.getHolidayDate()));
+		referenceDataCache.evict(ICacheConstants.HOLIDAYS);
 	}
 	
 }
@@ -6,19 +6,24 @@
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import com.ps.cache.NameIndex;
 import com.ps.constants.IDoctorConstants;
 import com.ps.constants.IExceptionConstants;
 import com.ps.constants.IPatientConstants;
 import com.ps.constants.IRequestConstants;
 import com.ps.constants.IResponseConstants;
+import com.ps.dto.AppointmentListItem;
+import com.ps.dto.NameFilter;
 import com.ps.dto.SubProfileDTO;
 import com.ps.dto.request.AppointmentRequest;
 import com.ps.dto.request.DSRequest;
@@ -33,6 +38,7 @@
 import com.ps.entity.SubProfile;
 import com.ps.enu.AppointmentStatus;
 import com.ps.enu.SlotStatus;
+import com.ps.event.AppointmentChangedEvent;
 import com.ps.exception.AppointmentException;
 import com.ps.exception.AvailabilityException;
 import com.ps.exception.DoctorException;
@@ -40,7 +46,9 @@
 import com.ps.exception.ProfileException;
 import com.ps.repo.AppointmentRepository;
 import com.ps.repo.AvailabilityRepository;
+import com.ps.repo.DoctorLeaveRepository;
 import com.ps.repo.DoctorRepository;
+import com.ps.repo.HolidayRepository;
 import com.ps.repo.PatientRepository;
 import com.ps.repo.SubProfileRepository;
 import com.ps.service.IAppointmentService;
@@ -49,6 +57,7 @@
 import com.ps.util.AvailabilityUtil;
 import com.ps.util.CommonUtil;
 import com.ps.util.JwtUtil;
+import com.ps.util.VirtualSlots;
 
 import jakarta.transaction.Transactional;
 
@@ -78,12 +87,27 @@ public class AppointmentServiceImpl implements IAppointmentService {
 	@Autowired
 	private SubProfileRepository subProfileRepository;
 	
+	@Autowired
+	private DoctorLeaveRepository leaveRepository;
+	
+	@Autowired
+	private HolidayRepository holidayRepository;
+	
 	@Autowired
 	private IDoctorService doctorService;
+	
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+	
+	@Autowired
+	private NameIndex nameIndex;
+	
+	@Autowired
+	private VirtualSlots virtualSlots;
 
 	/**
      * Retrieves detailed information about a specific slot, including slot details,
-     * doctor information and patient information.
+     * doctor information and patient information. A virtual slot is resolved from the rule of the doctor.
      *
      * @param requestMap a map containing {@code SLOT_ID} and {@code DOCTOR_ID} to identify the slot and doctor
      * @return an {@link ApDResponse} containing aggregated slot, doctor, and patient data
@@ -92,7 +116,14 @@ public class AppointmentServiceImpl implements IAppointmentService {
      */
 	@Override
 	public ApDResponse viewDetails(Map<String, Object> requestMap) {
-		Availability availability = availabilityRepository.fetchByIdAndStatusIn((Integer) requestMap.get(IRequestConstants.SLOT_ID)).orElseThrow(() -> new AvailabilityException(IExceptionConstants.AVAILABILITY_SLOTS_NOT_FOUND, HttpStatus.BAD_REQUEST));
+		Integer slotId = (Integer) requestMap.get(IRequestConstants.SLOT_ID);
+		Availability availability;
+		if (VirtualSlots.isVirtual(slotId)) {
+			Doctor doctor = doctorRepository.findById((Integer) requestMap.get(IRequestConstants.DOCTOR_ID)).orElseThrow(() -> new DoctorException(IExceptionConstants.DOCTOR_NOT_FOUND, HttpStatus.BAD_REQUEST));
+			availability = virtualSlots.resolve(doctor, slotId).orElseThrow(() -> new AvailabilityException(IExceptionConstants.AVAILABILITY_SLOTS_NOT_FOUND, HttpStatus.BAD_REQUEST));
+		} else {
+			availability = availabilityRepository.fetchByIdAndStatusIn(slotId).orElseThrow(() -> new AvailabilityException(IExceptionConstants.AVAILABILITY_SLOTS_NOT_FOUND, HttpStatus.BAD_REQUEST));
+		}
 		Doctor doctor = availability.getDoctor();
 		if (!doctor.getId().equals((Integer) requestMap.get(IRequestConstants.DOCTOR_ID)))
 			throw new AvailabilityException(IExceptionConstants.DOCTOR_SLOTS_MISMATCHED, HttpStatus.BAD_REQUEST);
@@ -108,11 +139,22 @@ public ApDResponse viewDetails(Map<String, Object> requestMap) {
      * Validates that the slot is available, the booking is not in the past, and
      * the patient is authorized to book.
      * </p>
+     * <p>
+     * The slot is claimed with a single conditional update ({@code AVAILABLE}/{@code RE_AVAILABLE} to {@code BOOKED})
+     * and the appointment is inserted only if that update changed exactly one row, so concurrent
+     * requests for the same slot can never both succeed. Slots on a day of an approved leave of the doctor are
+     * rejected, and the update itself re-checks the leaves so that a leave approved meanwhile is not missed.
+     * A virtual slot is resolved from the rule of the doctor and stored as booked, the unique (doctor, date, start time, end time) constraint letting only one of the
+     * concurrent requests store it. As the rule is expanded with the holidays and leaves cached by this instance, the holidays are checked
+     * against the database before the slot is stored, and the approved leaves again once it is stored, with a locking read that also sees
+     * a leave approved meanwhile.
+     * </p>
      *
      * @param request an {@link AppointmentRequest} containing slot, doctor, patient, and optional sub-profile details
      * @return {@code true} if the appointment is successfully booked, {@code false} otherwise
      * @throws PatientException if the session does not match the booking request
-     * @throws AvailabilityException if the slot is not found, belongs to another doctor, or is in the past
+     * @throws AvailabilityException if the slot is not found, belongs to another doctor, is in the past,
+     *         is on a leave of the doctor or a holiday, or has just been taken by another request
      * @throws ProfileException if sub-profile data is invalid or mismatched
      */
 	@Override
@@ -122,8 +164,11 @@ public boolean bookAppointment(AppointmentRequest request) {
 		if (!patient.getEmail().equals(JwtUtil.getEmailFromToken()))
 			throw new PatientException(IExceptionConstants.SESSION_MISMATCHED, HttpStatus.UNAUTHORIZED);
 		
-		Availability availability = availabilityRepository.fetchByIdAndStatusIn(request.getSlotId()).orElseThrow(() -> new AvailabilityException(IExceptionConstants.AVAILABILITY_SLOTS_NOT_FOUND, HttpStatus.BAD_REQUEST));
+		boolean virtual = VirtualSlots.isVirtual(request.getSlotId());
+		Availability availability = virtual ? null : availabilityRepository.fetchByIdAndStatusIn(request.getSlotId()).orElseThrow(() -> new AvailabilityException(IExceptionConstants.AVAILABILITY_SLOTS_NOT_FOUND, HttpStatus.BAD_REQUEST));
 		Doctor doctor = doctorRepository.findById(request.getDoctorId()).orElseThrow(() -> new DoctorException(IExceptionConstants.DOCTOR_NOT_FOUND, HttpStatus.BAD_REQUEST));
+		if (virtual)
+			availability = virtualSlots.resolve(doctor, request.getSlotId()).orElseThrow(() -> new AvailabilityException(IExceptionConstants.AVAILABILITY_SLOTS_NOT_FOUND, HttpStatus.BAD_REQUEST));
 		if (!availability.getDoctor().getId().equals(doctor.getId()))
 			throw new AvailabilityException(IExceptionConstants.DOCTOR_SLOTS_MISMATCHED, HttpStatus.BAD_REQUEST);
 		
@@ -132,26 +177,44 @@ public boolean bookAppointment(AppointmentRequest request) {
 		if (date.isBefore(today) || (date.isEqual(today) && availability.getEndTime().isBefore(LocalTime.now()))) {
 			throw new AvailabilityException(IExceptionConstants.CANT_BOOK_PAST_SLOTS, HttpStatus.BAD_REQUEST);
 		} 
+		if (leaveRepository.isOnApprovedLeave(doctor.getId(), date)) {
+			throw new AvailabilityException(IExceptionConstants.DOCTOR_ON_LEAVE, HttpStatus.BAD_REQUEST);
+		}
+		if (virtual && holidayRepository.existsByHolidayDate(date)) {
+			throw new AvailabilityException(IExceptionConstants.HOLIDAY_ON_DATE, HttpStatus.BAD_REQUEST);
+		}
 		
-		availability.setStatus(SlotStatus.BOOKED);
 		SubProfile subProfile = null;
 		if (request.getIsSubProfile()) {
-			SubProfileDTO subProfileDTO = request.getSubProfile();
-			Integer id = subProfileDTO.getId();
+			Integer id = request.getSubProfile().getId();
 			if (id != null) {
 				subProfile = subProfileRepository.findById(id).orElseThrow(() -> new ProfileException(IExceptionConstants.SUB_PROFILE_NOT_FOUND, HttpStatus.BAD_REQUEST));
 				if (!subProfile.getPatient().getId().equals(patient.getId())) {
 					throw new PatientException(IExceptionConstants.SUB_PROFILE_MISMATHCED, HttpStatus.UNAUTHORIZED);
 				}
 			}
-			subProfile = subProfileRepository.save(AppointmentUtil.prepareSubProfile(subProfileDTO, patient));
+		}
+		
+		// Claim the slot with a single conditional update, only one of the concurrent requests can change the row
+		if (virtual) {
+			availability = virtualSlots.materialize(availability, SlotStatus.BOOKED);
+			// A leave approved since the check above would not cancel the new slot, the booking is rolled back instead
+			if (!leaveRepository.lockApprovedLeaves(doctor.getId(), date).isEmpty())
+				throw new AvailabilityException(IExceptionConstants.DOCTOR_ON_LEAVE, HttpStatus.BAD_REQUEST);
+		} else if (availabilityRepository.claimSlot(availability.getId(), LocalDateTime.now()) != 1) {
+			throw new AvailabilityException(IExceptionConstants.SLOT_JUST_TAKEN, HttpStatus.CONFLICT);
+		}
+		if (request.getIsSubProfile()) {
+			subProfile = subProfileRepository.save(AppointmentUtil.prepareSubProfile(request.getSubProfile(), patient));
 		}
 		Appointment appointment = new Appointment();
 		appointment.setPatient(patient);
 		appointment.setAvailability(availability);
 		appointment.setSubProfile(subProfile);
 		appointment.setNote(request.getNote());
-		return appointmentRepository.save(appointment) != null && availabilityRepository.save(availability) != null;
+		Appointment saved = appointmentRepository.save(appointment);
+		eventPublisher.publishEvent(new AppointmentChangedEvent(doctor.getId(), Set.of(date)));
+		return saved != null;
 	}
 
 	/**
@@ -173,21 +236,23 @@ public Map<String, Object> viewAllAppointments(Map<String, Object> requestMap, P
 		LocalDate date = (LocalDate) requestMap.get(IRequestConstants.DATE);
 		AppointmentStatus status = (AppointmentStatus) requestMap.get(IRequestConstants.STATUS);
 
-		Page<Appointment> pages;
+		Page<AppointmentListItem> pages;
 		switch (role) {
 			case IPatientConstants.PATIENT_ROLE:
-				pages = appointmentRepository.filterAppointmentsForPatient(email, name, date, status, pageable);
+				NameFilter doctorName = nameIndex.resolveDoctorName(name);
+				pages = appointmentRepository.filterAppointmentsForPatient(email, doctorName.getName(), doctorName.isResolved(), doctorName.getIds(), date, status, pageable);
 				break;
 				
 			case IDoctorConstants.DOCTOR_ROLE:
-				pages = appointmentRepository.filterAppointemtnsForDoctor(email, name, date, status, slotId, pageable);
+				NameFilter patientName = nameIndex.resolvePatientName(name);
+				pages = appointmentRepository.filterAppointemtnsForDoctor(email, patientName.getName(), patientName.isResolved(), patientName.getIds(), date, status, slotId, pageable);
 				break;
 	
 			default:
 				throw new ProfileException(IExceptionConstants.PROVIDE_VALID_ROLE, HttpStatus.BAD_REQUEST);
 		}
 
-		List<Appointment> appointments = pages.getContent();
+		List<AppointmentListItem> appointments = pages.getContent();
 		if (appointments.isEmpty()) {
 			throw new AppointmentException(IExceptionConstants.NO_APPOINTMENTS_FOUND, HttpStatus.NO_CONTENT);
 		}
@@ -228,7 +293,9 @@ public String changeAppointmentStatus(Integer id, AppointmentStatus newStatus, b
 	    if (changed != 1) {
 	        throw new AppointmentException(IExceptionConstants.APPOINTMENT_UPDATE_STATUS_FAIL, HttpStatus.INTERNAL_SERVER_ERROR);
 	    }
-	    updateAvailabilityStatusIfRequired(newStatus, appointment.getAvailability().getId());
+	    Availability availability = appointment.getAvailability();
+	    updateAvailabilityStatusIfRequired(newStatus, availability.getId());
+	    eventPublisher.publishEvent(new AppointmentChangedEvent(availability.getDoctor().getId(), Set.of(availability.getDate())));
 		return AppointmentUtil.getSuccessMessageForStausChange(newStatus);
 	}
 
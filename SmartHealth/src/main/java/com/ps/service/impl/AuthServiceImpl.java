@@ -4,8 +4,8 @@
 import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.ps.config.props.PathProperties;
@@ -21,6 +21,8 @@
 import com.ps.entity.Admin;
 import com.ps.entity.Doctor;
 import com.ps.entity.Patient;
+import com.ps.event.DoctorChangedEvent;
+import com.ps.event.PatientChangedEvent;
 import com.ps.exception.AdminException;
 import com.ps.exception.DoctorException;
 import com.ps.exception.PatientException;
@@ -33,12 +35,15 @@
 import com.ps.service.IAuthService;
 import com.ps.service.IAvailabilityService;
 import com.ps.util.JwtUtil;
+import com.ps.util.PasswordUtil;
 
 import jakarta.transaction.Transactional;
 
 /**
  * Implementation of the authentication service interface.
  * Handles registration, login, and related operations for patients, doctors, and admins.
+ * Passwords are hashed and verified through {@link PasswordUtil}, and rehashed on login
+ * when they were hashed with another BCrypt strength than the configured one.
  */
 @Service
 public class AuthServiceImpl implements IAuthService {
@@ -50,7 +55,7 @@ public class AuthServiceImpl implements IAuthService {
 	private DoctorRepository doctorRepository;
 
 	@Autowired
-	private PasswordEncoder passwordEncoder;
+	private PasswordUtil passwordUtil;
 
 	@Autowired
 	private JwtUtil jwtUtil;
@@ -72,6 +77,9 @@ public class AuthServiceImpl implements IAuthService {
 	
 	@Autowired
 	private PathProperties pathProperties;
+	
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
 
 	/**
      * Registers a new patient based on the provided request data.
@@ -87,10 +95,12 @@ public boolean registerPatient(PatientProfileRequest request) {
 			throw new PatientException(IExceptionConstants.PATIENT_ALREADY_EXIST, HttpStatus.CONFLICT);
 		
 		Patient patient = patientMapper.toPatient(request);
-		patient.setPassword(passwordEncoder.encode(request.getPassword()));
+		patient.setPassword(passwordUtil.encode(request.getPassword()));
 		patient.setRoles(Set.of(IPatientConstants.PATIENT_ROLE));
 		patient.setProfilePicPath(pathProperties.getDefaultProfilePicName());
 		patient = patientRepository.save(patient);
+		if (patient != null)
+			eventPublisher.publishEvent(new PatientChangedEvent(patient.getId()));
 		return patient != null;
 	}
 
@@ -113,8 +123,11 @@ public LoginResponse loginPatient(LoginRequest request) {
 		Patient patient = patients.get(0);
 		if (!patient.getIsActive())
 			throw new PatientException(IExceptionConstants.INACTIVE_PROFILE, HttpStatus.LOCKED);
-		if (!passwordEncoder.matches(request.getPassword(), patient.getPassword()))
+		if (!passwordUtil.matches(request.getPassword(), patient.getPassword()))
 			throw new PatientException(IExceptionConstants.INCORRECT_PASSWORD, HttpStatus.UNAUTHORIZED);
+		String rehashed = passwordUtil.rehash(request.getPassword(), patient.getPassword());
+		if (rehashed != null)
+			patientRepository.updatePassword(rehashed, patient.getEmail());
 
 		return new LoginResponse(jwtUtil.generateToken(patient.getEmail(), patient.getRoles()), IPatientConstants.PATIENT_ROLE);
 	}
@@ -134,11 +147,12 @@ public boolean registerDoctor(DoctorProfileRequest request) {
 			throw new DoctorException(IExceptionConstants.DOCTOR_ALREADY_EXIST, HttpStatus.CONFLICT);
 		
 		Doctor doctor = doctorMapper.toDoctor(request);
-		doctor.setPassword(passwordEncoder.encode(request.getPassword()));
+		doctor.setPassword(passwordUtil.encode(request.getPassword()));
 		doctor.setRoles(Set.of(IDoctorConstants.DOCTOR_ROLE));
 		doctor.setProfilePicPath(pathProperties.getDefaultProfilePicName());
 		doctor = doctorRepository.save(doctor);
 		if (doctor != null) {
+			eventPublisher.publishEvent(new DoctorChangedEvent(doctor.getId()));
 			return availabilityService.setDefaultAGPreference(doctor);
 		}
 		return false;
@@ -163,8 +177,11 @@ public LoginResponse loginDoctor(LoginRequest request) {
 		Doctor doctor = doctors.get(0);
 		if (!doctor.getIsActive())
 			throw new DoctorException(IExceptionConstants.INACTIVE_PROFILE, HttpStatus.LOCKED);
-		if (!passwordEncoder.matches(request.getPassword(), doctor.getPassword()))
+		if (!passwordUtil.matches(request.getPassword(), doctor.getPassword()))
 			throw new DoctorException(IExceptionConstants.INCORRECT_PASSWORD, HttpStatus.UNAUTHORIZED);
+		String rehashed = passwordUtil.rehash(request.getPassword(), doctor.getPassword());
+		if (rehashed != null)
+			doctorRepository.updatePassword(rehashed, doctor.getEmail());
 		
 		return new LoginResponse(jwtUtil.generateToken(doctor.getEmail(), doctor.getRoles()), IDoctorConstants.DOCTOR_ROLE);
 	}
@@ -183,7 +200,7 @@ public boolean registerAdmin(AdminProfileRequest request) {
 			throw new AdminException(IExceptionConstants.ADMIN_ALREADY_EXIST, HttpStatus.CONFLICT);
 		
 		Admin admin = adminMapper.toAdmin(request);
-		admin.setPassword(passwordEncoder.encode(request.getPassword()));
+		admin.setPassword(passwordUtil.encode(request.getPassword()));
 		admin.setRoles(Set.of(IAdminConstants.ADMIN_ROLE));
 		admin.setProfilePicPath(pathProperties.getDefaultProfilePicName());
 		admin = adminRepository.save(admin);
@@ -209,8 +226,11 @@ public LoginResponse loginAdmin(LoginRequest request) {
 		Admin admin = list.get(0);
 		if (!admin.getIsActive())
 			throw new AdminException(IExceptionConstants.INACTIVE_PROFILE, HttpStatus.LOCKED);
-		if (!passwordEncoder.matches(request.getPassword(), admin.getPassword()))
-			throw new AdminException(IExceptionConstants.INCORRECT_PASSWORD, HttpStatus.UNAUTHORIZED);	
+		if (!passwordUtil.matches(request.getPassword(), admin.getPassword()))
+			throw new AdminException(IExceptionConstants.INCORRECT_PASSWORD, HttpStatus.UNAUTHORIZED);
+		String rehashed = passwordUtil.rehash(request.getPassword(), admin.getPassword());
+		if (rehashed != null)
+			adminRepository.updatePassword(rehashed, admin.getEmail());	
 		
 		return new LoginResponse(jwtUtil.generateToken(admin.getEmail(), admin.getRoles()), IAdminConstants.ADMIN_ROLE);
 	}
@@ -1,6 +1,5 @@
 package com.ps.service.impl;
 
-import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -9,17 +8,22 @@
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import com.ps.cache.HolidayLeaveCalendar;
 import com.ps.constants.IAdminConstants;
 import com.ps.constants.IExceptionConstants;
 import com.ps.constants.IRequestConstants;
@@ -29,6 +33,7 @@
 import com.ps.dto.request.AVRequest;
 import com.ps.dto.response.ADResponse;
 import com.ps.dto.response.AGPreferenceResponse;
+import com.ps.dto.response.AGSummary;
 import com.ps.dto.response.AIResponse;
 import com.ps.dto.response.AVResponse;
 import com.ps.entity.AGPreference;
@@ -39,6 +44,8 @@
 import com.ps.enu.AGMode;
 import com.ps.enu.AppointmentStatus;
 import com.ps.enu.SlotStatus;
+import com.ps.event.AppointmentChangedEvent;
+import com.ps.event.SlotsChangedEvent;
 import com.ps.exception.AppointmentException;
 import com.ps.exception.AvailabilityException;
 import com.ps.exception.DoctorException;
@@ -47,15 +54,14 @@
 import com.ps.repo.AGPreferenceRepository;
 import com.ps.repo.AppointmentRepository;
 import com.ps.repo.AvailabilityRepository;
-import com.ps.repo.DoctorLeaveRepository;
 import com.ps.repo.DoctorRepository;
-import com.ps.repo.HolidayRepository;
 import com.ps.repo.SlotInputRepository;
 import com.ps.service.IAvailabilityService;
 import com.ps.util.AppointmentUtil;
 import com.ps.util.AvailabilityUtil;
 import com.ps.util.CommonUtil;
 import com.ps.util.JwtUtil;
+import com.ps.util.VirtualSlots;
 
 import jakarta.transaction.Transactional;
 
@@ -85,9 +91,6 @@ public class AvailabilityServiceImpl implements IAvailabilityService {
 	@Autowired
 	private DoctorRepository doctorRepository;
 
-	@Autowired
-	private HolidayRepository holidayRepository;
-
 	@Autowired
 	private AGPreferenceRepository agPreferenceRepository;
 
@@ -101,10 +104,16 @@ public class AvailabilityServiceImpl implements IAvailabilityService {
 	private AGPreferenceMapper agMapper;
 	
 	@Autowired
-	private DoctorLeaveRepository leaveRepository;
+	private HolidayLeaveCalendar holidayLeaveCalendar;
 	
 	@Autowired
 	private AvailabilityMapper availabilityMapper;
+	
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+	
+	@Autowired
+	private VirtualSlots virtualSlots;
 
 	/**
      * Generates availability slots for a doctor based on the provided request.
@@ -165,43 +174,51 @@ public void generateAvailabilitySlots(AGRequest request) {
 	 *   <li>Updates the last generated date if applicable.</li>
 	 *   <li>Stores the doctor’s AG preferences for future automated slot generation.</li>
 	 * </ul>
+	 * When virtual slots are enabled, a {@code CUSTOM_CONTINUOUS} request only stores the preference,
+	 * its slots being computed from it by {@link VirtualSlots}.
 	 *
 	 * @param request the {@link AGRequest} containing generation mode, date range, slot intervals, and gap durations
 	 * @param doctor  the {@link Doctor} for whom availability slots will be generated
+	 * @return an {@link AGSummary} with the number of generated and skipped slots
 	 * @throws AvailabilityException if slot generation fails or results in conflicting entries
 	 */
 	@Override
-	public void generateAvailabilitySlots(AGRequest request, Doctor doctor) {
+	public AGSummary generateAvailabilitySlots(AGRequest request, Doctor doctor) {
 		AGMode mode = request.getMode();
+		if (mode == AGMode.CUSTOM_CONTINUOUS && virtualSlots.isEnabled()) {
+			request.setLastGeneratedOn(request.getStartDate());
+			setAGPreference(doctor, request);
+			eventPublisher.publishEvent(new SlotsChangedEvent(doctor.getId(), null));
+			LOG.info("Availability Slots are virtual, preference stored; doctorId: {}, mode: {}", doctor.getId(), mode);
+			return new AGSummary(0, 0);
+		}
+		List<Availability> candidates = new ArrayList<>();
 		if (mode == AGMode.MANUAL) {
 			List<ASRequest> manualSlots = request.getManualSlots();
 			for (ASRequest slot : manualSlots)
-				generateAvailabilitySlots(slot.getDate(), slot.getFrom(), slot.getTo(), doctor, request.getMode());
+				candidates.add(AvailabilityUtil.prepareAvailability(doctor, slot.getDate(), slot.getFrom(), slot.getTo(), mode));
 		} else {
 			LocalDate date = request.getStartDate();
 			int daysAhead = (mode==AGMode.CUSTOM_CONTINUOUS || mode==AGMode.SCHEDULED) ? request.getDaysAhead() : (int) ChronoUnit.DAYS.between(date, request.getEndDate());
 			
 			for (int i=1; i < daysAhead+2; i++) {	
-				boolean blockDay = isHolidayOrLeave(date, doctor);
+				boolean blockDay = holidayLeaveCalendar.isBlocked(doctor.getId(), date);
 				if (!blockDay) {
-					for(SlotInput slot : request.getSlotInputs()) {
-						LocalTime startTime = slot.getStartTime();
-						LocalTime endTime = slot.getEndTime();
-						int gap = slot.getGapInMinutes();
-						while (startTime.plusMinutes(gap).compareTo(endTime) <= 0) {
-							LocalTime slotEnd = startTime.plusMinutes(gap);
-							generateAvailabilitySlots(date, startTime, slotEnd, doctor, request.getMode());
-							startTime = slotEnd;
-						}
-					}
+					AvailabilityUtil.splitSlots(doctor, date, request.getSlotInputs(), mode, candidates);
 				}
 				date = date.plusDays(1);
 			}
 			if (mode == AGMode.SCHEDULED || mode == AGMode.CUSTOM_CONTINUOUS) {
 				request.setLastGeneratedOn(date.minusDays(1));
 			}
+		}
+		
+		AGSummary summary = saveAvailabilitySlots(candidates, doctor);
+		LOG.info("Availability Slots generation completed; doctorId: {}, mode: {}, generated: {}, skipped: {}", doctor.getId(), mode, summary.getGenerated(), summary.getSkipped());
+		if (mode != AGMode.MANUAL) {
 			setAGPreference(doctor, request);
 		}
+		return summary;
 	}
 
 	/**
@@ -228,7 +245,10 @@ public boolean activateAGPreference() {
 		AGPreference agPreference = agPreferenceRepository.findById(doctor.getId())
 				.orElseThrow(() -> new DoctorException(IExceptionConstants.AG_PREFERENCE_NOT_FOUND, HttpStatus.NOT_FOUND));
 		agPreference.setIsActive(true);
-		return agPreferenceRepository.save(agPreference) != null;
+		boolean saved = agPreferenceRepository.save(agPreference) != null;
+		if (virtualSlots.isEnabled())
+			eventPublisher.publishEvent(new SlotsChangedEvent(doctor.getId(), null));
+		return saved;
 	}
 
 	/**
@@ -273,42 +293,61 @@ public boolean setDefaultAGPreference(Doctor doctor) {
 				                                             new SlotInput(LocalTime.of(14, 0), LocalTime.of(18, 0), 30)));
 		slotInputs = slotInputs.stream().map(this::findOrCreateSlotInputs).collect(Collectors.toCollection(ArrayList::new));
 		preference.setSlotInputs(slotInputs);
-		return agPreferenceRepository.save(preference) != null;
+		boolean saved = agPreferenceRepository.save(preference) != null;
+		if (virtualSlots.isEnabled())
+			eventPublisher.publishEvent(new SlotsChangedEvent(doctor.getId(), null));
+		return saved;
 	}
 
 	/**
-	 * Generates a single availability slot for a given doctor on a specific date and time range.
+	 * Persists the candidate availability slots of a doctor in a single pass.
 	 * <p>
-	 * The method performs the following checks before saving:
+	 * The doctor's existing slots for the candidates' date window are loaded once and indexed
+	 * per date as disjoint time intervals. Each candidate is then checked in memory:
 	 * <ul>
-	 *   <li>Ensures the slot end time is in the future.</li>
-	 *   <li>Ensures there is no existing slot with the same date/time range for the doctor.</li>
-	 *   <li>Ensures the new slot does not overlap with any existing slot.</li>
+	 *   <li>Slots whose end time is not in the future are skipped.</li>
+	 *   <li>Slots matching or overlapping an existing (or previously accepted) slot are skipped.</li>
 	 * </ul>
-	 * If validations pass, the slot is saved to the repository.
+	 * Remaining slots are written with JDBC batch inserts.
 	 *
-	 * @param date   the date of the availability slot
-	 * @param from   the start time of the slot
-	 * @param to     the end time of the slot
-	 * @param doctor the doctor for whom the slot is being generated
-	 * @param mode   the auto-generation mode ({@link AGMode})
+	 * @param candidates the slots to generate
+	 * @param doctor     the doctor for whom the slots are being generated
+	 * @return an {@link AGSummary} with the generated and skipped slot counts
 	 */
-	private void generateAvailabilitySlots(LocalDate date, LocalTime from, LocalTime to, Doctor doctor, AGMode mode) {
+	private AGSummary saveAvailabilitySlots(List<Availability> candidates, Doctor doctor) {
+		if (candidates.isEmpty()) {
+			return new AGSummary(0, 0);
+		}
+		LocalDate from = candidates.stream().map(Availability::getDate).min(LocalDate::compareTo).get();
+		LocalDate to = candidates.stream().map(Availability::getDate).max(LocalDate::compareTo).get();
+		Map<LocalDate, NavigableMap<LocalTime, LocalTime>> occupied = new HashMap<>();
+		for (Availability existing : availabilityRepository.findByDoctorIdAndDateBetween(doctor.getId(), from, to)) {
+			AvailabilityUtil.occupy(occupied.computeIfAbsent(existing.getDate(), d -> new TreeMap<>()), existing.getStartTime(), existing.getEndTime());
+		}
+		
 		LocalDateTime now = LocalDateTime.now();
-		if (LocalDateTime.of(date, to).isAfter(now)) {
-			boolean exists = availabilityRepository.existsByDoctorAndDateAndStartTimeAndEndTime(doctor, date, from, to);
-			boolean overlap = true;
-			if (!exists) {				
-				overlap = availabilityRepository.hasOverlappingSlot(doctor.getId(), date, from, to);
+		List<Availability> accepted = new ArrayList<>(candidates.size());
+		for (Availability candidate : candidates) {
+			LocalDate date = candidate.getDate();
+			LocalTime startTime = candidate.getStartTime();
+			LocalTime endTime = candidate.getEndTime();
+			if (!LocalDateTime.of(date, endTime).isAfter(now)) {
+				LOG.debug("Availability Slot generation request is for past; doctorId: {}, date: {}, startTime: {}, endTIme: {}", doctor.getId(), date, startTime, endTime);
+				continue;
 			}
-			if (!overlap) {
-				availabilityRepository.save(AvailabilityUtil.prepareAvailability(doctor, date, from, to, mode));
-			} else {
-				LOG.info("Availability Slot Overlap For; doctorId: {}, date: {}, startTime: {}, endTIme: {}", doctor.getId(), date, from, to);
+			NavigableMap<LocalTime, LocalTime> day = occupied.computeIfAbsent(date, d -> new TreeMap<>());
+			if (AvailabilityUtil.isOverlapping(day, startTime, endTime)) {
+				LOG.debug("Availability Slot Overlap For; doctorId: {}, date: {}, startTime: {}, endTIme: {}", doctor.getId(), date, startTime, endTime);
+				continue;
 			}
-		} else {
-			LOG.info("Availability Slot generation request is for past; doctorId: {}, date: {}, startTime: {}, endTIme: {}", doctor.getId(), date, from, to);
+			AvailabilityUtil.occupy(day, startTime, endTime);
+			accepted.add(candidate);
+		}
+		int generated = accepted.isEmpty() ? 0 : availabilityRepository.batchInsert(accepted);
+		if (generated > 0) {
+			eventPublisher.publishEvent(new SlotsChangedEvent(doctor.getId(), accepted.stream().map(Availability::getDate).collect(Collectors.toSet())));
 		}
+		return new AGSummary(generated, candidates.size() - generated);
 	}
 
 	/**
@@ -357,33 +396,6 @@ private SlotInput findOrCreateSlotInputs(SlotInput slotInput) {
 		return slotInputRepository.save(slotInput);
 	}
 
-	/**
-	 * Checks if a given date should be blocked for availability slot generation for a specific doctor.
-	 * <p>
-	 * A date is considered blocked if:
-	 * <ul>
-	 *   <li>It falls on a Sunday.</li>
-	 *   <li>It exists in the holiday list.</li>
-	 *   <li>The doctor has an approved leave for that date.</li>
-	 * </ul>
-	 *
-	 * @param date   the date to check
-	 * @param doctor the doctor for whom the date is being validated
-	 * @return {@code true} if the date is a holiday, leave day, or Sunday; {@code false} otherwise
-	 */
-	private boolean isHolidayOrLeave(LocalDate date, Doctor doctor) {
-		if (date.getDayOfWeek() == DayOfWeek.SUNDAY) {
-			return true;
-		}
-		if (holidayRepository.existsByHolidayDate(date)) {
-			return true;
-		}
-		if (leaveRepository.existsByDoctorAndDay(doctor.getEmail(), date)) {
-			return true;
-		}
-		return false;
-	}
-
 	/**
 	 * Retrieves the auto-generation (AG) preference for the currently authenticated doctor.
 	 *
@@ -421,7 +433,8 @@ public Map<String, Object> getAvailabilityData(AVRequest request, Pageable pagea
 
 	/**
 	 * Deletes an availability slot by its ID for the currently authenticated doctor,
-	 * provided that the slot is in the {@link SlotStatus#AVAILABLE} state.
+	 * provided that the slot is in the {@link SlotStatus#AVAILABLE} state. A virtual slot, or the virtual slots
+	 * the deleted slot was hiding, are stored as cancelled so that the rule no longer offers them.
 	 *
 	 * @param id the ID of the availability slot to delete
 	 * @return {@code 1} if deletion is successful
@@ -430,8 +443,19 @@ public Map<String, Object> getAvailabilityData(AVRequest request, Pageable pagea
 	@Override
 	@Transactional
 	public int deleteAvailabilitySlot(Integer id) {
-		int deleted = availabilityRepository.deleteByIdAndEmailAndStatus(id, JwtUtil.getEmailFromToken(), List.of(SlotStatus.AVAILABLE));
+		String email = JwtUtil.getEmailFromToken();
+		if (VirtualSlots.isVirtual(id)) {
+			Doctor doctor = doctorRepository.findByEmail(email).orElseThrow(() -> new DoctorException(IExceptionConstants.DOCTOR_NOT_FOUND, HttpStatus.NOT_FOUND));
+			Availability slot = virtualSlots.resolve(doctor, id).orElseThrow(() -> new AvailabilityException(IExceptionConstants.NOT_ABLE_TO_DELETE_SLOT, HttpStatus.NOT_ACCEPTABLE));
+			virtualSlots.materialize(slot, SlotStatus.CANCELLED);
+			eventPublisher.publishEvent(new SlotsChangedEvent(doctor.getId(), Set.of(slot.getDate())));
+			return 1;
+		}
+		Optional<Availability> slot = virtualSlots.isEnabled() ? availabilityRepository.findById(id) : Optional.empty();
+		int deleted = availabilityRepository.deleteByIdAndEmailAndStatus(id, email, List.of(SlotStatus.AVAILABLE));
 		if (deleted == 1) {
+			slot.ifPresent(value -> virtualSlots.cancel(value.getDoctor(), value.getDate(), value.getDate(), value.getStartTime(), value.getEndTime()));
+			doctorRepository.findIdByEmail(email).ifPresent(doctorId -> eventPublisher.publishEvent(new SlotsChangedEvent(doctorId, null)));
 			return deleted;
 		} else {
 			throw new AvailabilityException(IExceptionConstants.NOT_ABLE_TO_DELETE_SLOT, HttpStatus.NOT_ACCEPTABLE);
@@ -442,6 +466,7 @@ public int deleteAvailabilitySlot(Integer id) {
      * Deletes multiple availability slots in bulk for the current doctor.
      * <p>
      * Only slots with status {@code AVAILABLE} can be deleted; booked or past slots are not removed.
+     * Virtual slots within the range are stored as cancelled and counted as deleted.
      *
      * @param slotIds a list of availability slot IDs to delete
      * @return the count of deleted slots
@@ -450,7 +475,17 @@ public int deleteAvailabilitySlot(Integer id) {
 	@Override
 	@Transactional
 	public int bulkDeleteAvailabilitySlots(ADRequest request) {
-		return availabilityRepository.deleteByDateAndTimeRange(JwtUtil.getEmailFromToken(), request.getStartDate(), request.getEndDate(), request.getStartTime(), request.getEndTime(), List.of(SlotStatus.AVAILABLE));
+		String email = JwtUtil.getEmailFromToken();
+		int deleted = availabilityRepository.deleteByDateAndTimeRange(email, request.getStartDate(), request.getEndDate(), request.getStartTime(), request.getEndTime(), List.of(SlotStatus.AVAILABLE));
+		if (virtualSlots.isEnabled()) {
+			Optional<Doctor> doctor = doctorRepository.findByEmail(email);
+			if (doctor.isPresent())
+				deleted += virtualSlots.cancel(doctor.get(), request.getStartDate(), request.getEndDate(), request.getStartTime(), request.getEndTime());
+		}
+		if (deleted > 0) {
+			doctorRepository.findIdByEmail(email).ifPresent(doctorId -> eventPublisher.publishEvent(new SlotsChangedEvent(doctorId, null)));
+		}
+		return deleted;
 	}
 
 	/**
@@ -527,6 +562,7 @@ public String changeAvailabilityAppointmentStatus(Map<String, Object> requestMap
         	if (requestedStatus == AppointmentStatus.D_CANCELLED) {
         		availabilityRepository.updateStatusById(SlotStatus.CANCELLED, slotId, LocalDateTime.now());
         	}
+        	eventPublisher.publishEvent(new AppointmentChangedEvent(availability.getDoctor().getId(), Set.of(availability.getDate())));
         	return AppointmentUtil.getSuccessMessageForStausChange(requestedStatus);
         }
         Appointment appointment = appointmentRepository.findTopByAvailabilityIdOrderByIdDesc(slotId).orElseThrow(() -> new AppointmentException(IExceptionConstants.NO_APPOINTMENT_FOR_SLOT, HttpStatus.NO_CONTENT));
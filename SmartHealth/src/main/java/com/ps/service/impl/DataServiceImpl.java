@@ -4,19 +4,24 @@
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import com.ps.cache.ImageCache;
+import com.ps.config.props.ImageProperties;
 import com.ps.config.props.PathProperties;
 import com.ps.constants.IAdminConstants;
+import com.ps.constants.ICacheConstants;
 import com.ps.constants.IDoctorConstants;
 import com.ps.constants.IPatientConstants;
 import com.ps.dto.HolidayDTO;
+import com.ps.dto.ImageFile;
 import com.ps.entity.Degree;
 import com.ps.entity.Department;
 import com.ps.entity.Holiday;
@@ -38,6 +43,7 @@
  * <p>
  * Provides methods to fetch doctor degrees, departments, specializations,
  * patient relations, holiday lists, and stored images by file name and role.
+ * Reference data and holiday pages are cached until evicted through {@link com.ps.cache.ReferenceDataCache}.
  */
 @Service
 public class DataServiceImpl implements IDataService {
@@ -63,12 +69,19 @@ public class DataServiceImpl implements IDataService {
 	@Autowired
 	private HolidayMapper holidayMapper;
 	
+	@Autowired
+	private ImageCache imageCache;
+	
+	@Autowired
+	private ImageProperties imageProperties;
+	
 	 /**
      * Retrieves the list of all degrees available for doctors.
      *
      * @return a list of {@link Degree} entities
      */
 	@Override
+	@Cacheable(ICacheConstants.DEGREES)
 	public List<Degree> getDoctorDegrees() {
 		return degreeRepository.findAll();
 	}
@@ -79,6 +92,7 @@ public List<Degree> getDoctorDegrees() {
      * @return a list of {@link Department} entities
      */
 	@Override
+	@Cacheable(ICacheConstants.DEPARTMENTS)
 	public List<Department> getDoctorDepartment() {
 		return departmentRepository.findAll();
 	}
@@ -89,6 +103,7 @@ public List<Department> getDoctorDepartment() {
      * @return a list of {@link Specialization} entities
      */
 	@Override
+	@Cacheable(ICacheConstants.SPECIALIZATIONS)
 	public List<Specialization> getDoctorSpecializations() {
 		return specializationRepository.findAll();
 	}
@@ -104,12 +119,16 @@ public List<Specialization> getDoctorSpecializations() {
      *   <li>Default → general image storage path</li>
      * </ul>
      *
+     * When a size is given, the smallest resized variant at least that big is returned,
+     * falling back to the original image if there is no such variant (yet).
+     *
      * @param fileName the name of the image file to retrieve
      * @param role     the role of the user (may be {@code null} or blank for default path)
-     * @return the image as a {@link Resource}
+     * @param size     the requested size in pixels (may be {@code null} for the original image)
+     * @return the image resolved by {@link ImageCache}, held in memory if it is small enough
      */
 	@Override
-	public Resource getPictureByName(String fileName, String role) {
+	public ImageFile getPictureByName(String fileName, String role, Integer size) {
 		Path filePath;
 		if (role == null || role.isBlank()) {
 			filePath = Paths.get(pathProperties.getImageStoragePath() + fileName);
@@ -131,7 +150,15 @@ public Resource getPictureByName(String fileName, String role) {
 					break;
 			}
 		}
-		return DataUtil.getResourceFromPath(filePath);
+		if (size != null) {
+			Integer variantSize = DataUtil.getVariantSize(imageProperties.getVariantSizes(), size);
+			if (variantSize != null) {
+				Optional<ImageFile> variant = imageCache.find(filePath.resolveSibling(DataUtil.getVariantFileName(fileName, variantSize)));
+				if (variant.isPresent())
+					return variant.get();
+			}
+		}
+		return imageCache.get(filePath);
 	}
 
 	 /**
@@ -140,6 +167,7 @@ public Resource getPictureByName(String fileName, String role) {
      * @return a list of {@link Relation} entities
      */
 	@Override
+	@Cacheable(ICacheConstants.RELATIONS)
 	public List<Relation> getPatientRelations() {
 		return relationRepository.findAll();
 	}
@@ -148,12 +176,18 @@ public List<Relation> getPatientRelations() {
      * Retrieves a paginated list of holidays.
      * <p>
      * The result contains holiday data converted to {@link HolidayDTO} objects,
-     * along with pagination metadata.
+     * along with pagination metadata. Only the first {@link ICacheConstants#HOLIDAYS_CACHED_PAGES}
+     * unsorted pages of {@link ICacheConstants#HOLIDAYS_PAGE_SIZE} holidays are cached, other pages
+     * are read from database, so that the cache key can't take arbitrary client values.
      *
      * @param pageable pagination information (page number, size, sort)
      * @return a map containing the list of holiday DTOs and pagination details
      */
 	@Override
+	@Cacheable(cacheNames = ICacheConstants.HOLIDAYS, key = "#pageable.pageNumber",
+			condition = "#pageable.paged && #pageable.sort.unsorted"
+					+ " && #pageable.pageSize == T(com.ps.constants.ICacheConstants).HOLIDAYS_PAGE_SIZE"
+					+ " && #pageable.pageNumber < T(com.ps.constants.ICacheConstants).HOLIDAYS_CACHED_PAGES")
 	public Map<String, Object> viewHolidays(Pageable pageable) {
 		Page<Holiday> pages = holidayRepository.findAll(pageable);
 		List<HolidayDTO> response = pages.getContent().stream().map(holidayMapper::toDto).collect(Collectors.toList());
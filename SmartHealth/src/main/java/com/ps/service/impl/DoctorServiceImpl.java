@@ -1,12 +1,11 @@
 package com.ps.service.impl;
 
 import java.time.LocalDate;
-import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +13,8 @@
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import com.ps.cache.DoctorSearchIndex;
+import com.ps.cache.SlotAvailabilityCache;
 import com.ps.constants.IDoctorConstants;
 import com.ps.constants.IRequestConstants;
 import com.ps.constants.IResponseConstants;
@@ -21,18 +22,14 @@
 import com.ps.dto.response.AVResponse;
 import com.ps.dto.response.DSResponse;
 import com.ps.dto.response.DailyAppointments;
-import com.ps.entity.Appointment;
-import com.ps.entity.Availability;
-import com.ps.entity.Doctor;
 import com.ps.enu.AppointmentStatus;
 import com.ps.repo.AppointmentRepository;
-import com.ps.repo.AvailabilityRepository;
-import com.ps.repo.DoctorRepository;
+import com.ps.repo.AppointmentRollupRepository;
 import com.ps.service.IDoctorService;
 import com.ps.util.AppointmentUtil;
-import com.ps.util.AvailabilityUtil;
 import com.ps.util.CommonUtil;
 import com.ps.util.JwtUtil;
+import com.ps.util.QueryFanOut;
 
 /**
  * Service implementation for doctor-related operations in the Smarthealth application.
@@ -44,19 +41,26 @@
 public class DoctorServiceImpl implements IDoctorService {
 
 	@Autowired
-	private DoctorRepository doctorRepository;
-
+	private AppointmentRepository appointmentRepository;
+	
 	@Autowired
-	private AvailabilityRepository availabilityRepository;
+	private AppointmentRollupRepository appointmentRollupRepository;
 	
 	@Autowired
-	private AppointmentRepository appointmentRepository;
+	private DoctorSearchIndex doctorSearchIndex;
+	
+	@Autowired
+	private SlotAvailabilityCache slotAvailabilityCache;
+	
+	@Autowired
+	private QueryFanOut queryFanOut;
 	
 	/**
      * Searches for doctors based on the provided search parameters.
      * <p>
      * The method supports filtering by name, department, specialization, degree, and date.
-     * The results also include available slots for each doctor.
+     * Only doctors with open slots are returned, soonest available first. The search is
+     * answered by {@link DoctorSearchIndex}, without querying the slots.
      *
      * @param dsRequest the search parameters encapsulated in a {@link DSRequest} object
      * @param pageable  pagination and sorting information
@@ -64,19 +68,15 @@ public class DoctorServiceImpl implements IDoctorService {
      */
 	@Override
 	public Map<String, Object> searchDoctor(DSRequest dsRequest, Pageable pageable) {
-		Page<Doctor> doctors = doctorRepository.searchDoctorsWithSlots(dsRequest.getName(), dsRequest.getDepartment(), dsRequest.getSpecialization(), 
-				dsRequest.getDegree(), dsRequest.getDate(), LocalDate.now(), pageable);
-		List<DSResponse> responseList = doctors.getContent()
-				.stream()
-				.map(doctor -> AvailabilityUtil.prepareDSResponse(doctor))
-				.collect(Collectors.toList());
-		return CommonUtil.prepareResponseMap(responseList, doctors);
+		Page<DSResponse> doctors = doctorSearchIndex.search(dsRequest, pageable);
+		return CommonUtil.prepareResponseMap(doctors.getContent(), doctors);
 	}
 
 	 /**
      * Retrieves available appointment slots for a given doctor, grouped by date.
      * <p>
-     * The slots are filtered to exclude past dates/times.
+     * The slots are filtered to exclude past dates/times. They are answered by
+     * {@link SlotAvailabilityCache}, without querying the slots once the doctor is cached.
      *
      * @param requestMap a map containing:
      *                   <ul>
@@ -87,14 +87,7 @@ public Map<String, Object> searchDoctor(DSRequest dsRequest, Pageable pageable)
      */
 	@Override
 	public Map<LocalDate, List<AVResponse>> viewSlots(Map<String, Object> requestMap) {
-		List<Availability> slots = availabilityRepository.viewSlots((Integer) requestMap.get(IRequestConstants.DOCTOR_ID), (LocalDate) requestMap.get(IRequestConstants.DATE),
-																	 LocalDate.now(), LocalTime.now());
-		Map<LocalDate, List<AVResponse>> responseMap = slots.stream()
-				.collect(Collectors.groupingBy(
-						Availability::getDate,
-						TreeMap::new,
-						Collectors.mapping(AvailabilityUtil::prepareAVResponse, Collectors.toList())));
-		return responseMap;
+		return slotAvailabilityCache.viewSlots((Integer) requestMap.get(IRequestConstants.DOCTOR_ID), (LocalDate) requestMap.get(IRequestConstants.DATE));
 	}
 
 	/**
@@ -110,25 +103,51 @@ public Map<LocalDate, List<AVResponse>> viewSlots(Map<String, Object> requestMap
      *   <li>Performance trends over the last 5 days</li>
      * </ul>
      *
-     * @return a map containing dashboard statistics, today's schedule, notifications, and performance data
+     * The statistics come from a single grouped count query which runs concurrently with the
+     * schedule and trend queries through {@link QueryFanOut}; a query not answered in time is
+     * left out and the dashboard is flagged as partial.
+     *
+     * @return a map containing dashboard statistics, today's schedule, notifications, performance data and the partial flag
      */
 	@Override
 	public Map<String, Object> viewDashboard() {
 		String email = JwtUtil.getEmailFromToken();
 		LocalDate today = LocalDate.now();
 		
-		Map<String, Object> stats = new HashMap<>();
-		stats.put(IResponseConstants.TODAYS_APPOINTMENTS, appointmentRepository.countByAvailabilityDoctorEmailAndAvailabilityDate(email, today));
-		stats.put(IResponseConstants.UPCOMING_APPOINTMENTS, appointmentRepository.countByAvailabilityDoctorEmailAndAvailabilityDateGreaterThanEqual(email, today));
-		stats.put(IResponseConstants.PENDING_APPROVALS, appointmentRepository.countByAvailabilityDoctorEmailAndAvailabilityDateGreaterThanEqualAndStatus(email, today, AppointmentStatus.BOOKED));
-		stats.put(IResponseConstants.CANCELLATIONS_TODAY, appointmentRepository.countByAvailabilityDoctorEmailAndAvailabilityDateAndStatusIn(email, today, List.of(AppointmentStatus.D_CANCELLED, AppointmentStatus.P_CANCELLED)));
+		LocalDate startDate = today.minusDays(4);
 		
-		List<Appointment> appointments = appointmentRepository.findByAvailabilityDoctorEmailAndAvailabilityDate(email, today);
-		List<Map<String, Object>> todaysAppointments = appointments.stream().map(a -> AppointmentUtil.prepareViewAllAppointmentsResponse(a, IDoctorConstants.DOCTOR_ROLE)).collect(Collectors.toList());
+		QueryFanOut.Composition composition = queryFanOut.compose();
+		Future<List<Object[]>> statusCounts = composition.submit(() -> appointmentRepository.countByDoctorEmailFromGroupByStatus(email, today));
+		Future<List<Map<String, Object>>> todaysSchedule = composition.submit(() -> appointmentRepository.findByAvailabilityDoctorEmailAndAvailabilityDate(email, today)
+				.stream().map(a -> AppointmentUtil.prepareViewAllAppointmentsResponse(a, IDoctorConstants.DOCTOR_ROLE)).collect(Collectors.toList()));
+		Future<List<DailyAppointments>> trends = composition.submit(() -> appointmentRollupRepository.findTrendsByDoctorEmailAndDate(email, startDate, today));
+		
+		Map<String, Object> stats = new HashMap<>();
+		List<Object[]> rows = composition.join(statusCounts, null);
+		if (rows != null) {
+			long todays = 0;
+			long upcoming = 0;
+			long pendingApprovals = 0;
+			long cancellationsToday = 0;
+			for (Object[] row : rows) {
+				AppointmentStatus status = (AppointmentStatus) row[0];
+				long count = ((Number) row[1]).longValue();
+				long todaysCount = ((Number) row[2]).longValue();
+				todays += todaysCount;
+				upcoming += count;
+				if (status == AppointmentStatus.BOOKED)
+					pendingApprovals = count;
+				if (status == AppointmentStatus.D_CANCELLED || status == AppointmentStatus.P_CANCELLED)
+					cancellationsToday += todaysCount;
+			}
+			stats.put(IResponseConstants.TODAYS_APPOINTMENTS, todays);
+			stats.put(IResponseConstants.UPCOMING_APPOINTMENTS, upcoming);
+			stats.put(IResponseConstants.PENDING_APPROVALS, pendingApprovals);
+			stats.put(IResponseConstants.CANCELLATIONS_TODAY, cancellationsToday);
+		}
 		
-		LocalDate startDate = today.minusDays(4);
 		Map<String, Object> permormance = new HashMap<>();
-		List<DailyAppointments> dailyAppointments = appointmentRepository.findAppointmentsTrendsByDate(email, startDate, today);
+		List<DailyAppointments> dailyAppointments = composition.join(trends, new ArrayList<>());
 		Map<String, DailyAppointments> dailyAppointmentsMap = dailyAppointments.stream().collect(Collectors.toMap(DailyAppointments::getDay, s -> s));
 		List<DailyAppointments> finalList = new ArrayList<>();
 		for (int i=0; i < 5; i++) {
@@ -139,9 +158,10 @@ public Map<String, Object> viewDashboard() {
 		
 		Map<String, Object> response = new HashMap<>();
 		response.put(IResponseConstants.STATS, stats);
-		response.put(IResponseConstants.TODAYS_SCHEDULE, todaysAppointments);
+		response.put(IResponseConstants.TODAYS_SCHEDULE, composition.join(todaysSchedule, new ArrayList<>()));
 		response.put(IResponseConstants.NOTIFICATIONS, new ArrayList<>());
 		response.put(IResponseConstants.PERFORMANCE, permormance);
+		response.put(IResponseConstants.PARTIAL, composition.isPartial());
 		return response;
 	}
 
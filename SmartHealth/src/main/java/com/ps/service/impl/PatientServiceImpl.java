@@ -2,9 +2,11 @@
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,12 +14,12 @@
 
 import com.ps.constants.IPatientConstants;
 import com.ps.constants.IResponseConstants;
-import com.ps.entity.Appointment;
 import com.ps.enu.AppointmentStatus;
 import com.ps.repo.AppointmentRepository;
 import com.ps.service.IPatientService;
 import com.ps.util.AppointmentUtil;
 import com.ps.util.JwtUtil;
+import com.ps.util.QueryFanOut;
 
 /**
  * Service implementation for managing patient-related operations.
@@ -31,6 +33,9 @@ public class PatientServiceImpl implements IPatientService {
 	
 	@Autowired
 	private AppointmentRepository appointmentRepository;
+	
+	@Autowired
+	private QueryFanOut queryFanOut;
 
 	/**
      * Retrieves the dashboard data for the currently authenticated patient.
@@ -42,29 +47,43 @@ public class PatientServiceImpl implements IPatientService {
      *   <li>An empty notifications list (placeholder for future use)</li>
      * </ul>
      * The patient is identified using the email extracted from the
-     * current JWT token.
+     * current JWT token. The statistics come from a single grouped count query which runs
+     * concurrently with the upcoming appointments query through {@link QueryFanOut};
+     * a query not answered in time is left out and the dashboard is flagged as partial.
      *
      * @return a map containing dashboard data structured with statistics,
-     *         upcoming appointments, and notifications
+     *         upcoming appointments, notifications and the partial flag
      */
 	@Override
 	public Map<String, Object> viewDashboard() {
 		String email = JwtUtil.getEmailFromToken();
 		LocalDate today = LocalDate.now();
 		
-		Map<String, Object> stats = new HashMap<>();
-		stats.put(IResponseConstants.UPCOMING_APPOINTMENTS, appointmentRepository.countByPatientEmailAndAvailabilityDateGreaterThanEqual(email, today));
-		stats.put(IResponseConstants.APPROVED_APPOINTMENTS, appointmentRepository.countByPatientEmailAndStatus(email, AppointmentStatus.APPROVED));
-		stats.put(IResponseConstants.COMPLETED_APPOINTMENTS, appointmentRepository.countByPatientEmailAndStatus(email, AppointmentStatus.COMPLETED));
-		stats.put(IResponseConstants.CANCELLED_APPOINTMENTS, appointmentRepository.countByPatientEmailAndStatusIn(email, List.of(AppointmentStatus.D_CANCELLED, AppointmentStatus.P_CANCELLED)));
+		QueryFanOut.Composition composition = queryFanOut.compose();
+		Future<List<Object[]>> statusCounts = composition.submit(() -> appointmentRepository.countByPatientEmailGroupByStatus(email, today));
+		Future<List<Map<String, Object>>> upcomingAppointments = composition.submit(() -> appointmentRepository.findByPatientEmailAndAvailabilityDateGreaterThanEqual(email, today)
+				.stream().map(a -> AppointmentUtil.prepareViewAllAppointmentsResponse(a, IPatientConstants.PATIENT_ROLE)).collect(Collectors.toList()));
 		
-		List<Appointment> appointments = appointmentRepository.findByPatientEmailAndAvailabilityDateGreaterThanEqual(email, today);
-		List<Map<String, Object>> upcomingAppointments = appointments.stream().map(a -> AppointmentUtil.prepareViewAllAppointmentsResponse(a, IPatientConstants.PATIENT_ROLE)).collect(Collectors.toList());
+		Map<String, Object> stats = new HashMap<>();
+		List<Object[]> rows = composition.join(statusCounts, null);
+		if (rows != null) {
+			long upcoming = 0;
+			Map<AppointmentStatus, Long> counts = new EnumMap<>(AppointmentStatus.class);
+			for (Object[] row : rows) {
+				counts.put((AppointmentStatus) row[0], ((Number) row[1]).longValue());
+				upcoming += ((Number) row[2]).longValue();
+			}
+			stats.put(IResponseConstants.UPCOMING_APPOINTMENTS, upcoming);
+			stats.put(IResponseConstants.APPROVED_APPOINTMENTS, counts.getOrDefault(AppointmentStatus.APPROVED, 0L));
+			stats.put(IResponseConstants.COMPLETED_APPOINTMENTS, counts.getOrDefault(AppointmentStatus.COMPLETED, 0L));
+			stats.put(IResponseConstants.CANCELLED_APPOINTMENTS, counts.getOrDefault(AppointmentStatus.D_CANCELLED, 0L) + counts.getOrDefault(AppointmentStatus.P_CANCELLED, 0L));
+		}
 		
 		Map<String, Object> response = new HashMap<>();
 		response.put(IResponseConstants.STATS, stats);
-		response.put(IResponseConstants.UPCOMING_APPOINTMENTS, upcomingAppointments);
+		response.put(IResponseConstants.UPCOMING_APPOINTMENTS, composition.join(upcomingAppointments, new ArrayList<>()));
 		response.put(IResponseConstants.NOTIFICATIONS, new ArrayList<>());
+		response.put(IResponseConstants.PARTIAL, composition.isPartial());
 		return response;
 	}
 
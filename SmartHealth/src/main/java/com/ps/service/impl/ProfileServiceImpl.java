@@ -1,24 +1,26 @@
 package com.ps.service.impl;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.ps.cache.HolidayLeaveCalendar;
 import com.ps.config.props.PathProperties;
 import com.ps.constants.IAdminConstants;
 import com.ps.constants.IDoctorConstants;
@@ -37,10 +39,12 @@
 import com.ps.entity.Admin;
 import com.ps.entity.Doctor;
 import com.ps.entity.DoctorLeave;
-import com.ps.entity.Holiday;
 import com.ps.entity.Patient;
 import com.ps.entity.SubProfile;
 import com.ps.enu.LeaveStatus;
+import com.ps.event.DoctorChangedEvent;
+import com.ps.event.PatientChangedEvent;
+import com.ps.event.ProfilePictureUploadedEvent;
 import com.ps.exception.AdminException;
 import com.ps.exception.DoctorException;
 import com.ps.exception.PatientException;
@@ -52,12 +56,12 @@
 import com.ps.repo.AdminRepository;
 import com.ps.repo.DoctorLeaveRepository;
 import com.ps.repo.DoctorRepository;
-import com.ps.repo.HolidayRepository;
 import com.ps.repo.PatientRepository;
 import com.ps.repo.SubProfileRepository;
 import com.ps.service.IProfileService;
 import com.ps.util.CommonUtil;
 import com.ps.util.JwtUtil;
+import com.ps.util.PasswordUtil;
 import com.ps.util.ProfileUtil;
 
 import jakarta.transaction.Transactional;
@@ -99,7 +103,7 @@ public class ProfileServiceImpl implements IProfileService {
 	private PathProperties pathProperties;
 	
 	@Autowired
-	private PasswordEncoder passwordEncoder;
+	private PasswordUtil passwordUtil;
 	
 	@Autowired
 	private SubProfileRepository subProfileRepository;
@@ -111,7 +115,7 @@ public class ProfileServiceImpl implements IProfileService {
 	private DoctorLeaveRepository leaveRepository;
 	
 	@Autowired
-	private HolidayRepository holidayRepository;
+	private HolidayLeaveCalendar holidayLeaveCalendar;
 	
 	@Autowired
 	private PatientMapper patientMapper;
@@ -124,6 +128,9 @@ public class ProfileServiceImpl implements IProfileService {
 	
 	@Autowired
 	private AdminMapper adminMapper;
+	
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
 
 	/**
      * Retrieves the profile of the currently logged-in patient.
@@ -169,7 +176,10 @@ public boolean updatePatientProfile(PatientProfileRequest request) {
 		
 		Patient patient = patientRepository.findByEmail(JwtUtil.getEmailFromToken()).orElseThrow(() -> new PatientException(IExceptionConstants.PATIENT_NOT_FOUND, HttpStatus.NOT_FOUND));
 		patientMapper.updatePatientFromRequest(request, patient);
-		return patientRepository.save(patient) != null;
+		Patient updated = patientRepository.save(patient);
+		if (updated != null)
+			eventPublisher.publishEvent(new PatientChangedEvent(updated.getId()));
+		return updated != null;
 	}
 
 	 /**
@@ -186,7 +196,10 @@ public boolean updateDoctorProfile(DoctorProfileRequest request) {
 		
 		Doctor doctor = doctorRepository.findByEmail(JwtUtil.getEmailFromToken()).orElseThrow(() -> new DoctorException(IExceptionConstants.DOCTOR_NOT_FOUND, HttpStatus.BAD_REQUEST));
 		doctorMapper.updateDoctorFromRequest(request, doctor);
-		return doctorRepository.save(doctor) != null;
+		Doctor updated = doctorRepository.save(doctor);
+		if (updated != null)
+			eventPublisher.publishEvent(new DoctorChangedEvent(updated.getId()));
+		return updated != null;
 	}
 
 	 /**
@@ -206,28 +219,43 @@ public boolean uploadProflePic(MultipartFile file, String role) {
 				throw new ProfileException(IExceptionConstants.SESSION_MISMATCHED, HttpStatus.BAD_REQUEST);
 
 			int updated;
+			String imagePath;
+			String fileName;
+			String previousName;
 			String email = JwtUtil.getEmailFromToken();
 			switch (role) {
 				case IPatientConstants.PATIENT_ROLE:
 					Integer patientId = patientRepository.findIdByEmail(email).orElseThrow(() -> new PatientException(IExceptionConstants.PATIENT_NOT_FOUND, HttpStatus.NOT_FOUND));
-					String patientFileName = ProfileUtil.getFileName(patientId, pathProperties.getPatientImagePath(), file);
-					updated = patientRepository.updateprofilePicPath(patientFileName, email);
+					imagePath = pathProperties.getPatientImagePath();
+					fileName = ProfileUtil.getFileName(patientId, imagePath, file);
+					previousName = patientRepository.getProfilePicName(email);
+					updated = patientRepository.updateprofilePicPath(fileName, email);
 					break;
 					
 				case IDoctorConstants.DOCTOR_ROLE:
 					Integer doctorId = doctorRepository.findIdByEmail(email).orElseThrow(() -> new DoctorException(IExceptionConstants.DOCTOR_NOT_FOUND, HttpStatus.NOT_FOUND));
-					String doctorFileName = ProfileUtil.getFileName(doctorId, pathProperties.getDoctorImagePath(), file);
-					updated = doctorRepository.updateprofilePicPath(doctorFileName, email);
+					imagePath = pathProperties.getDoctorImagePath();
+					fileName = ProfileUtil.getFileName(doctorId, imagePath, file);
+					previousName = doctorRepository.getProfilePicName(email);
+					updated = doctorRepository.updateprofilePicPath(fileName, email);
+					if (updated == 1)
+						eventPublisher.publishEvent(new DoctorChangedEvent(doctorId));
 					break;
 					
 				case IAdminConstants.ADMIN_ROLE:
 					Integer adminId = adminRepository.findIdByEmail(email).orElseThrow(() -> new AdminException(IExceptionConstants.ADMIN_NOT_FOUND, HttpStatus.BAD_REQUEST));
-					String adminFileName = ProfileUtil.getFileName(adminId, pathProperties.getAdminImagePath(), file);
-					updated = adminRepository.updateprofilePicPath(adminFileName, email);
+					imagePath = pathProperties.getAdminImagePath();
+					fileName = ProfileUtil.getFileName(adminId, imagePath, file);
+					previousName = adminRepository.getProfilePicName(email);
+					updated = adminRepository.updateprofilePicPath(fileName, email);
 					break;
 				default:
 					throw new ProfileException(IExceptionConstants.PROVIDE_VALID_ROLE, HttpStatus.BAD_REQUEST);
 			}
+			if (updated == 1) {
+				// Resized variants are generated, and the replaced picture deleted, in background once the new name is committed
+				eventPublisher.publishEvent(new ProfilePictureUploadedEvent(Paths.get(imagePath + fileName), getReplacedPicturePath(imagePath, previousName)));
+			}
 			return updated == 1;
 		} catch (IOException exception) {
 			LOG.error("IOException in ProfileServiceImpl.uploadProfilePic {}", exception.getMessage(), exception);
@@ -235,6 +263,15 @@ public boolean uploadProflePic(MultipartFile file, String role) {
 		}
 	}
 
+	/**
+	 * Returns the path of the uploaded picture replaced by a new one, null when the default picture, shared by all users, is replaced.
+	 */
+	private Path getReplacedPicturePath(String imagePath, String previousName) {
+		if (previousName == null || previousName.isBlank() || previousName.equals(pathProperties.getDefaultProfilePicName()))
+			return null;
+		return Paths.get(imagePath + previousName);
+	}
+
 	 /**
      * Retrieves the profile picture file name for the logged-in user of the given role.
      *
@@ -289,7 +326,7 @@ public boolean updatePassword(PasswordRequest request, String role) {
 		
 		int updated;
 		String email = JwtUtil.getEmailFromToken();
-		password = passwordEncoder.encode(password);
+		password = passwordUtil.encode(password);
 		switch (role) {
 			case IPatientConstants.PATIENT_ROLE:
 				updated = patientRepository.updatePassword(password, email);
@@ -346,14 +383,9 @@ public boolean applyForLeave(String role, LeaveRequest request) {
 	    if (leaveRepository.hasOverlappingSlot(email, from, to))
 	        throw new DoctorException(IExceptionConstants.LEAVE_BOOKING_OVERLAP, HttpStatus.CONFLICT);
 	    
-	    // Retrieve Holidays date from DB
-	    Set<LocalDate> holidays = holidayRepository.findAll()
-	            .stream()
-	            .map(Holiday::getHolidayDate)
-	            .collect(Collectors.toSet());
 	    // Exclude Sundays and Holiday From Applied Leave Days
 	    int effectiveDays = (int) Stream.iterate(from, date -> !date.isAfter(to), date -> date.plusDays(1))
-	    		.filter(date -> date.getDayOfWeek() != DayOfWeek.SUNDAY && !holidays.contains(date))
+	    		.filter(date -> date.getDayOfWeek() != DayOfWeek.SUNDAY && !holidayLeaveCalendar.isHoliday(date))
 	    		.count();
 	    Doctor doctor = doctorRepository.findByEmail(email).orElseThrow(() -> new DoctorException(IExceptionConstants.DOCTOR_NOT_FOUND, HttpStatus.BAD_REQUEST));
 	    DoctorLeave leave = doctorLeaveMapper.toDoctorLeave(request, doctor, effectiveDays);
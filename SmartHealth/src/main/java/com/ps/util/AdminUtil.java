@@ -1,30 +1,42 @@
 package com.ps.util;
 
+import java.nio.charset.StandardCharsets;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 import org.springframework.beans.BeanUtils;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 
 import com.ps.constants.IAdminConstants;
 import com.ps.constants.IDoctorConstants;
 import com.ps.constants.IExceptionConstants;
 import com.ps.constants.IResponseConstants;
+import com.ps.dto.AppointmentListItem;
+import com.ps.dto.SlotListItem;
 import com.ps.dto.response.ADSResponse;
 import com.ps.dto.response.APSResponse;
 import com.ps.dto.response.AVResponse;
 import com.ps.dto.response.LeaveResponse;
+import com.ps.dto.response.LeaveSlotJobResponse;
 import com.ps.entity.Appointment;
-import com.ps.entity.Availability;
 import com.ps.entity.Doctor;
 import com.ps.entity.DoctorLeave;
+import com.ps.entity.LeaveSlotJob;
 import com.ps.entity.Patient;
 import com.ps.enu.LeaveStatus;
+import com.ps.exception.AdminException;
 import com.ps.exception.DoctorException;
 import com.ps.repo.DoctorRepository.DoctorIdNameProjection;
 
 public interface AdminUtil {
 
+	String CURSOR_PREFIX = "id:";
+
 	public static ADSResponse prepareADSResponseForSeachDoctors(Doctor doctor) { 
 		ADSResponse adsResponse = new ADSResponse();
 		adsResponse.setId(doctor.getId());
@@ -47,19 +59,19 @@ public static APSResponse prepareAPSResponseForSeachPatients(Patient patient) {
 		return apsResponse;
 	}
 
-	public static Map<String, Object> prepareSearchAvailabilitySlots(Availability availability) {
+	public static Map<String, Object> prepareSearchAvailabilitySlots(SlotListItem slot) {
 		Map<String, Object> responseMap = new HashMap<>();
 		AVResponse avResponse = new AVResponse();
-		avResponse.setDate(availability.getDate());
-		avResponse.setEndTime(availability.getEndTime());
-		avResponse.setId(availability.getId());
-		avResponse.setMode(availability.getMode());
-		avResponse.setStartTime(availability.getStartTime());
-		avResponse.setStatus(availability.getStatus());
+		avResponse.setDate(slot.getDate());
+		avResponse.setEndTime(slot.getEndTime());
+		avResponse.setId(slot.getId());
+		avResponse.setMode(slot.getMode());
+		avResponse.setStartTime(slot.getStartTime());
+		avResponse.setStatus(slot.getStatus());
 		responseMap.put(IAdminConstants.SLOT, avResponse);
 		responseMap.put(IAdminConstants.DOCTOR, new DoctorIdNameProjection() {
-			public String getName() { return availability.getDoctor().getName(); }
-			public Integer getId() { return availability.getDoctor().getId(); }
+			public String getName() { return slot.getDoctorName(); }
+			public Integer getId() { return slot.getDoctorId(); }
 		});
 		return responseMap;
 	}
@@ -78,6 +90,20 @@ public static Map<String, Object> prepareSearchAppointments(Appointment appointm
 		return resultMap;
 	}
 
+	public static Map<String, Object> prepareSearchAppointments(AppointmentListItem appointment) {
+		Map<String, Object> resultMap = new HashMap<>();
+		resultMap.put(IAdminConstants.ID, appointment.getId());		
+		resultMap.put(IAdminConstants.SLOT_ID, appointment.getSlotId());
+		resultMap.put(IAdminConstants.DOCTOR_NAME, appointment.getDoctorName());
+		resultMap.put(IAdminConstants.PATIENT_NAME, appointment.getPatientName());
+		resultMap.put(IAdminConstants.DATE, appointment.getDate());
+		resultMap.put(IAdminConstants.FROM, appointment.getStartTime());
+		resultMap.put(IAdminConstants.TO, appointment.getEndTime());
+		resultMap.put(IAdminConstants.STATUS, appointment.getStatus());
+		resultMap.put(IAdminConstants.BOOKED_ON, appointment.getBookedOn());
+		return resultMap;
+	}
+
 	public static Map<String, Object> prepareSearchLeavesMap(DoctorLeave doctorLeave) {
 		Map<String, Object> resultMap = new HashMap<>();
 		LeaveResponse leaveResponse = new LeaveResponse();
@@ -90,6 +116,16 @@ public static Map<String, Object> prepareSearchLeavesMap(DoctorLeave doctorLeave
 		return resultMap;
 	}
 	
+	public static LeaveSlotJobResponse prepareLeaveSlotJobResponse(LeaveSlotJob job) {
+		LeaveSlotJobResponse response = new LeaveSlotJobResponse();
+		BeanUtils.copyProperties(job, response);
+		response.setLeaveId(job.getLeave().getId());
+		response.setDoctorId(job.getDoctor().getId());
+		response.setDays(ChronoUnit.DAYS.between(job.getFrom(), job.getTo()) + 1);
+		response.setProcessedDays(ChronoUnit.DAYS.between(job.getFrom(), job.getNextDate()));
+		return response;
+	}
+	
 	public static boolean isLeaveStatusTransitionValid(LeaveStatus current, LeaveStatus target, String role) {
 		if (role.equals(IDoctorConstants.DOCTOR_ROLE)) {
 			if (!(target == LeaveStatus.APPROVED || target == LeaveStatus.REJECTED)) {
@@ -111,4 +147,42 @@ public static String getSuccessMessageForLeaveStausChange(LeaveStatus status) {
 	        default -> IResponseConstants.LEAVE_STATUS_CHANGED;
 	    };
 	}
+	
+	/**
+	 * Encodes the id of the last row of a page into an opaque cursor, so that clients don't depend on the seek key.
+	 */
+	public static String encodeCursor(Integer id) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString((CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+	}
+	
+	/**
+	 * Decodes a cursor returned by {@link #encodeCursor(Integer)} into the id after which the next page starts.
+	 * An empty cursor starts from the first row.
+	 *
+	 * @throws AdminException if the cursor is malformed
+	 */
+	public static Integer decodeCursor(String cursor) {
+		if (cursor == null || cursor.isBlank()) {
+			return 0;
+		}
+		try {
+			String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			if (decoded.startsWith(CURSOR_PREFIX)) {
+				return Integer.valueOf(decoded.substring(CURSOR_PREFIX.length()));
+			}
+		} catch (IllegalArgumentException e) {
+			// falls through to invalid cursor
+		}
+		throw new AdminException(IExceptionConstants.INVALID_CURSOR, HttpStatus.BAD_REQUEST);
+	}
+	
+	/**
+	 * Prepares the cursor of the page following the given one.
+	 *
+	 * @return cursor of the next page, {@code null} if the given page is the last one
+	 */
+	public static <T> String prepareNextCursor(Slice<T> slice, Function<T, Integer> idExtractor) {
+		List<T> content = slice.getContent();
+		return slice.hasNext() && !content.isEmpty() ? encodeCursor(idExtractor.apply(content.get(content.size() - 1))) : null;
+	}
 }
@@ -10,6 +10,7 @@
 import com.ps.constants.IExceptionConstants;
 import com.ps.constants.IPatientConstants;
 import com.ps.constants.IResponseConstants;
+import com.ps.dto.AppointmentListItem;
 import com.ps.dto.SubProfileDTO;
 import com.ps.dto.response.AVResponse;
 import com.ps.dto.response.ApDResponse;
@@ -75,6 +76,22 @@ public static Map<String, Object> prepareViewAllAppointmentsResponse(Appointment
 		return resultMap;
 	}
 	
+	public static Map<String, Object> prepareViewAllAppointmentsResponse(AppointmentListItem appointment, String role) {
+		Map<String, Object> resultMap = new HashMap<>();
+		resultMap.put(IResponseConstants.ID, appointment.getId());
+		if (role.equals(IPatientConstants.PATIENT_ROLE)) {
+			resultMap.put(IResponseConstants.DOCTOR_NAME, appointment.getDoctorName());
+		} else if (role.equals(IDoctorConstants.DOCTOR_ROLE)) {
+			resultMap.put(IResponseConstants.PATIENT_NAME, appointment.getPatientName());
+			resultMap.put(IResponseConstants.SLOT_ID, appointment.getSlotId());
+		}
+		resultMap.put(IResponseConstants.DATE, appointment.getDate());
+		resultMap.put(IResponseConstants.FROM, appointment.getStartTime());
+		resultMap.put(IResponseConstants.TO, appointment.getEndTime());
+		resultMap.put(IResponseConstants.STATUS, appointment.getStatus());
+		return resultMap;
+	}
+	
 	public static void validateAccessForAppointment(String role, Appointment appointment, String email) {
 	    if (IPatientConstants.PATIENT_ROLE.equals(role)) {
 	        if (!appointment.getPatient().getEmail().equals(email)) {
@@ -3,6 +3,8 @@
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.BeanUtils;
@@ -34,6 +36,65 @@ public static Availability prepareAvailability(Doctor doctor, LocalDate date, Lo
 		return availability;
 	}
 	
+	/**
+	 * Splits each slot input of a day into consecutive slots of its gap, from its start time
+	 * up to its end time; a remainder shorter than the gap is left out.
+	 *
+	 * @param doctor     doctor of the slots
+	 * @param date       day of the slots
+	 * @param slotInputs time ranges to split, with their gap in minutes
+	 * @param mode       generation mode of the slots
+	 * @param candidates list the slots are added to
+	 */
+	public static void splitSlots(Doctor doctor, LocalDate date, List<SlotInput> slotInputs, AGMode mode, List<Availability> candidates) {
+		for (SlotInput slot : slotInputs) {
+			LocalTime startTime = slot.getStartTime();
+			LocalTime endTime = slot.getEndTime();
+			int gap = slot.getGapInMinutes();
+			while (startTime.plusMinutes(gap).compareTo(endTime) <= 0) {
+				LocalTime slotEnd = startTime.plusMinutes(gap);
+				candidates.add(prepareAvailability(doctor, date, startTime, slotEnd, mode));
+				startTime = slotEnd;
+			}
+		}
+	}
+
+	/**
+	 * Checks whether the given time range overlaps any interval of a day's occupied map.
+	 * The map holds disjoint intervals keyed by start time, as maintained by {@link #occupy}.
+	 *
+	 * @param occupied occupied intervals of a day (start time to end time)
+	 * @param from     start time of the range to check
+	 * @param to       end time of the range to check
+	 * @return {@code true} if the range overlaps an occupied interval
+	 */
+	public static boolean isOverlapping(NavigableMap<LocalTime, LocalTime> occupied, LocalTime from, LocalTime to) {
+		Map.Entry<LocalTime, LocalTime> lower = occupied.lowerEntry(to);
+		return lower != null && lower.getValue().isAfter(from);
+	}
+
+	/**
+	 * Marks the given time range as occupied, merging it with any touching or overlapping
+	 * intervals so the map always holds disjoint intervals.
+	 *
+	 * @param occupied occupied intervals of a day (start time to end time)
+	 * @param from     start time of the range
+	 * @param to       end time of the range
+	 */
+	public static void occupy(NavigableMap<LocalTime, LocalTime> occupied, LocalTime from, LocalTime to) {
+		Map.Entry<LocalTime, LocalTime> floor = occupied.floorEntry(from);
+		if (floor != null && !floor.getValue().isBefore(from)) {
+			from = floor.getKey();
+			to = floor.getValue().isAfter(to) ? floor.getValue() : to;
+		}
+		Map.Entry<LocalTime, LocalTime> next;
+		while ((next = occupied.ceilingEntry(from)) != null && !next.getKey().isAfter(to)) {
+			to = next.getValue().isAfter(to) ? next.getValue() : to;
+			occupied.remove(next.getKey());
+		}
+		occupied.put(from, to);
+	}
+	
 	public static AGRequest prepareAGRequest(int daysAhead, LocalDate startDate, List<SlotInput> slotInputs, AGMode mode, boolean skipHoliday) {
 		AGRequest agRequest = new AGRequest();
 		agRequest.setDaysAhead(daysAhead);
@@ -5,6 +5,7 @@
 import java.util.Map;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -52,4 +53,22 @@ public static Map<String, Object> prepareResponseMap(Object response, Page<?> pa
 		resultMap.put(IResponseConstants.HAS_NEXT_PAGE, pages.hasNext());
 		return resultMap;
 	}
+
+	/**
+	 * Prepares the response of a cursor (keyset) paginated search. Unlike {@link #prepareResponseMap(Object, Page)}
+	 * it has no total count, only the cursor to fetch the next page with.
+	 *
+	 * @param response   content of the current page
+	 * @param slice      the current page
+	 * @param nextCursor opaque cursor of the next page, {@code null} if this is the last page
+	 * @return map containing the content and cursor pagination details
+	 */
+	public static Map<String, Object> prepareCursorResponseMap(Object response, Slice<?> slice, String nextCursor) {
+		Map<String, Object> resultMap = new HashMap<>();
+		resultMap.put(IResponseConstants.DATA, response);
+		resultMap.put(IResponseConstants.PAGE_SIZE, slice.getSize());
+		resultMap.put(IResponseConstants.HAS_NEXT_PAGE, slice.hasNext());
+		resultMap.put(IResponseConstants.NEXT_CURSOR, nextCursor);
+		return resultMap;
+	}
 }
@@ -1,26 +1,70 @@
 package com.ps.util;
 
-import java.io.IOException;
-import java.nio.file.Path;
+import java.util.List;
 
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
 
-import com.ps.constants.IExceptionConstants;
-import com.ps.exception.ResourceException;
+import com.ps.constants.ICommonConstants;
+import com.ps.dto.ImageFile;
 
 public interface DataUtil {
 
-	public static Resource getResourceFromPath(Path filePath) {
-		try {
-			Resource resource = new UrlResource(filePath.toUri());
-			if (resource.exists()) 
-				return resource;
-			else 
-				throw new ResourceException(IExceptionConstants.RESOURCE_NOT_FOUND + filePath, HttpStatus.INTERNAL_SERVER_ERROR);
-		} catch (IOException exception) {
-			throw new ResourceException(IExceptionConstants.RESOURCE_FETCH_FAIL, HttpStatus.INTERNAL_SERVER_ERROR);
-		}
+	/**
+	 * Profile pictures are stored as {@code {id}_ProfilePic_{version}_{originalName}},
+	 * a new upload never reuses a name so the content behind such name never changes.
+	 */
+	String VERSIONED_IMAGE_NAME_REGEX = "\\d+_ProfilePic_\\d+_.+";
+
+	public static boolean isVersionedImageName(String fileName) {
+		return fileName.matches(VERSIONED_IMAGE_NAME_REGEX);
+	}
+	
+	/**
+	 * Returns the file name of the resized variant of given image, like {@code 1_ProfilePic_1_me_64px.jpg}.
+	 * Variants of PNG images are PNG, variants of any other image are JPEG, and named with a {@code .jpg} extension.
+	 * 
+	 * @param fileName name of the original image
+	 * @param size variant size in pixels
+	 * @return variant file name
+	 */
+	public static String getVariantFileName(String fileName, int size) {
+		int extension = fileName.lastIndexOf('.');
+		String baseName = extension < 0 ? fileName : fileName.substring(0, extension);
+		return baseName + "_" + size + "px" + (fileName.toLowerCase().endsWith(".png") ? ".png" : ".jpg");
+	}
+	
+	/**
+	 * Returns the smallest available variant size that is at least the requested size.
+	 * 
+	 * @param variantSizes available variant sizes
+	 * @param requestedSize requested size in pixels
+	 * @return variant size, or null if the original image must be used
+	 */
+	public static Integer getVariantSize(List<Integer> variantSizes, int requestedSize) {
+		return variantSizes.stream().filter(size -> size >= requestedSize).min(Integer::compare).orElse(null);
+	}
+	
+	public static String getImageETag(long size, long lastModified) {
+		return "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(size) + "\"";
+	}
+	
+	/**
+	 * Hands the image file over to the servlet container to be written with sendfile (zero copy),
+	 * when the container supports it and the whole file is requested.
+	 * 
+	 * @param webRequest current request
+	 * @param image image to send
+	 * @return true if the container will send the file, false if it must be written as response body
+	 */
+	public static boolean sendFile(WebRequest webRequest, ImageFile image) {
+		if (!Boolean.TRUE.equals(webRequest.getAttribute(ICommonConstants.SENDFILE_SUPPORTED, RequestAttributes.SCOPE_REQUEST)) 
+				|| webRequest.getHeader(HttpHeaders.RANGE) != null)
+			return false;
+		webRequest.setAttribute(ICommonConstants.SENDFILE_FILENAME, image.getPath().toAbsolutePath().toString(), RequestAttributes.SCOPE_REQUEST);
+		webRequest.setAttribute(ICommonConstants.SENDFILE_START, 0L, RequestAttributes.SCOPE_REQUEST);
+		webRequest.setAttribute(ICommonConstants.SENDFILE_END, image.getSize(), RequestAttributes.SCOPE_REQUEST);
+		return true;
 	}
 }
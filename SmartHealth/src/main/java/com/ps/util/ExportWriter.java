@@ -0,0 +1,151 @@
+package com.ps.util;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.ps.enu.ExportFormat;
+
+/**
+ * Writer of export rows in {@link ExportFormat#CSV} or {@link ExportFormat#NDJSON}.
+ * <p>
+ * Rows are written one by one through a small buffer to the given stream, so the memory used by an export
+ * doesn't depend on the number of rows. Dates and times are written in ISO format, as in JSON responses.
+ * CSV text values that a spreadsheet would read as a formula are prefixed with {@code '} so they are displayed as text.
+ * Closing the writer flushes it but leaves the underlying stream open.
+ */
+public class ExportWriter implements Closeable {
+
+	private static final JsonFactory JSON_FACTORY = JsonFactory.builder().build()
+			.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+			.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+
+	private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+	private final ExportFormat format;
+	private final String[] columns;
+	private final Writer writer;
+	private final JsonGenerator generator;
+	private long rows;
+
+	/**
+	 * Creates a writer and writes the header line of CSV exports.
+	 *
+	 * @param format       the export format
+	 * @param outputStream the stream to write to
+	 * @param columns      the column names, also the field names of NDJSON objects
+	 */
+	public ExportWriter(ExportFormat format, OutputStream outputStream, String... columns) {
+		this.format = format;
+		this.columns = columns;
+		this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+		try {
+			if (format == ExportFormat.NDJSON) {
+				generator = JSON_FACTORY.createGenerator(writer);
+				generator.setRootValueSeparator(null);
+			} else {
+				generator = null;
+				writeCsvLine(columns);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Writes a row.
+	 *
+	 * @param values the values of the row, in the order of the columns
+	 */
+	public void write(Object... values) {
+		try {
+			if (format == ExportFormat.NDJSON) {
+				writeJsonLine(values);
+			} else {
+				writeCsvLine(values);
+			}
+			rows++;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * @return the number of rows written, excluding the header
+	 */
+	public long getRows() {
+		return rows;
+	}
+
+	@Override
+	public void close() {
+		try {
+			if (generator != null)
+				generator.close();
+			writer.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void writeCsvLine(Object[] values) throws IOException {
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0)
+				writer.write(',');
+			if (values[i] instanceof Number)
+				writer.write(values[i].toString());
+			else if (values[i] != null)
+				writeCsvValue(values[i].toString());
+		}
+		writer.write("\r\n");
+	}
+
+	/**
+	 * Writes a CSV text value, quoted when it contains a separator, a quote or a line break (RFC 4180),
+	 * and prefixed with {@code '} when it starts like a formula (CSV injection).
+	 */
+	private void writeCsvValue(String value) throws IOException {
+		if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0)
+			value = "'" + value;
+		boolean quote = false;
+		for (int i = 0; i < value.length() && !quote; i++) {
+			char c = value.charAt(i);
+			quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+		}
+		if (!quote) {
+			writer.write(value);
+			return;
+		}
+		writer.write('"');
+		writer.write(value.replace("\"", "\"\""));
+		writer.write('"');
+	}
+
+	private void writeJsonLine(Object[] values) throws IOException {
+		generator.writeStartObject();
+		for (int i = 0; i < values.length; i++) {
+			generator.writeFieldName(columns[i]);
+			Object value = values[i];
+			if (value == null)
+				generator.writeNull();
+			else if (value instanceof Integer number)
+				generator.writeNumber(number);
+			else if (value instanceof Long number)
+				generator.writeNumber(number);
+			else if (value instanceof Boolean bool)
+				generator.writeBoolean(bool);
+			else
+				generator.writeString(value.toString());
+		}
+		generator.writeEndObject();
+		generator.flush();
+		writer.write('\n');
+	}
+}
@@ -1,9 +1,16 @@
 package com.ps.util;
 
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import javax.crypto.SecretKey;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -12,51 +19,120 @@
 
 import com.ps.config.props.JwtProperties;
 import com.ps.constants.ICommonConstants;
+import com.ps.dto.JwtPrincipal;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 
+/**
+ * Utility component for issuing and verifying JSON Web Tokens (JWT).
+ * <p>
+ * The HMAC signing key and the {@link JwtParser} are built once at startup and reused.
+ * Verified tokens are kept in a bounded, expiry-aware cache of token to {@link JwtPrincipal},
+ * so requests repeating a token skip signature verification entirely. Cache hits are lock free.
+ * When a new token finds the cache full, a single sweep removes the expired tokens and then,
+ * if still needed, the tokens closest to expiry, down to three quarters of the cache size.
+ */
 @Component
 public class JwtUtil {
 	
 	@Autowired
 	private JwtProperties jwtProperties;
 	
+	private SecretKey signingKey;
+	private JwtParser jwtParser;
+	private final Map<String, JwtPrincipal> principalCache = new ConcurrentHashMap<>();
+	private final AtomicBoolean sweeping = new AtomicBoolean();
+	
+	@PostConstruct
+	public void init() {
+		signingKey = Keys.hmacShaKeyFor(jwtProperties.getSecreteKey().getBytes());
+		jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+	}
+	
 	public String generateToken(String email, Set<String> roles) { 
 		return Jwts.builder()
 				.setSubject(email)
 				.claim(ICommonConstants.ROLE, roles)
 				.setIssuedAt(new Date())
 				.setExpiration(new Date(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(jwtProperties.getExpirationTimeInMinutes())))
-				.signWith(Keys.hmacShaKeyFor(jwtProperties.getSecreteKey().getBytes()), SignatureAlgorithm.HS512)
+				.signWith(signingKey, SignatureAlgorithm.HS512)
 				.compact();
 	}
 	
 	public Claims getClaims(String token) {
-		return Jwts.parserBuilder()
-				.setSigningKey(jwtProperties.getSecreteKey().getBytes())
-				.build()
-				.parseClaimsJws(token)
-				.getBody();
+		return jwtParser.parseClaimsJws(token).getBody();
 	}
 	
-	public String getSubject(String token) {
-		return getClaims(token).getSubject();
-	}
-	
-	@SuppressWarnings("unchecked")
-	public List<String> getRoles(String token) {
-		return getClaims(token).get(ICommonConstants.ROLE, List.class);
+	/**
+	 * Resolves the principal of the given token, verifying it only if it is not already cached.
+	 *
+	 * @param token the JWT without the {@code Bearer} prefix
+	 * @return the verified {@link JwtPrincipal}, or {@code null} if the token is invalid, expired or has no roles
+	 */
+	public JwtPrincipal resolvePrincipal(String token) {
+		long now = System.currentTimeMillis();
+		JwtPrincipal principal = principalCache.get(token);
+		if (principal != null) {
+			if (!principal.isExpired(now)) {
+				return principal;
+			}
+			principalCache.remove(token, principal);
+			return null;
+		}
+		
+		Claims claims;
+		try {
+			claims = getClaims(token);
+		} catch (Exception e) {
+			return null;
+		}
+		@SuppressWarnings("unchecked")
+		List<String> roles = claims.get(ICommonConstants.ROLE, List.class);
+		// Every issued token carries roles, and the primary role is read from the first authority
+		if (roles == null || roles.isEmpty()) {
+			return null;
+		}
+		List<SimpleGrantedAuthority> authorities = roles.stream().map(SimpleGrantedAuthority::new).collect(Collectors.toUnmodifiableList());
+		principal = new JwtPrincipal(claims.getSubject(), authorities, claims.getExpiration().getTime());
+		int cacheSize = jwtProperties.getPrincipalCacheSize();
+		if (cacheSize > 0) {
+			if (principalCache.size() >= cacheSize) {
+				sweep(cacheSize, now);
+			}
+			// Left uncached while another thread sweeps a full cache, so it overflows by one token per thread at most
+			if (principalCache.size() < cacheSize) {
+				principalCache.put(token, principal);
+			}
+		}
+		return principal;
 	}
 	
-	public boolean isTokenValid(String token) {
+	/**
+	 * Removes the expired tokens from the principal cache, then the tokens closest to expiry until it is
+	 * down to three quarters of its size, so that a full cache is swept once per quarter of new tokens.
+	 * Only one thread sweeps at a time, the others leave their token uncached meanwhile.
+	 */
+	private void sweep(int cacheSize, long now) {
+		if (!sweeping.compareAndSet(false, true)) {
+			return;
+		}
 		try {
-			getClaims(token);
-			return true;
-		} catch (Exception e) {
-			return false;
+			principalCache.values().removeIf(cached -> cached.isExpired(now));
+			int excess = principalCache.size() - cacheSize * 3 / 4;
+			if (excess > 0) {
+				principalCache.entrySet().stream()
+						.sorted(Map.Entry.comparingByValue(Comparator.comparingLong(JwtPrincipal::getExpiresAt)))
+						.limit(excess)
+						.toList()
+						.forEach(entry -> principalCache.remove(entry.getKey(), entry.getValue()));
+			}
+		} finally {
+			sweeping.set(false);
 		}
 	}
 	
@@ -0,0 +1,170 @@
+package com.ps.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.ps.config.props.PasswordProperties;
+import com.ps.exception.PasswordHashingException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Utility component for hashing and verifying passwords with BCrypt.
+ * <p>
+ * BCrypt is CPU bound by design, so all hashing runs on a small dedicated pool of
+ * {@code smarthealth.password.hashing-threads} workers instead of the request threads.
+ * At most {@code smarthealth.password.hashing-queue-size} requests wait for a worker; beyond that,
+ * or when a request waits longer than {@code smarthealth.password.hashing-timeout-in-millis},
+ * a {@link PasswordHashingException} is thrown and answered {@code 503 Service Unavailable},
+ * so a login burst is shed quickly instead of starving every other request of CPU.
+ * <p>
+ * Hashing latency ({@value #HASHING_METRIC}), the waiting requests ({@value #QUEUE_METRIC})
+ * and the rejected requests ({@value #REJECTED_METRIC}) are exposed as Micrometer metrics.
+ */
+@Component
+public class PasswordUtil {
+
+	private static final Logger LOG = LoggerFactory.getLogger(PasswordUtil.class);
+	static final String HASHING_METRIC = "smarthealth.password.hashing";
+	static final String QUEUE_METRIC = "smarthealth.password.hashing.queue";
+	static final String REJECTED_METRIC = "smarthealth.password.hashing.rejected";
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private PasswordProperties passwordProperties;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private ThreadPoolExecutor executor;
+	private Timer encodeTimer;
+	private Timer matchesTimer;
+	private Counter rejectedCounter;
+
+	@PostConstruct
+	public void init() {
+		int threads = Math.max(1, passwordProperties.getHashingThreads());
+		AtomicInteger count = new AtomicInteger();
+		ThreadFactory threadFactory = runnable -> {
+			Thread thread = new Thread(runnable, "password-hashing-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+		executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(Math.max(1, passwordProperties.getHashingQueueSize())), threadFactory,
+				new ThreadPoolExecutor.AbortPolicy());
+
+		encodeTimer = Timer.builder(HASHING_METRIC).tag("operation", "encode").register(meterRegistry);
+		matchesTimer = Timer.builder(HASHING_METRIC).tag("operation", "matches").register(meterRegistry);
+		rejectedCounter = Counter.builder(REJECTED_METRIC).register(meterRegistry);
+		Gauge.builder(QUEUE_METRIC, executor, pool -> pool.getQueue().size()).register(meterRegistry);
+	}
+
+	@PreDestroy
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Hashes a raw password with the configured BCrypt strength.
+	 *
+	 * @param rawPassword the password to hash
+	 * @return the encoded password
+	 * @throws PasswordHashingException if the hashing workers are saturated
+	 */
+	public String encode(String rawPassword) {
+		return run(() -> passwordEncoder.encode(rawPassword), encodeTimer);
+	}
+
+	/**
+	 * Verifies a raw password against an encoded one.
+	 *
+	 * @param rawPassword     the password to verify
+	 * @param encodedPassword the stored encoded password
+	 * @return true if the passwords match
+	 * @throws PasswordHashingException if the hashing workers are saturated
+	 */
+	public boolean matches(String rawPassword, String encodedPassword) {
+		return run(() -> passwordEncoder.matches(rawPassword, encodedPassword), matchesTimer);
+	}
+
+	/**
+	 * Rehashes a verified password whose hash was encoded with another strength than the configured one,
+	 * so that changing {@code smarthealth.password.bcrypt-strength} applies to users as they log in.
+	 * Rehashing is skipped, until a later login, when the hashing workers are saturated.
+	 *
+	 * @param rawPassword     the verified password
+	 * @param encodedPassword the stored encoded password
+	 * @return the new encoded password, or {@code null} if no rehash is needed or it was skipped
+	 */
+	public String rehash(String rawPassword, String encodedPassword) {
+		if (strengthOf(encodedPassword) == passwordProperties.getBcryptStrength())
+			return null;
+		try {
+			return encode(rawPassword);
+		} catch (PasswordHashingException e) {
+			LOG.debug("Password rehash skipped: {}", e.getMessage());
+			return null;
+		}
+	}
+
+	private <T> T run(Callable<T> task, Timer timer) {
+		Future<T> future;
+		try {
+			future = executor.submit(() -> timer.recordCallable(task));
+		} catch (RejectedExecutionException e) {
+			rejectedCounter.increment();
+			throw new PasswordHashingException("Password hashing queue is full", HttpStatus.SERVICE_UNAVAILABLE);
+		}
+		try {
+			return future.get(passwordProperties.getHashingTimeoutInMillis(), TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			rejectedCounter.increment();
+			throw new PasswordHashingException("Password hashing timed out", HttpStatus.SERVICE_UNAVAILABLE);
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new PasswordHashingException("Password hashing interrupted", HttpStatus.SERVICE_UNAVAILABLE);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException cause)
+				throw cause;
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * Returns the cost of a BCrypt hash ({@code $2a$10$...}), or -1 if it is not a BCrypt hash.
+	 */
+	static int strengthOf(String encodedPassword) {
+		if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$' || encodedPassword.charAt(6) != '$')
+			return -1;
+		try {
+			return Integer.parseInt(encodedPassword.substring(4, 6));
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+}
@@ -1,9 +1,21 @@
 package com.ps.util;
 
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+
+import javax.imageio.IIOException;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.web.multipart.MultipartFile;
@@ -49,9 +61,97 @@ public static void validateImageFile(MultipartFile file) {
 	}
 	
 	public static String getFileName(Integer id, String imagePath, MultipartFile file) throws IOException {
-		String fileName = id + "_ProfilePic_" + file.getOriginalFilename();
+		// Versioned, so that browsers can cache pictures forever, see DataUtil#isVersionedImageName
+		String fileName = id + "_ProfilePic_" + System.currentTimeMillis() + "_" + file.getOriginalFilename();
 		Path filePath = Paths.get(imagePath + fileName);
-		Files.write(filePath, file.getBytes());
+		// Streams (or moves) the uploaded part to disk, without loading it in heap
+		file.transferTo(filePath);
 		return fileName;
 	}
+	
+	/**
+	 * Largest image, in pixels, variants are generated from. The dimensions are read from the image header,
+	 * so that a small, highly compressed upload of huge dimensions is rejected before it is decoded.
+	 */
+	long MAX_VARIANT_SOURCE_PIXELS = 50_000_000L;
+	
+	/**
+	 * Writes a square variant of given image, center cropped and scaled down to given size,
+	 * in the format given by the extension of the variant, see {@link DataUtil#getVariantFileName(String, int)}.
+	 * Only the center square is decoded, subsampled down to at most twice the size, and an image smaller
+	 * than the size keeps its own dimensions rather than being scaled up.
+	 * The variant is written to a temporary file first and then moved in place,
+	 * so that a partially written variant is never served.
+	 * 
+	 * @param original path of the original image
+	 * @param variant path of the variant to write
+	 * @param size width and height of the variant in pixels
+	 * @return true if the variant is written, false if the original isn't a readable image
+	 *         or is larger than {@link #MAX_VARIANT_SOURCE_PIXELS}
+	 * @throws IOException if reading or writing fails
+	 */
+	public static boolean createVariant(Path original, Path variant, int size) throws IOException {
+		BufferedImage image;
+		try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+			Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+			if (readers == null || !readers.hasNext())
+				return false;
+			ImageReader reader = readers.next();
+			try {
+				reader.setInput(input, true, true);
+				int width = reader.getWidth(0);
+				int height = reader.getHeight(0);
+				if ((long) width * height > MAX_VARIANT_SOURCE_PIXELS)
+					return false;
+				
+				int side = Math.min(width, height);
+				// Keep at least twice the size, so that the halving steps below still smooth the variant
+				int subsampling = Math.max(1, side / (2 * size));
+				ImageReadParam param = reader.getDefaultReadParam();
+				param.setSourceRegion(new Rectangle((width - side) / 2, (height - side) / 2, side, side));
+				param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+				image = reader.read(0, param);
+			} catch (IIOException e) {
+				return false;
+			} finally {
+				reader.dispose();
+			}
+		}
+		
+		String format = getImageFormat(variant.getFileName().toString());
+		int side = Math.min(image.getWidth(), image.getHeight());
+		int target = Math.min(size, side);
+		// Halve in steps, a single big bilinear step skips most source pixels and looks aliased
+		int current = side;
+		do {
+			current = Math.max(target, current / 2);
+			image = scale(image, current, format.equals("png"));
+		} while (current > target);
+		
+		Path temp = Files.createTempFile(variant.getParent(), "variant", "." + format);
+		try {
+			ImageIO.write(image, format, temp.toFile());
+			Files.move(temp, variant, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+		return true;
+	}
+	
+	private static BufferedImage scale(BufferedImage source, int size, boolean alpha) {
+		BufferedImage scaled = new BufferedImage(size, size, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = scaled.createGraphics();
+		try {
+			graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+			graphics.drawImage(source, 0, 0, size, size, null);
+		} finally {
+			graphics.dispose();
+		}
+		return scaled;
+	}
+	
+	private static String getImageFormat(String fileName) {
+		return fileName.toLowerCase().endsWith(".png") ? "png" : "jpg";
+	}
 }
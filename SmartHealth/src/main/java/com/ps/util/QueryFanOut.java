@@ -0,0 +1,132 @@
+package com.ps.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ps.config.props.DashboardProperties;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Utility component running the independent read queries of a dashboard concurrently.
+ * <p>
+ * Each query runs on a bounded pool of {@code smarthealth.dashboard.query-parallelism} workers, in its own
+ * read-only transaction, so it uses its own connection. When the pool and its queue are saturated the
+ * query runs on the calling thread instead. Results are joined against a single deadline of
+ * {@code smarthealth.dashboard.query-timeout-in-millis}; a query not answered in time, or failed, is
+ * replaced by a fallback value and the dashboard is flagged as partial, so a dashboard takes about as
+ * long as its slowest query rather than the sum of all of them.
+ */
+@Component
+public class QueryFanOut {
+
+	private static final Logger LOG = LoggerFactory.getLogger(QueryFanOut.class);
+
+	@Autowired
+	private DashboardProperties dashboardProperties;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private TransactionTemplate transactionTemplate;
+	private ThreadPoolExecutor executor;
+
+	@PostConstruct
+	public void init() {
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setReadOnly(true);
+		int threads = Math.max(1, dashboardProperties.getQueryParallelism());
+		AtomicInteger count = new AtomicInteger();
+		ThreadFactory threadFactory = runnable -> {
+			Thread thread = new Thread(runnable, "dashboard-query-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+		executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(Math.max(1, dashboardProperties.getQueryQueueSize())), threadFactory,
+				new ThreadPoolExecutor.CallerRunsPolicy());
+	}
+
+	@PreDestroy
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Starts composing a dashboard, the deadline of its queries starts now.
+	 *
+	 * @return a new composition
+	 */
+	public Composition compose() {
+		return new Composition(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(dashboardProperties.getQueryTimeoutInMillis()));
+	}
+
+	/**
+	 * Queries of a dashboard sharing one deadline.
+	 */
+	public final class Composition {
+
+		private final long deadline;
+		private boolean partial;
+
+		private Composition(long deadline) {
+			this.deadline = deadline;
+		}
+
+		/**
+		 * Submits a query to run in its own read-only transaction.
+		 * The query must not depend on the security context or the session of the calling thread.
+		 *
+		 * @param query the query, including any mapping of lazily loaded entities
+		 * @return the pending result
+		 */
+		public <T> Future<T> submit(Supplier<T> query) {
+			return executor.submit(() -> transactionTemplate.execute(status -> query.get()));
+		}
+
+		/**
+		 * Waits for the result of a query until the deadline of the composition.
+		 *
+		 * @param future   the pending result
+		 * @param fallback the value returned when the query timed out or failed
+		 * @return the result of the query, or the fallback in which case the composition is partial
+		 */
+		public <T> T join(Future<T> future, T fallback) {
+			try {
+				return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+			} catch (TimeoutException e) {
+				future.cancel(true);
+				LOG.warn("Dashboard query timed out, answering partial dashboard");
+			} catch (ExecutionException e) {
+				LOG.error("Dashboard query failed, answering partial dashboard", e.getCause());
+			} catch (InterruptedException e) {
+				future.cancel(true);
+				Thread.currentThread().interrupt();
+			}
+			partial = true;
+			return fallback;
+		}
+
+		/**
+		 * @return true if any joined query was replaced by its fallback
+		 */
+		public boolean isPartial() {
+			return partial;
+		}
+	}
+}
@@ -0,0 +1,258 @@
+package com.ps.util;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import com.ps.cache.HolidayLeaveCalendar;
+import com.ps.config.props.SlotsProperties;
+import com.ps.constants.IExceptionConstants;
+import com.ps.entity.Availability;
+import com.ps.entity.Doctor;
+import com.ps.entity.SlotInput;
+import com.ps.enu.AGMode;
+import com.ps.enu.SlotStatus;
+import com.ps.exception.AvailabilityException;
+import com.ps.repo.AGPreferenceRepository;
+import com.ps.repo.AvailabilityRepository;
+
+/**
+ * Utility component computing the slots of {@code AUTO} and {@code CUSTOM_CONTINUOUS} preferences on the fly,
+ * when {@code smarthealth.slots.virtual-slots-enabled} is set, instead of having them generated every night.
+ * <p>
+ * The slot inputs of an active preference act as a daily recurrence rule over the days the generator would
+ * cover: from its start date (or today) up to {@code daysAhead} days later. A virtual slot is a slot of the rule
+ * on a day that {@link HolidayLeaveCalendar#isBlocked} doesn't block, and that no stored slot of the doctor
+ * overlaps; stored slots, whatever their status, are the exceptions to the rule. A virtual slot has no row: it is
+ * identified by a negative id encoding its date and start time, and is stored once it is booked or cancelled.
+ * The tables only hold the slots that are booked, cancelled or manually managed.
+ */
+@Component
+public class VirtualSlots {
+
+	private static final List<AGMode> RULE_MODES = List.of(AGMode.AUTO, AGMode.CUSTOM_CONTINUOUS);
+	private static final int MINUTES_PER_DAY = 24 * 60;
+
+	@Autowired
+	private AGPreferenceRepository agPreferenceRepository;
+
+	@Autowired
+	private AvailabilityRepository availabilityRepository;
+
+	@Autowired
+	private HolidayLeaveCalendar holidayLeaveCalendar;
+
+	@Autowired
+	private SlotsProperties slotsProperties;
+
+	/**
+	 * @return true if the slots of {@code AUTO} and {@code CUSTOM_CONTINUOUS} preferences are virtual
+	 */
+	public boolean isEnabled() {
+		return Boolean.TRUE.equals(slotsProperties.getVirtualSlotsEnabled());
+	}
+
+	/**
+	 * Checks whether a slot id identifies a virtual slot.
+	 *
+	 * @param slotId the slot id
+	 * @return true if the id is a virtual slot id
+	 */
+	public static boolean isVirtual(Integer slotId) {
+		return slotId != null && slotId < 0;
+	}
+
+	/**
+	 * Encodes the date and start time of a virtual slot as its id.
+	 *
+	 * @param date      the date of the slot
+	 * @param startTime the start time of the slot, to the minute
+	 * @return the negative id of the slot
+	 */
+	public static int encode(LocalDate date, LocalTime startTime) {
+		return -(int) (date.toEpochDay() * MINUTES_PER_DAY + startTime.getHour() * 60 + startTime.getMinute());
+	}
+
+	/**
+	 * Retrieves the virtual slots of a doctor, as rows (id, date, start time, end time) like
+	 * {@link AvailabilityRepository#findBookableSlotsByDoctorIdFrom(Integer, LocalDate)}.
+	 *
+	 * @param doctorId the doctor's ID
+	 * @param dates    the days to compute, or {@code null} for every day of the rule from today
+	 * @return the virtual slots, none when virtual slots are disabled
+	 */
+	public List<Object[]> findOpenSlots(Integer doctorId, Collection<LocalDate> dates) {
+		List<Object[]> rows = new ArrayList<>();
+		expand(doctorId, dates, (id, slot) -> rows.add(new Object[] {encode(slot.getDate(), slot.getStartTime()), slot.getDate(),
+				slot.getStartTime(), slot.getEndTime()}));
+		return rows;
+	}
+
+	/**
+	 * Counts the virtual slots per doctor and day, as rows (doctor id, date, count) like
+	 * {@link AvailabilityRepository#countOpenSlotsByDoctorAndDate(Integer, LocalDate)}.
+	 *
+	 * @param doctorId the doctor's ID, or {@code null} for all doctors
+	 * @return the counts, none when virtual slots are disabled
+	 */
+	public List<Object[]> countOpenSlots(Integer doctorId) {
+		Map<Integer, Map<LocalDate, Long>> counts = new LinkedHashMap<>();
+		expand(doctorId, null, (id, slot) -> counts.computeIfAbsent(id, key -> new TreeMap<>()).merge(slot.getDate(), 1L, Long::sum));
+		List<Object[]> rows = new ArrayList<>();
+		counts.forEach((id, days) -> days.forEach((date, count) -> rows.add(new Object[] {id, date, count})));
+		return rows;
+	}
+
+	/**
+	 * Resolves a virtual slot of a doctor, as long as the rule still offers it.
+	 *
+	 * @param doctor the doctor
+	 * @param slotId the virtual slot id
+	 * @return the slot, not stored, with the virtual id; empty if the rule doesn't offer it
+	 */
+	public Optional<Availability> resolve(Doctor doctor, Integer slotId) {
+		if (!isVirtual(slotId))
+			return Optional.empty();
+		int encoded = -slotId;
+		LocalDate date = LocalDate.ofEpochDay(encoded / MINUTES_PER_DAY);
+		List<Availability> slots = new ArrayList<>();
+		expand(doctor.getId(), List.of(date), (id, slot) -> {
+			if (encode(slot.getDate(), slot.getStartTime()) == slotId)
+				slots.add(slot);
+		});
+		if (slots.isEmpty())
+			return Optional.empty();
+		Availability slot = slots.get(0);
+		slot.setId(slotId);
+		slot.setDoctor(doctor);
+		return Optional.of(slot);
+	}
+
+	/**
+	 * Stores a resolved virtual slot with the given status, so that it becomes an exception to the rule.
+	 *
+	 * @param slot   the slot returned by {@link #resolve(Doctor, Integer)}
+	 * @param status the status of the stored slot
+	 * @return the stored slot
+	 * @throws AvailabilityException if the slot has just been stored by another request
+	 */
+	public Availability materialize(Availability slot, SlotStatus status) {
+		Availability availability = AvailabilityUtil.prepareAvailability(slot.getDoctor(), slot.getDate(), slot.getStartTime(), slot.getEndTime(), slot.getMode());
+		availability.setStatus(status);
+		try {
+			return availabilityRepository.saveAndFlush(availability);
+		} catch (DataIntegrityViolationException e) {
+			throw new AvailabilityException(IExceptionConstants.SLOT_JUST_TAKEN, HttpStatus.CONFLICT);
+		}
+	}
+
+	/**
+	 * Stores every virtual slot of a doctor within the given days and times as cancelled,
+	 * so that the rule no longer offers them.
+	 *
+	 * @param doctor    the doctor
+	 * @param from      the first day
+	 * @param to        the last day
+	 * @param startTime the earliest start time, may be {@code null}
+	 * @param endTime   the latest end time, may be {@code null}
+	 * @return the number of cancelled slots
+	 */
+	public int cancel(Doctor doctor, LocalDate from, LocalDate to, LocalTime startTime, LocalTime endTime) {
+		List<Availability> cancelled = new ArrayList<>();
+		expand(doctor.getId(), from.datesUntil(to.plusDays(1)).toList(), (id, slot) -> {
+			if ((startTime == null || !slot.getStartTime().isBefore(startTime)) && (endTime == null || !slot.getEndTime().isAfter(endTime))) {
+				slot.setDoctor(doctor);
+				slot.setStatus(SlotStatus.CANCELLED);
+				cancelled.add(slot);
+			}
+		});
+		return cancelled.isEmpty() ? 0 : availabilityRepository.batchInsert(cancelled);
+	}
+
+	/**
+	 * Computes the virtual slots of the rules of a doctor, or of all doctors. Like the generator,
+	 * slots of today whose end time is not in the future are left out.
+	 *
+	 * @param doctorId the doctor's ID, or {@code null} for all doctors
+	 * @param dates    the days to compute, or {@code null} for every day of the rules from today
+	 * @param consumer receives the doctor id and each slot, not stored and without doctor
+	 */
+	private void expand(Integer doctorId, Collection<LocalDate> dates, BiConsumer<Integer, Availability> consumer) {
+		if (!isEnabled())
+			return;
+		LocalDate today = LocalDate.now();
+		LocalTime now = LocalTime.now();
+		Map<Integer, Rule> rules = new LinkedHashMap<>();
+		for (Object[] row : agPreferenceRepository.findActiveSlotRules(RULE_MODES, doctorId)) {
+			Rule rule = rules.computeIfAbsent((Integer) row[0], id -> new Rule(id, (AGMode) row[1], (Integer) row[2], (LocalDate) row[3], (LocalDate) row[4], today));
+			rule.slotInputs.add(new SlotInput((LocalTime) row[5], (LocalTime) row[6], (Integer) row[7]));
+		}
+		rules.values().removeIf(rule -> rule.from.isAfter(rule.to));
+		if (rules.isEmpty())
+			return;
+
+		LocalDate from = rules.values().stream().map(rule -> rule.from).min(LocalDate::compareTo).get();
+		LocalDate to = rules.values().stream().map(rule -> rule.to).max(LocalDate::compareTo).get();
+		Map<Integer, Map<LocalDate, NavigableMap<LocalTime, LocalTime>>> occupied = new HashMap<>();
+		for (Object[] row : availabilityRepository.findSlotTimesByDoctorAndDateBetween(doctorId, from, to)) {
+			if (rules.containsKey(row[0]))
+				AvailabilityUtil.occupy(occupied.computeIfAbsent((Integer) row[0], id -> new HashMap<>()).computeIfAbsent((LocalDate) row[1], date -> new TreeMap<>()),
+						(LocalTime) row[2], (LocalTime) row[3]);
+		}
+
+		Doctor doctor = new Doctor();
+		List<Availability> candidates = new ArrayList<>();
+		for (Rule rule : rules.values()) {
+			doctor.setId(rule.doctorId);
+			Collection<LocalDate> days = dates != null ? dates : rule.from.datesUntil(rule.to.plusDays(1)).toList();
+			for (LocalDate date : days) {
+				if (date.isBefore(rule.from) || date.isAfter(rule.to) || holidayLeaveCalendar.isBlocked(rule.doctorId, date))
+					continue;
+				NavigableMap<LocalTime, LocalTime> day = new TreeMap<>(occupied.getOrDefault(rule.doctorId, Map.of()).getOrDefault(date, new TreeMap<>()));
+				candidates.clear();
+				AvailabilityUtil.splitSlots(doctor, date, rule.slotInputs, rule.mode, candidates);
+				for (Availability candidate : candidates) {
+					if ((date.isEqual(today) && !candidate.getEndTime().isAfter(now)) || AvailabilityUtil.isOverlapping(day, candidate.getStartTime(), candidate.getEndTime()))
+						continue;
+					AvailabilityUtil.occupy(day, candidate.getStartTime(), candidate.getEndTime());
+					candidate.setDoctor(null);
+					consumer.accept(rule.doctorId, candidate);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Recurrence rule of a doctor, over the days the generator would cover from today.
+	 */
+	private static final class Rule {
+
+		private final Integer doctorId;
+		private final AGMode mode;
+		private final LocalDate from;
+		private final LocalDate to;
+		private final List<SlotInput> slotInputs = new ArrayList<>();
+
+		private Rule(Integer doctorId, AGMode mode, Integer daysAhead, LocalDate startDate, LocalDate endDate, LocalDate today) {
+			this.doctorId = doctorId;
+			this.mode = mode;
+			this.from = startDate != null && startDate.isAfter(today) ? startDate : today;
+			LocalDate last = from.plusDays(daysAhead == null ? 0 : daysAhead);
+			this.to = endDate != null && endDate.isBefore(last) ? endDate : last;
+		}
+	}
+}
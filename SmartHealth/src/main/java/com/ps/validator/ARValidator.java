@@ -32,7 +32,7 @@ public boolean isValid(AppointmentRequest value, ConstraintValidatorContext cont
 			buildConstraints(IValidationConstants.PATINET_ID_CONSTRAINT, "patientId", context);
 			return false;
 		}
-		if (value.getSlotId() == null || value.getSlotId() <= 0) {
+		if (value.getSlotId() == null || value.getSlotId() == 0) {
 			buildConstraints(IValidationConstants.SLOT_ID_CONSTRAINT, "slotId", context);
 			return false;
 		}
@@ -0,0 +1,317 @@
+-- Baseline schema of SmartHealth, as previously created by hibernate ddl-auto=update.
+-- Databases created before migrations were introduced are baselined at this version and skip it.
+
+create table admin (
+    id integer not null auto_increment,
+    is_active bit not null,
+    email varchar(255) not null,
+    name varchar(255) not null,
+    password varchar(255) not null,
+    phone varchar(255) not null,
+    profile_pic_path varchar(255),
+    primary key (id)
+);
+
+create table admin_roles (
+    admin_id integer not null,
+    roles varchar(255)
+);
+
+create table ag_preference (
+    days_ahead integer,
+    doctor_id integer not null,
+    end_date date,
+    is_active bit,
+    last_generated_on date,
+    skip_holiday bit,
+    start_date date,
+    created_at datetime(6),
+    updated_at datetime(6),
+    mode enum ('AUTO','CUSTOM_CONTINUOUS','CUSTOM_ONE_TIME','MANUAL','SCHEDULED') not null,
+    primary key (doctor_id)
+);
+
+create table ag_preference_slot_inputs (
+    agpreference_doctor_id integer not null,
+    slot_inputs_id integer not null
+);
+
+create table appointment (
+    availability_id integer not null,
+    id integer not null auto_increment,
+    patient_id integer not null,
+    sub_profile_id integer,
+    created_at datetime(6),
+    updated_at datetime(6),
+    note varchar(500),
+    status enum ('APPROVED','BOOKED','COMPLETED','D_CANCELLED','P_CANCELLED','REJECTED') not null,
+    primary key (id)
+);
+
+create table availability (
+    date date not null,
+    doctor_id integer not null,
+    end_time time(6) not null,
+    id integer not null auto_increment,
+    start_time time(6) not null,
+    created_at datetime(6),
+    updated_at datetime(6),
+    mode enum ('AUTO','CUSTOM_CONTINUOUS','CUSTOM_ONE_TIME','MANUAL','SCHEDULED') not null,
+    status enum ('AVAILABLE','BOOKED','CANCELLED','RE_AVAILABLE') not null,
+    primary key (id)
+);
+
+create table degree (
+    id integer not null auto_increment,
+    name varchar(255) not null,
+    primary key (id)
+);
+
+create table department (
+    id integer not null auto_increment,
+    name varchar(255) not null,
+    primary key (id)
+);
+
+create table doctor (
+    dob date,
+    id integer not null auto_increment,
+    is_active bit,
+    profile_complete bit,
+    year_of_experience integer,
+    creation_time datetime(6),
+    updation_time datetime(6),
+    address varchar(255),
+    email varchar(255) not null,
+    gender varchar(255),
+    name varchar(255),
+    password varchar(255),
+    phone varchar(255) not null,
+    profile_pic_path varchar(255),
+    registration_number varchar(255),
+    primary key (id)
+);
+
+create table doctor_degrees (
+    degrees_id integer not null,
+    doctor_id integer not null
+);
+
+create table doctor_departments (
+    departments_id integer not null,
+    doctor_id integer not null
+);
+
+create table doctor_roles (
+    doctor_id integer not null,
+    roles varchar(255)
+);
+
+create table doctor_specializations (
+    doctor_id integer not null,
+    specializations_id integer not null
+);
+
+create table doctor_leave (
+    days integer not null,
+    doctor_id integer not null,
+    from_date date not null,
+    id integer not null auto_increment,
+    to_date date not null,
+    creation_time datetime(6),
+    updation_time datetime(6),
+    reason varchar(500),
+    status enum ('APPROVED','BOOKED','REJECTED') not null,
+    primary key (id)
+);
+
+create table holiday (
+    holiday_date date not null,
+    id integer not null auto_increment,
+    creation_time datetime(6),
+    reason varchar(255) not null,
+    primary key (id)
+);
+
+create table patient (
+    dob date,
+    height float(53),
+    id integer not null auto_increment,
+    is_active bit,
+    profile_complete bit,
+    weight integer,
+    creation_time datetime(6),
+    updation_time datetime(6),
+    email varchar(255) not null,
+    gender varchar(255),
+    name varchar(255),
+    password varchar(255),
+    phone varchar(255) not null,
+    profile_pic_path varchar(255),
+    primary key (id)
+);
+
+create table patient_roles (
+    patient_id integer not null,
+    roles varchar(255)
+);
+
+create table relation (
+    id integer not null auto_increment,
+    name varchar(255) not null,
+    primary key (id)
+);
+
+create table slot_input (
+    end_time time(6),
+    gap_in_minutes integer,
+    id integer not null auto_increment,
+    start_time time(6),
+    primary key (id)
+);
+
+create table specialization (
+    id integer not null auto_increment,
+    name varchar(255) not null,
+    primary key (id)
+);
+
+create table sub_profile (
+    id integer not null auto_increment,
+    patient_id integer not null,
+    relation_id integer not null,
+    name varchar(255),
+    phone varchar(255),
+    primary key (id)
+);
+
+alter table admin
+   add constraint UKc0r9atamxvbhjjvy5j8da1kam unique (email);
+
+alter table admin
+   add constraint UK3wx6cyhxqnmir7sde90jkhp1k unique (phone);
+
+alter table availability
+   add constraint UK4ymbfngyq3mfa98og8woqrqu4 unique (doctor_id, date, start_time, end_time);
+
+alter table degree
+   add constraint UKby27bbt64p1ria17hy3khpyft unique (name);
+
+alter table department
+   add constraint UK1t68827l97cwyxo9r1u6t4p7d unique (name);
+
+alter table doctor
+   add constraint UKjdtgexk368pq6d2yb3neec59d unique (email);
+
+alter table doctor
+   add constraint UK2ow2k8dbvtnp7wfc8ywo8fg2e unique (phone);
+
+alter table holiday
+   add constraint UKiisa3bs26eq2s7u0w4banjopt unique (holiday_date);
+
+alter table patient
+   add constraint UKbawli8xm92f30ei6x9p3h8eju unique (email);
+
+alter table patient
+   add constraint UK9gxe97j2ngjjvtkig6b6jvy91 unique (phone);
+
+alter table relation
+   add constraint UKt3kmot8kxmuws6vj2etsp4ih5 unique (name);
+
+alter table specialization
+   add constraint UKe17ai04xje55nwnjss2st2fyh unique (name);
+
+alter table admin_roles
+   add constraint FK1bcjwl07gm1kcu8h3dhiyd3ol
+   foreign key (admin_id)
+   references admin (id);
+
+alter table ag_preference
+   add constraint FKnjj0hefolpbcftee1ori86sfl
+   foreign key (doctor_id)
+   references doctor (id);
+
+alter table ag_preference_slot_inputs
+   add constraint FKq3rjrnvu1290kwreu0ogpe3p2
+   foreign key (slot_inputs_id)
+   references slot_input (id);
+
+alter table ag_preference_slot_inputs
+   add constraint FKc74mfhk78cbv5fq3vhh59e1dl
+   foreign key (agpreference_doctor_id)
+   references ag_preference (doctor_id);
+
+alter table appointment
+   add constraint FKhgoml3vtdhfi1pfddeoiw8wq9
+   foreign key (availability_id)
+   references availability (id);
+
+alter table appointment
+   add constraint FK4apif2ewfyf14077ichee8g06
+   foreign key (patient_id)
+   references patient (id);
+
+alter table appointment
+   add constraint FK7wu52kbcpfs9ieox54hpem27s
+   foreign key (sub_profile_id)
+   references sub_profile (id);
+
+alter table availability
+   add constraint FKhafkrnt718oiuu8oo58obetjp
+   foreign key (doctor_id)
+   references doctor (id);
+
+alter table doctor_degrees
+   add constraint FK5e5sllh86gupapxwn69jrjwfl
+   foreign key (degrees_id)
+   references degree (id);
+
+alter table doctor_degrees
+   add constraint FKsqbj0s6n7sxktag3h5jvpoiwm
+   foreign key (doctor_id)
+   references doctor (id);
+
+alter table doctor_departments
+   add constraint FKe0afyvqa8h75sm5fj2fm0fnl9
+   foreign key (departments_id)
+   references department (id);
+
+alter table doctor_departments
+   add constraint FK52kps8frdphitn13v4ixoxyul
+   foreign key (doctor_id)
+   references doctor (id);
+
+alter table doctor_roles
+   add constraint FKdsa3oe9synalk3mgay4nxn52s
+   foreign key (doctor_id)
+   references doctor (id);
+
+alter table doctor_specializations
+   add constraint FKtq093xfm4t9m4wtnunuqd6e6r
+   foreign key (specializations_id)
+   references specialization (id);
+
+alter table doctor_specializations
+   add constraint FK8j5swvi2ttc3kmvofxm8gg4kd
+   foreign key (doctor_id)
+   references doctor (id);
+
+alter table doctor_leave
+   add constraint FKq1kwfh70ngemhrs0lh1y20uyo
+   foreign key (doctor_id)
+   references doctor (id);
+
+alter table patient_roles
+   add constraint FKo56jubs5ngnibq3p2bvjrv910
+   foreign key (patient_id)
+   references patient (id);
+
+alter table sub_profile
+   add constraint FKmr8u68sods5maxjdqpmdvw67j
+   foreign key (patient_id)
+   references patient (id);
+
+alter table sub_profile
+   add constraint FKr2w8vwpvcxtvj4wsvbikqyh6e
+   foreign key (relation_id)
+   references relation (id);
@@ -0,0 +1,29 @@
+-- Composite indexes for the hot availability, appointment and leave queries.
+
+-- AvailabilityRepository#viewSlots: doctor + bookable status + date range
+create index idx_availability_doctor_status_date
+   on availability (doctor_id, status, date);
+
+-- DoctorRepository#searchDoctorsWithSlots: available slots from today onwards
+create index idx_availability_status_date
+   on availability (status, date);
+
+-- AppointmentRepository#findByAvailabilityDateOrderByAvailabilityStartTimeAsc: admin dashboard appointments of today in start time order
+create index idx_availability_date_start_time
+   on availability (date, start_time);
+
+-- AppointmentRepository#updateStatusByAvailabilityId(s): appointments of slots in given statuses
+create index idx_appointment_availability_status
+   on appointment (availability_id, status);
+
+-- AppointmentRepository#countByPatientEmailAndStatus(In): patient dashboard counters
+create index idx_appointment_patient_status
+   on appointment (patient_id, status);
+
+-- DoctorLeaveRepository#hasOverlappingSlot and #searchLeaves: leaves of a doctor in a date range
+create index idx_doctor_leave_doctor_dates
+   on doctor_leave (doctor_id, from_date, to_date);
+
+-- DoctorLeaveRepository#findDoctorIdAndDatesByStatus: approved leaves loaded into the holiday and leave calendar
+create index idx_doctor_leave_status
+   on doctor_leave (status);
@@ -0,0 +1,34 @@
+-- Background jobs releasing the slots of approved leaves, see LeaveSlotJobRunner.
+
+create table leave_slot_job (
+    cancelled_appointments integer not null,
+    cancelled_slots integer not null,
+    deleted_slots integer not null,
+    doctor_id integer not null,
+    from_date date not null,
+    id integer not null auto_increment,
+    leave_id integer not null,
+    next_date date not null,
+    to_date date not null,
+    creation_time datetime(6),
+    updation_time datetime(6),
+    status enum ('COMPLETED','PENDING') not null,
+    primary key (id)
+);
+
+-- LeaveSlotJobRepository#findByStatusOrderByIdAsc: pending jobs resumed by the runner
+create index idx_leave_slot_job_status
+   on leave_slot_job (status);
+
+alter table leave_slot_job
+   add constraint UK_leave_slot_job_leave unique (leave_id);
+
+alter table leave_slot_job
+   add constraint FK_leave_slot_job_leave
+   foreign key (leave_id)
+   references doctor_leave (id);
+
+alter table leave_slot_job
+   add constraint FK_leave_slot_job_doctor
+   foreign key (doctor_id)
+   references doctor (id);
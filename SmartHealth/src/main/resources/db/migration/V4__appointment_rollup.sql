@@ -0,0 +1,22 @@
+-- Daily appointment counts per doctor and status, see AppointmentRollupUpdater.
+
+create table appointment_rollup (
+    appointment_date date not null,
+    doctor_id integer not null,
+    id integer not null auto_increment,
+    total bigint not null,
+    status enum ('APPROVED','BOOKED','COMPLETED','D_CANCELLED','P_CANCELLED','REJECTED') not null,
+    primary key (id)
+);
+
+-- AppointmentRollupRepository#findTrendsByDate and #countByDate: rollup rows of a date range
+create index idx_appointment_rollup_date
+   on appointment_rollup (appointment_date);
+
+alter table appointment_rollup
+   add constraint uk_appointment_rollup_doctor_date_status unique (doctor_id, appointment_date, status);
+
+alter table appointment_rollup
+   add constraint fk_appointment_rollup_doctor
+   foreign key (doctor_id)
+   references doctor (id);
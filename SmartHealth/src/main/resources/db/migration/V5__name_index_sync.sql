@@ -0,0 +1,15 @@
+-- Indexes for the periodic sync of the in-memory name index.
+
+-- DoctorRepository#findChangedSince: doctors created or updated since the last sync
+create index idx_doctor_creation_time
+   on doctor (creation_time);
+
+create index idx_doctor_updation_time
+   on doctor (updation_time);
+
+-- PatientRepository#findChangedSince: patients created or updated since the last sync
+create index idx_patient_creation_time
+   on patient (creation_time);
+
+create index idx_patient_updation_time
+   on patient (updation_time);
@@ -0,0 +1,25 @@
+-- Failed runs of the leave slot jobs, a job is given up after smarthealth.slots.leave-job-max-attempts, see LeaveSlotJobRunner.
+
+alter table leave_slot_job
+   add column attempts integer not null default 0;
+
+-- The status column is swapped for one allowing FAILED, with statements understood by H2 as well,
+-- dropping the old column drops its index
+alter table leave_slot_job
+   add column job_status enum ('COMPLETED','FAILED','PENDING') not null default 'PENDING';
+
+update leave_slot_job
+   set job_status = case when status = 'COMPLETED' then 'COMPLETED' else 'PENDING' end;
+
+alter table leave_slot_job
+   drop column status;
+
+alter table leave_slot_job
+   rename column job_status to status;
+
+alter table leave_slot_job
+   alter column status drop default;
+
+-- LeaveSlotJobRepository#findByStatusOrderByIdAsc: pending jobs resumed by the runner
+create index idx_leave_slot_job_status
+   on leave_slot_job (status);
@@ -0,0 +1,129 @@
+package com.ps.aspect;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.ps.config.props.MetricsProperties;
+import com.ps.exception.ResourceException;
+import com.ps.rest.DataRestController;
+import com.ps.service.impl.DataServiceImpl;
+import com.ps.util.TestDataUtil;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * This class tests the {@link MetricsAspect} class.
+ *
+ */
+@ExtendWith({MockitoExtension.class, OutputCaptureExtension.class})
+class MetricsAspectTest {
+
+	@Mock
+	private ProceedingJoinPoint joinPoint;
+
+	@Mock
+	private MethodSignature signature;
+
+	private MetricsAspect metricsAspect;
+	private SimpleMeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		MetricsProperties metricsProperties = new MetricsProperties();
+		metricsProperties.setArgumentLogSampleInterval(1);
+		metricsAspect = new MetricsAspect();
+		ReflectionTestUtils.setField(metricsAspect, "meterRegistry", meterRegistry);
+		ReflectionTestUtils.setField(metricsAspect, "metricsProperties", metricsProperties);
+		// Arguments of sampled calls are logged with the caller's email when DEBUG logging is enabled
+		SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(TestDataUtil.getDoctorEmail(), null, List.of()));
+		when(joinPoint.getSignature()).thenReturn(signature);
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	/**
+	 * Test {@link MetricsAspect#timeControllerMethods(ProceedingJoinPoint)}.
+	 * Successful calls are counted by one timer tagged with the controller class, the method and no exception.
+	 */
+	@Test
+	void testTimeControllerMethods() throws Throwable {
+		mockMethod(new DataRestController(), DataRestController.class.getMethod("getDoctorDegrees"));
+		// Only read when DEBUG logging is enabled
+		lenient().when(joinPoint.getArgs()).thenReturn(new Object[0]);
+		when(joinPoint.proceed()).thenReturn("degrees");
+
+		assertEquals("degrees", metricsAspect.timeControllerMethods(joinPoint));
+		assertEquals("degrees", metricsAspect.timeControllerMethods(joinPoint));
+
+		assertEquals(2, timer(MetricsAspect.CONTROLLER_METRIC, "DataRestController", "getDoctorDegrees", "none").count());
+		assertEquals(1, meterRegistry.getMeters().size());
+	}
+
+	/**
+	 * Test {@link MetricsAspect#timeServiceImplMethods(ProceedingJoinPoint)}.
+	 * Failed calls rethrow the exception and are counted by one timer per exception class, tagged with its simple name,
+	 * while the timer of successful calls is only registered once a call succeeds. Only the unexpected exceptions
+	 * are logged with their stack trace.
+	 */
+	@Test
+	void testTimeServiceImplMethodsException(CapturedOutput output) throws Throwable {
+		mockMethod(new DataServiceImpl(), DataServiceImpl.class.getMethod("getDoctorDegrees"));
+		ResourceException resourceException = new ResourceException("Resource not found", HttpStatus.NOT_FOUND);
+		IllegalStateException illegalStateException = new IllegalStateException("Closed");
+		when(joinPoint.proceed()).thenThrow(resourceException, resourceException, illegalStateException).thenReturn(List.of());
+
+		assertSame(resourceException, assertThrows(ResourceException.class, () -> metricsAspect.timeServiceImplMethods(joinPoint)));
+		assertSame(resourceException, assertThrows(ResourceException.class, () -> metricsAspect.timeServiceImplMethods(joinPoint)));
+		assertSame(illegalStateException, assertThrows(IllegalStateException.class, () -> metricsAspect.timeServiceImplMethods(joinPoint)));
+		assertNull(meterRegistry.find(MetricsAspect.SERVICE_METRIC).tag("exception", "none").timer());
+
+		assertEquals(List.of(), metricsAspect.timeServiceImplMethods(joinPoint));
+		assertEquals(2, timer(MetricsAspect.SERVICE_METRIC, "DataServiceImpl", "getDoctorDegrees", "ResourceException").count());
+		assertEquals(1, timer(MetricsAspect.SERVICE_METRIC, "DataServiceImpl", "getDoctorDegrees", "IllegalStateException").count());
+		assertEquals(1, timer(MetricsAspect.SERVICE_METRIC, "DataServiceImpl", "getDoctorDegrees", "none").count());
+		assertEquals(3, meterRegistry.getMeters().size());
+
+		assertTrue(output.getOut().contains("Exception in DataServiceImpl.getDoctorDegrees, Message: Resource not found"));
+		assertFalse(output.getOut().contains(ResourceException.class.getName()));
+		assertTrue(output.getOut().contains(IllegalStateException.class.getName() + ": Closed"));
+	}
+
+	private void mockMethod(Object target, Method method) {
+		when(joinPoint.getTarget()).thenReturn(target);
+		when(signature.getMethod()).thenReturn(method);
+		when(signature.getName()).thenReturn(method.getName());
+	}
+
+	private Timer timer(String metric, String className, String method, String exception) {
+		return meterRegistry.get(metric).tag("class", className).tag("method", method).tag("exception", exception).timer();
+	}
+}
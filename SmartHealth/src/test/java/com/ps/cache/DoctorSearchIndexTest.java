@@ -0,0 +1,233 @@
+package com.ps.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import com.ps.dto.NameFilter;
+import com.ps.dto.request.DSRequest;
+import com.ps.dto.response.DSResponse;
+import com.ps.entity.Degree;
+import com.ps.entity.Department;
+import com.ps.entity.Specialization;
+import com.ps.event.AppointmentChangedEvent;
+import com.ps.event.SlotsChangedEvent;
+import com.ps.repo.AvailabilityRepository;
+import com.ps.repo.DoctorRepository;
+import com.ps.util.VirtualSlots;
+
+/**
+ * This class tests the {@link DoctorSearchIndex} class.
+ *
+ */
+@ExtendWith(MockitoExtension.class)
+class DoctorSearchIndexTest {
+
+	@InjectMocks
+	private DoctorSearchIndex doctorSearchIndex;
+
+	@Mock
+	private DoctorRepository doctorRepository;
+
+	@Mock
+	private AvailabilityRepository availabilityRepository;
+
+	@Mock
+	private NameIndex nameIndex;
+
+	@Mock
+	private VirtualSlots virtualSlots;
+
+	private LocalDate today = LocalDate.now();
+
+	@BeforeEach
+	void setUp() {
+		when(nameIndex.resolveDoctorName(null)).thenReturn(NameFilter.byName(null));
+	}
+
+	/**
+	 * Test {@link DoctorSearchIndex#search(DSRequest, Pageable)}.
+	 * Cases of doctors ranked by their next open day, stored or virtual, then by name, of doctors without open slots left out,
+	 * and of the degree, department, specialization, date and name filters.
+	 */
+	@Test
+	void testSearch() {
+		load();
+
+		assertEquals(List.of(2, 3, 1, 4), ids(search(new DSRequest())));
+
+		DSRequest request = new DSRequest();
+		request.setDegree(new Degree());
+		request.getDegree().setId(10);
+		assertEquals(List.of(2, 1), ids(search(request)));
+
+		request = new DSRequest();
+		request.setDepartment(new Department());
+		request.getDepartment().setId(20);
+		assertEquals(List.of(3, 1), ids(search(request)));
+
+		request = new DSRequest();
+		request.setSpecialization(new Specialization());
+		request.getSpecialization().setId(30);
+		assertEquals(List.of(1), ids(search(request)));
+
+		request = new DSRequest();
+		request.setDate(today.plusDays(1));
+		assertEquals(List.of(2, 3), ids(search(request)));
+		request.setDate(today.plusDays(3));
+		assertEquals(List.of(3), ids(search(request)));
+		request.setDate(today.minusDays(1));
+		assertEquals(List.of(), ids(search(request)));
+
+		// Name left to the index scan, and resolved to ids by the name index, unknown ids ignored
+		request = new DSRequest();
+		request.setName("SHAH");
+		when(nameIndex.resolveDoctorName("SHAH")).thenReturn(NameFilter.byName("SHAH"));
+		assertEquals(List.of(1), ids(search(request)));
+		request.setName("nair");
+		when(nameIndex.resolveDoctorName("nair")).thenReturn(NameFilter.byIds(List.of(3, 5, 99)));
+		assertEquals(List.of(3), ids(search(request)));
+
+		DSResponse response = search(new DSRequest()).getContent().get(2);
+		assertEquals("Dev Shah", response.getName());
+		assertEquals(12, response.getYearOfExperience());
+		assertEquals("1_ProfilePic_1_dev.jpg", response.getProfilePicPath());
+		assertEquals(List.of("MBBS"), response.getDegrees());
+		assertEquals(List.of("Cardiology"), response.getDepartments());
+		assertEquals(List.of("Interventional Cardiology"), response.getSpecializations());
+	}
+
+	/**
+	 * Test {@link DoctorSearchIndex#search(DSRequest, Pageable)}.
+	 * Cases of a page in the middle of the ranking, of a page past the end and of an unpaged search.
+	 */
+	@Test
+	void testSearchPaging() {
+		load();
+
+		Page<DSResponse> page = doctorSearchIndex.search(new DSRequest(), PageRequest.of(1, 3));
+		assertEquals(List.of(4), ids(page));
+		assertEquals(4, page.getTotalElements());
+		assertEquals(2, page.getTotalPages());
+
+		page = doctorSearchIndex.search(new DSRequest(), PageRequest.of(2, 3));
+		assertEquals(List.of(), ids(page));
+		assertEquals(4, page.getTotalElements());
+
+		assertEquals(List.of(2, 3, 1, 4), ids(doctorSearchIndex.search(new DSRequest(), Pageable.unpaged())));
+		verify(doctorRepository).findSearchableDoctors(null);
+	}
+
+	/**
+	 * Test {@link DoctorSearchIndex#onAppointmentChanged(AppointmentChangedEvent)} and
+	 * {@link DoctorSearchIndex#onSlotsChanged(SlotsChangedEvent)}.
+	 * Cases of events before the index is loaded and of unknown doctors, ignored, and of a doctor whose open slots
+	 * changed, ranked again on the stored and virtual slots read anew.
+	 */
+	@Test
+	void testRefreshOpenSlots() {
+		doctorSearchIndex.onAppointmentChanged(new AppointmentChangedEvent(2, null));
+		verifyNoInteractions(doctorRepository, availabilityRepository, virtualSlots);
+
+		load();
+		doctorSearchIndex.onSlotsChanged(new SlotsChangedEvent(99, null));
+		verify(availabilityRepository, never()).countOpenSlotsByDoctorAndDate(99, today);
+
+		// The last slot of the soonest day of Anil Kumar is booked
+		when(availabilityRepository.countOpenSlotsByDoctorAndDate(2, today)).thenReturn(List.<Object[]>of(count(2, 3)));
+		when(virtualSlots.countOpenSlots(2)).thenReturn(List.of());
+		doctorSearchIndex.onAppointmentChanged(new AppointmentChangedEvent(2, null));
+		assertEquals(List.of(3, 1, 4, 2), ids(search(new DSRequest())));
+
+		// Virtual slots of Anil Kumar are opened on the first day
+		when(virtualSlots.countOpenSlots(2)).thenReturn(List.<Object[]>of(count(2, 1)));
+		doctorSearchIndex.onSlotsChanged(new SlotsChangedEvent(2, null));
+		assertEquals(List.of(2, 3, 1, 4), ids(search(new DSRequest())));
+
+		// All the slots of Dev Shah are gone
+		when(availabilityRepository.countOpenSlotsByDoctorAndDate(1, today)).thenReturn(List.of());
+		when(virtualSlots.countOpenSlots(1)).thenReturn(List.of());
+		doctorSearchIndex.onSlotsChanged(new SlotsChangedEvent(1, null));
+		assertEquals(List.of(2, 3, 4), ids(search(new DSRequest())));
+		verify(doctorRepository).findSearchableDoctors(null);
+		verify(doctorRepository, never()).findSearchableDoctors(any(Integer.class));
+	}
+
+	/**
+	 * Test {@link DoctorSearchIndex#reload()}.
+	 * Case of a doctor whose open slots change while the index is reloading: the refresh published to the previous index
+	 * isn't lost, the doctor is read again once the reloaded index is swapped in.
+	 */
+	@Test
+	void testReloadRacingRefresh() {
+		load();
+
+		// The last slot of the soonest day of Anil Kumar is booked after the reload read the doctors
+		List<Object[]> doctors = doctorRepository.findSearchableDoctors(null);
+		when(doctorRepository.findSearchableDoctors(null)).thenAnswer(invocation -> {
+			when(availabilityRepository.countOpenSlotsByDoctorAndDate(2, today)).thenReturn(List.<Object[]>of(count(2, 3)));
+			doctorSearchIndex.onAppointmentChanged(new AppointmentChangedEvent(2, null));
+			return doctors;
+		});
+		when(doctorRepository.findSearchableDoctors(2)).thenReturn(List.<Object[]>of(new Object[] {2, "Anil Kumar", 5, null}));
+		doctorSearchIndex.reload();
+
+		assertEquals(List.of(3, 1, 4, 2), ids(search(new DSRequest())));
+		verify(doctorRepository).findSearchableDoctors(2);
+	}
+
+	/**
+	 * Stubs the index load: Dev Shah (1) open in 2 days, Anil Kumar (2) open tomorrow, Meera Nair (3) open tomorrow and in 3 days,
+	 * Ravi Verma (4) open in 2 days on virtual slots only, and Kiran Rao (5) without open slots.
+	 */
+	private void load() {
+		when(doctorRepository.findSearchableDoctors(null)).thenReturn(List.of(
+				new Object[] {1, "Dev Shah", 12, "1_ProfilePic_1_dev.jpg"},
+				new Object[] {2, "Anil Kumar", 5, null},
+				new Object[] {3, "Meera Nair", 8, null},
+				new Object[] {4, "Ravi Verma", 3, null},
+				new Object[] {5, "Kiran Rao", 20, null}));
+		when(doctorRepository.findSearchableDoctorDegrees(null)).thenReturn(List.of(
+				new Object[] {1, 10, "MBBS"},
+				new Object[] {2, 10, "MBBS"},
+				new Object[] {3, 11, "MD"}));
+		when(doctorRepository.findSearchableDoctorDepartments(null)).thenReturn(List.of(
+				new Object[] {1, 20, "Cardiology"},
+				new Object[] {2, 21, "Neurology"},
+				new Object[] {3, 20, "Cardiology"}));
+		when(doctorRepository.findSearchableDoctorSpecializations(null)).thenReturn(List.<Object[]>of(
+				new Object[] {1, 30, "Interventional Cardiology"}));
+		when(availabilityRepository.countOpenSlotsByDoctorAndDate(null, today)).thenReturn(List.of(
+				count(1, 2), count(2, 1), count(3, 1), count(3, 3)));
+		when(virtualSlots.countOpenSlots(null)).thenReturn(List.<Object[]>of(count(4, 2)));
+		doctorSearchIndex.reload();
+	}
+
+	private Page<DSResponse> search(DSRequest request) {
+		return doctorSearchIndex.search(request, PageRequest.of(0, 10));
+	}
+
+	private Object[] count(Integer doctorId, int days) {
+		return new Object[] {doctorId, today.plusDays(days), 2L};
+	}
+
+	private static List<Integer> ids(Page<DSResponse> page) {
+		return page.getContent().stream().map(DSResponse::getId).toList();
+	}
+}
@@ -0,0 +1,96 @@
+package com.ps.cache;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.ps.enu.LeaveStatus;
+import com.ps.repo.DoctorLeaveRepository;
+import com.ps.repo.HolidayRepository;
+
+/**
+ * This class tests the {@link HolidayLeaveCalendar} class.
+ *
+ */
+@ExtendWith(MockitoExtension.class)
+class HolidayLeaveCalendarTest {
+
+	@InjectMocks
+	private HolidayLeaveCalendar holidayLeaveCalendar;
+
+	@Mock
+	private HolidayRepository holidayRepository;
+
+	@Mock
+	private DoctorLeaveRepository leaveRepository;
+
+	private LocalDate monday = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+	/**
+	 * Test {@link HolidayLeaveCalendar#isBlocked(Integer, LocalDate)}.
+	 *
+	 */
+	@Test
+	void testIsBlocked() {
+		when(holidayRepository.findAllHolidayDates()).thenReturn(List.of(monday));
+		when(leaveRepository.findDoctorIdAndDatesByStatus(LeaveStatus.APPROVED)).thenReturn(List.<Object[]>of(new Object[] {1, monday.plusDays(2), monday.plusDays(3)}));
+
+		assertTrue(holidayLeaveCalendar.isBlocked(2, monday));
+		assertTrue(holidayLeaveCalendar.isBlocked(2, monday.minusDays(1)));
+		assertFalse(holidayLeaveCalendar.isBlocked(1, monday.plusDays(1)));
+		assertTrue(holidayLeaveCalendar.isBlocked(1, monday.plusDays(3)));
+		assertFalse(holidayLeaveCalendar.isBlocked(2, monday.plusDays(3)));
+
+		// Touching leaves are merged into one interval
+		holidayLeaveCalendar.addLeave(1, monday.plusDays(4), monday.plusDays(4));
+		holidayLeaveCalendar.addLeave(1, monday.plusDays(1), monday.plusDays(1));
+		assertTrue(holidayLeaveCalendar.isOnLeave(1, monday.plusDays(1)));
+		assertTrue(holidayLeaveCalendar.isOnLeave(1, monday.plusDays(4)));
+		assertFalse(holidayLeaveCalendar.isOnLeave(1, monday.plusDays(5)));
+
+		holidayLeaveCalendar.removeHoliday(monday);
+		assertFalse(holidayLeaveCalendar.isHoliday(monday));
+	}
+
+	/**
+	 * Test {@link HolidayLeaveCalendar#reload()}.
+	 * Case when holidays and leaves committed while the calendar is being reloaded are not lost,
+	 * although the reload read the database before they were committed.
+	 */
+	@Test
+	void testReloadKeepsConcurrentUpdates() throws Exception {
+		LocalDate holiday = monday.plusDays(1);
+		when(leaveRepository.findDoctorIdAndDatesByStatus(LeaveStatus.APPROVED)).thenReturn(List.of());
+		when(holidayRepository.findAllHolidayDates()).thenReturn(List.of()).thenAnswer(inv -> {
+			// Commit of another request while the reload is reading the database
+			Thread update = new Thread(() -> {
+				holidayLeaveCalendar.addHoliday(holiday);
+				holidayLeaveCalendar.addLeave(1, monday, monday);
+			});
+			update.start();
+			while (update.getState() != Thread.State.WAITING && update.getState() != Thread.State.TERMINATED) {
+				Thread.sleep(1);
+			}
+			return List.of();
+		});
+		holidayLeaveCalendar.reload();
+
+		holidayLeaveCalendar.reload();
+		for (int i = 0; i < 1000 && !holidayLeaveCalendar.isOnLeave(1, monday); i++) {
+			Thread.sleep(1);
+		}
+		assertTrue(holidayLeaveCalendar.isHoliday(holiday));
+		assertTrue(holidayLeaveCalendar.isOnLeave(1, monday));
+	}
+}
@@ -0,0 +1,119 @@
+package com.ps.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.ps.config.props.ImageProperties;
+import com.ps.constants.IExceptionConstants;
+import com.ps.dto.ImageFile;
+import com.ps.exception.ResourceException;
+import com.ps.util.DataUtil;
+
+/**
+ * This class tests the {@link ImageCache} class.
+ *
+ */
+class ImageCacheTest {
+
+	@TempDir
+	private Path directory;
+
+	private ImageCache imageCache;
+	private ImageProperties imageProperties;
+
+	@BeforeEach
+	void setUp() {
+		imageProperties = new ImageProperties();
+		imageProperties.setCacheSize(2);
+		imageProperties.setCacheableFileSizeInKb(1);
+		imageProperties.setCacheRevalidateIntervalInSeconds(60);
+		imageCache = new ImageCache();
+		ReflectionTestUtils.setField(imageCache, "imageProperties", imageProperties);
+	}
+
+	/**
+	 * Test {@link ImageCache#find(Path)}.
+	 * Cases of a small image held in memory and served as cached until it is checked again,
+	 * then reloaded once changed on disk and dropped once deleted.
+	 */
+	@Test
+	void testFind() throws IOException {
+		Path path = write("1_ProfilePic_1.png", new byte[] {1, 2, 3}, 1_000_000L);
+
+		ImageFile image = imageCache.find(path).orElseThrow();
+		assertArrayEquals(new byte[] {1, 2, 3}, image.getContent());
+		assertEquals(3, image.getSize());
+		assertEquals(1_000_000L, image.getLastModified());
+		assertEquals(DataUtil.getImageETag(3, 1_000_000L), image.getETag());
+		assertEquals(MediaType.IMAGE_PNG, image.getContentType());
+
+		write("1_ProfilePic_1.png", new byte[] {4, 5}, 2_000_000L);
+		assertArrayEquals(new byte[] {1, 2, 3}, imageCache.find(path).orElseThrow().getContent());
+
+		imageProperties.setCacheRevalidateIntervalInSeconds(0);
+		assertArrayEquals(new byte[] {4, 5}, imageCache.find(path).orElseThrow().getContent());
+
+		Files.delete(path);
+		assertTrue(imageCache.find(path).isEmpty());
+		ResourceException resourceException = assertThrows(ResourceException.class, () -> imageCache.get(path));
+		assertEquals(IExceptionConstants.RESOURCE_NOT_FOUND + path, resourceException.getMessage());
+	}
+
+	/**
+	 * Test {@link ImageCache#find(Path)}.
+	 * Case of an image bigger than the cacheable size, only resolved and read from disk again on each lookup.
+	 */
+	@Test
+	void testFindLargeImage() throws IOException {
+		Path path = write("1_ProfilePic_1.jpg", new byte[2048], 1_000_000L);
+
+		ImageFile image = imageCache.find(path).orElseThrow();
+		assertNull(image.getContent());
+		assertEquals(2048, image.getSize());
+		assertEquals(MediaType.IMAGE_JPEG, image.getContentType());
+
+		write("1_ProfilePic_1.jpg", new byte[4096], 2_000_000L);
+		assertEquals(4096, imageCache.find(path).orElseThrow().getSize());
+	}
+
+	/**
+	 * Test {@link ImageCache#find(Path)}.
+	 * Case when more images than the cache size are looked up, the least recently used one is evicted
+	 * and read from disk again.
+	 */
+	@Test
+	void testFindEvictsLeastRecentlyUsed() throws IOException {
+		Path first = write("first.png", new byte[] {1}, 1_000_000L);
+		Path second = write("second.png", new byte[] {2}, 1_000_000L);
+		Path third = write("third.png", new byte[] {3}, 1_000_000L);
+		imageCache.find(first);
+		imageCache.find(second);
+		imageCache.find(first);
+		imageCache.find(third);
+
+		write("first.png", new byte[] {4}, 2_000_000L);
+		write("second.png", new byte[] {5}, 2_000_000L);
+		assertArrayEquals(new byte[] {1}, imageCache.find(first).orElseThrow().getContent());
+		assertArrayEquals(new byte[] {5}, imageCache.find(second).orElseThrow().getContent());
+	}
+
+	private Path write(String fileName, byte[] content, long lastModified) throws IOException {
+		Path path = Files.write(directory.resolve(fileName), content);
+		Files.setLastModifiedTime(path, FileTime.fromMillis(lastModified));
+		return path;
+	}
+}
@@ -0,0 +1,207 @@
+package com.ps.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import com.ps.config.props.SearchProperties;
+import com.ps.dto.NameFilter;
+import com.ps.event.DoctorChangedEvent;
+import com.ps.event.PatientChangedEvent;
+import com.ps.repo.DoctorRepository;
+import com.ps.repo.DoctorRepository.DoctorIdNameProjection;
+import com.ps.repo.PatientRepository;
+import com.ps.repo.PatientRepository.PatientIdNameProjection;
+
+/**
+ * This class tests the {@link NameIndex} class.
+ *
+ */
+@ExtendWith(MockitoExtension.class)
+class NameIndexTest {
+
+	private static final Pageable LOAD_BATCH = PageRequest.of(0, 10_000);
+
+	@InjectMocks
+	private NameIndex nameIndex;
+
+	@Mock
+	private DoctorRepository doctorRepository;
+
+	@Mock
+	private PatientRepository patientRepository;
+
+	@Mock
+	private SearchProperties searchProperties;
+
+	/**
+	 * Test {@link NameIndex#resolveDoctorName(String)}.
+	 * Cases of names resolved to the ids whose name contains them, whatever the case, and of names left to the query:
+	 * before the index is loaded, shorter than a trigram, with {@code LIKE} wildcards or matching too many ids.
+	 */
+	@Test
+	void testResolveDoctorName() {
+		assertFalse(nameIndex.resolveDoctorName("Dev").isResolved());
+
+		when(searchProperties.getNameIndexMaxIds()).thenReturn(3);
+		loadDoctors(doctor(1, "Dev Shah"), doctor(2, "Devika Rao"), doctor(3, "Ravi Dev"), doctor(4, "Anil Kumar"));
+
+		assertResolved(List.of(1, 2, 3), nameIndex.resolveDoctorName("dev"));
+		assertResolved(List.of(1), nameIndex.resolveDoctorName("SHAH"));
+		assertResolved(List.of(2), nameIndex.resolveDoctorName("ika r"));
+		assertResolved(List.of(), nameIndex.resolveDoctorName("xyz"));
+		assertNotResolved("De", nameIndex.resolveDoctorName("De"));
+		assertNotResolved("De%v", nameIndex.resolveDoctorName("De%v"));
+		assertNotResolved("D_v", nameIndex.resolveDoctorName("D_v"));
+		assertNotResolved(null, nameIndex.resolveDoctorName(null));
+
+		when(searchProperties.getNameIndexMaxIds()).thenReturn(2);
+		assertNotResolved("dev", nameIndex.resolveDoctorName("dev"));
+	}
+
+	/**
+	 * Test {@link NameIndex#onDoctorChanged(DoctorChangedEvent)} and {@link NameIndex#onPatientChanged(PatientChangedEvent)}.
+	 * Cases of a renamed doctor, of a new patient and of a patient no longer found.
+	 */
+	@Test
+	void testOnChanged() {
+		when(searchProperties.getNameIndexMaxIds()).thenReturn(10);
+		loadDoctors(doctor(1, "Dev Shah"));
+		when(patientRepository.findByIdGreaterThanOrderByIdAsc(0, LOAD_BATCH)).thenReturn(List.of(patient(1, "Kiran Patel")));
+		nameIndex.reload();
+
+		when(doctorRepository.findNameById(1)).thenReturn(Optional.of("Anil Kumar"));
+		nameIndex.onDoctorChanged(new DoctorChangedEvent(1));
+		assertResolved(List.of(), nameIndex.resolveDoctorName("shah"));
+		assertResolved(List.of(1), nameIndex.resolveDoctorName("anil"));
+
+		when(patientRepository.findNameById(2)).thenReturn(Optional.of("Kiran Shah"));
+		nameIndex.onPatientChanged(new PatientChangedEvent(2));
+		assertResolved(List.of(1, 2), nameIndex.resolvePatientName("kiran"));
+
+		when(patientRepository.findNameById(1)).thenReturn(Optional.empty());
+		nameIndex.onPatientChanged(new PatientChangedEvent(1));
+		assertResolved(List.of(2), nameIndex.resolvePatientName("kiran"));
+	}
+
+	/**
+	 * Test {@link NameIndex#reload()}.
+	 * Case when a doctor is renamed while the index is being rebuilt, after the rebuild read the old name:
+	 * the change is applied to the rebuilt index instead of being lost with the previous one.
+	 */
+	@Test
+	void testReloadKeepsConcurrentChanges() {
+		when(searchProperties.getNameIndexMaxIds()).thenReturn(10);
+		when(doctorRepository.findNameById(1)).thenReturn(Optional.of("Anil Kumar"));
+		when(doctorRepository.findByIdGreaterThanOrderByIdAsc(0, LOAD_BATCH)).thenReturn(List.of(doctor(1, "Dev Shah"))).thenAnswer(inv -> {
+			// Commit of another request while the reload is reading the database
+			Thread update = new Thread(() -> nameIndex.onDoctorChanged(new DoctorChangedEvent(1)));
+			update.start();
+			update.join();
+			return List.of(doctor(1, "Dev Shah"));
+		});
+		nameIndex.reload();
+		nameIndex.reload();
+
+		assertResolved(List.of(), nameIndex.resolveDoctorName("shah"));
+		assertResolved(List.of(1), nameIndex.resolveDoctorName("anil"));
+	}
+
+	/**
+	 * Test {@link NameIndex#sync()}.
+	 * Cases when the index is not loaded yet, nothing is read, and when doctors and patients were created or renamed
+	 * by another application instance, they are applied from a bit before the previous sync.
+	 */
+	@Test
+	void testSync() {
+		nameIndex.sync();
+		verifyNoInteractions(doctorRepository, patientRepository);
+
+		when(searchProperties.getNameIndexMaxIds()).thenReturn(10);
+		LocalDateTime beforeLoad = LocalDateTime.now();
+		loadDoctors(doctor(1, "Dev Shah"));
+		LocalDateTime afterLoad = LocalDateTime.now();
+		when(doctorRepository.findChangedSince(any(LocalDateTime.class))).thenReturn(List.of(doctor(1, "Anil Kumar"), doctor(2, "Meera Nair")));
+		when(patientRepository.findChangedSince(any(LocalDateTime.class))).thenReturn(List.of(patient(5, "Kiran Patel")));
+		nameIndex.sync();
+		LocalDateTime afterSync = LocalDateTime.now();
+
+		assertResolved(List.of(), nameIndex.resolveDoctorName("shah"));
+		assertResolved(List.of(1), nameIndex.resolveDoctorName("anil"));
+		assertResolved(List.of(2), nameIndex.resolveDoctorName("meera"));
+		assertResolved(List.of(5), nameIndex.resolvePatientName("kiran"));
+
+		nameIndex.sync();
+		ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+		verify(doctorRepository, times(2)).findChangedSince(since.capture());
+		// The first sync starts from the load, the next one from the first sync
+		assertBetween(beforeLoad.minusSeconds(60), afterLoad.minusSeconds(60), since.getAllValues().get(0));
+		assertBetween(afterLoad.minusSeconds(60), afterSync.minusSeconds(60), since.getAllValues().get(1));
+	}
+
+	private void loadDoctors(DoctorIdNameProjection... doctors) {
+		when(doctorRepository.findByIdGreaterThanOrderByIdAsc(0, LOAD_BATCH)).thenReturn(List.of(doctors));
+		nameIndex.reload();
+	}
+
+	private static void assertBetween(LocalDateTime from, LocalDateTime to, LocalDateTime time) {
+		assertFalse(time.isBefore(from));
+		assertFalse(time.isAfter(to));
+	}
+
+	private static void assertResolved(List<Integer> ids, NameFilter filter) {
+		assertTrue(filter.isResolved());
+		assertNull(filter.getName());
+		assertEquals(ids, filter.getIds());
+	}
+
+	private static void assertNotResolved(String name, NameFilter filter) {
+		assertFalse(filter.isResolved());
+		assertEquals(name, filter.getName());
+	}
+
+	private static DoctorIdNameProjection doctor(Integer id, String name) {
+		return new DoctorIdNameProjection() {
+			@Override
+			public Integer getId() {
+				return id;
+			}
+			@Override
+			public String getName() {
+				return name;
+			}
+		};
+	}
+
+	private static PatientIdNameProjection patient(Integer id, String name) {
+		return new PatientIdNameProjection() {
+			@Override
+			public Integer getId() {
+				return id;
+			}
+			@Override
+			public String getName() {
+				return name;
+			}
+		};
+	}
+}
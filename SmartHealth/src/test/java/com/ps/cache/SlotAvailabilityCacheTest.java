@@ -0,0 +1,171 @@
+package com.ps.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.ps.config.props.SlotsProperties;
+import com.ps.dto.response.AVResponse;
+import com.ps.event.AppointmentChangedEvent;
+import com.ps.event.SlotsChangedEvent;
+import com.ps.repo.AvailabilityRepository;
+import com.ps.util.VirtualSlots;
+
+/**
+ * This class tests the {@link SlotAvailabilityCache} class.
+ *
+ */
+@ExtendWith(MockitoExtension.class)
+class SlotAvailabilityCacheTest {
+
+	@InjectMocks
+	private SlotAvailabilityCache slotAvailabilityCache;
+
+	@Mock
+	private AvailabilityRepository availabilityRepository;
+
+	@Mock
+	private SlotsProperties slotsProperties;
+
+	@Mock
+	private VirtualSlots virtualSlots;
+
+	private LocalDate today = LocalDate.now();
+	private LocalDate tomorrow = today.plusDays(1);
+	private LocalDate dayAfter = today.plusDays(2);
+
+	@BeforeEach
+	void setUp() {
+		when(slotsProperties.getViewCacheSize()).thenReturn(10);
+	}
+
+	/**
+	 * Test {@link SlotAvailabilityCache#viewSlots(Integer, LocalDate)}.
+	 * Cases of a doctor loaded once with the slots sorted by start time, answered from memory for any date afterwards,
+	 * and loaded again once the entry is older than the time to live.
+	 */
+	@Test
+	void testViewSlots() {
+		when(slotsProperties.getViewCacheTtlInSeconds()).thenReturn(60);
+		when(availabilityRepository.findBookableSlotsByDoctorIdFrom(1, today))
+				.thenReturn(List.<Object[]>of(slot(2, tomorrow, 10), slot(1, tomorrow, 9), slot(3, dayAfter, 9)));
+
+		assertEquals(Map.of(tomorrow, List.of(1, 2), dayAfter, List.of(3)), ids(slotAvailabilityCache.viewSlots(1, null)));
+		assertEquals(Map.of(dayAfter, List.of(3)), ids(slotAvailabilityCache.viewSlots(1, dayAfter)));
+		assertEquals(Map.of(), ids(slotAvailabilityCache.viewSlots(1, today.plusDays(3))));
+		assertEquals(Map.of(tomorrow, List.of(1, 2), dayAfter, List.of(3)), ids(slotAvailabilityCache.viewSlots(1, today.minusDays(1))));
+		verify(availabilityRepository).findBookableSlotsByDoctorIdFrom(1, today);
+
+		when(slotsProperties.getViewCacheTtlInSeconds()).thenReturn(0);
+		slotAvailabilityCache.viewSlots(1, null);
+		verify(availabilityRepository, times(2)).findBookableSlotsByDoctorIdFrom(1, today);
+	}
+
+	/**
+	 * Test {@link SlotAvailabilityCache#onAppointmentChanged(AppointmentChangedEvent)} and
+	 * {@link SlotAvailabilityCache#onSlotsChanged(SlotsChangedEvent)}.
+	 * Cases when only the changed days of a cached doctor are reloaded, and when the changed days are not known,
+	 * the doctor is loaded again on the next lookup.
+	 */
+	@Test
+	void testRefresh() {
+		when(slotsProperties.getViewCacheTtlInSeconds()).thenReturn(60);
+		when(availabilityRepository.findBookableSlotsByDoctorIdFrom(1, today))
+				.thenReturn(List.<Object[]>of(slot(1, tomorrow, 9), slot(2, dayAfter, 9)));
+		slotAvailabilityCache.viewSlots(1, null);
+
+		when(availabilityRepository.findBookableSlotsByDoctorIdAndDateIn(1, Set.of(tomorrow))).thenReturn(List.<Object[]>of(slot(4, tomorrow, 11)));
+		slotAvailabilityCache.onAppointmentChanged(new AppointmentChangedEvent(1, Set.of(tomorrow)));
+		assertEquals(Map.of(tomorrow, List.of(4), dayAfter, List.of(2)), ids(slotAvailabilityCache.viewSlots(1, null)));
+
+		when(availabilityRepository.findBookableSlotsByDoctorIdAndDateIn(1, Set.of(dayAfter))).thenReturn(List.of());
+		slotAvailabilityCache.onSlotsChanged(new SlotsChangedEvent(1, Set.of(dayAfter)));
+		assertEquals(Map.of(tomorrow, List.of(4)), ids(slotAvailabilityCache.viewSlots(1, null)));
+		verify(availabilityRepository).findBookableSlotsByDoctorIdFrom(1, today);
+
+		slotAvailabilityCache.onSlotsChanged(new SlotsChangedEvent(1, null));
+		assertEquals(Map.of(tomorrow, List.of(1), dayAfter, List.of(2)), ids(slotAvailabilityCache.viewSlots(1, null)));
+		verify(availabilityRepository, times(2)).findBookableSlotsByDoctorIdFrom(1, today);
+	}
+
+	/**
+	 * Test {@link SlotAvailabilityCache#viewSlots(Integer, LocalDate)}.
+	 * Cases when the doctor changes while being loaded, the stale load is not cached, while a change of another
+	 * doctor does not keep the load from being cached.
+	 */
+	@Test
+	void testViewSlotsRacingWithChanges() {
+		when(slotsProperties.getViewCacheTtlInSeconds()).thenReturn(60);
+		when(availabilityRepository.findBookableSlotsByDoctorIdFrom(1, today)).thenAnswer(inv -> {
+			// Commit of another request while the load is reading the database
+			change(new SlotsChangedEvent(1, Set.of(tomorrow)));
+			return List.<Object[]>of(slot(1, tomorrow, 9));
+		}).thenAnswer(inv -> {
+			change(new SlotsChangedEvent(2, Set.of(tomorrow)));
+			return List.<Object[]>of(slot(2, tomorrow, 9));
+		});
+
+		assertEquals(Map.of(tomorrow, List.of(1)), ids(slotAvailabilityCache.viewSlots(1, null)));
+		assertEquals(Map.of(tomorrow, List.of(2)), ids(slotAvailabilityCache.viewSlots(1, null)));
+		assertEquals(Map.of(tomorrow, List.of(2)), ids(slotAvailabilityCache.viewSlots(1, null)));
+		verify(availabilityRepository, times(2)).findBookableSlotsByDoctorIdFrom(1, today);
+	}
+
+	/**
+	 * Test {@link SlotAvailabilityCache#onAppointmentChanged(AppointmentChangedEvent)}.
+	 * Cases when the doctor changes again while its days are being reloaded, the doctor is loaded again on the next lookup,
+	 * while a change of another doctor does not keep the reloaded days from being cached.
+	 */
+	@Test
+	void testRefreshRacingWithChanges() {
+		when(slotsProperties.getViewCacheTtlInSeconds()).thenReturn(60);
+		when(availabilityRepository.findBookableSlotsByDoctorIdFrom(1, today))
+				.thenReturn(List.<Object[]>of(slot(1, tomorrow, 9))).thenReturn(List.<Object[]>of(slot(3, tomorrow, 9)));
+		slotAvailabilityCache.viewSlots(1, null);
+
+		when(availabilityRepository.findBookableSlotsByDoctorIdAndDateIn(1, Set.of(tomorrow))).thenAnswer(inv -> {
+			change(new SlotsChangedEvent(2, Set.of(tomorrow)));
+			return List.<Object[]>of(slot(2, tomorrow, 9));
+		}).thenAnswer(inv -> {
+			change(new SlotsChangedEvent(1, null));
+			return List.<Object[]>of(slot(4, tomorrow, 9));
+		});
+		slotAvailabilityCache.onAppointmentChanged(new AppointmentChangedEvent(1, Set.of(tomorrow)));
+		assertEquals(Map.of(tomorrow, List.of(2)), ids(slotAvailabilityCache.viewSlots(1, null)));
+		verify(availabilityRepository).findBookableSlotsByDoctorIdFrom(1, today);
+
+		slotAvailabilityCache.onAppointmentChanged(new AppointmentChangedEvent(1, Set.of(tomorrow)));
+		assertEquals(Map.of(tomorrow, List.of(3)), ids(slotAvailabilityCache.viewSlots(1, null)));
+		verify(availabilityRepository, times(2)).findBookableSlotsByDoctorIdFrom(1, today);
+	}
+
+	private void change(SlotsChangedEvent event) throws InterruptedException {
+		Thread update = new Thread(() -> slotAvailabilityCache.onSlotsChanged(event));
+		update.start();
+		update.join();
+	}
+
+	private static Object[] slot(Integer id, LocalDate date, int hour) {
+		return new Object[] {id, date, LocalTime.of(hour, 0), LocalTime.of(hour, 30)};
+	}
+
+	private static Map<LocalDate, List<Integer>> ids(Map<LocalDate, List<AVResponse>> slots) {
+		return slots.entrySet().stream()
+				.collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().stream().map(AVResponse::getId).toList()));
+	}
+}
@@ -0,0 +1,200 @@
+package com.ps.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.ps.cache.DoctorSearchIndex;
+import com.ps.cache.HolidayLeaveCalendar;
+import com.ps.cache.NameIndex;
+import com.ps.config.props.DatagenProperties;
+import com.ps.config.props.SlotsProperties;
+import com.ps.constants.ICommonConstants;
+import com.ps.entity.Availability;
+import com.ps.entity.Doctor;
+import com.ps.entity.SlotInput;
+import com.ps.enu.AGMode;
+import com.ps.enu.AppointmentStatus;
+import com.ps.enu.LeaveStatus;
+import com.ps.schedule.AppointmentRollupUpdater;
+import com.ps.util.AvailabilityUtil;
+
+/**
+ * This test class runs the {@link DatasetGenerator} of the {@value ICommonConstants#DATAGEN_PROFILE} profile
+ * against the schema built by the Flyway migrations, on an H2 database in MySQL mode,
+ * and verifies the generated dataset.
+ *
+ */
+@DataJpaTest(properties = {"spring.datasource.url=jdbc:h2:mem:datagen;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+						   "spring.datasource.driver-class-name=org.h2.Driver",
+						   "spring.datasource.username=sa",
+						   "smarthealth.datagen.doctors=5",
+						   "smarthealth.datagen.patients=50",
+						   "smarthealth.datagen.start-date=" + DatasetGeneratorTest.START_DATE,
+						   "smarthealth.datagen.slot-months=2",
+						   "smarthealth.datagen.batch-size=100",
+						   "smarthealth.datagen.exit-on-completion=false"})
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@ActiveProfiles(ICommonConstants.DATAGEN_PROFILE)
+@Import({DatasetGenerator.class, DatagenProperties.class, SlotsProperties.class, DataInitializer.class})
+class DatasetGeneratorTest {
+
+	static final String START_DATE = "2025-03-01";
+
+	private static final List<String> TABLES = List.of("appointment", "availability", "ag_preference_slot_inputs", "ag_preference",
+			"slot_input", "doctor_leave", "holiday", "sub_profile", "patient_roles", "patient", "doctor_roles", "doctor_degrees",
+			"doctor_departments", "doctor_specializations", "doctor");
+
+	@Autowired
+	private DatasetGenerator datasetGenerator;
+
+	@Autowired
+	private DatagenProperties datagenProperties;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@MockBean
+	private PasswordEncoder passwordEncoder;
+
+	@MockBean
+	private AppointmentRollupUpdater appointmentRollupUpdater;
+
+	@MockBean
+	private HolidayLeaveCalendar holidayLeaveCalendar;
+
+	@MockBean
+	private DoctorSearchIndex doctorSearchIndex;
+
+	@MockBean
+	private NameIndex nameIndex;
+
+	/**
+	 * Test {@link DatasetGenerator#run(String...)}.
+	 *
+	 */
+	@Test
+	void testRun() {
+		assertEquals(5, count("doctor"));
+		assertEquals(5, count("ag_preference"));
+		assertEquals(10, count("doctor_leave"));
+		assertEquals(50, count("patient"));
+		assertEquals(12, count("holiday"));
+		assertTrue(count("availability") > count("appointment"));
+		assertEquals(AppointmentStatus.values().length, distinct("SELECT DISTINCT status FROM appointment").size());
+		assertEquals(LeaveStatus.values().length, distinct("SELECT DISTINCT status FROM doctor_leave").size());
+		assertEquals(0, count("availability WHERE ISO_DAY_OF_WEEK(date) = 7"));
+		assertEquals(0, count("availability a JOIN holiday h ON h.holiday_date = a.date"));
+		assertEquals(0, count("availability a JOIN doctor_leave l ON l.doctor_id = a.doctor_id AND a.date BETWEEN l.from_date AND l.to_date "
+				+ "WHERE l.status = '" + LeaveStatus.APPROVED + "'"));
+		assertEquals(0, count("appointment p JOIN availability a ON a.id = p.availability_id "
+				+ "WHERE (p.status IN ('BOOKED', 'APPROVED', 'COMPLETED', 'REJECTED') AND a.status <> 'BOOKED') "
+				+ "OR (p.status = 'P_CANCELLED' AND a.status <> 'RE_AVAILABLE') "
+				+ "OR (p.status = 'D_CANCELLED' AND a.status <> 'CANCELLED')"));
+		assertSlotsSplitFromPreferences();
+	}
+
+	/**
+	 * Test {@link DatasetGenerator#run(String...)}.
+	 * Case when no slot is booked, the slots buffered after the last appointment are stored too.
+	 */
+	@Test
+	void testRunWithoutAppointments() {
+		TABLES.forEach(table -> jdbcTemplate.update("DELETE FROM " + table));
+		Integer bookedPercentage = datagenProperties.getBookedPercentage();
+		datagenProperties.setBookedPercentage(0);
+		try {
+			datasetGenerator.run();
+		} finally {
+			datagenProperties.setBookedPercentage(bookedPercentage);
+		}
+		assertEquals(0, count("appointment"));
+		assertSlotsSplitFromPreferences();
+	}
+
+	/**
+	 * Verifies that every slot split from the preference of each doctor on the days it isn't blocked is stored.
+	 */
+	private void assertSlotsSplitFromPreferences() {
+		LocalDate from = LocalDate.parse(START_DATE);
+		Set<LocalDate> holidays = new HashSet<>(jdbcTemplate.queryForList("SELECT holiday_date FROM holiday", LocalDate.class));
+		for (Map<String, Object> preference : jdbcTemplate.queryForList("SELECT doctor_id, mode FROM ag_preference")) {
+			Integer doctorId = (Integer) preference.get("doctor_id");
+			Doctor doctor = new Doctor();
+			doctor.setId(doctorId);
+			List<SlotInput> slotInputs = jdbcTemplate.query("SELECT s.start_time, s.end_time, s.gap_in_minutes FROM slot_input s "
+					+ "JOIN ag_preference_slot_inputs p ON p.slot_inputs_id = s.id WHERE p.agpreference_doctor_id = ?",
+					(rs, row) -> new SlotInput(rs.getObject(1, LocalTime.class), rs.getObject(2, LocalTime.class), rs.getInt(3)), doctorId);
+			Set<LocalDate> leaveDays = new HashSet<>();
+			jdbcTemplate.query("SELECT from_date, to_date FROM doctor_leave WHERE doctor_id = ? AND status = 'APPROVED'",
+					(RowCallbackHandler) rs -> rs.getObject(1, LocalDate.class).datesUntil(rs.getObject(2, LocalDate.class).plusDays(1)).forEach(leaveDays::add),
+					doctorId);
+			List<Availability> slots = new ArrayList<>();
+			for (LocalDate date = from; date.isBefore(from.plusMonths(2)); date = date.plusDays(1)) {
+				if (date.getDayOfWeek() != DayOfWeek.SUNDAY && !holidays.contains(date) && !leaveDays.contains(date))
+					AvailabilityUtil.splitSlots(doctor, date, slotInputs, AGMode.valueOf((String) preference.get("mode")), slots);
+			}
+			assertEquals(slots.size(), count("availability WHERE doctor_id = " + doctorId));
+		}
+	}
+
+	/**
+	 * Test {@link DatasetGenerator#run(String...)} leaves a database already holding doctors or patients as it is.
+	 *
+	 */
+	@Test
+	void testRunSkipsExistingData() {
+		List<List<Map<String, Object>>> generated = dump();
+		datasetGenerator.run();
+		assertEquals(generated, dump());
+	}
+
+	/**
+	 * Test {@link DatasetGenerator#run(String...)} generates the same dataset from the same seed.
+	 *
+	 */
+	@Test
+	void testRunIsDeterministic() {
+		List<List<Map<String, Object>>> generated = dump();
+		assertTrue(generated.stream().noneMatch(List::isEmpty));
+
+		TABLES.forEach(table -> jdbcTemplate.update("DELETE FROM " + table));
+		datasetGenerator.run();
+		assertEquals(generated, dump());
+	}
+
+	private List<List<Map<String, Object>>> dump() {
+		return TABLES.stream()
+				.map(table -> jdbcTemplate.queryForList("SELECT * FROM " + table + " ORDER BY 1, 2"))
+				.toList();
+	}
+
+	private Set<Object> distinct(String sql) {
+		return new HashSet<>(Arrays.asList(jdbcTemplate.queryForList(sql, Object.class).toArray()));
+	}
+
+	private int count(String from) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + from, Integer.class);
+	}
+}
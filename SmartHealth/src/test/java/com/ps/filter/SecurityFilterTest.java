@@ -0,0 +1,93 @@
+package com.ps.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.ps.constants.IDoctorConstants;
+import com.ps.dto.JwtPrincipal;
+import com.ps.util.JwtUtil;
+import com.ps.util.TestDataUtil;
+
+/**
+ * This class tests the {@link SecurityFilter} class.
+ *
+ */
+@ExtendWith(MockitoExtension.class)
+class SecurityFilterTest {
+
+	@InjectMocks
+	private SecurityFilter securityFilter;
+
+	@Mock
+	private JwtUtil jwtUtil;
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	/**
+	 * Test {@link SecurityFilter#doFilter(jakarta.servlet.ServletRequest, jakarta.servlet.ServletResponse, jakarta.servlet.FilterChain)}.
+	 * Case when the request carries a valid token, the authentication is set from the resolved principal.
+	 */
+	@Test
+	void testDoFilterValidToken() throws Exception {
+		List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(IDoctorConstants.DOCTOR_ROLE));
+		when(jwtUtil.resolvePrincipal("token")).thenReturn(new JwtPrincipal(TestDataUtil.getDoctorEmail(), authorities, Long.MAX_VALUE));
+		MockFilterChain filterChain = new MockFilterChain();
+
+		securityFilter.doFilter(request("Bearer token"), new MockHttpServletResponse(), filterChain);
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		assertNotNull(authentication);
+		assertEquals(TestDataUtil.getDoctorEmail(), authentication.getName());
+		assertEquals(authorities, List.copyOf(authentication.getAuthorities()));
+		assertNotNull(filterChain.getRequest());
+	}
+
+	/**
+	 * Test {@link SecurityFilter#doFilter(jakarta.servlet.ServletRequest, jakarta.servlet.ServletResponse, jakarta.servlet.FilterChain)}.
+	 * Cases when the token is invalid or missing, the request goes on unauthenticated.
+	 */
+	@Test
+	void testDoFilterInvalidOrMissingToken() throws Exception {
+		when(jwtUtil.resolvePrincipal("token")).thenReturn(null);
+		MockFilterChain filterChain = new MockFilterChain();
+		securityFilter.doFilter(request("Bearer token"), new MockHttpServletResponse(), filterChain);
+		assertNull(SecurityContextHolder.getContext().getAuthentication());
+		assertNotNull(filterChain.getRequest());
+
+		filterChain = new MockFilterChain();
+		securityFilter.doFilter(request("Basic token"), new MockHttpServletResponse(), filterChain);
+		securityFilter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), new MockFilterChain());
+		assertNull(SecurityContextHolder.getContext().getAuthentication());
+		assertNotNull(filterChain.getRequest());
+		// Only the bearer token was resolved
+		verify(jwtUtil, times(1)).resolvePrincipal(any());
+	}
+
+	private MockHttpServletRequest request(String authorization) {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Authorization", authorization);
+		return request;
+	}
+}
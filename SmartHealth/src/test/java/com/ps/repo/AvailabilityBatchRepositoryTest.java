@@ -0,0 +1,69 @@
+package com.ps.repo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.ps.config.props.SlotsProperties;
+import com.ps.entity.Availability;
+import com.ps.entity.Doctor;
+import com.ps.enu.AGMode;
+import com.ps.util.AvailabilityUtil;
+
+/**
+ * This class tests the {@link AvailabilityBatchRepositoryImpl} class on an H2 database in MySQL mode,
+ * with inserts of two rows each.
+ *
+ */
+@DataJpaTest(properties = {"spring.datasource.url=jdbc:h2:mem:availabilitybatch;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+						   "spring.datasource.driver-class-name=org.h2.Driver",
+						   "spring.datasource.username=sa",
+						   "smarthealth.slots.batch-size=2"})
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Import(SlotsProperties.class)
+class AvailabilityBatchRepositoryTest {
+
+	@Autowired
+	private AvailabilityRepository availabilityRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	/**
+	 * Test {@link AvailabilityBatchRepositoryImpl#batchInsert(List)}.
+	 * Case when some slots are already stored, across several inserts: only the new slots are counted as inserted.
+	 */
+	@Test
+	void testBatchInsert() {
+		Doctor doctor = new Doctor();
+		doctor.setName("Batch Doctor");
+		doctor.setEmail("batch.doctor@smarthealth.com");
+		doctor.setPhone("9000000002");
+		entityManager.persist(doctor);
+		entityManager.flush();
+
+		LocalDate date = LocalDate.now().plusDays(1);
+		assertEquals(0, availabilityRepository.batchInsert(List.of()));
+		assertEquals(2, availabilityRepository.batchInsert(List.of(slot(doctor, date, 9), slot(doctor, date, 11))));
+
+		// Slots of 9 and 11 o'clock are skipped, the first two inserts each hold one of them
+		List<Availability> slots = List.of(slot(doctor, date, 9), slot(doctor, date, 10), slot(doctor, date, 11), slot(doctor, date, 12), slot(doctor, date, 13));
+		assertEquals(3, availabilityRepository.batchInsert(slots));
+		assertEquals(5, availabilityRepository.count());
+		assertEquals(0, availabilityRepository.batchInsert(slots));
+	}
+
+	private static Availability slot(Doctor doctor, LocalDate date, int hour) {
+		return AvailabilityUtil.prepareAvailability(doctor, date, LocalTime.of(hour, 0), LocalTime.of(hour, 30), AGMode.AUTO);
+	}
+}
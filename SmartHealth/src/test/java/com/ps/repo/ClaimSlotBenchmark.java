@@ -0,0 +1,183 @@
+package com.ps.repo;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ps.config.props.SlotsProperties;
+import com.ps.entity.Availability;
+import com.ps.entity.Doctor;
+import com.ps.enu.AGMode;
+import com.ps.enu.SlotStatus;
+import com.ps.util.AvailabilityUtil;
+
+/**
+ * This class compares the booking throughput of {@link AvailabilityRepository#claimSlot(Integer, LocalDateTime)}
+ * against the previous read-modify-write booking, which read the slot, checked its status and saved it as booked.
+ * {@value #BOOKERS} concurrent bookers race for {@value #SLOTS} slots, {@value #BOOKERS_PER_SLOT} bookers per slot,
+ * on an H2 database in MySQL mode. Besides the throughput, the bookings won are logged: the read-modify-write
+ * booking lets several bookers of a slot win it, the conditional update exactly one.
+ * It is excluded from the regular test run, use {@code gradle benchmark} to run it.
+ *
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {"spring.datasource.url=jdbc:h2:mem:claimslotbenchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+						   "spring.datasource.driver-class-name=org.h2.Driver",
+						   "spring.datasource.username=sa",
+						   "spring.jpa.show-sql=false"})
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(SlotsProperties.class)
+class ClaimSlotBenchmark {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ClaimSlotBenchmark.class);
+	private static final int BOOKERS = 256;
+	private static final int SLOTS = 500;
+	private static final int BOOKERS_PER_SLOT = 4;
+	private static final int WARMUP = 2;
+	private static final int ITERATIONS = 5;
+
+	@Autowired
+	private AvailabilityRepository availabilityRepository;
+
+	@Autowired
+	private DoctorRepository doctorRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private TransactionTemplate transactionTemplate;
+	private List<Integer> slotIds = new ArrayList<>();
+	private AtomicInteger failed = new AtomicInteger();
+
+	@BeforeEach
+	void setUp() {
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		Doctor doctor = new Doctor();
+		doctor.setName("Benchmark Doctor");
+		doctor.setEmail("benchmark@smarthealth.com");
+		doctor.setPhone("9000000000");
+		doctor = doctorRepository.save(doctor);
+
+		List<Availability> slots = new ArrayList<>(SLOTS);
+		LocalDate date = LocalDate.now().plusDays(1);
+		for (int i = 0; i < SLOTS; i++) {
+			LocalTime startTime = LocalTime.MIN.plusMinutes(i);
+			slots.add(AvailabilityUtil.prepareAvailability(doctor, date, startTime, startTime.plusMinutes(1), AGMode.MANUAL));
+		}
+		availabilityRepository.saveAll(slots).forEach(slot -> slotIds.add(slot.getId()));
+	}
+
+	@AfterEach
+	void tearDown() {
+		availabilityRepository.deleteAll();
+		doctorRepository.deleteAll();
+	}
+
+	/**
+	 * Benchmark {@link AvailabilityRepository#claimSlot(Integer, LocalDateTime)} against the read-modify-write booking.
+	 *
+	 */
+	@Test
+	void benchmarkClaimSlot() throws Exception {
+		IntUnaryOperator readModifyWrite = id -> transactionTemplate.execute(status -> {
+			Availability slot = availabilityRepository.findById(id).orElseThrow();
+			if (slot.getStatus() != SlotStatus.AVAILABLE && slot.getStatus() != SlotStatus.RE_AVAILABLE)
+				return 0;
+			slot.setStatus(SlotStatus.BOOKED);
+			slot.setUpdatedAt(LocalDateTime.now());
+			availabilityRepository.save(slot);
+			return 1;
+		});
+		IntUnaryOperator conditionalUpdate = id -> transactionTemplate.execute(status -> availabilityRepository.claimSlot(id, LocalDateTime.now()));
+
+		measure("read-modify-write", readModifyWrite);
+		measure("conditional update", conditionalUpdate);
+	}
+
+	/**
+	 * Logs the average throughput of given booking, after a few warm up rounds, the bookings won in the last round
+	 * and the average bookings failed by an exception.
+	 *
+	 * @param name    name of the booking
+	 * @param booking books the slot of given id, returning 1 when the booker won it
+	 */
+	private void measure(String name, IntUnaryOperator booking) throws Exception {
+		for (int i = 0; i < WARMUP; i++) {
+			race(booking);
+		}
+		failed.set(0);
+		long start = System.nanoTime();
+		int won = 0;
+		for (int i = 0; i < ITERATIONS; i++) {
+			won = race(booking);
+		}
+		long elapsed = System.nanoTime() - start;
+		long bookingsPerSecond = (long) SLOTS * BOOKERS_PER_SLOT * ITERATIONS * 1_000_000_000L / elapsed;
+		LOG.info("{}: {} bookings/s, {} bookings won for {} slots, {} failed", name, bookingsPerSecond, won, SLOTS, failed.get() / ITERATIONS);
+	}
+
+	/**
+	 * Frees every slot, then lets the bookers race for them.
+	 *
+	 * @param booking books the slot of given id, returning 1 when the booker won it
+	 * @return the bookings won, more than the slots when a slot was booked twice
+	 */
+	private int race(IntUnaryOperator booking) throws Exception {
+		jdbcTemplate.update("UPDATE availability SET status = 'AVAILABLE'");
+		ExecutorService executor = Executors.newFixedThreadPool(BOOKERS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Integer>> futures = new ArrayList<>();
+		try {
+			for (int i = 0; i < BOOKERS_PER_SLOT; i++) {
+				for (Integer id : slotIds) {
+					futures.add(executor.submit(() -> {
+						start.await();
+						try {
+							return booking.applyAsInt(id);
+						} catch (RuntimeException e) {
+							failed.incrementAndGet();
+							return 0;
+						}
+					}));
+				}
+			}
+			start.countDown();
+			int won = 0;
+			for (Future<Integer> future : futures)
+				won += future.get(5, TimeUnit.MINUTES);
+			return won;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package com.ps.repo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ps.config.props.SlotsProperties;
+import com.ps.entity.Availability;
+import com.ps.entity.Doctor;
+import com.ps.enu.AGMode;
+import com.ps.enu.SlotStatus;
+import com.ps.util.AvailabilityUtil;
+
+/**
+ * This test class runs {@value #REQUESTS} concurrent transactions of {@link AvailabilityRepository#claimSlot(Integer, LocalDateTime)}
+ * against the same slot, on an H2 database in MySQL mode, and verifies that the conditional update
+ * lets exactly one of them book the slot. Each transaction commits, so the test itself is not transactional.
+ *
+ */
+@DataJpaTest(properties = {"spring.datasource.url=jdbc:h2:mem:claimslot;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+						   "spring.datasource.driver-class-name=org.h2.Driver",
+						   "spring.datasource.username=sa"})
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(SlotsProperties.class)
+class ClaimSlotConcurrencyTest {
+
+	private static final int REQUESTS = 256;
+
+	@Autowired
+	private AvailabilityRepository availabilityRepository;
+
+	@Autowired
+	private DoctorRepository doctorRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private Availability slot;
+
+	@BeforeEach
+	void setUp() {
+		Doctor doctor = new Doctor();
+		doctor.setName("Claim Doctor");
+		doctor.setEmail("claim.doctor@smarthealth.com");
+		doctor.setPhone("9000000002");
+		doctor = doctorRepository.save(doctor);
+
+		slot = AvailabilityUtil.prepareAvailability(doctor, LocalDate.now().plusDays(1), LocalTime.of(9, 0), LocalTime.of(9, 30), AGMode.MANUAL);
+		slot.setStatus(SlotStatus.AVAILABLE);
+		slot = availabilityRepository.save(slot);
+	}
+
+	@AfterEach
+	void tearDown() {
+		availabilityRepository.deleteAll();
+		doctorRepository.deleteAll();
+	}
+
+	/**
+	 * Test {@link AvailabilityRepository#claimSlot(Integer, LocalDateTime)}.
+	 *
+	 */
+	@Test
+	void testClaimSlotConcurrently() throws Exception {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		ExecutorService executor = Executors.newFixedThreadPool(REQUESTS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Integer>> futures = new ArrayList<>();
+		try {
+			for (int i = 0; i < REQUESTS; i++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					return transactionTemplate.execute(status -> availabilityRepository.claimSlot(slot.getId(), LocalDateTime.now()));
+				}));
+			}
+			start.countDown();
+			List<Integer> updated = new ArrayList<>();
+			for (Future<Integer> future : futures)
+				updated.add(future.get(30, TimeUnit.SECONDS));
+
+			assertEquals(1, updated.stream().filter(count -> count == 1).count());
+			assertEquals(REQUESTS - 1, updated.stream().filter(count -> count == 0).count());
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(SlotStatus.BOOKED, availabilityRepository.findById(slot.getId()).orElseThrow().getStatus());
+	}
+}
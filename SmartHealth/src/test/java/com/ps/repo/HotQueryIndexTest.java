@@ -0,0 +1,229 @@
+package com.ps.repo;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ps.config.props.SlotsProperties;
+import com.ps.enu.AppointmentStatus;
+import com.ps.enu.LeaveSlotJobStatus;
+import com.ps.enu.LeaveStatus;
+
+/**
+ * This test class runs the hot repository queries against the schema built by the Flyway migrations,
+ * on an H2 database in MySQL mode, captures the SQL Hibernate generates for them, and runs EXPLAIN on it.
+ * It fails when any table of a statement is read with a full scan.
+ *
+ */
+@DataJpaTest(properties = {"spring.datasource.url=jdbc:h2:mem:smarthealth;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+						   "spring.datasource.driver-class-name=org.h2.Driver",
+						   "spring.datasource.username=sa"})
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Import(SlotsProperties.class)
+class HotQueryIndexTest {
+
+	private static final String FULL_SCAN = ".tableScan";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private StatementCapture statementCapture;
+
+	@Autowired
+	private AvailabilityRepository availabilityRepository;
+
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+
+	@Autowired
+	private AppointmentRollupRepository appointmentRollupRepository;
+
+	@Autowired
+	private DoctorLeaveRepository doctorLeaveRepository;
+
+	@Autowired
+	private LeaveSlotJobRepository leaveSlotJobRepository;
+
+	private LocalDate today = LocalDate.now();
+
+	/**
+	 * Test {@link AvailabilityRepository#findBookableSlotsByDoctorIdFrom(Integer, LocalDate)}.
+	 *
+	 */
+	@Test
+	void testFindBookableSlotsByDoctorIdFrom() {
+		assertNoFullScan(() -> availabilityRepository.findBookableSlotsByDoctorIdFrom(1, today));
+	}
+
+	/**
+	 * Test {@link AvailabilityRepository#findBookableSlotsByDoctorIdAndDateIn(Integer, java.util.Collection)}.
+	 *
+	 */
+	@Test
+	void testFindBookableSlotsByDoctorIdAndDateIn() {
+		assertNoFullScan(() -> availabilityRepository.findBookableSlotsByDoctorIdAndDateIn(1, List.of(today, today.plusDays(1))));
+	}
+
+	/**
+	 * Test {@link AvailabilityRepository#fetchAvailabilitySlotsByDateRange(String, LocalDate, LocalDate, org.springframework.data.domain.Pageable)}.
+	 *
+	 */
+	@Test
+	void testFetchAvailabilitySlotsByDateRange() {
+		assertNoFullScan(() -> availabilityRepository.fetchAvailabilitySlotsByDateRange("doctor@smarthealth.com", today, today.plusDays(7), PageRequest.of(0, 10)));
+	}
+
+	/**
+	 * Test {@link AvailabilityRepository#countOpenSlotsByDoctorAndDate(Integer, LocalDate)},
+	 * for all doctors when the doctor search index is loaded, and for one doctor when it is refreshed.
+	 *
+	 */
+	@Test
+	void testCountOpenSlotsByDoctorAndDate() {
+		assertNoFullScan(() -> availabilityRepository.countOpenSlotsByDoctorAndDate(null, today));
+		assertNoFullScan(() -> availabilityRepository.countOpenSlotsByDoctorAndDate(1, today));
+	}
+
+	/**
+	 * Test {@link AvailabilityRepository#findOpenSlotsByDoctorIdAndDateBetween(Integer, LocalDate, LocalDate)}.
+	 *
+	 */
+	@Test
+	void testFindOpenSlotsByDoctorIdAndDateBetween() {
+		assertNoFullScan(() -> availabilityRepository.findOpenSlotsByDoctorIdAndDateBetween(1, today, today.plusDays(2)));
+	}
+
+	/**
+	 * Test {@link LeaveSlotJobRepository#findByStatusOrderByIdAsc(LeaveSlotJobStatus)}.
+	 *
+	 */
+	@Test
+	void testFindLeaveSlotJobsByStatus() {
+		assertNoFullScan(() -> leaveSlotJobRepository.findByStatusOrderByIdAsc(LeaveSlotJobStatus.PENDING));
+	}
+
+	/**
+	 * Test {@link AppointmentRepository#updateStatusByAvailabilityId(AppointmentStatus, Integer, LocalDateTime, List)}.
+	 *
+	 */
+	@Test
+	void testUpdateStatusByAvailabilityId() {
+		assertNoFullScan(() -> appointmentRepository.updateStatusByAvailabilityId(AppointmentStatus.D_CANCELLED, 1, LocalDateTime.now(),
+				List.of(AppointmentStatus.BOOKED, AppointmentStatus.APPROVED)));
+	}
+
+	/**
+	 * Test {@link AppointmentRepository#countByPatientEmailGroupByStatus(String, LocalDate)}.
+	 *
+	 */
+	@Test
+	void testCountByPatientEmailGroupByStatus() {
+		assertNoFullScan(() -> appointmentRepository.countByPatientEmailGroupByStatus("patient@smarthealth.com", today));
+	}
+
+	/**
+	 * Test {@link AppointmentRepository#countByDoctorEmailFromGroupByStatus(String, LocalDate)}.
+	 *
+	 */
+	@Test
+	void testCountByDoctorEmailFromGroupByStatus() {
+		assertNoFullScan(() -> appointmentRepository.countByDoctorEmailFromGroupByStatus("doctor@smarthealth.com", today));
+	}
+
+	/**
+	 * Test {@link AppointmentRepository#findByAvailabilityDateOrderByAvailabilityStartTimeAsc(LocalDate)}.
+	 *
+	 */
+	@Test
+	void testFindByAvailabilityDateOrderByAvailabilityStartTimeAsc() {
+		assertNoFullScan(() -> appointmentRepository.findByAvailabilityDateOrderByAvailabilityStartTimeAsc(today));
+	}
+
+	/**
+	 * Test {@link AppointmentRollupRepository#findTrendsByDate(LocalDate, LocalDate)}.
+	 *
+	 */
+	@Test
+	void testFindTrendsByDate() {
+		assertNoFullScan(() -> appointmentRollupRepository.findTrendsByDate(today.minusDays(6), today));
+	}
+
+	/**
+	 * Test {@link DoctorLeaveRepository#hasOverlappingSlot(String, LocalDate, LocalDate)}.
+	 *
+	 */
+	@Test
+	void testHasOverlappingSlot() {
+		assertNoFullScan(() -> doctorLeaveRepository.hasOverlappingSlot("doctor@smarthealth.com", today, today.plusDays(2)));
+	}
+
+	/**
+	 * Test {@link DoctorLeaveRepository#findDoctorIdAndDatesByStatus(LeaveStatus)}.
+	 *
+	 */
+	@Test
+	void testFindDoctorIdAndDatesByStatus() {
+		assertNoFullScan(() -> doctorLeaveRepository.findDoctorIdAndDatesByStatus(LeaveStatus.APPROVED));
+	}
+
+	/**
+	 * Runs a repository query and EXPLAINs every statement Hibernate generated for it, parameters left unbound.
+	 */
+	private void assertNoFullScan(Runnable query) {
+		statementCapture.statements.clear();
+		query.run();
+		assertFalse(statementCapture.statements.isEmpty(), "No statement captured");
+		for (String sql : statementCapture.statements) {
+			String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+			assertFalse(plan.contains(FULL_SCAN), () -> "Full scan in plan of:\n" + sql + "\n" + plan);
+		}
+	}
+
+	/**
+	 * Records the SQL of every statement Hibernate prepares.
+	 */
+	static class StatementCapture implements StatementInspector {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<String> statements = new CopyOnWriteArrayList<>();
+
+		@Override
+		public String inspect(String sql) {
+			statements.add(sql);
+			return sql;
+		}
+	}
+
+	@TestConfiguration
+	static class StatementCaptureConfig {
+
+		@Bean
+		StatementCapture statementCapture() {
+			return new StatementCapture();
+		}
+
+		@Bean
+		HibernatePropertiesCustomizer statementInspectorCustomizer(StatementCapture statementCapture) {
+			return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCapture);
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package com.ps.repo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import com.ps.config.props.SlotsProperties;
+import com.ps.dto.AppointmentListItem;
+import com.ps.dto.SlotListItem;
+import com.ps.entity.Appointment;
+import com.ps.entity.Availability;
+import com.ps.entity.Doctor;
+import com.ps.entity.Patient;
+import com.ps.enu.AGMode;
+import com.ps.enu.SlotStatus;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * This test class verifies that appointment and slot listing pages
+ * of {@link AppointmentRepository} and {@link AvailabilityRepository}
+ * are served with one select and one count statement, whatever the page size.
+ * 
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(SlotsProperties.class)
+class ListingQueriesTest {
+
+	private static final int ROWS = 6;
+	
+	@Autowired
+	private TestEntityManager entityManager;
+	
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+	
+	@Autowired
+	private AvailabilityRepository availabilityRepository;
+	
+	private Statistics statistics;
+	// Smaller than the number of rows, so that a count statement is needed to know the total
+	private Pageable pageable = PageRequest.of(0, ROWS - 1, Sort.by("id"));
+	private LocalDate date = LocalDate.now().plusDays(1);
+	
+	@BeforeEach
+	void setUp() {
+		// Every appointment has its own doctor and patient, so loading associations per row would show up as extra statements
+		for (int i = 0; i < ROWS; i++) {
+			Doctor doctor = new Doctor();
+			doctor.setName("Doctor " + i);
+			doctor.setEmail("doctor" + i + "@smarthealth.com");
+			doctor.setPhone("90000000" + i);
+			entityManager.persist(doctor);
+			
+			Patient patient = new Patient();
+			patient.setName("Patient " + i);
+			patient.setEmail("patient@smarthealth.com".replace("@", i + "@"));
+			patient.setPhone("80000000" + i);
+			entityManager.persist(patient);
+			
+			Availability availability = new Availability();
+			availability.setDoctor(doctor);
+			availability.setDate(date);
+			availability.setStartTime(LocalTime.of(9, 0));
+			availability.setEndTime(LocalTime.of(9, 30));
+			availability.setStatus(SlotStatus.BOOKED);
+			availability.setMode(AGMode.MANUAL);
+			entityManager.persist(availability);
+			
+			Appointment appointment = new Appointment();
+			appointment.setAvailability(availability);
+			appointment.setPatient(patient);
+			entityManager.persist(appointment);
+		}
+		entityManager.flush();
+		entityManager.clear();
+		
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+	
+	/**
+	 * Test {@link AppointmentRepository#filterAppointmentsForPatient(String, String, boolean, List, LocalDate, com.ps.enu.AppointmentStatus, Pageable)}.
+	 */
+	@Test
+	void testFilterAppointmentsForPatient() {
+		Page<AppointmentListItem> page = appointmentRepository.filterAppointmentsForPatient("patient0@smarthealth.com", "doctor", false, List.of(), null, null, pageable);
+		assertEquals(1, page.getTotalElements());
+		assertEquals("Doctor 0", page.getContent().get(0).getDoctorName());
+		// Single partial first page, total is known without a count statement
+		assertEquals(1, statistics.getPrepareStatementCount());
+		
+		// case when name filter is resolved to no doctor
+		page = appointmentRepository.filterAppointmentsForPatient("patient0@smarthealth.com", null, true, List.of(), null, null, pageable);
+		assertEquals(0, page.getTotalElements());
+	}
+	
+	/**
+	 * Test {@link AppointmentRepository#filterAppointemtnsForDoctor(String, String, boolean, List, LocalDate, com.ps.enu.AppointmentStatus, Integer, Pageable)}.
+	 */
+	@Test
+	void testFilterAppointmentsForDoctor() {
+		Page<AppointmentListItem> page = appointmentRepository.filterAppointemtnsForDoctor("doctor1@smarthealth.com", null, false, List.of(), date, null, null, pageable);
+		assertEquals(1, page.getTotalElements());
+		assertEquals("Patient 1", page.getContent().get(0).getPatientName());
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+	
+	/**
+	 * Test {@link AppointmentRepository#searchAppointments(Integer, Integer, LocalDate, com.ps.enu.AppointmentStatus, Pageable)}.
+	 */
+	@Test
+	void testSearchAppointments() {
+		Page<AppointmentListItem> page = appointmentRepository.searchAppointments(null, null, date, null, pageable);
+		assertEquals(ROWS, page.getTotalElements());
+		assertEquals(ROWS - 1, page.getNumberOfElements());
+		assertEquals(2, statistics.getPrepareStatementCount());
+	}
+	
+	/**
+	 * Test {@link AvailabilityRepository#searchAvailability(Integer, LocalDate, SlotStatus, Pageable)}.
+	 */
+	@Test
+	void testSearchAvailability() {
+		Page<SlotListItem> page = availabilityRepository.searchAvailability(null, date, SlotStatus.BOOKED, pageable);
+		assertEquals(ROWS, page.getTotalElements());
+		assertEquals(ROWS - 1, page.getNumberOfElements());
+		assertEquals("Doctor 0", page.getContent().get(0).getDoctorName());
+		assertEquals(2, statistics.getPrepareStatementCount());
+	}
+}
@@ -0,0 +1,157 @@
+package com.ps.repo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ps.cache.NameIndex;
+import com.ps.config.props.SearchProperties;
+import com.ps.config.props.SlotsProperties;
+import com.ps.dto.NameFilter;
+import com.ps.entity.Doctor;
+import com.ps.entity.Patient;
+
+/**
+ * This class compares the {@code LIKE '%name%'} filter of {@link DoctorRepository} and
+ * {@link PatientRepository} with the ids resolved by {@link NameIndex},
+ * on 100,000 doctors and 1,000,000 patients.
+ * It is excluded from the regular test run, use {@code gradle benchmark} to run it.
+ *
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {"spring.jpa.show-sql=false", "smarthealth.search.name-index-max-ids=1000"})
+@Import({SlotsProperties.class, SearchProperties.class, NameIndex.class})
+class NameSearchBenchmark {
+
+	private static final Logger LOG = LoggerFactory.getLogger(NameSearchBenchmark.class);
+	private static final int DOCTORS = 100_000;
+	private static final int PATIENTS = 1_000_000;
+	private static final int BATCH_SIZE = 10_000;
+	private static final String[] FIRST_NAMES = {"Aarav", "Vivaan", "Aditya", "Ananya", "Diya", "Ishaan", "Kavya", "Rohan", "Saanvi", "Meera"};
+	private static final String SEARCH = "qxz";
+	private static final int WARMUP = 5;
+	private static final int ITERATIONS = 20;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private DoctorRepository doctorRepository;
+
+	@Autowired
+	private PatientRepository patientRepository;
+
+	@Autowired
+	private NameIndex nameIndex;
+
+	@BeforeEach
+	void setUp() {
+		insert("INSERT INTO doctor (name, email, phone, is_active, profile_complete) VALUES (?, ?, ?, true, true)", "doctor", DOCTORS);
+		insert("INSERT INTO patient (name, email, phone, is_active, profile_complete) VALUES (?, ?, ?, true, true)", "patient", PATIENTS);
+		nameIndex.reload();
+	}
+
+	/**
+	 * Benchmark {@link DoctorRepository#searchDoctors(Integer, String, String, String, String, com.ps.entity.Degree, com.ps.entity.Specialization, com.ps.entity.Department, Integer, String, Boolean, Boolean, Pageable)}
+	 * and {@link PatientRepository#searchPatients(Integer, String, String, String, String, Boolean, Boolean, Pageable)}, filtering names
+	 * with {@code LIKE}, against their {@code ByIds} counterparts given the ids resolved by {@link NameIndex}.
+	 *
+	 */
+	@Test
+	void benchmarkNameSearch() {
+		Pageable pageable = PageRequest.of(0, 10, Sort.by("id"));
+		NameFilter like = NameFilter.byName(SEARCH);
+		NameFilter doctorIds = nameIndex.resolveDoctorName(SEARCH);
+		NameFilter patientIds = nameIndex.resolvePatientName(SEARCH);
+		assertTrue(doctorIds.isResolved());
+		assertTrue(patientIds.isResolved());
+
+		// Both filters must return the same rows before their timings are comparable
+		Page<Doctor> doctorRows = searchDoctors(like, pageable);
+		assertEquals(doctorRows.getTotalElements(), searchDoctors(doctorIds, pageable).getTotalElements());
+		assertEquals(doctorRows.getContent(), searchDoctors(doctorIds, pageable).getContent());
+		Page<Patient> patientRows = searchPatients(like, pageable);
+		assertEquals(patientRows.getTotalElements(), searchPatients(patientIds, pageable).getTotalElements());
+		assertEquals(patientRows.getContent(), searchPatients(patientIds, pageable).getContent());
+		LOG.info("'{}' matches doctors: {}, patients: {}", SEARCH, doctorRows.getTotalElements(), patientRows.getTotalElements());
+
+		LOG.info("doctors like: {} us", measure(() -> searchDoctors(like, pageable)));
+		LOG.info("doctors index: {} us", measure(() -> searchDoctors(nameIndex.resolveDoctorName(SEARCH), pageable)));
+		LOG.info("patients like: {} us", measure(() -> searchPatients(like, pageable)));
+		LOG.info("patients index: {} us", measure(() -> searchPatients(nameIndex.resolvePatientName(SEARCH), pageable)));
+	}
+
+	private Page<Doctor> searchDoctors(NameFilter name, Pageable pageable) {
+		return name.isResolved()
+				? doctorRepository.searchDoctorsByIds(null, name.getIds(), null, null, null, null, null, null, null, null, null, null, pageable)
+				: doctorRepository.searchDoctors(null, name.getName(), null, null, null, null, null, null, null, null, null, null, pageable);
+	}
+
+	private Page<Patient> searchPatients(NameFilter name, Pageable pageable) {
+		return name.isResolved()
+				? patientRepository.searchPatientsByIds(null, name.getIds(), null, null, null, null, null, pageable)
+				: patientRepository.searchPatients(null, name.getName(), null, null, null, null, null, pageable);
+	}
+
+	/**
+	 * Inserts given number of rows, named after a first name and the row number spelled in letters.
+	 */
+	private void insert(String sql, String prefix, int count) {
+		List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+		for (int i = 0; i < count; i++) {
+			rows.add(new Object[] {FIRST_NAMES[i % FIRST_NAMES.length] + " " + spell(i), prefix + i + "@smarthealth.com", String.valueOf(9_000_000_000L + i)});
+			if (rows.size() == BATCH_SIZE) {
+				jdbcTemplate.batchUpdate(sql, rows);
+				rows.clear();
+			}
+		}
+		if (!rows.isEmpty())
+			jdbcTemplate.batchUpdate(sql, rows);
+	}
+
+	/**
+	 * Spells a number in base 26 with lowercase letters, e.g. 0 as "aaaaa".
+	 */
+	private static String spell(int number) {
+		char[] letters = new char[5];
+		for (int i = letters.length - 1; i >= 0; i--) {
+			letters[i] = (char) ('a' + number % 26);
+			number /= 26;
+		}
+		return new String(letters);
+	}
+
+	/**
+	 * Returns the average latency of given query in microseconds, after a few warm up runs.
+	 *
+	 * @param query query to measure
+	 * @return average latency in microseconds
+	 */
+	private long measure(Supplier<?> query) {
+		for (int i = 0; i < WARMUP; i++) {
+			query.get();
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			query.get();
+		}
+		return (System.nanoTime() - start) / ITERATIONS / 1_000;
+	}
+}
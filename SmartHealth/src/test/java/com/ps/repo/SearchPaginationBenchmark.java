@@ -0,0 +1,119 @@
+package com.ps.repo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ps.config.props.SlotsProperties;
+import com.ps.dto.SlotListItem;
+import com.ps.entity.Doctor;
+
+/**
+ * This class compares offset and keyset (cursor) pagination of
+ * {@link AvailabilityRepository} on the first page and on page 10,000.
+ * It is excluded from the regular test run, use {@code gradle benchmark} to run it.
+ *
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Import(SlotsProperties.class)
+class SearchPaginationBenchmark {
+
+	private static final Logger LOG = LoggerFactory.getLogger(SearchPaginationBenchmark.class);
+	private static final int PAGE_SIZE = 10;
+	private static final int DEEP_PAGE = 9_999;
+	private static final int ROWS = (DEEP_PAGE + 1) * PAGE_SIZE + PAGE_SIZE;
+	private static final int WARMUP = 5;
+	private static final int ITERATIONS = 20;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private AvailabilityRepository availabilityRepository;
+
+	private Integer firstId;
+
+	@BeforeEach
+	void setUp() {
+		Doctor doctor = new Doctor();
+		doctor.setName("Benchmark Doctor");
+		doctor.setEmail("benchmark@smarthealth.com");
+		doctor.setPhone("9000000000");
+		entityManager.persistAndFlush(doctor);
+
+		LocalDate date = LocalDate.now().plusDays(1);
+		List<Object[]> rows = new ArrayList<>(ROWS);
+		for (int i = 0; i < ROWS; i++) {
+			LocalTime startTime = LocalTime.MIN.plusMinutes(i % 1000);
+			rows.add(new Object[] {doctor.getId(), Date.valueOf(date.plusDays(i / 1000)), Time.valueOf(startTime), Time.valueOf(startTime.plusMinutes(1)), "AVAILABLE", "AUTO"});
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO availability (doctor_id, date, start_time, end_time, status, mode) VALUES (?, ?, ?, ?, ?, ?)", rows);
+		firstId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM availability", Integer.class);
+	}
+
+	/**
+	 * Benchmark {@link AvailabilityRepository#searchAvailability(Integer, LocalDate, com.ps.enu.SlotStatus, Pageable)}
+	 * against {@link AvailabilityRepository#searchAvailabilityAfter(Integer, LocalDate, com.ps.enu.SlotStatus, Integer, Pageable)}.
+	 *
+	 */
+	@Test
+	void benchmarkSearchAvailability() {
+		Pageable firstPage = PageRequest.of(0, PAGE_SIZE, Sort.by("id"));
+		Pageable deepPage = PageRequest.of(DEEP_PAGE, PAGE_SIZE, Sort.by("id"));
+		Pageable cursorPage = PageRequest.of(0, PAGE_SIZE);
+		int deepAfterId = firstId + DEEP_PAGE * PAGE_SIZE - 1;
+
+		// Both modes must return the same rows before their timings are comparable
+		List<SlotListItem> offsetRows = availabilityRepository.searchAvailability(null, null, null, deepPage).getContent();
+		Slice<SlotListItem> cursorRows = availabilityRepository.searchAvailabilityAfter(null, null, null, deepAfterId, cursorPage);
+		assertEquals(offsetRows.get(0).getId(), cursorRows.getContent().get(0).getId());
+		assertEquals(PAGE_SIZE, cursorRows.getNumberOfElements());
+
+		LOG.info("offset page 1: {} us", measure(() -> availabilityRepository.searchAvailability(null, null, null, firstPage)));
+		LOG.info("offset page {}: {} us", DEEP_PAGE + 1, measure(() -> availabilityRepository.searchAvailability(null, null, null, deepPage)));
+		LOG.info("cursor page 1: {} us", measure(() -> availabilityRepository.searchAvailabilityAfter(null, null, null, 0, cursorPage)));
+		LOG.info("cursor page {}: {} us", DEEP_PAGE + 1, measure(() -> availabilityRepository.searchAvailabilityAfter(null, null, null, deepAfterId, cursorPage)));
+	}
+
+	/**
+	 * Returns the average latency of given query in microseconds, after a few warm up runs.
+	 *
+	 * @param query query to measure
+	 * @return average latency in microseconds
+	 */
+	private long measure(Supplier<?> query) {
+		for (int i = 0; i < WARMUP; i++) {
+			query.get();
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			query.get();
+		}
+		return (System.nanoTime() - start) / ITERATIONS / 1_000;
+	}
+}
@@ -19,9 +19,12 @@
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.ps.constants.IAdminConstants;
+import com.ps.dto.response.AGRunStats;
 import com.ps.dto.response.DailyAppointments;
+import com.ps.dto.response.LeaveSlotJobResponse;
 import com.ps.entity.Appointment;
 import com.ps.entity.DoctorLeave;
+import com.ps.enu.LeaveSlotJobStatus;
 import com.ps.service.IAdminDashboardService;
 import com.ps.util.AdminUtil;
 import com.ps.util.JwtUtil;
@@ -157,6 +160,58 @@ void testGetTodaysAppointments() throws Exception {
 		.andExpect(jsonPath("$.content.todaysAppointments[0].slotId").value(appointment.getAvailability().getId()));
 	}
 
+	/**
+	 * Test case for GET /admin/dashboard/slot-generation-stats.
+	 * <p>
+	 * Scenario: Valid request to fetch throughput of the last slot generation run.  
+	 * Expectation: Returns HTTP 200 (OK) with the statistics of the last run.
+	 */
+	@Test
+	void testGetSlotGenerationStats() throws Exception {
+		AGRunStats stats = new AGRunStats();
+		stats.setDoctors(10);
+		stats.setGeneratedSlots(160);
+		stats.setSlotsPerSecond(320.0);
+		Map<String, Object> responseMap = new HashMap<>();
+		responseMap.put(IAdminConstants.SLOT_GENERATION, stats);
+		
+		when(adminDashboardService.getSlotGenerationStats()).thenReturn(responseMap);
+		
+		mockMvc.perform(get("/admin/dashboard/slot-generation-stats")
+				.contentType(MediaType.APPLICATION_JSON))
+		.andExpect(status().isOk())
+		.andExpect(jsonPath("$.content.slotGeneration.doctors").value(10))
+		.andExpect(jsonPath("$.content.slotGeneration.generatedSlots").value(160))
+		.andExpect(jsonPath("$.content.slotGeneration.slotsPerSecond").value(320.0));
+	}
+	
+	/**
+	 * Test case for GET /admin/dashboard/leave-slot-jobs.
+	 * <p>
+	 * Scenario: Valid request to fetch progress of the jobs releasing slots of approved leaves.  
+	 * Expectation: Returns HTTP 200 (OK) with the progress of each job.
+	 */
+	@Test
+	void testGetLeaveSlotJobs() throws Exception {
+		LeaveSlotJobResponse job = new LeaveSlotJobResponse();
+		job.setId(1);
+		job.setLeaveId(1);
+		job.setStatus(LeaveSlotJobStatus.PENDING);
+		job.setDays(5);
+		job.setProcessedDays(3);
+		Map<String, Object> responseMap = new HashMap<>();
+		responseMap.put(IAdminConstants.LEAVE_SLOT_JOBS, List.of(job));
+		
+		when(adminDashboardService.getLeaveSlotJobs()).thenReturn(responseMap);
+		
+		mockMvc.perform(get("/admin/dashboard/leave-slot-jobs")
+				.contentType(MediaType.APPLICATION_JSON))
+		.andExpect(status().isOk())
+		.andExpect(jsonPath("$.content.leaveSlotJobs[0].leaveId").value(1))
+		.andExpect(jsonPath("$.content.leaveSlotJobs[0].status").value("PENDING"))
+		.andExpect(jsonPath("$.content.leaveSlotJobs[0].processedDays").value(3));
+	}
+
 	private Map<String, Object> prepareAppointmentCountMap() {
 		List<Map<String, Object>> responseList = List.of(
 				Map.of(IAdminConstants.DAY, "2025-08-18", IAdminConstants.TOTAL, 10));
@@ -2,37 +2,53 @@
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Semaphore;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MvcResult;
 
+import com.ps.config.props.ExportProperties;
 import com.ps.constants.IAdminConstants;
 import com.ps.constants.IDoctorConstants;
 import com.ps.constants.IExceptionConstants;
 import com.ps.constants.IPatientConstants;
 import com.ps.constants.IResponseConstants;
 import com.ps.dto.HolidayDTO;
+import com.ps.dto.SlotListItem;
 import com.ps.dto.request.ADSRequest;
 import com.ps.dto.request.APSRequest;
 import com.ps.dto.response.ADResponse;
@@ -46,7 +62,9 @@
 import com.ps.entity.DoctorLeave;
 import com.ps.entity.Patient;
 import com.ps.enu.AppointmentStatus;
+import com.ps.enu.ExportFormat;
 import com.ps.enu.LeaveStatus;
+import com.ps.enu.SlotStatus;
 import com.ps.exception.AdminException;
 import com.ps.exception.AvailabilityException;
 import com.ps.repo.DoctorRepository.DoctorIdNameProjection;
@@ -69,11 +87,15 @@
  */
 @WebMvcTest(AdminRestController.class)
 @AutoConfigureMockMvc(addFilters = false)
+@Import(ExportProperties.class)
 class AdminRestControllerTest {
 	
 	@Autowired
 	private MockMvc mockMvc;
 	
+	@Autowired
+	private AdminRestController adminRestController;
+	
 	@MockBean
 	private IAdminService adminService;
 	
@@ -289,19 +311,69 @@ void testGetUsersListInvalidRole() throws Exception {
 	 */
 	@Test
 	void testSearchAvailabilitySlots() throws Exception {
-		Availability availability = TestDataUtil.getAvailability();
-		Map<String,Object> searchAvailabilitySlots = RestTestUtil.prepareResponseMap(List.of(AdminUtil.prepareSearchAvailabilitySlots(availability)));
+		SlotListItem slot = TestDataUtil.getSlotListItem();
+		Map<String,Object> searchAvailabilitySlots = RestTestUtil.prepareResponseMap(List.of(AdminUtil.prepareSearchAvailabilitySlots(slot)));
 		
 		when(adminService.searchAvailabilitySlots(anyMap(), any(Pageable.class))).thenReturn(searchAvailabilitySlots);
 		
 		mockMvc.perform(get("/admin/search/slots")
 				.contentType(MediaType.APPLICATION_JSON))
 		.andExpect(status().isOk())
-		.andExpect(jsonPath("$.content.data[0].doctor.id").value(availability.getDoctor().getId()))
-		.andExpect(jsonPath("$.content.data[0].doctor.name").value(availability.getDoctor().getName()))
-		.andExpect(jsonPath("$.content.data[0].slot.id").value(availability.getId()))
-		.andExpect(jsonPath("$.content.data[0].slot.date").value(availability.getDate().toString()))
-		.andExpect(jsonPath("$.content.data[0].slot.status").value(availability.getStatus().toString()));
+		.andExpect(jsonPath("$.content.data[0].doctor.id").value(slot.getDoctorId()))
+		.andExpect(jsonPath("$.content.data[0].doctor.name").value(slot.getDoctorName()))
+		.andExpect(jsonPath("$.content.data[0].slot.id").value(slot.getId()))
+		.andExpect(jsonPath("$.content.data[0].slot.date").value(slot.getDate().toString()))
+		.andExpect(jsonPath("$.content.data[0].slot.status").value(slot.getStatus().toString()));
+	}
+	
+	/**
+	 * Test case for GET /admin/export/slots.
+	 * <p>
+	 * Scenario: Valid request to export availability slots in NDJSON format based on given search parameters.
+	 * Expectation: Returns HTTP 200 (OK) with the rows written by the service streamed as an NDJSON attachment.
+	 */
+	@Test
+	void testExportAvailabilitySlots() throws Exception {
+		String rows = "{\"id\":1}\n{\"id\":2}\n";
+		
+		when(adminService.exportAvailabilitySlots(anyMap(), eq(ExportFormat.NDJSON), any(OutputStream.class))).thenAnswer(invocation -> {
+			invocation.getArgument(2, OutputStream.class).write(rows.getBytes(StandardCharsets.UTF_8));
+			return 2L;
+		});
+		
+		MvcResult result = mockMvc.perform(get("/admin/export/slots")
+				.param("status", SlotStatus.AVAILABLE.name())
+				.param("format", ExportFormat.NDJSON.name()))
+		.andExpect(request().asyncStarted())
+		.andReturn();
+		
+		mockMvc.perform(asyncDispatch(result))
+		.andExpect(status().isOk())
+		.andExpect(content().contentType(IAdminConstants.EXPORT_NDJSON_CONTENT_TYPE))
+		.andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"slots.ndjson\""))
+		.andExpect(content().string(rows));
+		// The permit of the export is released once its body is written
+		assertEquals(4, exportPermits().availablePermits());
+	}
+	
+	/**
+	 * Test case for GET /admin/export/slots.
+	 * <p>
+	 * Scenario: Request to export availability slots while the maximum number of exports are being written.
+	 * Expectation: Returns HTTP 503 (Service Unavailable) without starting the export.
+	 */
+	@Test
+	void testExportAvailabilitySlotsServerBusy() throws Exception {
+		int permits = exportPermits().drainPermits();
+		try {
+			mockMvc.perform(get("/admin/export/slots")
+					.param("format", ExportFormat.CSV.name()))
+			.andExpect(status().isServiceUnavailable())
+			.andExpect(jsonPath("$.message").value(IExceptionConstants.SERVER_BUSY));
+			verifyNoInteractions(adminService);
+		} finally {
+			exportPermits().release(permits);
+		}
 	}
 	
 	/**
@@ -563,4 +635,8 @@ void testDeleteHoliday() throws Exception {
 		.andExpect(status().isOk())
 		.andExpect(jsonPath("$.message").value(IResponseConstants.HOLIDAY_DELETE_SUCCESS));
 	}
+
+	private Semaphore exportPermits() {
+		return (Semaphore) ReflectionTestUtils.getField(adminRestController, "exportPermits");
+	}
 }
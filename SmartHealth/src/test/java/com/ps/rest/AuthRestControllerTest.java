@@ -2,6 +2,7 @@
 
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -10,11 +11,14 @@
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.ps.constants.IAdminConstants;
 import com.ps.constants.IDoctorConstants;
+import com.ps.constants.IExceptionConstants;
 import com.ps.constants.IPatientConstants;
 import com.ps.constants.IResponseConstants;
 import com.ps.dto.request.AdminProfileRequest;
@@ -22,6 +26,7 @@
 import com.ps.dto.request.LoginRequest;
 import com.ps.dto.request.PatientProfileRequest;
 import com.ps.dto.response.LoginResponse;
+import com.ps.exception.PasswordHashingException;
 import com.ps.service.IAuthService;
 import com.ps.util.JwtUtil;
 import com.ps.util.RestTestUtil;
@@ -110,6 +115,28 @@ void testLoginPatient() throws Exception {
 		.andExpect(jsonPath("$.message").value(IResponseConstants.PATIENT_LOGIN_SUCCESSFUL));
 	}
 
+	/**
+	 * Test case for POST /auth/login/patient.
+	 * <p>
+	 * Scenario: Password hashing workers are saturated.  
+	 * Expectation: Returns HTTP 503 (SERVICE_UNAVAILABLE) with a Retry-After header and message.
+	 */
+	@Test
+	void testLoginPatientHashingSaturated() throws Exception {
+		LoginRequest request = new LoginRequest();
+		request.setPassword("12345");
+		request.setUser("patient@shc.com");
+		
+		when(authService.loginPatient(request)).thenThrow(new PasswordHashingException("Password hashing queue is full", HttpStatus.SERVICE_UNAVAILABLE));
+		
+		mockMvc.perform(post("/auth/login/patient")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(RestTestUtil.toJsonString(request)))
+		.andExpect(status().isServiceUnavailable())
+		.andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+		.andExpect(jsonPath("$.message").value(IExceptionConstants.SERVER_BUSY));
+	}
+
 	/**
 	 * Test case for POST /auth/register/doctor.
 	 * <p>
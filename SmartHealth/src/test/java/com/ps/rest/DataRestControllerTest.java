@@ -4,12 +4,16 @@
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -19,16 +23,20 @@
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.ps.cache.ReferenceDataCache;
+import com.ps.config.props.ImageProperties;
+import com.ps.constants.ICacheConstants;
+import com.ps.constants.ICommonConstants;
 import com.ps.constants.IDoctorConstants;
 import com.ps.constants.IResponseConstants;
+import com.ps.dto.ImageFile;
 import com.ps.entity.Degree;
 import com.ps.entity.Department;
 import com.ps.entity.Relation;
@@ -59,6 +67,12 @@ class DataRestControllerTest {
 	
 	@MockBean
 	private JwtUtil jwtUtil;
+	
+	@MockBean
+	private ReferenceDataCache referenceDataCache;
+	
+	@MockBean
+	private ImageProperties imageProperties;
 
 	/**
 	 * Test case for GET /data/doctor/degree.
@@ -81,6 +95,33 @@ void testGetDoctorDegrees() throws Exception {
 		assertEquals(degrees, actualResponse);
 	}
 	
+	/**
+	 * Test case for GET /data/doctor/degree with validators.
+	 * <p>
+	 * Scenario: Conditional request to fetch all degrees, with and without matching entity tag.  
+	 * Expectation: Returns HTTP 200 (OK) with validators when entity tag doesn't match 
+	 * and HTTP 304 (NOT_MODIFIED) without body when it matches.
+	 */
+	@Test
+	void testGetDoctorDegreesNotModified() throws Exception {
+		String eTag = "\"degrees-1\"";
+		
+		when(dataService.getDoctorDegrees()).thenReturn(TestDataUtil.getDegrees());
+		when(referenceDataCache.getETag(ICacheConstants.DEGREES)).thenReturn(eTag);
+		when(referenceDataCache.getLastModified(ICacheConstants.DEGREES)).thenReturn(1000L);
+		
+		mockMvc.perform(get("/data/doctor/degree")
+				.header(HttpHeaders.IF_NONE_MATCH, "\"degrees-0\""))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, eTag))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+		
+		mockMvc.perform(get("/data/doctor/degree")
+				.header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified())
+				.andExpect(content().string(""));
+	}
+	
 	/**
 	 * Test case for GET /data/doctor/department.
 	 * <p>
@@ -175,15 +216,109 @@ void testViewHolidays() throws Exception {
 	void testGetPictureByName() throws Exception {
 		String fileName = "1_ProfilePic_user.jpg";
 		byte[] imageBytes = "Conider this as profile image in bytes".getBytes();
-		Resource resource = new ByteArrayResource(imageBytes);
+		ImageFile image = new ImageFile(Paths.get(fileName), imageBytes.length, 1000L, "\"3e8-26\"", MediaType.IMAGE_JPEG, imageBytes);
 		
-		when(dataService.getPictureByName(eq(fileName), anyString())).thenReturn(resource);
+		when(dataService.getPictureByName(eq(fileName), anyString(), isNull())).thenReturn(image);
+		when(imageProperties.getDefaultMaxAgeInMinutes()).thenReturn(60);
 
 		 mockMvc.perform(get("/data/picture/{fileName}", fileName)
 		            .param("role", IDoctorConstants.DOCTOR_ROLE))
 		            .andExpect(status().isOk())
+		            .andExpect(header().string(HttpHeaders.ETAG, image.getETag()))
+		            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=3600, public"))
+		            .andExpect(content().contentType(MediaType.IMAGE_JPEG))
 		            .andExpect(content().bytes(imageBytes));
 	}
+	
+	/**
+	 * Test case for GET /data/picture/{fileName} of a versioned profile picture.
+	 * <p>
+	 * Scenario: Valid request to fetch a versioned profile picture, then a conditional one.  
+	 * Expectation: Returns HTTP 200 (OK) with long lived immutable Cache-Control,
+	 * then HTTP 304 (NOT_MODIFIED) without body when entity tag matches.
+	 */
+	@Test
+	void testGetPictureByNameVersioned() throws Exception {
+		String fileName = "1_ProfilePic_1735689600000_user.jpg";
+		byte[] imageBytes = "Conider this as profile image in bytes".getBytes();
+		ImageFile image = new ImageFile(Paths.get(fileName), imageBytes.length, 1000L, "\"3e8-26\"", MediaType.IMAGE_JPEG, imageBytes);
+		
+		when(dataService.getPictureByName(eq(fileName), anyString(), isNull())).thenReturn(image);
+		when(imageProperties.getVersionedMaxAgeInDays()).thenReturn(365);
+		
+		mockMvc.perform(get("/data/picture/{fileName}", fileName)
+				.param("role", IDoctorConstants.DOCTOR_ROLE))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+				.andExpect(content().bytes(imageBytes));
+		
+		mockMvc.perform(get("/data/picture/{fileName}", fileName)
+				.param("role", IDoctorConstants.DOCTOR_ROLE)
+				.header(HttpHeaders.IF_NONE_MATCH, image.getETag()))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+				.andExpect(content().string(""));
+	}
+	
+	/**
+	 * Test case for GET /data/picture/{fileName} with a size.
+	 * <p>
+	 * Scenario: Valid request to fetch a resized variant of a versioned profile picture,
+	 * then of a picture whose variants are not generated yet.  
+	 * Expectation: Returns HTTP 200 (OK) with the variant and long lived immutable Cache-Control,
+	 * then HTTP 200 (OK) with the original picture and short lived Cache-Control.
+	 */
+	@Test
+	void testGetPictureByNameSize() throws Exception {
+		String fileName = "1_ProfilePic_1735689600000_user.jpg";
+		byte[] imageBytes = "Conider this as profile image in bytes".getBytes();
+		ImageFile variant = new ImageFile(Paths.get("1_ProfilePic_1735689600000_user_64px.jpg"), imageBytes.length, 1000L, "\"3e8-26\"", MediaType.IMAGE_JPEG, imageBytes);
+		ImageFile original = new ImageFile(Paths.get(fileName), imageBytes.length, 1000L, "\"3e8-26\"", MediaType.IMAGE_JPEG, imageBytes);
+		
+		when(dataService.getPictureByName(fileName, IDoctorConstants.DOCTOR_ROLE, 64)).thenReturn(variant);
+		when(dataService.getPictureByName(fileName, IDoctorConstants.DOCTOR_ROLE, 256)).thenReturn(original);
+		when(imageProperties.getVersionedMaxAgeInDays()).thenReturn(365);
+		when(imageProperties.getDefaultMaxAgeInMinutes()).thenReturn(60);
+		
+		mockMvc.perform(get("/data/picture/{fileName}", fileName)
+				.param("role", IDoctorConstants.DOCTOR_ROLE)
+				.param("size", "64"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+				.andExpect(content().bytes(imageBytes));
+		
+		mockMvc.perform(get("/data/picture/{fileName}", fileName)
+				.param("role", IDoctorConstants.DOCTOR_ROLE)
+				.param("size", "256"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=3600, public"))
+				.andExpect(content().bytes(imageBytes));
+	}
+	
+	/**
+	 * Test case for GET /data/picture/{fileName} of an image not held in memory.
+	 * <p>
+	 * Scenario: Valid request to fetch an image when container supports sendfile.  
+	 * Expectation: Returns HTTP 200 (OK) with Content-Length and no body written,
+	 * the file is handed over to the container through request attributes.
+	 */
+	@Test
+	void testGetPictureByNameSendFile() throws Exception {
+		String fileName = "1_ProfilePic_1735689600000_user.jpg";
+		ImageFile image = new ImageFile(Paths.get("/images/doctor/" + fileName), 1048576L, 1000L, "\"3e8-100000\"", MediaType.IMAGE_JPEG, null);
+		
+		when(dataService.getPictureByName(eq(fileName), anyString(), isNull())).thenReturn(image);
+		when(imageProperties.getVersionedMaxAgeInDays()).thenReturn(365);
+		
+		mockMvc.perform(get("/data/picture/{fileName}", fileName)
+				.param("role", IDoctorConstants.DOCTOR_ROLE)
+				.requestAttr(ICommonConstants.SENDFILE_SUPPORTED, Boolean.TRUE))
+				.andExpect(status().isOk())
+				.andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, image.getSize()))
+				.andExpect(request().attribute(ICommonConstants.SENDFILE_FILENAME, image.getPath().toAbsolutePath().toString()))
+				.andExpect(request().attribute(ICommonConstants.SENDFILE_END, image.getSize()))
+				.andExpect(content().string(""));
+	}
 
 	/**
 	 * Test case for GET /data/picture/{fileName}.
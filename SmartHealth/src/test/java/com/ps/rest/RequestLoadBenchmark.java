@@ -0,0 +1,186 @@
+package com.ps.rest;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import com.ps.constants.IPatientConstants;
+import com.ps.util.JwtUtil;
+
+/**
+ * This class puts {@value #CLIENTS} concurrent clients on the REST layer, each searching doctors,
+ * viewing the slots of a doctor and booking one of them {@value #ROUNDS} times, and reports the
+ * throughput, the 99th percentile latency of search and booking requests and the responses by status;
+ * requests that found the connection pool exhausted are answered {@code 503 Service Unavailable}.
+ * It runs once with Tomcat on platform threads and once with virtual threads
+ * ({@code spring.threads.virtual.enabled}), against an H2 database in MySQL mode.
+ * It is excluded from the regular test run, use {@code gradle benchmark} to run it.
+ *
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT,
+				properties = {"spring.datasource.driver-class-name=org.h2.Driver",
+							  "spring.datasource.username=sa",
+							  "spring.jpa.show-sql=false",
+							  "logging.file.name=",
+							  "logging.level.root=WARN"})
+abstract class RequestLoadBenchmark {
+
+	private static final Logger LOG = LoggerFactory.getLogger(RequestLoadBenchmark.class);
+	private static final int CLIENTS = 1_000;
+	private static final int ROUNDS = 5;
+	private static final int DOCTORS = 100;
+	private static final int DAYS = 7;
+	// Enough slots for every client to book a distinct slot in every round
+	private static final int SLOTS_PER_DAY = CLIENTS * ROUNDS / (DOCTORS * DAYS) + 1;
+
+	@LocalServerPort
+	private int port;
+
+	@Value("${spring.threads.virtual.enabled}")
+	private boolean virtualThreads;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+
+	private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+	@BeforeEach
+	void setUp() {
+		List<Object[]> doctors = new ArrayList<>();
+		for (int id = 1; id <= DOCTORS; id++) {
+			doctors.add(new Object[] {id, "Doctor " + id, "doctor" + id + "@smarthealth.com", String.valueOf(8_000_000_000L + id)});
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO doctor (id, name, email, phone, is_active, profile_complete) VALUES (?, ?, ?, ?, true, true)", doctors);
+
+		List<Object[]> patients = new ArrayList<>();
+		for (int id = 1; id <= CLIENTS; id++) {
+			patients.add(new Object[] {id, "Patient " + id, "patient" + id + "@smarthealth.com", String.valueOf(9_000_000_000L + id)});
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO patient (id, name, email, phone, is_active, profile_complete) VALUES (?, ?, ?, ?, true, true)", patients);
+
+		List<Object[]> slots = new ArrayList<>();
+		LocalDate tomorrow = LocalDate.now().plusDays(1);
+		for (int slot = 0; slot < DOCTORS * DAYS * SLOTS_PER_DAY; slot++) {
+			int doctorId = slot % DOCTORS + 1;
+			int day = slot / DOCTORS % DAYS;
+			LocalTime start = LocalTime.of(8, 0).plusMinutes(10L * (slot / (DOCTORS * DAYS)));
+			slots.add(new Object[] {slot + 1, doctorId, tomorrow.plusDays(day), start, start.plusMinutes(10)});
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO availability (id, doctor_id, date, start_time, end_time, status, mode) VALUES (?, ?, ?, ?, ?, 'AVAILABLE', 'MANUAL')", slots);
+	}
+
+	/**
+	 * Benchmark searching doctors, viewing slots and booking appointments.
+	 *
+	 */
+	@Test
+	void benchmarkSearchAndBooking() throws Exception {
+		long[][] searchLatencies = new long[CLIENTS][ROUNDS];
+		long[][] bookingLatencies = new long[CLIENTS][ROUNDS];
+		CountDownLatch startSignal = new CountDownLatch(1);
+		long start;
+		try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<?>> results = new ArrayList<>();
+			for (int client = 0; client < CLIENTS; client++) {
+				int patientId = client + 1;
+				results.add(clients.submit(() -> runClient(patientId, startSignal, searchLatencies[patientId - 1], bookingLatencies[patientId - 1])));
+			}
+			start = System.nanoTime();
+			startSignal.countDown();
+			for (Future<?> result : results) {
+				result.get();
+			}
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		LOG.warn("{} threads, {} clients: {} requests/s, search p99: {} ms, booking p99: {} ms, responses by status: {}",
+				virtualThreads ? "virtual" : "platform", CLIENTS, Math.round(CLIENTS * ROUNDS * 3 / seconds),
+				p99(searchLatencies) / 1_000_000, p99(bookingLatencies) / 1_000_000, statuses);
+		assertTrue(Set.of(200, 503).containsAll(statuses.keySet()));
+	}
+
+	/**
+	 * Searches doctors, views the slots of a random doctor and books a distinct slot in every round.
+	 */
+	private Void runClient(int patientId, CountDownLatch startSignal, long[] searchLatencies, long[] bookingLatencies) throws Exception {
+		String token = jwtUtil.generateToken("patient" + patientId + "@smarthealth.com", Set.of(IPatientConstants.PATIENT_ROLE));
+		startSignal.await();
+		for (int round = 0; round < ROUNDS; round++) {
+			long start = System.nanoTime();
+			send(token, "/appointment/search/doctor?page=0&size=10", "{}");
+			searchLatencies[round] = System.nanoTime() - start;
+
+			send(token, "/appointment/slots?doctorId=" + ThreadLocalRandom.current().nextInt(1, DOCTORS + 1), null);
+
+			int slotId = (patientId - 1) * ROUNDS + round + 1;
+			int doctorId = (slotId - 1) % DOCTORS + 1;
+			start = System.nanoTime();
+			send(token, "/appointment/book", "{\"doctorId\":%d,\"patientId\":%d,\"slotId\":%d,\"isSubProfile\":false}".formatted(doctorId, patientId, slotId));
+			bookingLatencies[round] = System.nanoTime() - start;
+		}
+		return null;
+	}
+
+	private void send(String token, String path, String body) throws Exception {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+				.header("Authorization", "Bearer " + token)
+				.timeout(Duration.ofMinutes(2));
+		if (body == null)
+			request.GET();
+		else
+			request.header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(body));
+		int status = httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+		statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+	}
+
+	private static long p99(long[][] latencies) {
+		long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+		return all[(int) Math.ceil(all.length * 0.99) - 1];
+	}
+
+	@TestPropertySource(properties = {"spring.threads.virtual.enabled=false",
+									  "spring.datasource.url=jdbc:h2:mem:platform;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"})
+	static class PlatformThreads extends RequestLoadBenchmark {
+	}
+
+	@TestPropertySource(properties = {"spring.threads.virtual.enabled=true",
+									  "spring.datasource.url=jdbc:h2:mem:virtual;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"})
+	static class VirtualThreads extends RequestLoadBenchmark {
+	}
+}
@@ -0,0 +1,177 @@
+package com.ps.schedule;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ps.config.props.SlotsProperties;
+import com.ps.entity.Appointment;
+import com.ps.entity.AppointmentRollup;
+import com.ps.entity.Availability;
+import com.ps.entity.Doctor;
+import com.ps.entity.Patient;
+import com.ps.enu.AGMode;
+import com.ps.enu.AppointmentStatus;
+import com.ps.enu.SlotStatus;
+import com.ps.event.AppointmentChangedEvent;
+import com.ps.repo.AppointmentRepository;
+import com.ps.repo.AppointmentRollupRepository;
+import com.ps.repo.AvailabilityRepository;
+import com.ps.repo.DoctorRepository;
+import com.ps.repo.PatientRepository;
+import com.ps.util.AvailabilityUtil;
+
+/**
+ * This test class runs the {@link AppointmentRollupUpdater} on an H2 database in MySQL mode.
+ * The updater commits its own transactions, so the test itself is not transactional.
+ *
+ */
+@DataJpaTest(properties = {"spring.datasource.url=jdbc:h2:mem:rollup;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+						   "spring.datasource.driver-class-name=org.h2.Driver",
+						   "spring.datasource.username=sa"})
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({SlotsProperties.class, AppointmentRollupUpdater.class})
+class AppointmentRollupUpdaterTest {
+
+	private static final int UPDATES = 16;
+
+	@Autowired
+	private AppointmentRollupUpdater appointmentRollupUpdater;
+
+	@Autowired
+	private AppointmentRollupRepository appointmentRollupRepository;
+
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+
+	@Autowired
+	private AvailabilityRepository availabilityRepository;
+
+	@Autowired
+	private DoctorRepository doctorRepository;
+
+	@Autowired
+	private PatientRepository patientRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private LocalDate date = LocalDate.now().plusDays(1);
+	private Doctor doctor;
+	private List<Appointment> appointments = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		doctor = new Doctor();
+		doctor.setName("Rollup Doctor");
+		doctor.setEmail("rollup.doctor@smarthealth.com");
+		doctor.setPhone("9000000005");
+		doctor = doctorRepository.save(doctor);
+
+		Patient patient = new Patient();
+		patient.setName("Rollup Patient");
+		patient.setEmail("rollup.patient@smarthealth.com");
+		patient.setPhone("9000000006");
+		patient = patientRepository.save(patient);
+
+		AppointmentStatus[] statuses = {AppointmentStatus.BOOKED, AppointmentStatus.BOOKED, AppointmentStatus.APPROVED};
+		for (int i = 0; i < statuses.length; i++) {
+			Availability slot = AvailabilityUtil.prepareAvailability(doctor, date, LocalTime.of(9 + i, 0), LocalTime.of(9 + i, 30), AGMode.MANUAL);
+			slot.setStatus(SlotStatus.BOOKED);
+			Appointment appointment = new Appointment();
+			appointment.setPatient(patient);
+			appointment.setAvailability(availabilityRepository.save(slot));
+			appointment.setStatus(statuses[i]);
+			appointments.add(appointmentRepository.save(appointment));
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		appointmentRollupRepository.deleteAll();
+		appointmentRepository.deleteAll();
+		availabilityRepository.deleteAll();
+		patientRepository.deleteAll();
+		doctorRepository.deleteAll();
+	}
+
+	/**
+	 * Test {@link AppointmentRollupUpdater#onAppointmentChanged(AppointmentChangedEvent)}.
+	 * The counts are written in place on each change, a status no appointment has anymore is zeroed,
+	 * and the rebuild agrees with them.
+	 */
+	@Test
+	void testOnAppointmentChanged() {
+		appointmentRollupUpdater.onAppointmentChanged(new AppointmentChangedEvent(doctor.getId(), Set.of(date)));
+		assertEquals(Map.of(AppointmentStatus.BOOKED, 2L, AppointmentStatus.APPROVED, 1L), totals());
+
+		appointments.get(0).setStatus(AppointmentStatus.COMPLETED);
+		appointments.get(2).setStatus(AppointmentStatus.COMPLETED);
+		appointmentRepository.saveAll(appointments);
+		appointmentRollupUpdater.onAppointmentChanged(new AppointmentChangedEvent(doctor.getId(), Set.of(date)));
+		assertEquals(Map.of(AppointmentStatus.BOOKED, 1L, AppointmentStatus.APPROVED, 0L, AppointmentStatus.COMPLETED, 2L), totals());
+
+		appointmentRollupUpdater.rebuild();
+		assertEquals(Map.of(AppointmentStatus.BOOKED, 1L, AppointmentStatus.COMPLETED, 2L), totals());
+	}
+
+	/**
+	 * Test {@link AppointmentRollupRepository#upsertByDoctorIdAndAppointmentDateIn(Integer, java.util.Collection)}
+	 * and {@link AppointmentRollupRepository#resetStaleByDoctorIdAndAppointmentDateIn(Integer, java.util.Collection)}.
+	 * Case when {@value #UPDATES} updates of the same day run concurrently, as the updater runs them, none of them fails.
+	 */
+	@Test
+	void testUpdateConcurrently() throws Exception {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		ExecutorService executor = Executors.newFixedThreadPool(UPDATES);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		try {
+			for (int i = 0; i < UPDATES; i++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					return transactionTemplate.execute(status -> {
+						appointmentRollupRepository.upsertByDoctorIdAndAppointmentDateIn(doctor.getId(), Set.of(date));
+						return appointmentRollupRepository.resetStaleByDoctorIdAndAppointmentDateIn(doctor.getId(), Set.of(date));
+					});
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures)
+				future.get(30, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(Map.of(AppointmentStatus.BOOKED, 2L, AppointmentStatus.APPROVED, 1L), totals());
+	}
+
+	private Map<AppointmentStatus, Long> totals() {
+		return appointmentRollupRepository.findAll().stream()
+				.collect(Collectors.toMap(AppointmentRollup::getStatus, AppointmentRollup::getTotal));
+	}
+}
@@ -0,0 +1,236 @@
+package com.ps.schedule;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ps.config.props.SlotsProperties;
+import com.ps.entity.Appointment;
+import com.ps.entity.Availability;
+import com.ps.entity.Doctor;
+import com.ps.entity.DoctorLeave;
+import com.ps.entity.LeaveSlotJob;
+import com.ps.entity.Patient;
+import com.ps.enu.AGMode;
+import com.ps.enu.AppointmentStatus;
+import com.ps.enu.LeaveSlotJobStatus;
+import com.ps.enu.LeaveStatus;
+import com.ps.enu.SlotStatus;
+import com.ps.repo.AppointmentRepository;
+import com.ps.repo.AvailabilityRepository;
+import com.ps.repo.DoctorLeaveRepository;
+import com.ps.repo.DoctorRepository;
+import com.ps.repo.LeaveSlotJobRepository;
+import com.ps.repo.PatientRepository;
+import com.ps.util.AvailabilityUtil;
+
+/**
+ * This test class runs {@link LeaveSlotJobRunner} against bookings of the same days, on an H2 database in MySQL mode.
+ * Each transaction commits, so the test itself is not transactional.
+ *
+ */
+@DataJpaTest(properties = {"spring.datasource.url=jdbc:h2:mem:leaveslotjob;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+						   "spring.datasource.driver-class-name=org.h2.Driver",
+						   "spring.datasource.username=sa",
+						   "smarthealth.slots.leave-job-max-attempts=2"})
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({SlotsProperties.class, LeaveSlotJobRunner.class})
+class LeaveSlotJobRunnerTest {
+
+	@Autowired
+	private LeaveSlotJobRunner leaveSlotJobRunner;
+
+	@Autowired
+	private LeaveSlotJobRepository leaveSlotJobRepository;
+
+	@Autowired
+	private DoctorLeaveRepository leaveRepository;
+
+	@SpyBean
+	private AvailabilityRepository availabilityRepository;
+
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+
+	@Autowired
+	private DoctorRepository doctorRepository;
+
+	@Autowired
+	private PatientRepository patientRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private TransactionTemplate transactionTemplate;
+	private LocalDate leaveDate = LocalDate.now().plusDays(1);
+	private Doctor doctor;
+	private Patient patient;
+	private Availability slot;
+	private DoctorLeave leave;
+
+	@BeforeEach
+	void setUp() {
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		doctor = new Doctor();
+		doctor.setName("Leave Doctor");
+		doctor.setEmail("leave.doctor@smarthealth.com");
+		doctor.setPhone("9000000003");
+		doctor = doctorRepository.save(doctor);
+
+		patient = new Patient();
+		patient.setName("Leave Patient");
+		patient.setEmail("leave.patient@smarthealth.com");
+		patient.setPhone("9000000004");
+		patient = patientRepository.save(patient);
+
+		slot = AvailabilityUtil.prepareAvailability(doctor, leaveDate, LocalTime.of(9, 0), LocalTime.of(9, 30), AGMode.MANUAL);
+		slot.setStatus(SlotStatus.AVAILABLE);
+		slot = availabilityRepository.save(slot);
+
+		leave = new DoctorLeave();
+		leave.setDoctor(doctor);
+		leave.setFrom(leaveDate);
+		leave.setTo(leaveDate);
+		leave.setDays(1);
+		leave = leaveRepository.save(leave);
+	}
+
+	@AfterEach
+	void tearDown() {
+		appointmentRepository.deleteAll();
+		leaveSlotJobRepository.deleteAll();
+		leaveRepository.deleteAll();
+		availabilityRepository.deleteAll();
+		patientRepository.deleteAll();
+		doctorRepository.deleteAll();
+	}
+
+	/**
+	 * Test {@link LeaveSlotJobRunner#runPendingJobs()}.
+	 * Case when a slot of the leave is being booked while the job runs: the job waits for the booking
+	 * and cancels both the slot and its appointment, although the slot was still available when the leave was approved.
+	 */
+	@Test
+	void testRunPendingJobsWithBookingInFlight() throws Exception {
+		CountDownLatch claimed = new CountDownLatch(1);
+		CountDownLatch commit = new CountDownLatch(1);
+		AtomicInteger claims = new AtomicInteger();
+		Thread booking = new Thread(() -> transactionTemplate.executeWithoutResult(status -> {
+			claims.set(availabilityRepository.claimSlot(slot.getId(), LocalDateTime.now()));
+			Appointment appointment = new Appointment();
+			appointment.setPatient(patient);
+			appointment.setAvailability(availabilityRepository.getReferenceById(slot.getId()));
+			appointmentRepository.save(appointment);
+			claimed.countDown();
+			try {
+				commit.await(30, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}));
+		booking.start();
+		assertTrue(claimed.await(30, TimeUnit.SECONDS));
+		assertEquals(1, claims.get());
+
+		approveLeave();
+		Thread job = new Thread(leaveSlotJobRunner::runPendingJobs);
+		job.start();
+		// The job waits for the slot locked by the booking
+		while (job.getState() != Thread.State.WAITING && job.getState() != Thread.State.TIMED_WAITING && job.isAlive()) {
+			Thread.sleep(1);
+		}
+		commit.countDown();
+		booking.join(30_000);
+		job.join(30_000);
+
+		assertEquals(SlotStatus.CANCELLED, availabilityRepository.findById(slot.getId()).orElseThrow().getStatus());
+		List<Appointment> appointments = appointmentRepository.findAll();
+		assertEquals(1, appointments.size());
+		assertEquals(AppointmentStatus.D_CANCELLED, appointments.get(0).getStatus());
+		LeaveSlotJob completed = leaveSlotJobRepository.findAll().get(0);
+		assertEquals(LeaveSlotJobStatus.COMPLETED, completed.getStatus());
+		assertEquals(1, completed.getCancelledSlots());
+		assertEquals(1, completed.getCancelledAppointments());
+	}
+
+	/**
+	 * Test {@link LeaveSlotJobRunner#runPendingJobs()}.
+	 * Case when a slot of the leave is booked after the approval, before the job has run: the booking is refused,
+	 * a virtual slot stored meanwhile finds the approved leave, and the job deletes the slot.
+	 */
+	@Test
+	void testRunPendingJobsAfterApproval() {
+		approveLeave();
+		assertEquals(Integer.valueOf(0), transactionTemplate.execute(status -> availabilityRepository.claimSlot(slot.getId(), LocalDateTime.now())));
+		assertEquals(Integer.valueOf(1), transactionTemplate.execute(status -> leaveRepository.lockApprovedLeaves(doctor.getId(), leaveDate).size()));
+
+		leaveSlotJobRunner.runPendingJobs();
+		assertTrue(availabilityRepository.findById(slot.getId()).isEmpty());
+		assertEquals(1, leaveSlotJobRepository.findAll().get(0).getDeletedSlots());
+	}
+
+	/**
+	 * Test {@link LeaveSlotJobRunner#runPendingJobs()}.
+	 * Case when a job keeps failing: each failed run is counted and the job stays pending,
+	 * until the maximum attempts are reached and the job is marked failed, no longer retried.
+	 */
+	@Test
+	void testRunPendingJobsFailing() {
+		approveLeave();
+		doThrow(new QueryTimeoutException("Query timed out")).when(availabilityRepository)
+				.findOpenSlotsByDoctorIdAndDateBetween(any(), any(), any());
+
+		leaveSlotJobRunner.runPendingJobs();
+		LeaveSlotJob job = leaveSlotJobRepository.findAll().get(0);
+		assertEquals(LeaveSlotJobStatus.PENDING, job.getStatus());
+		assertEquals(1, job.getAttempts());
+
+		leaveSlotJobRunner.runPendingJobs();
+		job = leaveSlotJobRepository.findAll().get(0);
+		assertEquals(LeaveSlotJobStatus.FAILED, job.getStatus());
+		assertEquals(2, job.getAttempts());
+		assertEquals(leaveDate, job.getNextDate());
+
+		leaveSlotJobRunner.runPendingJobs();
+		assertEquals(2, leaveSlotJobRepository.findAll().get(0).getAttempts());
+		assertTrue(availabilityRepository.findById(slot.getId()).isPresent());
+	}
+
+	private void approveLeave() {
+		transactionTemplate.executeWithoutResult(status -> {
+			leaveRepository.changeLeaveStatus(leave.getId(), LocalDateTime.now(), LeaveStatus.APPROVED);
+			LeaveSlotJob job = new LeaveSlotJob();
+			job.setLeave(leave);
+			job.setDoctor(doctor);
+			job.setFrom(leaveDate);
+			job.setTo(leaveDate);
+			job.setNextDate(leaveDate);
+			leaveSlotJobRepository.save(job);
+		});
+	}
+}
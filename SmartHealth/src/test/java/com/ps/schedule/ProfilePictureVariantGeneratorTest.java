@@ -0,0 +1,138 @@
+package com.ps.schedule;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.ps.config.props.ImageProperties;
+import com.ps.config.props.PathProperties;
+import com.ps.event.ProfilePictureUploadedEvent;
+
+/**
+ * This class tests the {@link ProfilePictureVariantGenerator} class on pictures written to a temporary directory.
+ *
+ */
+class ProfilePictureVariantGeneratorTest {
+
+	@TempDir
+	private Path directory;
+
+	private ProfilePictureVariantGenerator variantGenerator;
+
+	@BeforeEach
+	void setUp() {
+		ImageProperties imageProperties = new ImageProperties();
+		imageProperties.setVariantSizes(List.of(16, 32));
+		imageProperties.setVariantParallelism(1);
+		PathProperties pathProperties = new PathProperties();
+		pathProperties.setImageStoragePath(directory + "/");
+		pathProperties.setDefaultProfilePicName("default_image.png");
+		variantGenerator = new ProfilePictureVariantGenerator();
+		ReflectionTestUtils.setField(variantGenerator, "imageProperties", imageProperties);
+		ReflectionTestUtils.setField(variantGenerator, "pathProperties", pathProperties);
+		variantGenerator.init();
+	}
+
+	/**
+	 * Test {@link ProfilePictureVariantGenerator#onProfilePictureUploaded(ProfilePictureUploadedEvent)}.
+	 * Case of a JPEG picture uploaded over the default one: a JPEG variant named with a {@code .jpg} extension is generated
+	 * per size, replacing a variant left by an earlier attempt.
+	 */
+	@Test
+	void testOnProfilePictureUploaded() throws Exception {
+		Path uploaded = writeImage("1_ProfilePic_1_me.jpeg", 300, 200);
+		writeImage("1_ProfilePic_1_me_16px.jpg", 8, 8);
+
+		variantGenerator.onProfilePictureUploaded(new ProfilePictureUploadedEvent(uploaded, null));
+		awaitGenerator();
+
+		assertEquals(List.of("1_ProfilePic_1_me.jpeg", "1_ProfilePic_1_me_16px.jpg", "1_ProfilePic_1_me_32px.jpg"), list());
+		assertEquals(16, ImageIO.read(directory.resolve("1_ProfilePic_1_me_16px.jpg").toFile()).getWidth());
+		assertEquals(32, ImageIO.read(directory.resolve("1_ProfilePic_1_me_32px.jpg").toFile()).getHeight());
+	}
+
+	/**
+	 * Test {@link ProfilePictureVariantGenerator#onProfilePictureUploaded(ProfilePictureUploadedEvent)}.
+	 * Case when the uploaded picture isn't a readable image, no variant is generated.
+	 */
+	@Test
+	void testOnProfilePictureUploadedUnreadable() throws Exception {
+		Path uploaded = Files.writeString(directory.resolve("1_ProfilePic_1_me.png"), "not an image");
+
+		variantGenerator.onProfilePictureUploaded(new ProfilePictureUploadedEvent(uploaded, null));
+		awaitGenerator();
+
+		assertEquals(List.of("1_ProfilePic_1_me.png"), list());
+	}
+
+	/**
+	 * Test {@link ProfilePictureVariantGenerator#generateDefaultVariants()}.
+	 * Case when a variant of the default picture already exists, only the missing one is generated.
+	 */
+	@Test
+	void testGenerateDefaultVariants() throws Exception {
+		writeImage("default_image.png", 64, 64);
+		writeImage("default_image_16px.png", 8, 8);
+
+		variantGenerator.generateDefaultVariants();
+		awaitGenerator();
+
+		assertEquals(List.of("default_image.png", "default_image_16px.png", "default_image_32px.png"), list());
+		assertEquals(8, ImageIO.read(directory.resolve("default_image_16px.png").toFile()).getWidth());
+		assertEquals(32, ImageIO.read(directory.resolve("default_image_32px.png").toFile()).getWidth());
+	}
+
+	/**
+	 * Test {@link ProfilePictureVariantGenerator#onProfilePictureUploaded(ProfilePictureUploadedEvent)}.
+	 * Case when a picture replaces a previous upload: the variants of the new picture are generated,
+	 * then the replaced picture and its variants are deleted, leaving other files alone.
+	 */
+	@Test
+	void testOnProfilePictureUploadedDeletesReplacedPicture() throws Exception {
+		Path replaced = writeImage("1_ProfilePic_1_old.png", 64, 64);
+		writeImage("1_ProfilePic_1_old_16px.png", 16, 16);
+		writeImage("1_ProfilePic_1_old_32px.png", 32, 32);
+		writeImage("2_ProfilePic_1_other.png", 64, 64);
+		Path uploaded = writeImage("1_ProfilePic_2_new.png", 64, 64);
+
+		variantGenerator.onProfilePictureUploaded(new ProfilePictureUploadedEvent(uploaded, replaced));
+		awaitGenerator();
+
+		assertEquals(List.of("1_ProfilePic_2_new.png", "1_ProfilePic_2_new_16px.png", "1_ProfilePic_2_new_32px.png", "2_ProfilePic_1_other.png"), list());
+	}
+
+	private Path writeImage(String fileName, int width, int height) throws IOException {
+		Path path = directory.resolve(fileName);
+		if (fileName.endsWith(".png"))
+			ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", path.toFile());
+		else
+			ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "jpg", path.toFile());
+		return path;
+	}
+
+	private List<String> list() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.map(path -> path.getFileName().toString()).sorted().toList();
+		}
+	}
+
+	private void awaitGenerator() throws InterruptedException {
+		variantGenerator.destroy();
+		assertTrue(((ExecutorService) ReflectionTestUtils.getField(variantGenerator, "executor")).awaitTermination(30, TimeUnit.SECONDS));
+	}
+}
@@ -1,12 +1,15 @@
 package com.ps.service.impl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,18 +17,29 @@
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.ps.config.props.DashboardProperties;
 import com.ps.constants.IAdminConstants;
+import com.ps.dto.response.AGRunStats;
 import com.ps.dto.response.DailyAppointments;
 import com.ps.dto.response.LeaveResponse;
+import com.ps.dto.response.LeaveSlotJobResponse;
 import com.ps.entity.Appointment;
 import com.ps.entity.DoctorLeave;
+import com.ps.entity.LeaveSlotJob;
+import com.ps.enu.AppointmentStatus;
+import com.ps.enu.LeaveSlotJobStatus;
 import com.ps.enu.LeaveStatus;
+import com.ps.enu.SlotStatus;
+import com.ps.event.AppointmentChangedEvent;
 import com.ps.repo.AppointmentRepository;
+import com.ps.repo.AppointmentRollupRepository;
 import com.ps.repo.AvailabilityRepository;
 import com.ps.repo.DoctorLeaveRepository;
 import com.ps.repo.DoctorRepository;
 import com.ps.repo.DoctorRepository.DoctorIdNameProjection;
+import com.ps.repo.LeaveSlotJobRepository;
 import com.ps.repo.PatientRepository;
+import com.ps.schedule.AvailabilityAutoGenerator;
 import com.ps.util.TestDataUtil;
 
 /**
@@ -45,6 +59,9 @@ class AdminDashboardServiceImplTest {
 	@Mock
 	private AppointmentRepository appointmentRepository;
 	
+	@Mock
+	private AppointmentRollupRepository appointmentRollupRepository;
+	
 	@Mock
 	private PatientRepository patientRepository;
 	
@@ -53,6 +70,15 @@ class AdminDashboardServiceImplTest {
 	
 	@Mock
 	private DoctorLeaveRepository doctorLeaveRepository;
+	
+	@Mock
+	private LeaveSlotJobRepository leaveSlotJobRepository;
+	
+	@Mock
+	private AvailabilityAutoGenerator availabilityAutoGenerator;
+	
+	@Mock
+	private DashboardProperties dashboardProperties;
 
 	/**
 	 * Test {@link AdminDashboardServiceImpl#getDashboardStats()}.
@@ -60,28 +86,52 @@ class AdminDashboardServiceImplTest {
 	@SuppressWarnings("unchecked")
 	@Test
 	void testGetDashboardStats() {
-		Long totalSlots = 150L;
-		Long totalAppointments = 108L;
-		Long totalPatients = 11L;
-		Long totalDoctors = 18L;
+		List<Object[]> slotCounts = new ArrayList<>();
+		slotCounts.add(new Object[] {SlotStatus.AVAILABLE, 100L});
+		slotCounts.add(new Object[] {SlotStatus.BOOKED, 50L});
+		List<Object[]> appointmentCounts = new ArrayList<>();
+		appointmentCounts.add(new Object[] {AppointmentStatus.BOOKED, 60L});
+		appointmentCounts.add(new Object[] {AppointmentStatus.COMPLETED, 48L});
+		List<Object[]> patientCounts = new ArrayList<>();
+		patientCounts.add(new Object[] {11L, 10L, 2L});
+		List<Object[]> doctorCounts = new ArrayList<>();
+		doctorCounts.add(new Object[] {18L, 17L, 1L});
 		
-		when(availabilityRepository.count()).thenReturn(totalSlots);
-		when(appointmentRepository.count()).thenReturn(totalAppointments);
-		when(patientRepository.count()).thenReturn(totalPatients);
-		when(doctorRepository.count()).thenReturn(totalDoctors);
+		when(dashboardProperties.getStatsSnapshotTtlInSeconds()).thenReturn(30);
+		when(availabilityRepository.countGroupByStatus()).thenReturn(slotCounts);
+		when(appointmentRepository.countGroupByStatus()).thenReturn(appointmentCounts);
+		when(patientRepository.countProfileStats()).thenReturn(patientCounts);
+		when(doctorRepository.countProfileStats()).thenReturn(doctorCounts);
 		
 		Map<String,Object> dashboardStats = adminDashboardService.getDashboardStats();
 		Map<String, Long> slots = (Map<String, Long>) dashboardStats.get(IAdminConstants.SLOTS);
-		assertEquals(totalSlots, slots.get(IAdminConstants.TOTAL_SLOTS));
+		assertEquals(150L, slots.get(IAdminConstants.TOTAL_SLOTS));
+		assertEquals(100L, slots.get(IAdminConstants.AVAILABLE_SLOTS));
+		assertEquals(0L, slots.get(IAdminConstants.CANCELLED_SLOTS));
 		
 		Map<String, Long> appointments = (Map<String, Long>) dashboardStats.get(IAdminConstants.APPOINTMENTS);
-		assertEquals(totalAppointments, appointments.get(IAdminConstants.TOTAL_APPOINTMENTS));
+		assertEquals(108L, appointments.get(IAdminConstants.TOTAL_APPOINTMENTS));
+		assertEquals(48L, appointments.get(IAdminConstants.COMPLETED_APPOINTMENTS));
+		assertEquals(0L, appointments.get(IAdminConstants.REJECTED_APPOINTMENTS));
 
 		Map<String, Long> patients = (Map<String, Long>) dashboardStats.get(IAdminConstants.PATIENTS);
-		assertEquals(totalPatients, patients.get(IAdminConstants.TOTAL_PATIENTS));
+		assertEquals(11L, patients.get(IAdminConstants.TOTAL_PATIENTS));
+		assertEquals(2L, patients.get(IAdminConstants.INCOMPLETE_PROFILE_PATIENTS));
 
 		Map<String, Long> doctors = (Map<String, Long>) dashboardStats.get(IAdminConstants.DOCTORS);
-		assertEquals(totalDoctors, doctors.get(IAdminConstants.TOTAL_DOCTORS));
+		assertEquals(18L, doctors.get(IAdminConstants.TOTAL_DOCTORS));
+		assertEquals(17L, doctors.get(IAdminConstants.ACTIVE_DOCTORS));
+		assertEquals(0L, dashboardStats.get(IAdminConstants.SNAPSHOT_AGE_IN_SECONDS));
+		
+		// Served from snapshot while it is valid
+		adminDashboardService.getDashboardStats();
+		verify(availabilityRepository, times(1)).countGroupByStatus();
+		
+		// Recomputed after an appointment change invalidates the snapshot
+		adminDashboardService.onAppointmentChanged(new AppointmentChangedEvent(1, Set.of(LocalDate.now())));
+		adminDashboardService.getDashboardStats();
+		verify(availabilityRepository, times(2)).countGroupByStatus();
+		verify(appointmentRepository, times(2)).countGroupByStatus();
 	}
 	
 	/**
@@ -93,7 +143,7 @@ void testGetAppointmentTrend() {
 		LocalDate startDate = today.minusDays(9);
 		List<DailyAppointments> dailyAppointments = TestDataUtil.getDailyAppointments();
 		
-		when(appointmentRepository.findAppointmentsTrendsByDate(startDate, today)).thenReturn(dailyAppointments);
+		when(appointmentRollupRepository.findTrendsByDate(startDate, today)).thenReturn(dailyAppointments);
 		
 		Map<String,Object> appointmentTrend = adminDashboardService.getAppointmentTrend();
 		@SuppressWarnings("unchecked")
@@ -116,7 +166,7 @@ void testGetAppointmentCount() {
 		LocalDate startDate = endDate.minusDays(29);
 		List<Object[]> appointmentCountList = prepareAppointmentCountList();
 		
-		when(appointmentRepository.countAppointmentsByDate(startDate, endDate)).thenReturn(appointmentCountList);
+		when(appointmentRollupRepository.countByDate(startDate, endDate)).thenReturn(appointmentCountList);
 		
 		Map<String,Object> appointmentCount = adminDashboardService.getAppointmentCount();
 		@SuppressWarnings("unchecked")
@@ -179,6 +229,52 @@ void testTodaysAppointments() {
 		assertEquals(appointment.getCreatedAt(), resultMap.get(IAdminConstants.BOOKED_ON));
 	}
 	
+	/**
+	 * Test {@link AdminDashboardServiceImpl#getSlotGenerationStats()}.
+	 */
+	@Test
+	void testGetSlotGenerationStats() {
+		AGRunStats stats = new AGRunStats();
+		stats.setDoctors(10);
+		stats.setGeneratedSlots(160);
+		
+		when(availabilityAutoGenerator.getLastRunStats()).thenReturn(stats);
+		
+		Map<String, Object> response = adminDashboardService.getSlotGenerationStats();
+		assertEquals(stats, response.get(IAdminConstants.SLOT_GENERATION));
+	}
+	
+	/**
+	 * Test {@link AdminDashboardServiceImpl#getLeaveSlotJobs()}.
+	 */
+	@Test
+	void testGetLeaveSlotJobs() {
+		DoctorLeave doctorLeave = TestDataUtil.getDoctorLeave();
+		LeaveSlotJob job = new LeaveSlotJob();
+		job.setId(1);
+		job.setLeave(doctorLeave);
+		job.setDoctor(doctorLeave.getDoctor());
+		job.setFrom(doctorLeave.getFrom());
+		job.setTo(doctorLeave.getTo());
+		job.setNextDate(doctorLeave.getFrom().plusDays(3));
+		job.setDeletedSlots(12);
+		job.setCancelledSlots(2);
+		job.setCancelledAppointments(1);
+		
+		when(leaveSlotJobRepository.findTop10ByOrderByIdDesc()).thenReturn(List.of(job));
+		
+		Map<String, Object> response = adminDashboardService.getLeaveSlotJobs();
+		@SuppressWarnings("unchecked")
+		List<LeaveSlotJobResponse> jobs = (List<LeaveSlotJobResponse>) response.get(IAdminConstants.LEAVE_SLOT_JOBS);
+		assertEquals(1, jobs.size());
+		assertEquals(doctorLeave.getId(), jobs.get(0).getLeaveId());
+		assertEquals(doctorLeave.getDoctor().getId(), jobs.get(0).getDoctorId());
+		assertEquals(LeaveSlotJobStatus.PENDING, jobs.get(0).getStatus());
+		assertEquals(5, jobs.get(0).getDays());
+		assertEquals(3, jobs.get(0).getProcessedDays());
+		assertEquals(12, jobs.get(0).getDeletedSlots());
+	}
+	
 	private List<Object[]> prepareAppointmentCountList() {
 		Object[] todaysCount = new Object[2];
 		todaysCount[0] = LocalDate.now();
@@ -0,0 +1,132 @@
+package com.ps.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.HashMap;
+import java.util.function.ToLongFunction;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ps.enu.ExportFormat;
+import com.ps.service.IAdminService;
+
+/**
+ * This class exports {@value #ROWS} availability slots as CSV and as many appointments as NDJSON
+ * through {@link IAdminService}, and reports the throughput and the growth of the live heap sampled
+ * after a full GC every {@value #SAMPLE_INTERVAL} rows, which must stay under {@value #MAX_HEAP_GROWTH_IN_MB} MB
+ * whatever the number of rows. The rows are kept in a file based H2 database in MySQL mode, with a small page
+ * cache and lazy query execution, so that the database doesn't hold them on the heap; they are seeded once
+ * under {@code build/} and reused by later runs.
+ * It is excluded from the regular test run, use {@code gradle benchmark} to run it.
+ *
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {"spring.datasource.driver-class-name=org.h2.Driver",
+							  "spring.datasource.url=jdbc:h2:file:./build/export-benchmark/smarthealth;MODE=MySQL;DATABASE_TO_LOWER=TRUE;LAZY_QUERY_EXECUTION=1;CACHE_SIZE=8192",
+							  "spring.datasource.username=sa",
+							  "spring.jpa.show-sql=false",
+							  "logging.file.name=",
+							  "logging.level.root=WARN"})
+class AdminExportBenchmark {
+
+	private static final Logger LOG = LoggerFactory.getLogger(AdminExportBenchmark.class);
+	private static final int ROWS = 1_000_000;
+	private static final int SAMPLE_INTERVAL = 100_000;
+	private static final int MAX_HEAP_GROWTH_IN_MB = 64;
+
+	@Autowired
+	private IAdminService adminService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM availability", Integer.class) == ROWS)
+			return;
+		jdbcTemplate.update("INSERT INTO doctor (id, name, email, phone, is_active, profile_complete) VALUES (1, 'Export Doctor', 'export.doctor@smarthealth.com', '8000000000', true, true)");
+		jdbcTemplate.update("INSERT INTO patient (id, name, email, phone, is_active, profile_complete) VALUES (1, 'Export Patient', 'export.patient@smarthealth.com', '9000000000', true, true)");
+		jdbcTemplate.update("""
+				INSERT INTO availability (doctor_id, date, start_time, end_time, status, mode)
+				SELECT 1, DATEADD('DAY', r.n / 1000, CURRENT_DATE), DATEADD('MINUTE', MOD(r.n, 1000), TIME '00:00:00'),
+				       DATEADD('MINUTE', MOD(r.n, 1000) + 1, TIME '00:00:00'), 'BOOKED', 'AUTO'
+				FROM (SELECT "X" AS n FROM SYSTEM_RANGE(0, ?)) r
+				""", ROWS - 1);
+		jdbcTemplate.update("INSERT INTO appointment (availability_id, patient_id, created_at, status) SELECT id, 1, CURRENT_TIMESTAMP, 'BOOKED' FROM availability");
+	}
+
+	/**
+	 * Benchmark {@link IAdminService#exportAvailabilitySlots(java.util.Map, ExportFormat, OutputStream)}
+	 * and {@link IAdminService#exportAppointments(java.util.Map, ExportFormat, OutputStream)}.
+	 *
+	 */
+	@Test
+	void benchmarkExport() {
+		measure("slots as CSV", outputStream -> adminService.exportAvailabilitySlots(new HashMap<>(), ExportFormat.CSV, outputStream));
+		measure("appointments as NDJSON", outputStream -> adminService.exportAppointments(new HashMap<>(), ExportFormat.NDJSON, outputStream));
+	}
+
+	/**
+	 * Runs an export into a stream counting the written lines and sampling the live heap.
+	 *
+	 * @param name   name of the export in the report
+	 * @param export export writing to the given stream and returning the number of rows
+	 */
+	private void measure(String name, ToLongFunction<OutputStream> export) {
+		HeapSamplingOutputStream outputStream = new HeapSamplingOutputStream();
+		long start = System.nanoTime();
+		long rows = export.applyAsLong(outputStream);
+		double seconds = (System.nanoTime() - start) / 1e9;
+		long growthInMb = (outputStream.maxHeap - outputStream.baseHeap) / (1024 * 1024);
+		LOG.warn("{}: {} rows, {} MB in {} s ({} rows/s), live heap growth: {} MB", name, rows, outputStream.bytes / (1024 * 1024),
+				Math.round(seconds * 10) / 10.0, Math.round(rows / seconds), growthInMb);
+		assertEquals(ROWS, rows);
+		assertTrue(growthInMb < MAX_HEAP_GROWTH_IN_MB, name + " retained " + growthInMb + " MB of heap");
+	}
+
+	/**
+	 * Output stream discarding what is written, sampling the live heap after a full GC every {@value #SAMPLE_INTERVAL} lines.
+	 */
+	private static final class HeapSamplingOutputStream extends OutputStream {
+
+		private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		private final long baseHeap = liveHeap();
+		private long maxHeap = baseHeap;
+		private long bytes;
+		private long lines;
+
+		@Override
+		public void write(int b) {
+			count(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			for (int i = off; i < off + len; i++) {
+				count(b[i]);
+			}
+		}
+
+		private void count(int b) {
+			bytes++;
+			if (b == '\n' && ++lines % SAMPLE_INTERVAL == 0)
+				maxHeap = Math.max(maxHeap, liveHeap());
+		}
+
+		private long liveHeap() {
+			System.gc();
+			return memory.getHeapMemoryUsage().getUsed();
+		}
+	}
+}
@@ -10,10 +10,13 @@
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -24,22 +27,34 @@
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 import com.ps.config.props.SlotsProperties;
+import com.ps.cache.HolidayLeaveCalendar;
+import com.ps.cache.NameIndex;
+import com.ps.cache.ReferenceDataCache;
 import com.ps.constants.IAdminConstants;
+import com.ps.constants.ICacheConstants;
 import com.ps.constants.IDoctorConstants;
 import com.ps.constants.IExceptionConstants;
 import com.ps.constants.IPatientConstants;
 import com.ps.constants.IRequestConstants;
 import com.ps.constants.IResponseConstants;
+import com.ps.dto.AppointmentListItem;
 import com.ps.dto.HolidayDTO;
+import com.ps.dto.NameFilter;
+import com.ps.dto.SlotListItem;
+import com.ps.dto.UserListItem;
 import com.ps.dto.request.ADSRequest;
 import com.ps.dto.request.APSRequest;
 import com.ps.dto.response.ADResponse;
@@ -53,11 +68,15 @@
 import com.ps.entity.Doctor;
 import com.ps.entity.DoctorLeave;
 import com.ps.entity.Holiday;
+import com.ps.entity.LeaveSlotJob;
 import com.ps.entity.Patient;
 import com.ps.entity.SubProfile;
 import com.ps.enu.AppointmentStatus;
+import com.ps.enu.ExportFormat;
+import com.ps.enu.LeaveSlotJobStatus;
 import com.ps.enu.LeaveStatus;
 import com.ps.enu.SlotStatus;
+import com.ps.event.LeaveApprovedEvent;
 import com.ps.exception.AdminException;
 import com.ps.exception.AppointmentException;
 import com.ps.exception.AvailabilityException;
@@ -73,11 +92,13 @@
 import com.ps.repo.DoctorRepository;
 import com.ps.repo.DoctorRepository.DoctorIdNameProjection;
 import com.ps.repo.HolidayRepository;
+import com.ps.repo.LeaveSlotJobRepository;
 import com.ps.repo.PatientRepository;
 import com.ps.repo.PatientRepository.PatientIdNameProjection;
 import com.ps.repo.SubProfileRepository;
 import com.ps.service.IAppointmentService;
 import com.ps.service.IAvailabilityService;
+import com.ps.util.AdminUtil;
 import com.ps.util.TestConverterUtil;
 import com.ps.util.TestDataUtil;
 
@@ -88,6 +109,8 @@
  */
 @ExtendWith(MockitoExtension.class)
 class AdminServiceImplTest {
+
+	private static final Pageable CHUNK = PageRequest.of(0, IAdminConstants.EXPORT_CHUNK_SIZE);
 	
 	@InjectMocks
 	private AdminServiceImpl adminService;
@@ -116,12 +139,24 @@ class AdminServiceImplTest {
 	@Mock
 	private DoctorLeaveRepository leaveRepository;
 	
+	@Mock
+	private LeaveSlotJobRepository leaveSlotJobRepository;
+	
 	@Mock
 	private SlotsProperties slotsProperties;
 	
 	@Mock
 	private HolidayRepository holidayRepository;
 	
+	@Mock
+	private HolidayLeaveCalendar holidayLeaveCalendar;
+	
+	@Mock
+	private ReferenceDataCache referenceDataCache;
+	
+	@Mock
+	private NameIndex nameIndex;
+	
 	@Mock
 	private DoctorMapper doctorMapper;
 	
@@ -133,6 +168,9 @@ class AdminServiceImplTest {
 	
 	@Mock
 	private HolidayMapper holidayMapper;
+	
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
 
 	/**
 	 * Test {@link AdminServiceImpl#searchDoctors(ADSRequest, Pageable)}.
@@ -144,8 +182,11 @@ void testSearchDoctors() {
 		Pageable pageable = PageRequest.of(0, 10);
 		List<Doctor> doctors = List.of(TestDataUtil.getDoctor());
 		Page<Doctor> pages = new PageImpl<>(doctors, pageable, doctors.size());
+		adsRequest.setName("sh d");
+		NameFilter name = NameFilter.byIds(List.of(doctors.get(0).getId()));
 		
-		when(doctorRepository.searchDoctors(adsRequest.getId(), adsRequest.getName(), adsRequest.getEmail(), adsRequest.getPhone(), 
+		when(nameIndex.resolveDoctorName(adsRequest.getName())).thenReturn(name);
+		when(doctorRepository.searchDoctorsByIds(adsRequest.getId(), name.getIds(), adsRequest.getEmail(), adsRequest.getPhone(), 
 				adsRequest.getGender(), adsRequest.getDegree(), adsRequest.getSpecialization(), adsRequest.getDepartment(), 
 				adsRequest.getYearOfExperience(), adsRequest.getRegistrationNumber(), adsRequest.getProfileComplete(), 
 				adsRequest.getIsActive(), pageable)).thenReturn(pages);
@@ -161,6 +202,53 @@ void testSearchDoctors() {
 		assertEquals(doctors.get(0).getProfileComplete(), response.get(0).getProfileComplete());
 	}
 	
+	/**
+	 * Test {@link AdminServiceImpl#exportDoctors(ADSRequest, ExportFormat, java.io.OutputStream)}.
+	 * 
+	 */
+	@Test
+	void testExportDoctors() {
+		NameFilter name = NameFilter.byName(null);
+		UserListItem doctor = new UserListItem(1, "Shah, \"Dev\"", "dev@smarthealth.com", "9876543210", true, false);
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		
+		when(nameIndex.resolveDoctorName(null)).thenReturn(name);
+		when(doctorRepository.exportDoctorsAfter(null, null, null, null, null, null, null, null, null, null, null, null, 0, CHUNK))
+				.thenReturn(new SliceImpl<>(List.of(doctor), CHUNK, false));
+		
+		long rows = adminService.exportDoctors(null, ExportFormat.CSV, outputStream);
+		assertEquals(1, rows);
+		assertEquals("id,name,email,phone,isActive,profileComplete\r\n1,\"Shah, \"\"Dev\"\"\",dev@smarthealth.com,9876543210,true,false\r\n",
+				outputStream.toString(StandardCharsets.UTF_8));
+	}
+	
+	/**
+	 * Test {@link AdminServiceImpl#searchDoctorsByCursor(ADSRequest, String, int)}.
+	 * 
+	 */
+	@Test
+	void testSearchDoctorsByCursor() {
+		ADSRequest adsRequest = new ADSRequest();
+		Pageable pageable = PageRequest.of(0, 10);
+		List<Doctor> doctors = List.of(TestDataUtil.getDoctor());
+		Slice<Doctor> slice = new SliceImpl<>(doctors, pageable, true);
+		NameFilter name = NameFilter.byName(adsRequest.getName());
+		
+		when(nameIndex.resolveDoctorName(adsRequest.getName())).thenReturn(name);
+		when(doctorRepository.searchDoctorsAfter(adsRequest.getId(), name.getName(), adsRequest.getEmail(), adsRequest.getPhone(), 
+				adsRequest.getGender(), adsRequest.getDegree(), adsRequest.getSpecialization(), adsRequest.getDepartment(), 
+				adsRequest.getYearOfExperience(), adsRequest.getRegistrationNumber(), adsRequest.getProfileComplete(), 
+				adsRequest.getIsActive(), 0, pageable)).thenReturn(slice);
+		
+		Map<String,Object> searchDoctors = adminService.searchDoctorsByCursor(adsRequest, "", 10);
+		@SuppressWarnings("unchecked")
+		List<ADSResponse> response = (List<ADSResponse>) searchDoctors.get(IResponseConstants.DATA);
+		assertEquals(doctors.get(0).getId(), response.get(0).getId());
+		assertEquals(true, searchDoctors.get(IResponseConstants.HAS_NEXT_PAGE));
+		assertEquals(AdminUtil.encodeCursor(doctors.get(0).getId()), searchDoctors.get(IResponseConstants.NEXT_CURSOR));
+		assertNull(searchDoctors.get(IResponseConstants.TOTAL_PAGES));
+	}
+	
 	/**
 	 * Test {@link AdminServiceImpl#searchPatients(APSRequest, Pageable)}.
 	 * 
@@ -171,8 +259,10 @@ void testSearchPatients() {
 		Pageable pageable = PageRequest.of(0, 10);
 		List<Patient> patients = List.of(TestDataUtil.getPatient());
 		Page<Patient> pages = new PageImpl<>(patients, pageable, patients.size());
+		NameFilter name = NameFilter.byName(apsRequest.getName());
 		
-		when(patientRepository.searchPatients(apsRequest.getId(), apsRequest.getName(), apsRequest.getEmail(), apsRequest.getPhone(), apsRequest.getGender(), apsRequest.getProfileComplete(), apsRequest.getIsActive(), pageable)).thenReturn(pages);
+		when(nameIndex.resolvePatientName(apsRequest.getName())).thenReturn(name);
+		when(patientRepository.searchPatients(apsRequest.getId(), name.getName(), apsRequest.getEmail(), apsRequest.getPhone(), apsRequest.getGender(), apsRequest.getProfileComplete(), apsRequest.getIsActive(), pageable)).thenReturn(pages);
 		
 		Map<String,Object> searchPatients = adminService.searchPatients(apsRequest, pageable);
 		@SuppressWarnings("unchecked")
@@ -185,6 +275,29 @@ void testSearchPatients() {
 		assertEquals(patients.get(0).getProfileComplete(), response.get(0).getProfileComplete());
 	}
 	
+	/**
+	 * Test {@link AdminServiceImpl#searchPatientsByCursor(APSRequest, String, int)}.
+	 * 
+	 */
+	@Test
+	void testSearchPatientsByCursor() {
+		APSRequest apsRequest = new APSRequest();
+		Pageable pageable = PageRequest.of(0, 10);
+		List<Patient> patients = List.of(TestDataUtil.getPatient());
+		Slice<Patient> slice = new SliceImpl<>(patients, pageable, false);
+		NameFilter name = NameFilter.byName(apsRequest.getName());
+		
+		when(nameIndex.resolvePatientName(apsRequest.getName())).thenReturn(name);
+		when(patientRepository.searchPatientsAfter(apsRequest.getId(), name.getName(), apsRequest.getEmail(), apsRequest.getPhone(), apsRequest.getGender(), apsRequest.getProfileComplete(), apsRequest.getIsActive(), 25, pageable)).thenReturn(slice);
+		
+		Map<String,Object> searchPatients = adminService.searchPatientsByCursor(apsRequest, AdminUtil.encodeCursor(25), 10);
+		@SuppressWarnings("unchecked")
+		List<APSResponse> response = (List<APSResponse>) searchPatients.get(IResponseConstants.DATA);
+		assertEquals(patients.get(0).getId(), response.get(0).getId());
+		assertEquals(false, searchPatients.get(IResponseConstants.HAS_NEXT_PAGE));
+		assertNull(searchPatients.get(IResponseConstants.NEXT_CURSOR));
+	}
+	
 	/**
 	 * Test {@link AdminServiceImpl#viewDoctorProfile(Integer)}.
 	 * 
@@ -377,8 +490,8 @@ void testGetPatientList() {
 	void testSearchAvailabilitySlots() { 
 		Map<String, Object> requestMap = new HashMap<>();
 		Pageable pageable = PageRequest.of(0, 10);
-		List<Availability> slots = List.of(TestDataUtil.getAvailability());
-		Page<Availability> pages = new PageImpl<>(slots, pageable, slots.size());
+		List<SlotListItem> slots = List.of(TestDataUtil.getSlotListItem());
+		Page<SlotListItem> pages = new PageImpl<>(slots, pageable, slots.size());
 		
 		when(availabilityRepository.searchAvailability((Integer) requestMap.get(IRequestConstants.DOCTOR_ID), (LocalDate) requestMap.get(IRequestConstants.DATE), (SlotStatus) requestMap.get(IRequestConstants.STATUS), pageable)).thenReturn(pages);
 		
@@ -391,8 +504,56 @@ void testSearchAvailabilitySlots() {
 		assertEquals(slots.get(0).getId(), avResponse.getId());
 		assertEquals(slots.get(0).getDate(), avResponse.getDate());
 		assertEquals(slots.get(0).getMode(), avResponse.getMode());
-		assertEquals(slots.get(0).getDoctor().getId(), doctorIdNameProjection.getId());
-		assertEquals(slots.get(0).getDoctor().getName(), doctorIdNameProjection.getName());
+		assertEquals(slots.get(0).getDoctorId(), doctorIdNameProjection.getId());
+		assertEquals(slots.get(0).getDoctorName(), doctorIdNameProjection.getName());
+	}
+	
+	/**
+	 * Test {@link AdminServiceImpl#exportAvailabilitySlots(Map, ExportFormat, java.io.OutputStream)}.
+	 * Case when the slots span two chunks, the second chunk is read after the last id of the first one.
+	 */
+	@Test
+	void testExportAvailabilitySlots() {
+		Map<String, Object> requestMap = new HashMap<>();
+		SlotListItem slot = TestDataUtil.getSlotListItem();
+		SlotListItem nextSlot = new SlotListItem(slot.getId() + 1, slot.getDate(), slot.getStartTime(), slot.getEndTime(), slot.getStatus(), 
+				slot.getMode(), slot.getDoctorId(), slot.getDoctorName());
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		
+		when(availabilityRepository.exportAvailabilityAfter(null, null, null, 0, CHUNK)).thenReturn(new SliceImpl<>(List.of(slot), CHUNK, true));
+		when(availabilityRepository.exportAvailabilityAfter(null, null, null, slot.getId(), CHUNK)).thenReturn(new SliceImpl<>(List.of(nextSlot), CHUNK, false));
+		
+		long rows = adminService.exportAvailabilitySlots(requestMap, ExportFormat.NDJSON, outputStream);
+		String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals(2, rows);
+		assertEquals(2, lines.length);
+		assertEquals("{\"id\":%d,\"date\":\"%s\",\"from\":\"%s\",\"to\":\"%s\",\"status\":\"%s\",\"mode\":\"%s\",\"doctorId\":%d,\"doctorName\":\"%s\"}"
+				.formatted(slot.getId(), slot.getDate(), slot.getStartTime(), slot.getEndTime(), slot.getStatus(), slot.getMode(), slot.getDoctorId(), slot.getDoctorName()), lines[0]);
+	}
+	
+	/**
+	 * Test {@link AdminServiceImpl#searchAvailabilitySlotsByCursor(Map, String, int)}.
+	 * 
+	 */
+	@Test
+	void testSearchAvailabilitySlotsByCursor() { 
+		Map<String, Object> requestMap = new HashMap<>();
+		Pageable pageable = PageRequest.of(0, 10);
+		List<SlotListItem> slots = List.of(TestDataUtil.getSlotListItem());
+		Slice<SlotListItem> slice = new SliceImpl<>(slots, pageable, true);
+		
+		when(availabilityRepository.searchAvailabilityAfter((Integer) requestMap.get(IRequestConstants.DOCTOR_ID), (LocalDate) requestMap.get(IRequestConstants.DATE), (SlotStatus) requestMap.get(IRequestConstants.STATUS), 0, pageable)).thenReturn(slice);
+		
+		Map<String,Object> searchAvailabilitySlots = adminService.searchAvailabilitySlotsByCursor(requestMap, null, 10);
+		@SuppressWarnings("unchecked")
+		List<Map<String, Object>> response = (List<Map<String, Object>>) searchAvailabilitySlots.get(IResponseConstants.DATA);
+		AVResponse avResponse = (AVResponse) response.get(0).get(IAdminConstants.SLOT);
+		assertEquals(slots.get(0).getId(), avResponse.getId());
+		assertEquals(AdminUtil.encodeCursor(slots.get(0).getId()), searchAvailabilitySlots.get(IResponseConstants.NEXT_CURSOR));
+		
+		// Case when cursor is tampered
+		AdminException adminException = assertThrows(AdminException.class, () -> adminService.searchAvailabilitySlotsByCursor(requestMap, "not-a-cursor", 10));
+		assertEquals(IExceptionConstants.INVALID_CURSOR, adminException.getMessage());
 	}
 	
 	/**
@@ -450,8 +611,8 @@ void testChangeAvailabilityAppointmentStatus() {
 	void testSearchAppointments() {
 		Map<String, Object> requestMap = new HashMap<>();
 		Pageable pageable = PageRequest.of(0, 10);
-		List<Appointment> appointments = List.of(TestDataUtil.getAppointment());
-		Page<Appointment> pages = new PageImpl<>(appointments, pageable, appointments.size());
+		List<AppointmentListItem> appointments = List.of(TestDataUtil.getAppointmentListItem());
+		Page<AppointmentListItem> pages = new PageImpl<>(appointments, pageable, appointments.size());
 		
 		when(appointmentRepository.searchAppointments((Integer) requestMap.get(IRequestConstants.DOCTOR_ID), (Integer) requestMap.get(IRequestConstants.PATIENT_ID), (LocalDate) requestMap.get(IRequestConstants.DATE), (AppointmentStatus) requestMap.get(IRequestConstants.STATUS), pageable)).thenReturn(pages);
 		
@@ -460,9 +621,50 @@ void testSearchAppointments() {
 		List<Map<String, Object>> response = (List<Map<String, Object>>) searchAppointments.get(IResponseConstants.DATA);
 		Map<String, Object> responseMap = response.get(0);
 		assertEquals(appointments.get(0).getId(), responseMap.get(IResponseConstants.ID));
-		assertEquals(appointments.get(0).getAvailability().getDoctor().getName(), responseMap.get(IAdminConstants.DOCTOR_NAME));
-		assertEquals(appointments.get(0).getPatient().getName(), responseMap.get(IAdminConstants.PATIENT_NAME));
-		assertEquals(appointments.get(0).getAvailability().getDate(), responseMap.get(IAdminConstants.DATE));
+		assertEquals(appointments.get(0).getDoctorName(), responseMap.get(IAdminConstants.DOCTOR_NAME));
+		assertEquals(appointments.get(0).getPatientName(), responseMap.get(IAdminConstants.PATIENT_NAME));
+		assertEquals(appointments.get(0).getDate(), responseMap.get(IAdminConstants.DATE));
+	}
+	
+	/**
+	 * Test {@link AdminServiceImpl#exportAppointments(Map, ExportFormat, java.io.OutputStream)}.
+	 * 
+	 */
+	@Test
+	void testExportAppointments() {
+		Map<String, Object> requestMap = new HashMap<>();
+		requestMap.put(IRequestConstants.STATUS, AppointmentStatus.BOOKED);
+		AppointmentListItem appointment = TestDataUtil.getAppointmentListItem();
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		
+		when(appointmentRepository.exportAppointmentsAfter(null, null, null, AppointmentStatus.BOOKED, 0, CHUNK))
+				.thenReturn(new SliceImpl<>(List.of(appointment), CHUNK, false));
+		
+		long rows = adminService.exportAppointments(requestMap, ExportFormat.CSV, outputStream);
+		String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\r\n");
+		assertEquals(1, rows);
+		assertEquals("id,slotId,doctorName,patientName,date,from,to,status,bookedOn", lines[0]);
+		assertTrue(lines[1].startsWith(appointment.getId() + "," + appointment.getSlotId() + ","));
+	}
+	
+	/**
+	 * Test {@link AdminServiceImpl#searchAppointmentsByCursor(Map, String, int)}.
+	 * 
+	 */
+	@Test
+	void testSearchAppointmentsByCursor() {
+		Map<String, Object> requestMap = new HashMap<>();
+		Pageable pageable = PageRequest.of(0, 10);
+		List<AppointmentListItem> appointments = List.of(TestDataUtil.getAppointmentListItem());
+		Slice<AppointmentListItem> slice = new SliceImpl<>(appointments, pageable, true);
+		
+		when(appointmentRepository.searchAppointmentsAfter((Integer) requestMap.get(IRequestConstants.DOCTOR_ID), (Integer) requestMap.get(IRequestConstants.PATIENT_ID), (LocalDate) requestMap.get(IRequestConstants.DATE), (AppointmentStatus) requestMap.get(IRequestConstants.STATUS), 0, pageable)).thenReturn(slice);
+		
+		Map<String,Object> searchAppointments = adminService.searchAppointmentsByCursor(requestMap, "", 10);
+		@SuppressWarnings("unchecked")
+		List<Map<String, Object>> response = (List<Map<String, Object>>) searchAppointments.get(IResponseConstants.DATA);
+		assertEquals(appointments.get(0).getId(), response.get(0).get(IAdminConstants.ID));
+		assertEquals(AdminUtil.encodeCursor(appointments.get(0).getId()), searchAppointments.get(IResponseConstants.NEXT_CURSOR));
 	}
 	
 	/**
@@ -505,6 +707,27 @@ void testSearchLeaves() {
 		assertEquals(doctorLeaves.get(0).getDoctor().getName(), doctorIdNameProjection.getName());
 	}
 	
+	/**
+	 * Test {@link AdminServiceImpl#searchLeavesByCursor(Map, String, int)}.
+	 * 
+	 */
+	@Test
+	void testSearchLeavesByCursor() {
+		Map<String, Object> requestMap = new HashMap<>();
+		Pageable pageable = PageRequest.of(0, 10);
+		List<DoctorLeave> doctorLeaves = List.of(TestDataUtil.getDoctorLeave());
+		Slice<DoctorLeave> slice = new SliceImpl<>(doctorLeaves, pageable, false);
+		
+		when(leaveRepository.searchLeavesByAdminAfter((Integer) requestMap.get(IRequestConstants.DOCTOR_ID), (LocalDate) requestMap.get(IRequestConstants.FROM), (LocalDate) requestMap.get(IRequestConstants.TO), (LeaveStatus) requestMap.get(IRequestConstants.STATUS), 0, pageable)).thenReturn(slice);
+		
+		Map<String,Object> searchLeaves = adminService.searchLeavesByCursor(requestMap, "", 10);
+		@SuppressWarnings("unchecked")
+		List<Map<String, Object>> response = (List<Map<String, Object>>) searchLeaves.get(IResponseConstants.DATA);
+		LeaveResponse leaveResponse = (LeaveResponse) response.get(0).get(IAdminConstants.LEAVE_INFO);
+		assertEquals(doctorLeaves.get(0).getId(), leaveResponse.getId());
+		assertNull(searchLeaves.get(IResponseConstants.NEXT_CURSOR));
+	}
+	
 	/**
 	 * Test {@link AdminServiceImpl#changeLeaveStatus(Integer, String, LeaveStatus)}.
 	 * 
@@ -519,9 +742,10 @@ void testChangeLeaveStatus() {
 		when(leaveRepository.findById(id)).thenReturn(Optional.of(doctorLeave));
 		when(leaveRepository.changeLeaveStatus(eq(id), (LocalDateTime) any(), (LeaveStatus) any())).thenReturn(1);
 		when(slotsProperties.getMaximumGenerationDays()).thenReturn(5);
-		when(availabilityRepository.findByDoctorIdAndDateBetween(eq(doctorLeave.getDoctor().getId()), (LocalDate) any(), (LocalDate) any())).thenReturn(new ArrayList<>());
-		// successfully updating leave status
+		// successfully updating leave status, no slots job is queued for a past leave
 		assertEquals(IResponseConstants.LEAVE_APPROVED, adminService.changeLeaveStatus(id, role, status));
+		verify(holidayLeaveCalendar, times(1)).addLeave(doctorLeave.getDoctor().getId(), doctorLeave.getFrom(), doctorLeave.getTo());
+		verify(leaveSlotJobRepository, never()).save(any());
 
 		// when status is other than APPROVED, currently only possible value is REJECTED
 		assertEquals(IResponseConstants.LEAVE_REJECTED ,adminService.changeLeaveStatus(id, role, LeaveStatus.REJECTED));
@@ -547,12 +771,12 @@ void testChangeLeaveStatus() {
 	
 	/**
 	 * Test {@link AdminServiceImpl#changeLeaveStatus(Integer, String, LeaveStatus)}.
-	 * This test method covers different scenarios of private method {@code deleteSlotOrCancelAppointment}
+	 * This test method covers different scenarios of private method {@code queueLeaveSlotJob}
 	 * which get call from {@link AdminServiceImpl#changeLeaveStatus(Integer, String, LeaveStatus)}.
 	 * 
 	 */
 	@Test
-	void testChangeLeaveStatusHandleSlots() {
+	void testChangeLeaveStatusQueueSlotsJob() {
 		Integer id = 1;
 		LocalDate today = LocalDate.now();
 		String role = IDoctorConstants.DOCTOR_ROLE;
@@ -560,35 +784,27 @@ void testChangeLeaveStatusHandleSlots() {
 		DoctorLeave doctorLeave = TestDataUtil.getDoctorLeave();
 		doctorLeave.setFrom(today.plusDays(7));
 		doctorLeave.setTo(today.plusDays(10));
+		ArgumentCaptor<LeaveSlotJob> job = ArgumentCaptor.forClass(LeaveSlotJob.class);
 		
 		when(leaveRepository.findById(id)).thenReturn(Optional.of(doctorLeave));
 		when(leaveRepository.changeLeaveStatus(eq(id), (LocalDateTime) any(), (LeaveStatus) any())).thenReturn(1);
 		when(slotsProperties.getMaximumGenerationDays()).thenReturn(5);
 		// Case when leave booking dates doesn't falls in maximum generation dates
 		assertEquals(IResponseConstants.LEAVE_APPROVED, adminService.changeLeaveStatus(id, role, status));
+		verify(leaveSlotJobRepository, never()).save(any());
 
-		doctorLeave.setFrom(today);
+		doctorLeave.setFrom(today.minusDays(1));
 		doctorLeave.setTo(today.plusDays(6));
-		List<Availability> slots = List.of(TestDataUtil.getAvailability());
-
-		when(availabilityRepository.findByDoctorIdAndDateBetween(eq(doctorLeave.getDoctor().getId()), (LocalDate) any(), (LocalDate) any())).thenReturn(slots);
-		when(availabilityRepository.updateStatusByIds(eq(SlotStatus.CANCELLED), anyList(), (LocalDateTime) any())).thenReturn(1);
-		when(appointmentRepository.updateStatusByAvailabilityIds(eq(AppointmentStatus.D_CANCELLED), anyList(), (LocalDateTime) any(), eq(List.of(AppointmentStatus.BOOKED, AppointmentStatus.APPROVED)))).thenReturn(1);
-		// case when from date is within maximum generation date limit and to date is out of that limit (greater)
-		assertEquals(IResponseConstants.LEAVE_APPROVED, adminService.changeLeaveStatus(id, role, status));
-		
-		slots.get(0).setStatus(SlotStatus.AVAILABLE);
-		doNothing().when(availabilityRepository).deleteAll(anyList());
-		// case when slot(s) status is AVAILABLE
-		assertEquals(IResponseConstants.LEAVE_APPROVED, adminService.changeLeaveStatus(id, role, status));
-
-		slots.get(0).setStatus(SlotStatus.RE_AVAILABLE);
-		// case when slot(s) status is RE_AVAILABLE
-		assertEquals(IResponseConstants.LEAVE_APPROVED, adminService.changeLeaveStatus(id, role, status));
-
-		slots.get(0).setStatus(SlotStatus.CANCELLED);
-		// case when slot(s) status is CANCELLED
+		// case when from date is before today and to date is out of maximum generation date limit (greater)
 		assertEquals(IResponseConstants.LEAVE_APPROVED, adminService.changeLeaveStatus(id, role, status));
+		verify(leaveSlotJobRepository, times(1)).save(job.capture());
+		verify(eventPublisher, times(1)).publishEvent(any(LeaveApprovedEvent.class));
+		assertEquals(doctorLeave, job.getValue().getLeave());
+		assertEquals(today, job.getValue().getFrom());
+		assertEquals(today.plusDays(5), job.getValue().getTo());
+		assertEquals(today, job.getValue().getNextDate());
+		assertEquals(LeaveSlotJobStatus.PENDING, job.getValue().getStatus());
+		verify(availabilityRepository, never()).updateStatusByIds(any(), anyList(), anyList(), any());
 	}
 	
 	/**
@@ -604,6 +820,8 @@ void testAddHoliday() {
 		when(holidayRepository.save(holiday)).thenReturn(TestDataUtil.getHolidays().get(0));
 		// Success scenario
 		assertTrue(adminService.addHoliday(holidayDTO));
+		verify(holidayLeaveCalendar, times(1)).addHoliday(holiday.getHolidayDate());
+		verify(referenceDataCache, times(1)).evict(ICacheConstants.HOLIDAYS);
 
 		// saving holiday failed
 		when(holidayRepository.save(holiday)).thenReturn(null);
@@ -626,6 +844,13 @@ void testDeleteHoliday() {
 		
 		adminService.deleteHoliday(id);
 		verify(holidayRepository, times(1)).deleteById(id);
+		
+		// case when holiday exists, it is removed from calendar as well
+		Holiday holiday = TestDataUtil.getHolidays().get(0);
+		when(holidayRepository.findById(id)).thenReturn(Optional.of(holiday));
+		adminService.deleteHoliday(id);
+		verify(holidayLeaveCalendar, times(1)).removeHoliday(holiday.getHolidayDate());
+		verify(referenceDataCache, times(2)).evict(ICacheConstants.HOLIDAYS);
 	}
 	
 	private HolidayDTO getHolidayDTO() {
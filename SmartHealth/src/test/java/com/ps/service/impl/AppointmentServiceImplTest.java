@@ -8,6 +8,9 @@
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
@@ -22,20 +25,26 @@
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 
+import com.ps.cache.NameIndex;
 import com.ps.constants.IDoctorConstants;
 import com.ps.constants.IExceptionConstants;
 import com.ps.constants.IPatientConstants;
 import com.ps.constants.IRequestConstants;
 import com.ps.constants.IResponseConstants;
+import com.ps.dto.AppointmentListItem;
+import com.ps.dto.NameFilter;
 import com.ps.dto.RelationDTO;
 import com.ps.dto.SubProfileDTO;
 import com.ps.dto.request.AppointmentRequest;
@@ -47,10 +56,12 @@
 import com.ps.entity.Appointment;
 import com.ps.entity.Availability;
 import com.ps.entity.Doctor;
+import com.ps.entity.DoctorLeave;
 import com.ps.entity.Patient;
 import com.ps.entity.SubProfile;
 import com.ps.enu.AppointmentStatus;
 import com.ps.enu.SlotStatus;
+import com.ps.event.AppointmentChangedEvent;
 import com.ps.exception.AppointmentException;
 import com.ps.exception.AvailabilityException;
 import com.ps.exception.DoctorException;
@@ -58,12 +69,15 @@
 import com.ps.exception.ProfileException;
 import com.ps.repo.AppointmentRepository;
 import com.ps.repo.AvailabilityRepository;
+import com.ps.repo.DoctorLeaveRepository;
 import com.ps.repo.DoctorRepository;
+import com.ps.repo.HolidayRepository;
 import com.ps.repo.PatientRepository;
 import com.ps.repo.SubProfileRepository;
 import com.ps.service.IDoctorService;
 import com.ps.util.JwtUtil;
 import com.ps.util.TestDataUtil;
+import com.ps.util.VirtualSlots;
 
 /**
  * This class contains unit test methods for testing
@@ -91,9 +105,24 @@ class AppointmentServiceImplTest {
 	@Mock
 	private SubProfileRepository subProfileRepository;
 	
+	@Mock
+	private DoctorLeaveRepository leaveRepository;
+	
+	@Mock
+	private HolidayRepository holidayRepository;
+	
 	@Mock
 	private IDoctorService doctorService;
 	
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	@Mock
+	private NameIndex nameIndex;
+	
+	@Mock
+	private VirtualSlots virtualSlots;
+	
 	private MockedStatic<JwtUtil> jwtUtilMock;
 
 	@BeforeEach
@@ -173,7 +202,7 @@ void testBookAppointment() {
 		when(subProfileRepository.findById(request.getSubProfile().getId())).thenReturn(Optional.of(subProfile));
 		when(subProfileRepository.save((SubProfile) any())).thenReturn(subProfile);
 		when(appointmentRepository.save((Appointment) any())).thenReturn(appointment);
-		when(availabilityRepository.save((Availability) any())).thenReturn(availability);
+		when(availabilityRepository.claimSlot(eq(availability.getId()), any(LocalDateTime.class))).thenReturn(1);
 		// 1. Case when appointment booked successfully for given sub profile
 		assertTrue(appointmentService.bookAppointment(request));
 		
@@ -194,47 +223,55 @@ void testBookAppointment() {
 		// 5. Case when sub profile flag is off (patient booking for self)
 		request.setIsSubProfile(false);
 		assertTrue(appointmentService.bookAppointment(request));
+		verify(eventPublisher, times(3)).publishEvent(any(AppointmentChangedEvent.class));
 		
-		// 6. Case when failed to save availability
-		when(availabilityRepository.save((Availability) any())).thenReturn(null);
-		assertFalse(appointmentService.bookAppointment(request));
+		// 6. Case when the doctor is on an approved leave on the date of the slot
+		when(leaveRepository.isOnApprovedLeave(eq(doctor.getId()), any(LocalDate.class))).thenReturn(true, false);
+		availabilityException = assertThrows(AvailabilityException.class, ()->appointmentService.bookAppointment(request));
+		assertEquals(IExceptionConstants.DOCTOR_ON_LEAVE, availabilityException.getMessage());
+		
+		// 7. Case when slot is claimed by another request in between (conditional update changed no row)
+		when(availabilityRepository.claimSlot(eq(availability.getId()), any(LocalDateTime.class))).thenReturn(0);
+		availabilityException = assertThrows(AvailabilityException.class, ()->appointmentService.bookAppointment(request));
+		assertEquals(IExceptionConstants.SLOT_JUST_TAKEN, availabilityException.getMessage());
 
-		// 7. Case when failed to save both availability and appointment
+		// 8. Case when failed to save appointment
+		when(availabilityRepository.claimSlot(eq(availability.getId()), any(LocalDateTime.class))).thenReturn(1);
 		when(appointmentRepository.save((Appointment) any())).thenReturn(null);
 		assertFalse(appointmentService.bookAppointment(request));
 		
-		// 8. Case when patient booking for today's slot but time is in past
+		// 9. Case when patient booking for today's slot but time is in past
 		availability.setDate(today);
 		availability.setEndTime(LocalTime.now().minusMinutes(2));
 		availabilityException = assertThrows(AvailabilityException.class, ()->appointmentService.bookAppointment(request));
 		assertEquals(IExceptionConstants.CANT_BOOK_PAST_SLOTS, availabilityException.getMessage());
 
-		// 9. Case when patient booking for today's slot booking time is not in past
+		// 10. Case when patient booking for today's slot booking time is not in past
 		availability.setDate(today);
 		availability.setEndTime(LocalTime.now().plusMinutes(20));
 		assertFalse(appointmentService.bookAppointment(request));
 		
-		// 10. Case when doctor id from slots mismatched with id of doctor from request
+		// 11. Case when doctor id from slots mismatched with id of doctor from request
 		doctor.setId(2);
 		availabilityException = assertThrows(AvailabilityException.class, ()->appointmentService.bookAppointment(request));
 		assertEquals(IExceptionConstants.DOCTOR_SLOTS_MISMATCHED, availabilityException.getMessage());
 
-		// 11. Case when doctor is not found for given id
+		// 12. Case when doctor is not found for given id
 		when(doctorRepository.findById(request.getDoctorId())).thenReturn(Optional.empty());
 		DoctorException doctorException = assertThrows(DoctorException.class, ()->appointmentService.bookAppointment(request));
 		assertEquals(IExceptionConstants.DOCTOR_NOT_FOUND, doctorException.getMessage());
 		
-		// 12. Case when availability not found for given id from request
+		// 13. Case when availability not found for given id from request
 		when(availabilityRepository.fetchByIdAndStatusIn(request.getSlotId())).thenReturn(Optional.empty());
 		availabilityException = assertThrows(AvailabilityException.class, ()->appointmentService.bookAppointment(request));
 		assertEquals(IExceptionConstants.AVAILABILITY_SLOTS_NOT_FOUND, availabilityException.getMessage());
 		
-		// 13. Case when patient mismatched
+		// 14. Case when patient mismatched
 		jwtUtilMock.when(JwtUtil::getEmailFromToken).thenReturn("otherpatient@shc.com");
 		patientException = assertThrows(PatientException.class, ()->appointmentService.bookAppointment(request));
 		assertEquals(IExceptionConstants.SESSION_MISMATCHED, patientException.getMessage());
 		
-		// 14. Case when patient not found for given id from request
+		// 15. Case when patient not found for given id from request
 		when(patientRepository.findById(request.getPatientId())).thenReturn(Optional.empty());
 		patientException = assertThrows(PatientException.class, ()->appointmentService.bookAppointment(request));
 		assertEquals(IExceptionConstants.PATIENT_NOT_FOUND, patientException.getMessage());
@@ -251,11 +288,14 @@ void testViewAllAppointmentsPatient() {
 		Pageable pageable = PageRequest.of(0, 10);
 		String email = TestDataUtil.getPatientEmail();
 		String role = IPatientConstants.PATIENT_ROLE;
-		List<Appointment> appointments = List.of(TestDataUtil.getAppointment());
-		Page<Appointment> pages = new PageImpl<>(appointments, pageable, appointments.size());
+		List<AppointmentListItem> appointments = List.of(TestDataUtil.getAppointmentListItem());
+		Page<AppointmentListItem> pages = new PageImpl<>(appointments, pageable, appointments.size());
+
+		NameFilter name = NameFilter.byName((String) requestMap.get(IRequestConstants.NAME));
 
 		mockJwt(role, email);
-		when(appointmentRepository.filterAppointmentsForPatient(email, (String) requestMap.get(IRequestConstants.NAME), (LocalDate) requestMap.get(IRequestConstants.DATE), (AppointmentStatus) requestMap.get(IRequestConstants.STATUS), pageable)).thenReturn(pages);
+		when(nameIndex.resolveDoctorName((String) requestMap.get(IRequestConstants.NAME))).thenReturn(name);
+		when(appointmentRepository.filterAppointmentsForPatient(email, name.getName(), name.isResolved(), name.getIds(), (LocalDate) requestMap.get(IRequestConstants.DATE), (AppointmentStatus) requestMap.get(IRequestConstants.STATUS), pageable)).thenReturn(pages);
 
 		// success scenario
 		Map<String,Object> viewAllAppointments = appointmentService.viewAllAppointments(requestMap, pageable);
@@ -263,11 +303,11 @@ void testViewAllAppointmentsPatient() {
 		List<Map<String, Object>> appointmentList = (List<Map<String, Object>>) viewAllAppointments.get(IResponseConstants.DATA);
 		Map<String, Object> appointmentDataMap = appointmentList.get(0);
 		assertEquals(appointments.get(0).getId(), appointmentDataMap.get(IResponseConstants.ID));
-		assertEquals(appointments.get(0).getAvailability().getDoctor().getName(), appointmentDataMap.get(IResponseConstants.DOCTOR_NAME));
+		assertEquals(appointments.get(0).getDoctorName(), appointmentDataMap.get(IResponseConstants.DOCTOR_NAME));
 		
 		// case when no appointments found
 		pages = new PageImpl<>(List.of());
-		when(appointmentRepository.filterAppointmentsForPatient(email, (String) requestMap.get(IRequestConstants.NAME), (LocalDate) requestMap.get(IRequestConstants.DATE), (AppointmentStatus) requestMap.get(IRequestConstants.STATUS), pageable)).thenReturn(pages);
+		when(appointmentRepository.filterAppointmentsForPatient(email, name.getName(), name.isResolved(), name.getIds(), (LocalDate) requestMap.get(IRequestConstants.DATE), (AppointmentStatus) requestMap.get(IRequestConstants.STATUS), pageable)).thenReturn(pages);
 		AppointmentException appointmentException = assertThrows(AppointmentException.class, ()-> appointmentService.viewAllAppointments(requestMap, pageable));
 		assertEquals(IExceptionConstants.NO_APPOINTMENTS_FOUND, appointmentException.getMessage());
 	}
@@ -282,11 +322,14 @@ void testViewAllAppointmentsDoctor() {
 		Pageable pageable = PageRequest.of(0, 10);
 		String email = TestDataUtil.getDoctorEmail();
 		String role = IDoctorConstants.DOCTOR_ROLE;
-		List<Appointment> appointments = List.of(TestDataUtil.getAppointment());
-		Page<Appointment> pages = new PageImpl<>(appointments, pageable, appointments.size());
+		List<AppointmentListItem> appointments = List.of(TestDataUtil.getAppointmentListItem());
+		Page<AppointmentListItem> pages = new PageImpl<>(appointments, pageable, appointments.size());
+
+		NameFilter name = NameFilter.byName((String) requestMap.get(IRequestConstants.NAME));
 
 		mockJwt(role, email);
-		when(appointmentRepository.filterAppointemtnsForDoctor(email, (String) requestMap.get(IRequestConstants.NAME), (LocalDate) requestMap.get(IRequestConstants.DATE), (AppointmentStatus) requestMap.get(IRequestConstants.STATUS), (Integer) requestMap.get(IRequestConstants.SLOT_ID), pageable)).thenReturn(pages);
+		when(nameIndex.resolvePatientName((String) requestMap.get(IRequestConstants.NAME))).thenReturn(name);
+		when(appointmentRepository.filterAppointemtnsForDoctor(email, name.getName(), name.isResolved(), name.getIds(), (LocalDate) requestMap.get(IRequestConstants.DATE), (AppointmentStatus) requestMap.get(IRequestConstants.STATUS), (Integer) requestMap.get(IRequestConstants.SLOT_ID), pageable)).thenReturn(pages);
 
 		// success scenario
 		Map<String,Object> viewAllAppointments = appointmentService.viewAllAppointments(requestMap, pageable);
@@ -294,11 +337,11 @@ void testViewAllAppointmentsDoctor() {
 		List<Map<String, Object>> appointmentList = (List<Map<String, Object>>) viewAllAppointments.get(IResponseConstants.DATA);
 		Map<String, Object> appointmentDataMap = appointmentList.get(0);
 		assertEquals(appointments.get(0).getId(), appointmentDataMap.get(IResponseConstants.ID));
-		assertEquals(appointments.get(0).getPatient().getName(), appointmentDataMap.get(IResponseConstants.PATIENT_NAME));
+		assertEquals(appointments.get(0).getPatientName(), appointmentDataMap.get(IResponseConstants.PATIENT_NAME));
 		
 		// case when no appointments found
 		pages = new PageImpl<>(List.of());
-		when(appointmentRepository.filterAppointemtnsForDoctor(email, (String) requestMap.get(IRequestConstants.NAME), (LocalDate) requestMap.get(IRequestConstants.DATE), (AppointmentStatus) requestMap.get(IRequestConstants.STATUS), (Integer) requestMap.get(IRequestConstants.SLOT_ID), pageable)).thenReturn(pages);
+		when(appointmentRepository.filterAppointemtnsForDoctor(email, name.getName(), name.isResolved(), name.getIds(), (LocalDate) requestMap.get(IRequestConstants.DATE), (AppointmentStatus) requestMap.get(IRequestConstants.STATUS), (Integer) requestMap.get(IRequestConstants.SLOT_ID), pageable)).thenReturn(pages);
 		AppointmentException appointmentException = assertThrows(AppointmentException.class, ()-> appointmentService.viewAllAppointments(requestMap, pageable));
 		assertEquals(IExceptionConstants.NO_APPOINTMENTS_FOUND, appointmentException.getMessage());
 	}
@@ -318,6 +361,60 @@ void testViewAllAppointmentsOther() {
 		assertEquals(IExceptionConstants.PROVIDE_VALID_ROLE, profileException.getMessage());
 	}
 	
+	/**
+	 * Test {@link AppointmentServiceImpl#bookAppointment(AppointmentRequest)}.
+	 * Cases when the slot is a virtual slot of the doctor's rule.
+	 */
+	@Test
+	void testBookAppointmentVirtualSlot() {
+		Patient patient = TestDataUtil.getPatient();
+		Doctor doctor = TestDataUtil.getDoctor();
+		AppointmentRequest request = getAppointmentRequest();
+		request.setIsSubProfile(false);
+		LocalDate date = LocalDate.now().plusDays(2);
+		request.setSlotId(VirtualSlots.encode(date, LocalTime.of(9, 30)));
+		Availability virtual = TestDataUtil.getAvailability();
+		virtual.setId(request.getSlotId());
+		virtual.setDate(date);
+		virtual.setStatus(SlotStatus.AVAILABLE);
+		Availability stored = TestDataUtil.getAvailability();
+		stored.setDate(date);
+		
+		jwtUtilMock.when(JwtUtil::getEmailFromToken).thenReturn(TestDataUtil.getPatientEmail());
+		when(patientRepository.findById(request.getPatientId())).thenReturn(Optional.of(patient));
+		when(doctorRepository.findById(request.getDoctorId())).thenReturn(Optional.of(doctor));
+		when(virtualSlots.resolve(doctor, request.getSlotId())).thenReturn(Optional.of(virtual));
+		when(virtualSlots.materialize(virtual, SlotStatus.BOOKED)).thenReturn(stored);
+		when(appointmentRepository.save((Appointment) any())).thenAnswer(inv -> inv.getArgument(0));
+		// 1. Case when the virtual slot is stored as booked and the appointment is booked on the stored slot
+		assertTrue(appointmentService.bookAppointment(request));
+		ArgumentCaptor<Appointment> captor = ArgumentCaptor.forClass(Appointment.class);
+		verify(appointmentRepository).save(captor.capture());
+		assertEquals(stored, captor.getValue().getAvailability());
+		verify(availabilityRepository, never()).fetchByIdAndStatusIn(any());
+		verify(availabilityRepository, never()).claimSlot(any(), any());
+		
+		// 2. Case when the date has become a holiday the rule of this instance does not know yet
+		when(holidayRepository.existsByHolidayDate(date)).thenReturn(true, false);
+		AvailabilityException availabilityException = assertThrows(AvailabilityException.class, ()->appointmentService.bookAppointment(request));
+		assertEquals(IExceptionConstants.HOLIDAY_ON_DATE, availabilityException.getMessage());
+		
+		// 3. Case when a leave covering the date is approved while the virtual slot is being stored
+		when(leaveRepository.lockApprovedLeaves(doctor.getId(), date)).thenReturn(List.of(new DoctorLeave()));
+		availabilityException = assertThrows(AvailabilityException.class, ()->appointmentService.bookAppointment(request));
+		assertEquals(IExceptionConstants.DOCTOR_ON_LEAVE, availabilityException.getMessage());
+		
+		// 4. Case when the virtual slot has just been stored by another request
+		when(virtualSlots.materialize(virtual, SlotStatus.BOOKED)).thenThrow(new AvailabilityException(IExceptionConstants.SLOT_JUST_TAKEN, HttpStatus.CONFLICT));
+		availabilityException = assertThrows(AvailabilityException.class, ()->appointmentService.bookAppointment(request));
+		assertEquals(IExceptionConstants.SLOT_JUST_TAKEN, availabilityException.getMessage());
+		
+		// 5. Case when the rule no longer offers the virtual slot
+		when(virtualSlots.resolve(doctor, request.getSlotId())).thenReturn(Optional.empty());
+		availabilityException = assertThrows(AvailabilityException.class, ()->appointmentService.bookAppointment(request));
+		assertEquals(IExceptionConstants.AVAILABILITY_SLOTS_NOT_FOUND, availabilityException.getMessage());
+	}
+	
 	/**
 	 * Test {@link AppointmentServiceImpl#changeAppointmentStatus(Integer, AppointmentStatus, boolean)}.
 	 * 
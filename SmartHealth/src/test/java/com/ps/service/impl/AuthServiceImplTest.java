@@ -5,6 +5,8 @@
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
@@ -15,7 +17,7 @@
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
 
 import com.ps.config.props.PathProperties;
 import com.ps.constants.IAdminConstants;
@@ -30,6 +32,8 @@
 import com.ps.entity.Admin;
 import com.ps.entity.Doctor;
 import com.ps.entity.Patient;
+import com.ps.event.DoctorChangedEvent;
+import com.ps.event.PatientChangedEvent;
 import com.ps.exception.AdminException;
 import com.ps.exception.DoctorException;
 import com.ps.exception.PatientException;
@@ -41,6 +45,7 @@
 import com.ps.repo.PatientRepository;
 import com.ps.service.IAvailabilityService;
 import com.ps.util.JwtUtil;
+import com.ps.util.PasswordUtil;
 import com.ps.util.TestConverterUtil;
 import com.ps.util.TestDataUtil;
 
@@ -62,7 +67,7 @@ class AuthServiceImplTest {
 	private PatientMapper patientMapper;
 	
 	@Mock
-	private PasswordEncoder passwordEncoder;
+	private PasswordUtil passwordUtil;
 	
 	@Mock
 	private PathProperties pathProperties;
@@ -85,6 +90,9 @@ class AuthServiceImplTest {
 	@Mock
 	private AdminMapper adminMapper;
 	
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+	
 	/**
 	 * Test {@link AuthServiceImpl#registerPatient(PatientProfileRequest)}.
 	 */
@@ -96,11 +104,12 @@ void testRegisterPatient() {
 		
 		when(patientRepository.findByEmailOrPhone(request.getEmail(), request.getPhone())).thenReturn(new ArrayList<>());
 		when(patientMapper.toPatient(request)).thenReturn(TestConverterUtil.toPatient(request));
-		when(passwordEncoder.encode(request.getPassword())).thenReturn("$2a$10$d6o/wJABjSHVJa3At9Dhpe2x6x5P/skQg2HgFWw2MnUNKlOqt0jCK");
+		when(passwordUtil.encode(request.getPassword())).thenReturn("$2a$10$d6o/wJABjSHVJa3At9Dhpe2x6x5P/skQg2HgFWw2MnUNKlOqt0jCK");
 		when(pathProperties.getDefaultProfilePicName()).thenReturn(defaultImage);
 		when(patientRepository.save((Patient) any())).thenReturn(patient);
 		// Successfully registered
 		assertTrue(authService.registerPatient(request));
+		verify(eventPublisher, times(1)).publishEvent(any(PatientChangedEvent.class));
 
 		// Failed to register
 		when(patientRepository.save((Patient) any())).thenReturn(null);
@@ -128,7 +137,7 @@ void testLoginPatient() {
 		request.setPassword("12345");
 		
 		when(patientRepository.findByEmailOrPhone(user, user)).thenReturn(patients);
-		when(passwordEncoder.matches(request.getPassword(), patient.getPassword())).thenReturn(true);
+		when(passwordUtil.matches(request.getPassword(), patient.getPassword())).thenReturn(true);
 		when(jwtUtil.generateToken(patient.getEmail(), patient.getRoles())).thenReturn(token);
 		
 		// Successful login
@@ -136,8 +145,14 @@ void testLoginPatient() {
 		assertEquals(token, loginResponse.getToken());
 		assertEquals(IPatientConstants.PATIENT_ROLE, loginResponse.getRole());
 
+		// Password hashed with another strength is rehashed
+		String rehashed = "$2a$12$eImiTXuWVxfM37uY4JANjQ==eImiTXuWVxfM37uY4JANjQ==eImiTXu";
+		when(passwordUtil.rehash(request.getPassword(), patient.getPassword())).thenReturn(rehashed);
+		authService.loginPatient(request);
+		verify(patientRepository, times(1)).updatePassword(rehashed, patient.getEmail());
+
 		// When input password is not correct
-		when(passwordEncoder.matches(request.getPassword(), patient.getPassword())).thenReturn(false);
+		when(passwordUtil.matches(request.getPassword(), patient.getPassword())).thenReturn(false);
 		PatientException patientException = assertThrows(PatientException.class, () -> {
 			authService.loginPatient(request);
 		});
@@ -176,12 +191,13 @@ void testRegisterDoctor() {
 		
 		when(doctorRepository.findByEmailOrPhone(request.getEmail(), request.getPhone())).thenReturn(new ArrayList<>());
 		when(doctorMapper.toDoctor(request)).thenReturn(TestConverterUtil.toDoctor(request));
-		when(passwordEncoder.encode(request.getPassword())).thenReturn("$2a$10$qba/yfe5RMNm7/.c2uKdFul9QiZIBEB7HugUQXH6nKLVMW.iU2bFm");
+		when(passwordUtil.encode(request.getPassword())).thenReturn("$2a$10$qba/yfe5RMNm7/.c2uKdFul9QiZIBEB7HugUQXH6nKLVMW.iU2bFm");
 		when(pathProperties.getDefaultProfilePicName()).thenReturn(defaultImage);
 		when(doctorRepository.save((Doctor) any())).thenReturn(doctor);
 		when(availabilityService.setDefaultAGPreference((Doctor) any())).thenReturn(true);
 		// Successfully registered
 		assertTrue(authService.registerDoctor(request));
+		verify(eventPublisher, times(1)).publishEvent(any(DoctorChangedEvent.class));
 		
 		// Successfully registered but failed to save default availability generation preference
 		when(availabilityService.setDefaultAGPreference((Doctor) any())).thenReturn(false);
@@ -213,7 +229,7 @@ void testLoginDoctor() {
 		request.setPassword("12345");
 		
 		when(doctorRepository.findByEmailOrPhone(user, user)).thenReturn(doctors);
-		when(passwordEncoder.matches(request.getPassword(), doctor.getPassword())).thenReturn(true);
+		when(passwordUtil.matches(request.getPassword(), doctor.getPassword())).thenReturn(true);
 		when(jwtUtil.generateToken(doctor.getEmail(), doctor.getRoles())).thenReturn(token);
 		
 		// Successful login
@@ -222,7 +238,7 @@ void testLoginDoctor() {
 		assertEquals(IDoctorConstants.DOCTOR_ROLE, loginResponse.getRole());
 
 		// When input password is not correct
-		when(passwordEncoder.matches(request.getPassword(), doctor.getPassword())).thenReturn(false);
+		when(passwordUtil.matches(request.getPassword(), doctor.getPassword())).thenReturn(false);
 		DoctorException doctorException = assertThrows(DoctorException.class, () -> {
 			authService.loginDoctor(request);
 		});
@@ -261,7 +277,7 @@ void restRegisterAdmin() {
 		
 		when(adminRepository.findByEmailOrPhone(request.getEmail(), request.getPhone())).thenReturn(new ArrayList<>());
 		when(adminMapper.toAdmin(request)).thenReturn(TestConverterUtil.toAdmin(request));
-		when(passwordEncoder.encode(request.getPassword())).thenReturn("$2a$10$C.refJDMVi2i4vE.Ds19r.Iw4T6pYXaAPm9K5V/V/RD8SBhdvQReK");
+		when(passwordUtil.encode(request.getPassword())).thenReturn("$2a$10$C.refJDMVi2i4vE.Ds19r.Iw4T6pYXaAPm9K5V/V/RD8SBhdvQReK");
 		when(pathProperties.getDefaultProfilePicName()).thenReturn(defaultImage);
 		when(adminRepository.save((Admin) any())).thenReturn(admin);
 		// Successfully registered
@@ -293,7 +309,7 @@ void testLoginAdmin() {
 		request.setPassword("12345");
 		
 		when(adminRepository.findByEmailOrPhone(user, user)).thenReturn(admins);
-		when(passwordEncoder.matches(request.getPassword(), admin.getPassword())).thenReturn(true);
+		when(passwordUtil.matches(request.getPassword(), admin.getPassword())).thenReturn(true);
 		when(jwtUtil.generateToken(admin.getEmail(), admin.getRoles())).thenReturn(token);
 		
 		// Successful login
@@ -302,7 +318,7 @@ void testLoginAdmin() {
 		assertEquals(IAdminConstants.ADMIN_ROLE, loginResponse.getRole());
 
 		// When input password is not correct
-		when(passwordEncoder.matches(request.getPassword(), admin.getPassword())).thenReturn(false);
+		when(passwordUtil.matches(request.getPassword(), admin.getPassword())).thenReturn(false);
 		AdminException adminException = assertThrows(AdminException.class, () -> {
 			authService.loginAdmin(request);
 		});
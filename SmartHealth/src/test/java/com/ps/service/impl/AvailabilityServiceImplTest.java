@@ -6,10 +6,12 @@
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -19,6 +21,7 @@
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -32,11 +35,13 @@
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import com.ps.cache.HolidayLeaveCalendar;
 import com.ps.constants.IAdminConstants;
 import com.ps.constants.IExceptionConstants;
 import com.ps.constants.IRequestConstants;
@@ -46,6 +51,7 @@
 import com.ps.dto.request.AVRequest;
 import com.ps.dto.response.ADResponse;
 import com.ps.dto.response.AGPreferenceResponse;
+import com.ps.dto.response.AGSummary;
 import com.ps.dto.response.AVResponse;
 import com.ps.entity.AGPreference;
 import com.ps.entity.Appointment;
@@ -55,6 +61,7 @@
 import com.ps.enu.AGMode;
 import com.ps.enu.AppointmentStatus;
 import com.ps.enu.SlotStatus;
+import com.ps.event.SlotsChangedEvent;
 import com.ps.exception.AppointmentException;
 import com.ps.exception.AvailabilityException;
 import com.ps.exception.DoctorException;
@@ -63,13 +70,13 @@
 import com.ps.repo.AGPreferenceRepository;
 import com.ps.repo.AppointmentRepository;
 import com.ps.repo.AvailabilityRepository;
-import com.ps.repo.DoctorLeaveRepository;
 import com.ps.repo.DoctorRepository;
-import com.ps.repo.HolidayRepository;
 import com.ps.repo.SlotInputRepository;
+import com.ps.util.AvailabilityUtil;
 import com.ps.util.JwtUtil;
 import com.ps.util.TestConverterUtil;
 import com.ps.util.TestDataUtil;
+import com.ps.util.VirtualSlots;
 
 /**
  * This class contains unit test methods for testing
@@ -88,9 +95,6 @@ class AvailabilityServiceImplTest {
 	@Mock
 	private DoctorRepository doctorRepository;
 
-	@Mock
-	private HolidayRepository holidayRepository;
-
 	@Mock
 	private AGPreferenceRepository agPreferenceRepository;
 
@@ -104,11 +108,17 @@ class AvailabilityServiceImplTest {
 	private AGPreferenceMapper agMapper;
 	
 	@Mock
-	private DoctorLeaveRepository leaveRepository;
+	private HolidayLeaveCalendar holidayLeaveCalendar;
 	
 	@Mock
 	private AvailabilityMapper availabilityMapper;
 	
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+	
+	@Mock
+	private VirtualSlots virtualSlots;
+	
 	private MockedStatic<JwtUtil> jwtUtilMock;
 
 	@BeforeEach
@@ -141,7 +151,7 @@ void testGenerateAvailabilitySlots() {
 		verify(spyService, times(1)).setDefaultAGPreference(doctor);
 		
 		request.setMode(AGMode.CUSTOM_ONE_TIME);
-		doNothing().when(spyService).generateAvailabilitySlots(request, doctor);
+		doReturn(new AGSummary()).when(spyService).generateAvailabilitySlots(request, doctor);
 		//case when mode is CUSTOM_ONE_TIME
 		spyService.generateAvailabilitySlots(request);
 		verify(spyService, times(1)).generateAvailabilitySlots(request, doctor);
@@ -196,24 +206,61 @@ void testGenerateAvailabilitySlotsManual() {
 		agRequest.setManualSlots(TestDataUtil.getAsRequests());
 		Doctor doctor = TestDataUtil.getDoctor();
 		
-		when(availabilityRepository.existsByDoctorAndDateAndStartTimeAndEndTime(eq(doctor), any(LocalDate.class), any(LocalTime.class), any(LocalTime.class))).thenReturn(false);
-		when(availabilityRepository.hasOverlappingSlot(eq(doctor.getId()), any(LocalDate.class), any(LocalTime.class), any(LocalTime.class))).thenReturn(false);
-		when(availabilityRepository.save(any(Availability.class))).thenReturn(TestDataUtil.getAvailability());
+		LocalDate date = agRequest.getManualSlots().get(0).getDate();
+		
+		when(availabilityRepository.findByDoctorIdAndDateBetween(doctor.getId(), date, date)).thenReturn(List.of());
+		when(availabilityRepository.batchInsert(anyList())).thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
 		// successful creation of slot
-		availabilityService.generateAvailabilitySlots(agRequest, doctor);
-		verify(availabilityRepository, times(1)).save(any(Availability.class));
+		AGSummary summary = availabilityService.generateAvailabilitySlots(agRequest, doctor);
+		assertEquals(1, summary.getGenerated());
+		assertEquals(0, summary.getSkipped());
+		verify(availabilityRepository, times(1)).batchInsert(anyList());
 		
 		// case when given have overlapping with existing one
-		when(availabilityRepository.hasOverlappingSlot(eq(doctor.getId()), any(LocalDate.class), any(LocalTime.class), any(LocalTime.class))).thenReturn(true);
-		availabilityService.generateAvailabilitySlots(agRequest, doctor);
+		Availability existing = AvailabilityUtil.prepareAvailability(doctor, date, LocalTime.of(9, 15), LocalTime.of(9, 45), AGMode.MANUAL);
+		when(availabilityRepository.findByDoctorIdAndDateBetween(doctor.getId(), date, date)).thenReturn(List.of(existing));
+		summary = availabilityService.generateAvailabilitySlots(agRequest, doctor);
+		assertEquals(0, summary.getGenerated());
+		assertEquals(1, summary.getSkipped());
 
 		// case when given have overlapping with existing one as exact date and time for given doctor		
-		when(availabilityRepository.existsByDoctorAndDateAndStartTimeAndEndTime(eq(doctor), any(LocalDate.class), any(LocalTime.class), any(LocalTime.class))).thenReturn(true);
-		availabilityService.generateAvailabilitySlots(agRequest, doctor);
+		existing.setStartTime(LocalTime.of(9, 0));
+		existing.setEndTime(LocalTime.of(9, 30));
+		summary = availabilityService.generateAvailabilitySlots(agRequest, doctor);
+		assertEquals(0, summary.getGenerated());
+		assertEquals(1, summary.getSkipped());
 
 		// case when slot generation request is for past time
 		agRequest.getManualSlots().get(0).setDate(LocalDate.now().minusDays(2));
-		availabilityService.generateAvailabilitySlots(agRequest, doctor);
+		when(availabilityRepository.findByDoctorIdAndDateBetween(eq(doctor.getId()), any(LocalDate.class), any(LocalDate.class))).thenReturn(List.of());
+		summary = availabilityService.generateAvailabilitySlots(agRequest, doctor);
+		assertEquals(0, summary.getGenerated());
+		assertEquals(1, summary.getSkipped());
+		verify(availabilityRepository, times(1)).batchInsert(anyList());
+	}
+	
+	/**
+	 * Test {@link AvailabilityServiceImpl#generateAvailabilitySlots(AGRequest, Doctor)}.
+	 * Case when requested slots overlap each other or existing slots of the same day
+	 */
+	@Test
+	void testGenerateAvailabilitySlotsOverlapping() {
+		AGRequest agRequest = new AGRequest();
+		agRequest.setMode(AGMode.MANUAL);
+		Doctor doctor = TestDataUtil.getDoctor();
+		LocalDate date = LocalDate.now().plusDays(2);
+		agRequest.setManualSlots(List.of(TestDataUtil.getAsRequest(date, LocalTime.of(9, 0), LocalTime.of(9, 30)),
+										 TestDataUtil.getAsRequest(date, LocalTime.of(9, 15), LocalTime.of(9, 45)),
+										 TestDataUtil.getAsRequest(date, LocalTime.of(9, 30), LocalTime.of(10, 0)),
+										 TestDataUtil.getAsRequest(date, LocalTime.of(10, 30), LocalTime.of(11, 0)),
+										 TestDataUtil.getAsRequest(date, LocalTime.of(11, 0), LocalTime.of(11, 30))));
+		Availability existing = AvailabilityUtil.prepareAvailability(doctor, date, LocalTime.of(10, 0), LocalTime.of(11, 0), AGMode.MANUAL);
+		
+		when(availabilityRepository.findByDoctorIdAndDateBetween(doctor.getId(), date, date)).thenReturn(List.of(existing));
+		when(availabilityRepository.batchInsert(anyList())).thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
+		AGSummary summary = availabilityService.generateAvailabilitySlots(agRequest, doctor);
+		assertEquals(3, summary.getGenerated());
+		assertEquals(2, summary.getSkipped());
 	}
 	
 	/**
@@ -241,9 +288,8 @@ void testGenerateAvailabilitySlotsO() {
 			}
 		}
 		
-		when(availabilityRepository.existsByDoctorAndDateAndStartTimeAndEndTime(eq(doctor), any(LocalDate.class), any(LocalTime.class), any(LocalTime.class))).thenReturn(false);
-		when(availabilityRepository.hasOverlappingSlot(eq(doctor.getId()), any(LocalDate.class), any(LocalTime.class), any(LocalTime.class))).thenReturn(false);
-		when(availabilityRepository.save(any(Availability.class))).thenReturn(TestDataUtil.getAvailability());
+		when(availabilityRepository.findByDoctorIdAndDateBetween(eq(doctor.getId()), any(LocalDate.class), any(LocalDate.class))).thenReturn(List.of());
+		when(availabilityRepository.batchInsert(anyList())).thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
 		when(agPreferenceRepository.findById(doctor.getId())).thenReturn(Optional.of(agPreference));
 		doNothing().when(agMapper).updateAGPreferenceFromRequest(any(AGRequest.class), eq(agPreference));
 		when(agPreferenceRepository.save(any(AGPreference.class))).thenReturn(agPreference);
@@ -254,10 +300,15 @@ void testGenerateAvailabilitySlotsO() {
 			
 			return slotInputs.stream().filter(s -> s.getStartTime().equals(start) && s.getEndTime().equals(end) && s.getGapInMinutes().equals(gapInMinutes)).findFirst();
 		});
-		when(holidayRepository.existsByHolidayDate(holiday)).thenReturn(true);
-		when(leaveRepository.existsByDoctorAndDay(doctor.getEmail(), leaveDay)).thenReturn(true);
+		LocalDate holidayDate = holiday;
+		LocalDate leaveDate = leaveDay;
+		when(holidayLeaveCalendar.isBlocked(eq(doctor.getId()), any(LocalDate.class))).thenAnswer(inv -> {
+			LocalDate date = inv.getArgument(1);
+			return date.getDayOfWeek() == DayOfWeek.SUNDAY || date.equals(holidayDate) || date.equals(leaveDate);
+		});
 		// Execution of with mode CUSTOM_ONE_TIME
-		availabilityService.generateAvailabilitySlots(agRequest, doctor);
+		AGSummary summary = availabilityService.generateAvailabilitySlots(agRequest, doctor);
+		assertEquals(summary.getGenerated() + summary.getSkipped(), slotsPerDay(slotInputs) * (workingDays(agRequest) - 2));
 		
 		// case when slot input is not present in DB then saving it
 		when(slotInputRepository.findByStartTimeAndEndTimeAndGapInMinutes(any(LocalTime.class), any(LocalTime.class), anyInt())).thenReturn(Optional.empty());
@@ -276,7 +327,44 @@ void testGenerateAvailabilitySlotsO() {
 		// Execution with mode CUSTOM_ONE_TIME
 		agRequest.setMode(AGMode.CUSTOM_ONE_TIME);
 		agRequest.setSlotInputs(List.of());
-		availabilityService.generateAvailabilitySlots(agRequest, doctor);
+		summary = availabilityService.generateAvailabilitySlots(agRequest, doctor);
+		assertEquals(0, summary.getGenerated());
+	}
+	
+	/**
+	 * Test {@link AvailabilityServiceImpl#generateAvailabilitySlots(AGRequest, Doctor)}.
+	 * Case when virtual slots are enabled, a CUSTOM_CONTINUOUS request only stores the preference.
+	 */
+	@Test
+	void testGenerateAvailabilitySlotsVirtual() {
+		AGRequest agRequest = TestDataUtil.getAgRequest();
+		agRequest.setMode(AGMode.CUSTOM_CONTINUOUS);
+		agRequest.setSlotInputs(List.of());
+		Doctor doctor = TestDataUtil.getDoctor();
+		AGPreference agPreference = TestDataUtil.getAGPreference();
+		
+		when(virtualSlots.isEnabled()).thenReturn(true);
+		when(agPreferenceRepository.findById(doctor.getId())).thenReturn(Optional.of(agPreference));
+		when(agPreferenceRepository.save(agPreference)).thenReturn(agPreference);
+		AGSummary summary = availabilityService.generateAvailabilitySlots(agRequest, doctor);
+		assertEquals(0, summary.getGenerated());
+		assertEquals(agRequest.getStartDate(), agRequest.getLastGeneratedOn());
+		verify(agMapper).updateAGPreferenceFromRequest(agRequest, agPreference);
+		verify(eventPublisher).publishEvent(any(SlotsChangedEvent.class));
+		verify(availabilityRepository, never()).batchInsert(anyList());
+	}
+	
+	private int slotsPerDay(List<SlotInput> slotInputs) {
+		return slotInputs.stream().mapToInt(s -> (int) (ChronoUnit.MINUTES.between(s.getStartTime(), s.getEndTime()) / s.getGapInMinutes())).sum();
+	}
+	
+	private int workingDays(AGRequest agRequest) {
+		int days = 0;
+		for (LocalDate date = agRequest.getStartDate(); !date.isAfter(agRequest.getEndDate()); date = date.plusDays(1)) {
+			if (date.getDayOfWeek() != DayOfWeek.SUNDAY)
+				days++;
+		}
+		return days;
 	}
 	
 	/**
@@ -416,6 +504,43 @@ void testDeleteAvailabilitySlot() {
 		assertEquals(IExceptionConstants.NOT_ABLE_TO_DELETE_SLOT, availabilityException.getMessage());
 	}
 	
+	/**
+	 * Test {@link AvailabilityServiceImpl#deleteAvailabilitySlot(Integer)}.
+	 * Cases when virtual slots are enabled.
+	 */
+	@Test
+	void testDeleteAvailabilitySlotVirtual() {
+		Doctor doctor = TestDataUtil.getDoctor();
+		LocalDate date = LocalDate.now().plusDays(2);
+		Integer virtualId = VirtualSlots.encode(date, LocalTime.of(9, 30));
+		Availability virtual = TestDataUtil.getAvailability();
+		virtual.setId(virtualId);
+		virtual.setDate(date);
+		
+		jwtUtilMock.when(JwtUtil::getEmailFromToken).thenReturn(TestDataUtil.getDoctorEmail());
+		when(doctorRepository.findByEmail(TestDataUtil.getDoctorEmail())).thenReturn(Optional.of(doctor));
+		when(virtualSlots.resolve(doctor, virtualId)).thenReturn(Optional.of(virtual));
+		// 1. Case when the virtual slot is stored as cancelled
+		assertEquals(1, availabilityService.deleteAvailabilitySlot(virtualId));
+		verify(virtualSlots).materialize(virtual, SlotStatus.CANCELLED);
+		verify(eventPublisher).publishEvent(any(SlotsChangedEvent.class));
+		verify(availabilityRepository, never()).deleteByIdAndEmailAndStatus(any(), any(), any());
+		
+		// 2. Case when the rule no longer offers the virtual slot
+		when(virtualSlots.resolve(doctor, virtualId)).thenReturn(Optional.empty());
+		AvailabilityException availabilityException = assertThrows(AvailabilityException.class, ()->availabilityService.deleteAvailabilitySlot(virtualId));
+		assertEquals(IExceptionConstants.NOT_ABLE_TO_DELETE_SLOT, availabilityException.getMessage());
+		
+		// 3. Case when a stored slot is deleted, the virtual slots it was hiding are cancelled
+		Availability stored = TestDataUtil.getAvailability();
+		stored.setDate(date);
+		when(virtualSlots.isEnabled()).thenReturn(true);
+		when(availabilityRepository.findById(stored.getId())).thenReturn(Optional.of(stored));
+		when(availabilityRepository.deleteByIdAndEmailAndStatus(stored.getId(), TestDataUtil.getDoctorEmail(), List.of(SlotStatus.AVAILABLE))).thenReturn(1);
+		assertEquals(1, availabilityService.deleteAvailabilitySlot(stored.getId()));
+		verify(virtualSlots).cancel(stored.getDoctor(), date, date, stored.getStartTime(), stored.getEndTime());
+	}
+	
 	/**
 	 * Test {@link AvailabilityServiceImpl#bulkDeleteAvailabilitySlots(ADRequest)}.
 	 * 
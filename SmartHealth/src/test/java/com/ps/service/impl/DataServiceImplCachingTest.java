@@ -0,0 +1,153 @@
+package com.ps.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import com.ps.cache.ImageCache;
+import com.ps.cache.ReferenceDataCache;
+import com.ps.config.props.ImageProperties;
+import com.ps.config.props.PathProperties;
+import com.ps.constants.ICacheConstants;
+import com.ps.entity.Degree;
+import com.ps.entity.Holiday;
+import com.ps.mapper.HolidayMapper;
+import com.ps.repo.DegreeRepository;
+import com.ps.repo.DepartmentRepository;
+import com.ps.repo.HolidayRepository;
+import com.ps.repo.RelationRepository;
+import com.ps.repo.SpecializationRepository;
+import com.ps.service.IDataService;
+import com.ps.util.TestDataUtil;
+
+/**
+ * This test class verifies that reference data of {@link DataServiceImpl}
+ * is read from database once and then served from cache until
+ * it is evicted through {@link ReferenceDataCache}.
+ *
+ */
+@SpringJUnitConfig
+class DataServiceImplCachingTest {
+
+	@Configuration
+	@EnableCaching
+	@Import({DataServiceImpl.class, ReferenceDataCache.class})
+	static class CachingConfig {
+
+		@Bean
+		CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager();
+		}
+	}
+
+	@Autowired
+	private IDataService dataService;
+
+	@Autowired
+	private ReferenceDataCache referenceDataCache;
+
+	@MockBean
+	private DegreeRepository degreeRepository;
+
+	@MockBean
+	private DepartmentRepository departmentRepository;
+
+	@MockBean
+	private SpecializationRepository specializationRepository;
+
+	@MockBean
+	private RelationRepository relationRepository;
+
+	@MockBean
+	private HolidayRepository holidayRepository;
+
+	@MockBean
+	private HolidayMapper holidayMapper;
+
+	@MockBean
+	private PathProperties pathProperties;
+
+	@MockBean
+	private ImageCache imageCache;
+
+	@MockBean
+	private ImageProperties imageProperties;
+
+	/**
+	 * Test {@link DataServiceImpl#getDoctorDegrees()}.
+	 *
+	 */
+	@Test
+	void testGetDoctorDegrees() {
+		List<Degree> degrees = TestDataUtil.getDegrees();
+		String eTag = referenceDataCache.getETag(ICacheConstants.DEGREES);
+
+		when(degreeRepository.findAll()).thenReturn(degrees);
+
+		assertEquals(degrees, dataService.getDoctorDegrees());
+		assertEquals(degrees, dataService.getDoctorDegrees());
+		verify(degreeRepository, times(1)).findAll();
+		assertEquals(eTag, referenceDataCache.getETag(ICacheConstants.DEGREES));
+
+		// case when cache is evicted, data is read again with a new entity tag
+		referenceDataCache.evict(ICacheConstants.DEGREES);
+		assertEquals(degrees, dataService.getDoctorDegrees());
+		verify(degreeRepository, times(2)).findAll();
+		assertNotEquals(eTag, referenceDataCache.getETag(ICacheConstants.DEGREES));
+	}
+
+	/**
+	 * Test {@link DataServiceImpl#viewHolidays(Pageable)}.
+	 * Cases of cached pages, read once until holidays change, and of sorted, resized and far pages, never cached.
+	 */
+	@Test
+	void testViewHolidays() {
+		Pageable firstPage = PageRequest.of(0, 10);
+		Pageable secondPage = PageRequest.of(1, 10);
+		List<Holiday> holidays = TestDataUtil.getHolidays();
+
+		when(holidayRepository.findAll(firstPage)).thenReturn(new PageImpl<>(holidays, firstPage, holidays.size()));
+		when(holidayRepository.findAll(secondPage)).thenReturn(new PageImpl<>(List.of(), secondPage, holidays.size()));
+
+		dataService.viewHolidays(firstPage);
+		dataService.viewHolidays(firstPage);
+		dataService.viewHolidays(secondPage);
+		verify(holidayRepository, times(1)).findAll(firstPage);
+		verify(holidayRepository, times(1)).findAll(secondPage);
+
+		// case when holidays are changed, every page is read again
+		referenceDataCache.evict(ICacheConstants.HOLIDAYS);
+		dataService.viewHolidays(firstPage);
+		verify(holidayRepository, times(2)).findAll(firstPage);
+
+		// Pages whose key would come from arbitrary client values are read from database every time
+		Pageable sortedPage = PageRequest.of(0, 10, Sort.by("holidayDate"));
+		Pageable largePage = PageRequest.of(0, 50);
+		Pageable farPage = PageRequest.of(ICacheConstants.HOLIDAYS_CACHED_PAGES, 10);
+		for (Pageable pageable : List.of(sortedPage, largePage, farPage)) {
+			when(holidayRepository.findAll(pageable)).thenReturn(new PageImpl<>(List.of(), pageable, holidays.size()));
+			dataService.viewHolidays(pageable);
+			dataService.viewHolidays(pageable);
+			verify(holidayRepository, times(2)).findAll(pageable);
+		}
+	}
+}
@@ -3,33 +3,32 @@
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.when;
 
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
-import org.junit.jupiter.api.AfterEach;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import com.ps.cache.ImageCache;
+import com.ps.config.props.ImageProperties;
 import com.ps.config.props.PathProperties;
 import com.ps.constants.IAdminConstants;
 import com.ps.constants.IDoctorConstants;
 import com.ps.constants.IPatientConstants;
 import com.ps.constants.IResponseConstants;
 import com.ps.dto.HolidayDTO;
+import com.ps.dto.ImageFile;
 import com.ps.entity.Degree;
 import com.ps.entity.Department;
 import com.ps.entity.Holiday;
@@ -41,7 +40,6 @@
 import com.ps.repo.HolidayRepository;
 import com.ps.repo.RelationRepository;
 import com.ps.repo.SpecializationRepository;
-import com.ps.util.DataUtil;
 import com.ps.util.TestConverterUtil;
 import com.ps.util.TestDataUtil;
 
@@ -65,11 +63,15 @@ class DataServiceImplTest {
 	@Mock
 	private SpecializationRepository specializationRepository;
 	
-	private MockedStatic<DataUtil> dataUtilMock;
+	@Mock
+	private ImageCache imageCache;
 	
 	@Mock
 	private PathProperties pathProperties;
 	
+	@Mock
+	private ImageProperties imageProperties;
+	
 	@Mock
 	private RelationRepository relationRepository;
 	
@@ -79,16 +81,6 @@ class DataServiceImplTest {
 	@Mock
 	private HolidayMapper holidayMapper;
 
-	@BeforeEach
-	void setUp() throws Exception {
-		dataUtilMock = mockStatic(DataUtil.class);
-	}
-
-	@AfterEach
-	void tearDown() throws Exception {
-		dataUtilMock.close();
-	}
-
 	/**
 	 * This method is used to test {@code getDoctorDegrees}
 	 * method of {@link DataServiceImpl}
@@ -129,14 +121,14 @@ void testGetDoctorSpecializations() {
 	 */
 	@Test
 	void testGetPictureByNamePatient() {
-		Resource resource = mock(Resource.class);
+		ImageFile resource = mock(ImageFile.class);
 		String fileName = "1_ProfilePic_user.jpg";
 		String filePath = "/images/patient/";
 		
 		when(pathProperties.getPatientImagePath()).thenReturn(filePath);
-		when(DataUtil.getResourceFromPath(Paths.get(filePath + fileName))).thenReturn(resource);
+		when(imageCache.get(Paths.get(filePath + fileName))).thenReturn(resource);
 		
-		Resource actualResource = dataService.getPictureByName(fileName, IPatientConstants.PATIENT_ROLE);
+		ImageFile actualResource = dataService.getPictureByName(fileName, IPatientConstants.PATIENT_ROLE, null);
 		assertEquals(resource, actualResource);
 	}
 
@@ -147,14 +139,14 @@ void testGetPictureByNamePatient() {
 	 */
 	@Test
 	void testGetPictureByNameDoctor() {
-		Resource resource = mock(Resource.class);
+		ImageFile resource = mock(ImageFile.class);
 		String fileName = "1_ProfilePic_user.jpg";
 		String filePath = "/images/doctor/";
 		
 		when(pathProperties.getDoctorImagePath()).thenReturn(filePath);
-		when(DataUtil.getResourceFromPath(Paths.get(filePath + fileName))).thenReturn(resource);
+		when(imageCache.get(Paths.get(filePath + fileName))).thenReturn(resource);
 		
-		Resource actualResource = dataService.getPictureByName(fileName, IDoctorConstants.DOCTOR_ROLE);
+		ImageFile actualResource = dataService.getPictureByName(fileName, IDoctorConstants.DOCTOR_ROLE, null);
 		assertEquals(resource, actualResource);
 	}
 
@@ -165,14 +157,14 @@ void testGetPictureByNameDoctor() {
 	 */
 	@Test
 	void testGetPictureByNameAdmin() {
-		Resource resource = mock(Resource.class);
+		ImageFile resource = mock(ImageFile.class);
 		String fileName = "1_ProfilePic_user.jpg";
 		String filePath = "/images/admin/";
 		
 		when(pathProperties.getAdminImagePath()).thenReturn(filePath);
-		when(DataUtil.getResourceFromPath(Paths.get(filePath + fileName))).thenReturn(resource);
+		when(imageCache.get(Paths.get(filePath + fileName))).thenReturn(resource);
 		
-		Resource actualResource = dataService.getPictureByName(fileName, IAdminConstants.ADMIN_ROLE);
+		ImageFile actualResource = dataService.getPictureByName(fileName, IAdminConstants.ADMIN_ROLE, null);
 		assertEquals(resource, actualResource);
 	}
 
@@ -183,14 +175,14 @@ void testGetPictureByNameAdmin() {
 	 */
 	@Test
 	void testGetPictureByNameDefault() {
-		Resource resource = mock(Resource.class);
+		ImageFile resource = mock(ImageFile.class);
 		String fileName = "1_ProfilePic_user.jpg";
 		String filePath = "/images/";
 		
 		when(pathProperties.getImageStoragePath()).thenReturn(filePath);
-		when(DataUtil.getResourceFromPath(Paths.get(filePath + fileName))).thenReturn(resource);
+		when(imageCache.get(Paths.get(filePath + fileName))).thenReturn(resource);
 		
-		Resource actualResource = dataService.getPictureByName(fileName, "OTHER_ROLE");
+		ImageFile actualResource = dataService.getPictureByName(fileName, "OTHER_ROLE", null);
 		assertEquals(resource, actualResource);
 	}
 
@@ -201,20 +193,48 @@ void testGetPictureByNameDefault() {
 	 */
 	@Test
 	void testGetPictureByNameRoleValidation() {
-		Resource resource = mock(Resource.class);
+		ImageFile resource = mock(ImageFile.class);
 		String fileName = "1_ProfilePic_user.jpg";
 		String filePath = "/images/";
 		
 		when(pathProperties.getImageStoragePath()).thenReturn(filePath);
-		when(DataUtil.getResourceFromPath(Paths.get(filePath + fileName))).thenReturn(resource);
+		when(imageCache.get(Paths.get(filePath + fileName))).thenReturn(resource);
 		
-		Resource actualResource = dataService.getPictureByName(fileName, null);
+		ImageFile actualResource = dataService.getPictureByName(fileName, null, null);
 		assertEquals(resource, actualResource);
 
-		actualResource = dataService.getPictureByName(fileName, " ");
+		actualResource = dataService.getPictureByName(fileName, " ", null);
 		assertEquals(resource, actualResource);
 	}
 
+	/**
+	 * This method is used to test {@code getPictureByName}
+	 * method of {@link DataServiceImpl}
+	 * Scenario where a size is requested.
+	 */
+	@Test
+	void testGetPictureByNameVariant() {
+		ImageFile original = mock(ImageFile.class);
+		ImageFile variant = mock(ImageFile.class);
+		String fileName = "1_ProfilePic_1735689600000_user.jpg";
+		String filePath = "/images/doctor/";
+		
+		when(pathProperties.getDoctorImagePath()).thenReturn(filePath);
+		when(imageProperties.getVariantSizes()).thenReturn(List.of(64, 256));
+		when(imageCache.find(Paths.get(filePath + "1_ProfilePic_1735689600000_user_64px.jpg"))).thenReturn(Optional.of(variant));
+		
+		// case when smallest variant at least as big as requested size is served
+		assertEquals(variant, dataService.getPictureByName(fileName, IDoctorConstants.DOCTOR_ROLE, 48));
+		
+		// case when variant is not generated yet, original is served
+		when(imageCache.find(Paths.get(filePath + "1_ProfilePic_1735689600000_user_256px.jpg"))).thenReturn(Optional.empty());
+		when(imageCache.get(Paths.get(filePath + fileName))).thenReturn(original);
+		assertEquals(original, dataService.getPictureByName(fileName, IDoctorConstants.DOCTOR_ROLE, 100));
+		
+		// case when requested size is bigger than any variant, original is served
+		assertEquals(original, dataService.getPictureByName(fileName, IDoctorConstants.DOCTOR_ROLE, 512));
+	}
+
 	/**
 	 * This method is used to test {@code getPatientRelations}
 	 * method of {@link DataServiceImpl}
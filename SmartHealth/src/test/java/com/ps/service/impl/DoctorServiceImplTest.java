@@ -2,14 +2,13 @@
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,12 +16,15 @@
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import com.ps.cache.DoctorSearchIndex;
+import com.ps.cache.SlotAvailabilityCache;
 import com.ps.constants.IRequestConstants;
 import com.ps.constants.IResponseConstants;
 import com.ps.dto.request.DSRequest;
@@ -31,12 +33,12 @@
 import com.ps.dto.response.DailyAppointments;
 import com.ps.entity.Appointment;
 import com.ps.entity.Availability;
-import com.ps.entity.Doctor;
 import com.ps.enu.AppointmentStatus;
 import com.ps.repo.AppointmentRepository;
-import com.ps.repo.AvailabilityRepository;
-import com.ps.repo.DoctorRepository;
+import com.ps.repo.AppointmentRollupRepository;
+import com.ps.util.AvailabilityUtil;
 import com.ps.util.JwtUtil;
+import com.ps.util.QueryFanOut;
 import com.ps.util.TestDataUtil;
 
 /**
@@ -51,14 +53,20 @@ class DoctorServiceImplTest {
 	private DoctorServiceImpl doctorService;
 	
 	@Mock
-	private DoctorRepository doctorRepository;
+	private DoctorSearchIndex doctorSearchIndex;
 	
 	@Mock
-	private AvailabilityRepository availabilityRepository;
+	private SlotAvailabilityCache slotAvailabilityCache;
 	
 	@Mock
 	private AppointmentRepository appointmentRepository;
 	
+	@Mock
+	private AppointmentRollupRepository appointmentRollupRepository;
+	
+	@Spy
+	private QueryFanOut queryFanOut = TestDataUtil.getQueryFanOut();
+	
 	/**
 	 * Test {@code searchDoctor} method of {@link DoctorServiceImpl}.
 	 */
@@ -66,11 +74,10 @@ class DoctorServiceImplTest {
 	void testSearchDoctor() {
 		DSRequest dsRequest = new DSRequest();
 		Pageable pageable = PageRequest.of(0, 10);
-		List<Doctor> doctors = List.of(TestDataUtil.getDoctor());
-		Page<Doctor> pages = new PageImpl<>(doctors, pageable, 1L);
+		List<DSResponse> doctors = List.of(AvailabilityUtil.prepareDSResponse(TestDataUtil.getDoctor()));
+		Page<DSResponse> pages = new PageImpl<>(doctors, pageable, 1L);
 		
-		when(doctorRepository.searchDoctorsWithSlots(dsRequest.getName(), dsRequest.getDepartment(), dsRequest.getSpecialization(), 
-				dsRequest.getDegree(), dsRequest.getDate(), LocalDate.now(), pageable)).thenReturn(pages);
+		when(doctorSearchIndex.search(dsRequest, pageable)).thenReturn(pages);
 		
 		Map<String,Object> searchDoctor = doctorService.searchDoctor(dsRequest, pageable);
 		assertNotNull(searchDoctor);
@@ -87,20 +94,21 @@ void testSearchDoctor() {
 	@Test
 	void testViewSlots() {
 		Map<String, Object> requestMap = new HashMap<>();
-		requestMap.put(IRequestConstants.DOCTOR_ID, null);
-		requestMap.put(IRequestConstants.DATE, null);
-		List<Availability> slots = List.of(TestDataUtil.getAvailability());
+		Availability slot = TestDataUtil.getAvailability();
+		requestMap.put(IRequestConstants.DOCTOR_ID, 1);
+		requestMap.put(IRequestConstants.DATE, slot.getDate());
+		Map<LocalDate, List<AVResponse>> slots = new TreeMap<>();
+		slots.put(slot.getDate(), List.of(AvailabilityUtil.prepareAVResponse(slot)));
 		
-		when(availabilityRepository.viewSlots(eq((Integer) requestMap.get(IRequestConstants.DOCTOR_ID)), eq((LocalDate) requestMap.get(IRequestConstants.DATE)),
-																	 eq(LocalDate.now()), any())).thenReturn(slots);
+		when(slotAvailabilityCache.viewSlots(1, slot.getDate())).thenReturn(slots);
 		
 		Map<LocalDate,List<AVResponse>> viewSlots = doctorService.viewSlots(requestMap);
 		assertNotNull(viewSlots);
-		List<AVResponse> list = viewSlots.get(slots.get(0).getDate());
+		List<AVResponse> list = viewSlots.get(slot.getDate());
 		assertNotNull(list);
-		assertEquals(slots.get(0).getId(), list.get(0).getId());
-		assertEquals(slots.get(0).getStartTime(), list.get(0).getStartTime());
-		assertEquals(slots.get(0).getEndTime(), list.get(0).getEndTime());
+		assertEquals(slot.getId(), list.get(0).getId());
+		assertEquals(slot.getStartTime(), list.get(0).getStartTime());
+		assertEquals(slot.getEndTime(), list.get(0).getEndTime());
 	}
 	
 	/**
@@ -121,12 +129,13 @@ void testViewDashboard() {
 		List<DailyAppointments> dailyAppointments = TestDataUtil.getDailyAppointments();
 		
 		jwtUtilMock.when(JwtUtil::getEmailFromToken).thenReturn(email);
-		when(appointmentRepository.countByAvailabilityDoctorEmailAndAvailabilityDate(email, today)).thenReturn(todaysAppointments);
-		when(appointmentRepository.countByAvailabilityDoctorEmailAndAvailabilityDateGreaterThanEqual(email, today)).thenReturn(upcomingAppointments);
-		when(appointmentRepository.countByAvailabilityDoctorEmailAndAvailabilityDateGreaterThanEqualAndStatus(email, today, AppointmentStatus.BOOKED)).thenReturn(pendingApproval);
-		when(appointmentRepository.countByAvailabilityDoctorEmailAndAvailabilityDateAndStatusIn(email, today, List.of(AppointmentStatus.D_CANCELLED, AppointmentStatus.P_CANCELLED))).thenReturn(cancelledToday);
+		// rows of (status, count from today, count of today)
+		List<Object[]> statusCounts = List.of(new Object[] {AppointmentStatus.BOOKED, 10L, 2L},
+											  new Object[] {AppointmentStatus.APPROVED, 9L, 1L},
+											  new Object[] {AppointmentStatus.D_CANCELLED, 1L, 1L});
+		when(appointmentRepository.countByDoctorEmailFromGroupByStatus(email, today)).thenReturn(statusCounts);
 		when(appointmentRepository.findByAvailabilityDoctorEmailAndAvailabilityDate(email, today)).thenReturn(appointments);
-		when(appointmentRepository.findAppointmentsTrendsByDate(email, today.minusDays(4), today)).thenReturn(dailyAppointments);
+		when(appointmentRollupRepository.findTrendsByDoctorEmailAndDate(email, today.minusDays(4), today)).thenReturn(dailyAppointments);
 		
 		Map<String,Object> viewDashboard = doctorService.viewDashboard();
 		assertNotNull(viewDashboard);
@@ -136,6 +145,7 @@ void testViewDashboard() {
 		assertEquals(upcomingAppointments, stats.get(IResponseConstants.UPCOMING_APPOINTMENTS));
 		assertEquals(pendingApproval, stats.get(IResponseConstants.PENDING_APPROVALS));
 		assertEquals(cancelledToday, stats.get(IResponseConstants.CANCELLATIONS_TODAY));
+		assertEquals(false, viewDashboard.get(IResponseConstants.PARTIAL));
 
 		List<Map<String, Object>> todaysAppointmentsList = (List<Map<String, Object>>) viewDashboard.get(IResponseConstants.TODAYS_SCHEDULE);
 		assertNotNull(todaysAppointmentsList);
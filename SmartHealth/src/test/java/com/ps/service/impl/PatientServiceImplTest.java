@@ -2,6 +2,7 @@
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
@@ -16,7 +17,9 @@
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
 
 import com.ps.constants.IPatientConstants;
 import com.ps.constants.IResponseConstants;
@@ -24,6 +27,7 @@
 import com.ps.enu.AppointmentStatus;
 import com.ps.repo.AppointmentRepository;
 import com.ps.util.JwtUtil;
+import com.ps.util.QueryFanOut;
 import com.ps.util.TestDataUtil;
 
 /**
@@ -40,6 +44,9 @@ class PatientServiceImplTest {
 	@Mock
 	private AppointmentRepository appointmentRepository;
 	
+	@Spy
+	private QueryFanOut queryFanOut = TestDataUtil.getQueryFanOut();
+	
 	private MockedStatic<JwtUtil> jwtUtilMock;
 
 	@BeforeEach
@@ -67,10 +74,12 @@ void testViewDashboard() {
 		List<Appointment> appointments = List.of(TestDataUtil.getAppointment());
 		
 		mockJwt(IPatientConstants.PATIENT_ROLE, email);
-		when(appointmentRepository.countByPatientEmailAndAvailabilityDateGreaterThanEqual(email, today)).thenReturn(upcomingAppointments);
-		when(appointmentRepository.countByPatientEmailAndStatus(email, AppointmentStatus.APPROVED)).thenReturn(approvedAppointments);
-		when(appointmentRepository.countByPatientEmailAndStatus(email, AppointmentStatus.COMPLETED)).thenReturn(completedAppointments);
-		when(appointmentRepository.countByPatientEmailAndStatusIn(email, List.of(AppointmentStatus.D_CANCELLED, AppointmentStatus.P_CANCELLED))).thenReturn(cancelledAppointments);
+		// rows of (status, count, count from today)
+		List<Object[]> statusCounts = List.of(new Object[] {AppointmentStatus.APPROVED, 7L, 1L},
+											  new Object[] {AppointmentStatus.COMPLETED, 10L, 0L},
+											  new Object[] {AppointmentStatus.P_CANCELLED, 2L, 0L},
+											  new Object[] {AppointmentStatus.D_CANCELLED, 1L, 0L});
+		when(appointmentRepository.countByPatientEmailGroupByStatus(email, today)).thenReturn(statusCounts);
 		when(appointmentRepository.findByPatientEmailAndAvailabilityDateGreaterThanEqual(email, today)).thenReturn(appointments);
 		
 		Map<String,Object> viewDashboard = patientService.viewDashboard();
@@ -91,6 +100,28 @@ void testViewDashboard() {
 		assertEquals(appointments.get(0).getStatus(), appointmentData.get(IResponseConstants.STATUS));
 		assertEquals(appointments.get(0).getAvailability().getStartTime(), appointmentData.get(IResponseConstants.FROM));
 		assertEquals(appointments.get(0).getAvailability().getEndTime(), appointmentData.get(IResponseConstants.TO));
+		assertEquals(false, viewDashboard.get(IResponseConstants.PARTIAL));
+	}
+
+	/**
+	 * Test {@code viewDashboard} method of {@link PatientServiceImpl} when a query fails.
+	 */
+	@SuppressWarnings("unchecked")
+	@Test
+	void testViewDashboardPartial() {
+		String email = TestDataUtil.getPatientEmail();
+		LocalDate today = LocalDate.now();
+		List<Object[]> statusCounts = List.<Object[]>of(new Object[] {AppointmentStatus.APPROVED, 7L, 1L});
+		
+		mockJwt(IPatientConstants.PATIENT_ROLE, email);
+		when(appointmentRepository.countByPatientEmailGroupByStatus(email, today)).thenReturn(statusCounts);
+		when(appointmentRepository.findByPatientEmailAndAvailabilityDateGreaterThanEqual(email, today)).thenThrow(new QueryTimeoutException("Query timed out"));
+		
+		Map<String,Object> viewDashboard = patientService.viewDashboard();
+		Map<String, Object> stats = (Map<String, Object>) viewDashboard.get(IResponseConstants.STATS);
+		assertEquals(7L, stats.get(IResponseConstants.APPROVED_APPOINTMENTS));
+		assertTrue(((List<Map<String, Object>>) viewDashboard.get(IResponseConstants.UPCOMING_APPOINTMENTS)).isEmpty());
+		assertEquals(true, viewDashboard.get(IResponseConstants.PARTIAL));
 	}
 
 	private void mockJwt(String role, String email) {
@@ -5,37 +5,46 @@
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.withSettings;
 
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.ps.config.props.PathProperties;
+import com.ps.cache.HolidayLeaveCalendar;
 import com.ps.constants.IAdminConstants;
 import com.ps.constants.IDoctorConstants;
 import com.ps.constants.IExceptionConstants;
@@ -54,9 +63,12 @@
 import com.ps.entity.Admin;
 import com.ps.entity.Doctor;
 import com.ps.entity.DoctorLeave;
+import com.ps.entity.Holiday;
 import com.ps.entity.Patient;
 import com.ps.entity.SubProfile;
 import com.ps.enu.LeaveStatus;
+import com.ps.event.PatientChangedEvent;
+import com.ps.event.ProfilePictureUploadedEvent;
 import com.ps.exception.AdminException;
 import com.ps.exception.DoctorException;
 import com.ps.exception.PatientException;
@@ -68,10 +80,10 @@
 import com.ps.repo.AdminRepository;
 import com.ps.repo.DoctorLeaveRepository;
 import com.ps.repo.DoctorRepository;
-import com.ps.repo.HolidayRepository;
 import com.ps.repo.PatientRepository;
 import com.ps.repo.SubProfileRepository;
 import com.ps.util.JwtUtil;
+import com.ps.util.PasswordUtil;
 import com.ps.util.ProfileUtil;
 import com.ps.util.TestConverterUtil;
 import com.ps.util.TestDataUtil;
@@ -110,7 +122,7 @@ class ProfileServiceImplTest {
 	private AdminRepository adminRepository;
 	
 	@Mock
-	private PasswordEncoder passwordEncoder;
+	private PasswordUtil passwordUtil;
 	
 	@Mock
 	private SubProfileRepository subProfileRepository;
@@ -119,7 +131,7 @@ class ProfileServiceImplTest {
 	private DoctorLeaveRepository leaveRepository;
 	
 	@Mock
-	private HolidayRepository holidayRepository;
+	private HolidayLeaveCalendar holidayLeaveCalendar;
 	
 	@Mock
 	private DoctorLeaveMapper doctorLeaveMapper;
@@ -127,6 +139,9 @@ class ProfileServiceImplTest {
 	@Mock
 	private AdminMapper adminMapper;
 	
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+	
 	@BeforeEach
 	void setUp() throws Exception {
 		jwtUtilMock = Mockito.mockStatic(JwtUtil.class);
@@ -261,6 +276,7 @@ void testUpdatePatientProfile() {
 		
 		// Case when profile update successful
 		assertTrue(profileService.updatePatientProfile(patientProfileRequest));
+		verify(eventPublisher, times(1)).publishEvent(any(PatientChangedEvent.class));
 		
 		// Case when profile update failed
 		when(patientRepository.save(patient)).thenReturn(null);
@@ -385,13 +401,19 @@ void testUploadProflePicPatient() {
 		when(pathProperties.getPatientImagePath()).thenReturn(imagePath);
 		when(patientRepository.findIdByEmail(email)).thenReturn(Optional.of(patientId));
 		when(patientRepository.updateprofilePicPath(fileName, email)).thenReturn(1);
+		when(patientRepository.getProfilePicName(email)).thenReturn("1_ProfilePic_old.jpg");
 		
-		// Profile Picture name updated successfully
+		// Profile Picture name updated successfully, variants are requested and the replaced picture is deleted
 		assertTrue(profileService.uploadProflePic(mockFile, IPatientConstants.PATIENT_ROLE));
+		ArgumentCaptor<ProfilePictureUploadedEvent> captor = ArgumentCaptor.forClass(ProfilePictureUploadedEvent.class);
+		verify(eventPublisher, times(1)).publishEvent(captor.capture());
+		assertEquals(Paths.get(imagePath + fileName), captor.getValue().getPath());
+		assertEquals(Paths.get(imagePath + "1_ProfilePic_old.jpg"), captor.getValue().getReplacedPath());
 
 		// Profile Picture name not updated
 		when(patientRepository.updateprofilePicPath(fileName, email)).thenReturn(0);
 		assertFalse(profileService.uploadProflePic(mockFile, IPatientConstants.PATIENT_ROLE));
+		verify(eventPublisher, times(1)).publishEvent(any(ProfilePictureUploadedEvent.class));
 
 		// When IOException occur during file upload
 		profileUtilMock.when(() -> ProfileUtil.getFileName(patientId, imagePath, mockFile)).thenThrow(new IOException(errorMsg));
@@ -428,9 +450,12 @@ void testUploadProflePicDoctor() {
 		when(pathProperties.getDoctorImagePath()).thenReturn(imagePath);
 		when(doctorRepository.findIdByEmail(email)).thenReturn(Optional.of(doctorId));
 		when(doctorRepository.updateprofilePicPath(fileName, email)).thenReturn(1);
+		when(doctorRepository.getProfilePicName(email)).thenReturn("default_image.jpg");
+		when(pathProperties.getDefaultProfilePicName()).thenReturn("default_image.jpg");
 		
-		// Profile Picture name updated successfully
+		// Profile Picture name updated successfully, the shared default picture is not deleted
 		assertTrue(profileService.uploadProflePic(mockFile, IDoctorConstants.DOCTOR_ROLE));
+		verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof ProfilePictureUploadedEvent uploaded && uploaded.getReplacedPath() == null));
 		
 		// Profile Picture name not updated
 		when(doctorRepository.updateprofilePicPath(fileName, email)).thenReturn(0);
@@ -647,7 +672,7 @@ void testUpdatePasswordPatient() {
 		PasswordRequest passwordRequest = TestDataUtil.getPasswordRequest();
 
 		mockJwt(IPatientConstants.PATIENT_ROLE, email);
-		when(passwordEncoder.encode(passwordRequest.getPassword())).thenReturn(encodedPassword);
+		when(passwordUtil.encode(passwordRequest.getPassword())).thenReturn(encodedPassword);
 		when(patientRepository.updatePassword(encodedPassword, email)).thenReturn(1);
 		// Success scenario
 		assertTrue(profileService.updatePassword(passwordRequest, role));
@@ -669,7 +694,7 @@ void testUpdatePasswordDoctor() {
 		PasswordRequest passwordRequest = TestDataUtil.getPasswordRequest();
 		
 		mockJwt(IDoctorConstants.DOCTOR_ROLE, email);
-		when(passwordEncoder.encode(passwordRequest.getPassword())).thenReturn(encodedPassword);
+		when(passwordUtil.encode(passwordRequest.getPassword())).thenReturn(encodedPassword);
 		when(doctorRepository.updatePassword(encodedPassword, email)).thenReturn(1);
 		// Success scenario
 		assertTrue(profileService.updatePassword(passwordRequest, role));
@@ -691,7 +716,7 @@ void testUpdatePasswordAdmin() {
 		PasswordRequest passwordRequest = TestDataUtil.getPasswordRequest();
 		
 		mockJwt(IAdminConstants.ADMIN_ROLE, email);
-		when(passwordEncoder.encode(passwordRequest.getPassword())).thenReturn(encodedPassword);
+		when(passwordUtil.encode(passwordRequest.getPassword())).thenReturn(encodedPassword);
 		when(adminRepository.updatePassword(encodedPassword, email)).thenReturn(1);
 		// Success scenario
 		assertTrue(profileService.updatePassword(passwordRequest, role));
@@ -808,7 +833,8 @@ void testApplyForLeave() {
 		mockJwt(IDoctorConstants.DOCTOR_ROLE, email);
 		when(leaveRepository.hasOverlappingSlot(email, leaveRequest.getFrom(), leaveRequest.getTo())).thenReturn(false);
 		when(leaveRepository.hasOverlappingSlot(email, leaveRequest.getFrom(), leaveRequest.getTo())).thenReturn(false);
-		when(holidayRepository.findAll()).thenReturn(TestDataUtil.getHolidays());
+		Set<LocalDate> holidays = TestDataUtil.getHolidays().stream().map(Holiday::getHolidayDate).collect(Collectors.toSet());
+		when(holidayLeaveCalendar.isHoliday(any(LocalDate.class))).thenAnswer(inv -> holidays.contains(inv.getArgument(0)));
 		when(doctorRepository.findByEmail(email)).thenReturn(Optional.of(doctor));
 		when(doctorLeaveMapper.toDoctorLeave(leaveRequest, doctor, days)).thenReturn(doctorLeave);
 		when(leaveRepository.save(doctorLeave)).thenReturn(doctorLeave);
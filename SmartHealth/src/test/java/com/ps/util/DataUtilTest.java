@@ -0,0 +1,26 @@
+package com.ps.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests the {@link DataUtil} class.
+ *
+ */
+class DataUtilTest {
+
+	/**
+	 * Test {@link DataUtil#getVariantFileName(String, int)}.
+	 * Cases of PNG images, whose variants stay PNG, and of other images, whose JPEG variants get a {@code .jpg} extension.
+	 */
+	@Test
+	void testGetVariantFileName() {
+		assertEquals("1_ProfilePic_1_me_64px.png", DataUtil.getVariantFileName("1_ProfilePic_1_me.png", 64));
+		assertEquals("1_ProfilePic_1_me_64px.png", DataUtil.getVariantFileName("1_ProfilePic_1_me.PNG", 64));
+		assertEquals("1_ProfilePic_1_me_256px.jpg", DataUtil.getVariantFileName("1_ProfilePic_1_me.jpg", 256));
+		assertEquals("1_ProfilePic_1_me_64px.jpg", DataUtil.getVariantFileName("1_ProfilePic_1_me.jpeg", 64));
+		assertEquals("1_ProfilePic_1_my.photo_64px.jpg", DataUtil.getVariantFileName("1_ProfilePic_1_my.photo.JPEG", 64));
+		assertEquals("1_ProfilePic_1_me_64px.jpg", DataUtil.getVariantFileName("1_ProfilePic_1_me", 64));
+	}
+}
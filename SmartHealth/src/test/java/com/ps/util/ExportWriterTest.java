@@ -0,0 +1,84 @@
+package com.ps.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.Test;
+
+import com.ps.enu.ExportFormat;
+import com.ps.enu.SlotStatus;
+
+/**
+ * This class tests the {@link ExportWriter} class.
+ *
+ */
+class ExportWriterTest {
+
+	/**
+	 * Test {@link ExportWriter#write(Object...)} in {@link ExportFormat#CSV}.
+	 * Cases of plain values, written as is, and of values with a separator, a quote or a line break, quoted.
+	 */
+	@Test
+	void testWriteCsv() {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try (ExportWriter writer = new ExportWriter(ExportFormat.CSV, outputStream, "id", "name", "date", "status")) {
+			writer.write(1, "Dev Shah", LocalDate.of(2025, 3, 1), SlotStatus.AVAILABLE);
+			writer.write(2, "Shah, \"Dev\"", null, null);
+			writer.write(3, "Dev\nShah", null, "Line\r\nbreak");
+			assertEquals(3, writer.getRows());
+		}
+		assertEquals("id,name,date,status\r\n"
+				+ "1,Dev Shah,2025-03-01,AVAILABLE\r\n"
+				+ "2,\"Shah, \"\"Dev\"\"\",,\r\n"
+				+ "3,\"Dev\nShah\",,\"Line\r\nbreak\"\r\n", outputStream.toString(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Test {@link ExportWriter#write(Object...)} in {@link ExportFormat#CSV}.
+	 * Case when text values start like a spreadsheet formula, they are prefixed with a quote, while numbers are not.
+	 */
+	@Test
+	void testWriteCsvFormula() {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try (ExportWriter writer = new ExportWriter(ExportFormat.CSV, outputStream, "value")) {
+			writer.write("=HYPERLINK(\"http://evil\")");
+			writer.write("+91 9876543210");
+			writer.write("-2+3");
+			writer.write("@SUM(A1)");
+			writer.write("\tcmd");
+			writer.write(-1);
+			writer.write(-1L);
+			writer.write("a=b");
+		}
+		assertEquals("value\r\n"
+				+ "\"'=HYPERLINK(\"\"http://evil\"\")\"\r\n"
+				+ "'+91 9876543210\r\n"
+				+ "'-2+3\r\n"
+				+ "'@SUM(A1)\r\n"
+				+ "'\tcmd\r\n"
+				+ "-1\r\n"
+				+ "-1\r\n"
+				+ "a=b\r\n", outputStream.toString(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Test {@link ExportWriter#write(Object...)} in {@link ExportFormat#NDJSON}.
+	 * Numbers and booleans are written as JSON values, other values as strings, one object per line.
+	 */
+	@Test
+	void testWriteNdjson() {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try (ExportWriter writer = new ExportWriter(ExportFormat.NDJSON, outputStream, "id", "count", "active", "name", "from", "status")) {
+			writer.write(1, 2L, true, "Shah, \"Dev\"\n", LocalTime.of(9, 30), SlotStatus.BOOKED);
+			writer.write(2, null, false, "=1+1", null, null);
+		}
+		assertEquals("""
+				{"id":1,"count":2,"active":true,"name":"Shah, \\"Dev\\"\\n","from":"09:30","status":"BOOKED"}
+				{"id":2,"count":null,"active":false,"name":"=1+1","from":null,"status":null}
+				""", outputStream.toString(StandardCharsets.UTF_8));
+	}
+}
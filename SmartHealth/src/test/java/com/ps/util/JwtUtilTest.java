@@ -0,0 +1,172 @@
+package com.ps.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.ps.config.props.JwtProperties;
+import com.ps.constants.IDoctorConstants;
+import com.ps.dto.JwtPrincipal;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * This class tests the {@link JwtUtil} class.
+ *
+ */
+class JwtUtilTest {
+
+	private static final String SECRETE_KEY = "smarthealth-secrete-key-with-long-as-possible-to-avoid-exception";
+
+	private JwtUtil jwtUtil;
+	private JwtProperties jwtProperties;
+
+	@BeforeEach
+	void setUp() {
+		jwtProperties = new JwtProperties();
+		jwtProperties.setExpirationTimeInMinutes(60L);
+		jwtProperties.setSecreteKey(SECRETE_KEY);
+		jwtProperties.setPrincipalCacheSize(2);
+		jwtUtil = new JwtUtil();
+		ReflectionTestUtils.setField(jwtUtil, "jwtProperties", jwtProperties);
+		jwtUtil.init();
+	}
+
+	/**
+	 * Test {@link JwtUtil#resolvePrincipal(String)}.
+	 * Cases of a valid token, verified once and then answered from the cache, and of invalid tokens.
+	 */
+	@Test
+	void testResolvePrincipal() {
+		String token = jwtUtil.generateToken(TestDataUtil.getDoctorEmail(), Set.of(IDoctorConstants.DOCTOR_ROLE));
+
+		JwtPrincipal principal = jwtUtil.resolvePrincipal(token);
+		assertNotNull(principal);
+		assertEquals(TestDataUtil.getDoctorEmail(), principal.getEmail());
+		assertEquals(List.of(new SimpleGrantedAuthority(IDoctorConstants.DOCTOR_ROLE)), principal.getAuthorities());
+		// Cache hit, the same principal is answered without verifying the token again
+		assertSame(principal, jwtUtil.resolvePrincipal(token));
+
+		// Tampered, malformed and expired tokens are rejected
+		assertNull(jwtUtil.resolvePrincipal(token.substring(0, token.length() - 2) + "xx"));
+		assertNull(jwtUtil.resolvePrincipal("not-a-token"));
+		jwtProperties.setExpirationTimeInMinutes(0L);
+		assertNull(jwtUtil.resolvePrincipal(jwtUtil.generateToken(TestDataUtil.getPatientEmail(), Set.of(IDoctorConstants.DOCTOR_ROLE))));
+	}
+
+	/**
+	 * Test {@link JwtUtil#resolvePrincipal(String)}.
+	 * Case when a validly signed token has no roles claim, it is rejected rather than failing the request.
+	 */
+	@Test
+	void testResolvePrincipalWithoutRoles() {
+		String token = Jwts.builder()
+				.setSubject(TestDataUtil.getDoctorEmail())
+				.setExpiration(new Date(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(5)))
+				.signWith(Keys.hmacShaKeyFor(SECRETE_KEY.getBytes()), SignatureAlgorithm.HS512)
+				.compact();
+		assertNull(jwtUtil.resolvePrincipal(token));
+	}
+
+	/**
+	 * Test {@link JwtUtil#resolvePrincipal(String)}.
+	 * Case when a cached token has expired, it is removed from the cache and rejected.
+	 */
+	@Test
+	void testResolvePrincipalExpiredInCache() {
+		String token = jwtUtil.generateToken(TestDataUtil.getDoctorEmail(), Set.of(IDoctorConstants.DOCTOR_ROLE));
+		JwtPrincipal principal = jwtUtil.resolvePrincipal(token);
+		Map<String, JwtPrincipal> cache = principalCache();
+		cache.put(token, new JwtPrincipal(principal.getEmail(), principal.getAuthorities(), System.currentTimeMillis() - 1));
+
+		assertNull(jwtUtil.resolvePrincipal(token));
+		assertTrue(cache.isEmpty());
+	}
+
+	/**
+	 * Test {@link JwtUtil#resolvePrincipal(String)}.
+	 * Cases when a new token finds the cache full, of expired tokens swept first, and of live tokens,
+	 * the one closest to expiry evicted.
+	 */
+	@Test
+	void testResolvePrincipalEviction() {
+		String first = generateToken("first@smarthealth.com", 60L);
+		String second = generateToken("second@smarthealth.com", 30L);
+		String third = generateToken("third@smarthealth.com", 90L);
+		String fourth = generateToken("fourth@smarthealth.com", 120L);
+
+		jwtUtil.resolvePrincipal(first);
+		jwtUtil.resolvePrincipal(second);
+		jwtUtil.resolvePrincipal(third);
+		assertEquals(Set.of(first, third), principalCache().keySet());
+
+		// The expired token is swept, the live one is kept
+		JwtPrincipal principal = principalCache().get(third);
+		principalCache().put(third, new JwtPrincipal(principal.getEmail(), principal.getAuthorities(), System.currentTimeMillis() - 1));
+		jwtUtil.resolvePrincipal(fourth);
+		assertEquals(Set.of(first, fourth), principalCache().keySet());
+	}
+
+	/**
+	 * Test {@link JwtUtil#resolvePrincipal(String)}.
+	 * Case of concurrent requests repeating and adding tokens, every token is resolved and the cache stays bounded.
+	 */
+	@Test
+	void testResolvePrincipalConcurrently() throws Exception {
+		jwtProperties.setPrincipalCacheSize(16);
+		List<String> tokens = new ArrayList<>();
+		for (int i = 0; i < 64; i++) {
+			tokens.add(generateToken("user" + i + "@smarthealth.com", 60L + i));
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Boolean>> futures = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				futures.add(executor.submit(() -> {
+					for (int round = 0; round < 20; round++) {
+						for (String token : tokens) {
+							if (jwtUtil.resolvePrincipal(token) == null)
+								return false;
+						}
+					}
+					return true;
+				}));
+			}
+			for (Future<Boolean> future : futures)
+				assertTrue(future.get(30, TimeUnit.SECONDS));
+		} finally {
+			executor.shutdownNow();
+		}
+		// Threads finding room at the same time may overfill it by one token each
+		assertTrue(principalCache().size() <= 16 + 8, "Cache size " + principalCache().size());
+	}
+
+	private String generateToken(String email, long expirationTimeInMinutes) {
+		jwtProperties.setExpirationTimeInMinutes(expirationTimeInMinutes);
+		return jwtUtil.generateToken(email, Set.of(IDoctorConstants.DOCTOR_ROLE));
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, JwtPrincipal> principalCache() {
+		return (Map<String, JwtPrincipal>) ReflectionTestUtils.getField(jwtUtil, "principalCache");
+	}
+}
@@ -0,0 +1,201 @@
+package com.ps.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.ps.config.props.PasswordProperties;
+import com.ps.exception.PasswordHashingException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * This class tests the {@link PasswordUtil} class on a real hashing pool of one worker and one queued request.
+ *
+ */
+class PasswordUtilTest {
+
+	private PasswordUtil passwordUtil;
+	private PasswordProperties passwordProperties;
+	private SimpleMeterRegistry meterRegistry;
+
+	/** Released to let the workers blocked by {@link BlockingPasswordEncoder} finish. */
+	private CountDownLatch release = new CountDownLatch(1);
+
+	@BeforeEach
+	void setUp() {
+		passwordProperties = new PasswordProperties();
+		passwordProperties.setBcryptStrength(5);
+		passwordProperties.setHashingThreads(1);
+		passwordProperties.setHashingQueueSize(1);
+		passwordProperties.setHashingTimeoutInMillis(10000L);
+		meterRegistry = new SimpleMeterRegistry();
+	}
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		passwordUtil.destroy();
+	}
+
+	/**
+	 * Test {@link PasswordUtil#encode(String)} and {@link PasswordUtil#matches(String, String)}.
+	 * Passwords are hashed with the configured strength on the hashing pool, and each call is timed.
+	 */
+	@Test
+	void testEncodeAndMatches() {
+		init(new BCryptPasswordEncoder(5));
+
+		String encoded = passwordUtil.encode("Secret@123");
+		assertTrue(encoded.startsWith("$2a$05$"));
+		assertTrue(passwordUtil.matches("Secret@123", encoded));
+		assertFalse(passwordUtil.matches("Secret@124", encoded));
+
+		assertEquals(1, meterRegistry.get(PasswordUtil.HASHING_METRIC).tag("operation", "encode").timer().count());
+		assertEquals(2, meterRegistry.get(PasswordUtil.HASHING_METRIC).tag("operation", "matches").timer().count());
+		assertEquals(0, meterRegistry.get(PasswordUtil.REJECTED_METRIC).counter().count());
+	}
+
+	/**
+	 * Test {@link PasswordUtil#matches(String, String)}.
+	 * Case when the worker is busy and the queue is full, the request is rejected at once with 503 and counted.
+	 */
+	@Test
+	void testMatchesQueueFull() throws Exception {
+		BlockingPasswordEncoder passwordEncoder = new BlockingPasswordEncoder();
+		init(passwordEncoder);
+
+		CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> passwordUtil.matches("Secret@123", "hash"));
+		assertTrue(passwordEncoder.started.await(10, TimeUnit.SECONDS));
+		CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> passwordUtil.matches("Secret@123", "hash"));
+		while (meterRegistry.get(PasswordUtil.QUEUE_METRIC).gauge().value() < 1)
+			Thread.onSpinWait();
+
+		PasswordHashingException exception = assertThrows(PasswordHashingException.class, () -> passwordUtil.matches("Secret@123", "hash"));
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatus());
+		assertEquals(1, meterRegistry.get(PasswordUtil.REJECTED_METRIC).counter().count());
+
+		// The running and the queued requests complete once the worker is free
+		release.countDown();
+		assertTrue(running.get(10, TimeUnit.SECONDS));
+		assertTrue(queued.get(10, TimeUnit.SECONDS));
+		assertEquals(2, meterRegistry.get(PasswordUtil.HASHING_METRIC).tag("operation", "matches").timer().count());
+	}
+
+	/**
+	 * Test {@link PasswordUtil#encode(String)}.
+	 * Case when the hash isn't ready within the timeout, the request gives up with 503, is counted and its worker interrupted.
+	 */
+	@Test
+	void testEncodeTimeout() throws Exception {
+		passwordProperties.setHashingTimeoutInMillis(50L);
+		BlockingPasswordEncoder passwordEncoder = new BlockingPasswordEncoder();
+		init(passwordEncoder);
+
+		PasswordHashingException exception = assertThrows(PasswordHashingException.class, () -> passwordUtil.encode("Secret@123"));
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatus());
+		assertEquals(1, meterRegistry.get(PasswordUtil.REJECTED_METRIC).counter().count());
+		assertTrue(passwordEncoder.interrupted.await(10, TimeUnit.SECONDS));
+	}
+
+	/**
+	 * Test {@link PasswordUtil#rehash(String, String)}.
+	 * Cases of a hash of another strength, rehashed with the configured one, and of a hash of the configured strength,
+	 * left as is.
+	 */
+	@Test
+	void testRehash() {
+		init(new BCryptPasswordEncoder(5));
+
+		String rehashed = passwordUtil.rehash("Secret@123", new BCryptPasswordEncoder(4).encode("Secret@123"));
+		assertTrue(rehashed.startsWith("$2a$05$"));
+		assertTrue(passwordUtil.matches("Secret@123", rehashed));
+
+		assertNull(passwordUtil.rehash("Secret@123", rehashed));
+		assertEquals(1, meterRegistry.get(PasswordUtil.HASHING_METRIC).tag("operation", "encode").timer().count());
+	}
+
+	/**
+	 * Test {@link PasswordUtil#rehash(String, String)}.
+	 * Case when the hashing workers are saturated, the rehash is skipped until a later login instead of failing it.
+	 */
+	@Test
+	void testRehashSaturated() {
+		passwordProperties.setHashingTimeoutInMillis(50L);
+		init(new BlockingPasswordEncoder());
+
+		assertNull(passwordUtil.rehash("Secret@123", "$2a$10$eImiTXuWVxfM37uY4JANjQ==eImiTXuWVxfM37uY4JANjQ==eImiTXu"));
+		assertEquals(1, meterRegistry.get(PasswordUtil.REJECTED_METRIC).counter().count());
+	}
+
+	/**
+	 * Test {@link PasswordUtil#strengthOf(String)}.
+	 * Cases of BCrypt hashes of each version, and of values that aren't BCrypt hashes.
+	 */
+	@Test
+	void testStrengthOf() {
+		init(new BCryptPasswordEncoder(5));
+
+		assertEquals(10, PasswordUtil.strengthOf("$2a$10$eImiTXuWVxfM37uY4JANjQ"));
+		assertEquals(4, PasswordUtil.strengthOf("$2y$04$eImiTXuWVxfM37uY4JANjQ"));
+		assertEquals(12, PasswordUtil.strengthOf("$2b$12$"));
+		assertEquals(-1, PasswordUtil.strengthOf(null));
+		assertEquals(-1, PasswordUtil.strengthOf(""));
+		assertEquals(-1, PasswordUtil.strengthOf("$2a$10"));
+		assertEquals(-1, PasswordUtil.strengthOf("$2a$xx$eImiTXuWVxfM37uY4JANjQ"));
+		assertEquals(-1, PasswordUtil.strengthOf("{noop}Secret@123"));
+	}
+
+	private void init(PasswordEncoder passwordEncoder) {
+		passwordUtil = new PasswordUtil();
+		ReflectionTestUtils.setField(passwordUtil, "passwordEncoder", passwordEncoder);
+		ReflectionTestUtils.setField(passwordUtil, "passwordProperties", passwordProperties);
+		ReflectionTestUtils.setField(passwordUtil, "meterRegistry", meterRegistry);
+		passwordUtil.init();
+	}
+
+	/**
+	 * Password encoder holding its worker until the test releases it, or until the worker is interrupted.
+	 */
+	private class BlockingPasswordEncoder implements PasswordEncoder {
+
+		private final CountDownLatch started = new CountDownLatch(1);
+		private final CountDownLatch interrupted = new CountDownLatch(1);
+
+		@Override
+		public String encode(CharSequence rawPassword) {
+			block();
+			return "hash";
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			block();
+			return true;
+		}
+
+		private void block() {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				interrupted.countDown();
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+}
@@ -0,0 +1,133 @@
+package com.ps.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * This class tests the {@link ProfileUtil} class on images written to a temporary directory.
+ *
+ */
+class ProfileUtilTest {
+
+	@TempDir
+	private Path directory;
+
+	/**
+	 * Test {@link ProfileUtil#createVariant(Path, Path, int)}.
+	 * Case of a landscape JPEG image: the variant is center cropped to a square, scaled down in steps to the size,
+	 * and encoded as JPEG.
+	 */
+	@Test
+	void testCreateVariantJpeg() throws IOException {
+		// Red borders left and right, cropped away, around a blue center square
+		BufferedImage source = new BufferedImage(600, 400, BufferedImage.TYPE_INT_RGB);
+		fill(source, Color.RED, 0, 600);
+		fill(source, Color.BLUE, 100, 500);
+		Path original = write(source, "1_ProfilePic_1_me.jpeg", "jpg");
+		Path variant = directory.resolve(DataUtil.getVariantFileName("1_ProfilePic_1_me.jpeg", 64));
+
+		assertTrue(ProfileUtil.createVariant(original, variant, 64));
+		assertEquals("jpeg", formatOf(variant));
+		BufferedImage image = ImageIO.read(variant.toFile());
+		assertEquals(64, image.getWidth());
+		assertEquals(64, image.getHeight());
+		assertBlue(image.getRGB(4, 32));
+		assertBlue(image.getRGB(59, 32));
+		assertEquals(List.of(original, variant), list());
+	}
+
+	/**
+	 * Test {@link ProfileUtil#createVariant(Path, Path, int)}.
+	 * Case of a PNG image, whose variant stays PNG and keeps its transparency, and of an image smaller than the size,
+	 * which keeps its own dimensions rather than being scaled up.
+	 */
+	@Test
+	void testCreateVariantPng() throws IOException {
+		BufferedImage source = new BufferedImage(40, 40, BufferedImage.TYPE_INT_ARGB);
+		Path original = write(source, "1_ProfilePic_1_me.png", "png");
+		Path variant = directory.resolve(DataUtil.getVariantFileName("1_ProfilePic_1_me.png", 64));
+
+		assertTrue(ProfileUtil.createVariant(original, variant, 64));
+		assertEquals("png", formatOf(variant));
+		BufferedImage image = ImageIO.read(variant.toFile());
+		assertEquals(40, image.getWidth());
+		assertEquals(40, image.getHeight());
+		assertTrue(image.getColorModel().hasAlpha());
+		assertEquals(0, image.getRGB(32, 32) >>> 24);
+	}
+
+	/**
+	 * Test {@link ProfileUtil#createVariant(Path, Path, int)}.
+	 * Case when the original isn't a readable image, no variant is written.
+	 */
+	@Test
+	void testCreateVariantUnreadable() throws IOException {
+		Path original = Files.writeString(directory.resolve("1_ProfilePic_1_me.jpg"), "not an image");
+
+		assertFalse(ProfileUtil.createVariant(original, directory.resolve("1_ProfilePic_1_me_64px.jpg"), 64));
+		assertEquals(List.of(original), list());
+	}
+
+	/**
+	 * Test {@link ProfileUtil#createVariant(Path, Path, int)}.
+	 * Case of a small, highly compressed image of more pixels than {@link ProfileUtil#MAX_VARIANT_SOURCE_PIXELS},
+	 * rejected from its header without being decoded.
+	 */
+	@Test
+	void testCreateVariantTooLarge() throws IOException {
+		BufferedImage source = new BufferedImage(10_000, 6_000, BufferedImage.TYPE_BYTE_BINARY);
+		Path original = write(source, "1_ProfilePic_1_me.png", "png");
+		assertTrue(Files.size(original) < 2 * 1024 * 1024);
+
+		assertFalse(ProfileUtil.createVariant(original, directory.resolve("1_ProfilePic_1_me_64px.png"), 64));
+		assertEquals(List.of(original), list());
+	}
+
+	private Path write(BufferedImage image, String fileName, String format) throws IOException {
+		Path path = directory.resolve(fileName);
+		ImageIO.write(image, format, path.toFile());
+		return path;
+	}
+
+	private List<Path> list() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.sorted().toList();
+		}
+	}
+
+	private static void fill(BufferedImage image, Color color, int fromX, int toX) {
+		for (int x = fromX; x < toX; x++) {
+			for (int y = 0; y < image.getHeight(); y++) {
+				image.setRGB(x, y, color.getRGB());
+			}
+		}
+	}
+
+	private static void assertBlue(int rgb) {
+		Color color = new Color(rgb);
+		assertTrue(color.getBlue() > 200 && color.getRed() < 50, "Expected blue but was " + color);
+	}
+
+	private static String formatOf(Path path) throws IOException {
+		try (ImageInputStream input = ImageIO.createImageInputStream(path.toFile())) {
+			ImageReader reader = ImageIO.getImageReaders(input).next();
+			return reader.getFormatName().toLowerCase();
+		}
+	}
+}
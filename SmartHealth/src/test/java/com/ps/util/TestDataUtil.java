@@ -7,9 +7,16 @@
 import java.util.List;
 import java.util.Set;
 
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.ps.config.props.DashboardProperties;
 import com.ps.constants.IAdminConstants;
 import com.ps.constants.IDoctorConstants;
 import com.ps.constants.IPatientConstants;
+import com.ps.dto.AppointmentListItem;
+import com.ps.dto.SlotListItem;
 import com.ps.dto.request.AGRequest;
 import com.ps.dto.request.ASRequest;
 import com.ps.dto.request.LeaveRequest;
@@ -247,6 +254,19 @@ public static Availability getAvailability() {
 		return availability;
 	}
 	
+	public static AppointmentListItem getAppointmentListItem() {
+		Appointment appointment = getAppointment();
+		Availability availability = appointment.getAvailability();
+		return new AppointmentListItem(appointment.getId(), availability.getId(), availability.getDoctor().getName(), appointment.getPatient().getName(),
+				availability.getDate(), availability.getStartTime(), availability.getEndTime(), appointment.getStatus(), appointment.getCreatedAt());
+	}
+	
+	public static SlotListItem getSlotListItem() {
+		Availability availability = getAvailability();
+		return new SlotListItem(availability.getId(), availability.getDate(), availability.getStartTime(), availability.getEndTime(),
+				availability.getStatus(), availability.getMode(), availability.getDoctor().getId(), availability.getDoctor().getName());
+	}
+	
 	public static List<DailyAppointments> getDailyAppointments() {
 		LocalDate today = LocalDate.now();
 		return List.of(
@@ -305,4 +325,24 @@ public static List<ASRequest> getAsRequests() {
 		asRequest.setTo(LocalTime.of(9, 30));
 		return List.of(asRequest);
 	}
+	
+	public static ASRequest getAsRequest(LocalDate date, LocalTime from, LocalTime to) {
+		ASRequest asRequest = new ASRequest();
+		asRequest.setDate(date);
+		asRequest.setFrom(from);
+		asRequest.setTo(to);
+		return asRequest;
+	}
+	
+	public static QueryFanOut getQueryFanOut() {
+		DashboardProperties dashboardProperties = new DashboardProperties();
+		dashboardProperties.setQueryParallelism(2);
+		dashboardProperties.setQueryQueueSize(10);
+		dashboardProperties.setQueryTimeoutInMillis(5000L);
+		QueryFanOut queryFanOut = new QueryFanOut();
+		ReflectionTestUtils.setField(queryFanOut, "dashboardProperties", dashboardProperties);
+		ReflectionTestUtils.setField(queryFanOut, "transactionManager", Mockito.mock(PlatformTransactionManager.class));
+		queryFanOut.init();
+		return queryFanOut;
+	}
 }
@@ -0,0 +1,164 @@
+package com.ps.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.ps.cache.HolidayLeaveCalendar;
+import com.ps.config.props.SlotsProperties;
+import com.ps.constants.IExceptionConstants;
+import com.ps.entity.AGPreference;
+import com.ps.entity.Availability;
+import com.ps.entity.Doctor;
+import com.ps.entity.Holiday;
+import com.ps.entity.SlotInput;
+import com.ps.enu.AGMode;
+import com.ps.enu.SlotStatus;
+import com.ps.exception.AvailabilityException;
+import com.ps.repo.AvailabilityRepository;
+
+/**
+ * This test class computes the virtual slots of a doctor's rule with {@link VirtualSlots},
+ * on an H2 database in MySQL mode, and verifies that Sundays, holidays and stored slots are left out.
+ * The rule offers two slots a day, from tomorrow for a week, so exactly one Sunday is within it.
+ *
+ */
+@DataJpaTest(properties = {"spring.datasource.url=jdbc:h2:mem:virtualslots;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+						   "spring.datasource.driver-class-name=org.h2.Driver",
+						   "spring.datasource.username=sa",
+						   "smarthealth.slots.virtual-slots-enabled=true"})
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Import({VirtualSlots.class, HolidayLeaveCalendar.class, SlotsProperties.class})
+class VirtualSlotsTest {
+
+	private static final int DAYS = 7;
+	private static final int SLOTS_PER_DAY = 2;
+
+	@Autowired
+	private VirtualSlots virtualSlots;
+
+	@Autowired
+	private HolidayLeaveCalendar holidayLeaveCalendar;
+
+	@Autowired
+	private AvailabilityRepository availabilityRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	private Doctor doctor;
+	private List<LocalDate> workingDays = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		doctor = new Doctor();
+		doctor.setName("Virtual Doctor");
+		doctor.setEmail("virtual.doctor@smarthealth.com");
+		doctor.setPhone("9000000001");
+		entityManager.persist(doctor);
+
+		SlotInput slotInput = new SlotInput(LocalTime.of(9, 0), LocalTime.of(10, 0), 30);
+		entityManager.persist(slotInput);
+
+		AGPreference preference = new AGPreference();
+		preference.setDoctor(doctor);
+		preference.setMode(AGMode.AUTO);
+		preference.setStartDate(LocalDate.now().plusDays(1));
+		preference.setDaysAhead(DAYS - 1);
+		preference.setLastGeneratedOn(preference.getStartDate());
+		preference.setSlotInputs(new ArrayList<>(List.of(slotInput)));
+		entityManager.persist(preference);
+
+		for (int i = 0; i < DAYS; i++) {
+			LocalDate date = preference.getStartDate().plusDays(i);
+			if (date.getDayOfWeek() != DayOfWeek.SUNDAY)
+				workingDays.add(date);
+		}
+		entityManager.flush();
+		holidayLeaveCalendar.reload();
+	}
+
+	/**
+	 * Test {@link VirtualSlots#findOpenSlots(Integer, java.util.Collection)} and {@link VirtualSlots#countOpenSlots(Integer)}.
+	 *
+	 */
+	@Test
+	void testFindOpenSlots() {
+		// 1. Case when nothing is stored, every working day of the rule is open
+		assertEquals(workingDays.size() * SLOTS_PER_DAY, virtualSlots.findOpenSlots(doctor.getId(), null).size());
+
+		// 2. Case when a slot is booked and a working day is a holiday
+		Availability booked = AvailabilityUtil.prepareAvailability(doctor, workingDays.get(0), LocalTime.of(9, 0), LocalTime.of(9, 30), AGMode.AUTO);
+		booked.setStatus(SlotStatus.BOOKED);
+		entityManager.persist(booked);
+		Holiday holiday = new Holiday();
+		holiday.setHolidayDate(workingDays.get(1));
+		holiday.setReason("Virtual holiday");
+		entityManager.persist(holiday);
+		entityManager.flush();
+		holidayLeaveCalendar.reload();
+
+		List<Object[]> slots = virtualSlots.findOpenSlots(doctor.getId(), null);
+		assertEquals((workingDays.size() - 1) * SLOTS_PER_DAY - 1, slots.size());
+		for (Object[] slot : slots) {
+			assertTrue(VirtualSlots.isVirtual((Integer) slot[0]));
+			assertEquals(slot[0], VirtualSlots.encode((LocalDate) slot[1], (LocalTime) slot[2]));
+		}
+		assertEquals(1, virtualSlots.findOpenSlots(doctor.getId(), List.of(workingDays.get(0))).size());
+		assertEquals(slots.size(), virtualSlots.countOpenSlots(null).stream().mapToLong(row -> (Long) row[2]).sum());
+	}
+
+	/**
+	 * Test {@link VirtualSlots#resolve(Doctor, Integer)} and {@link VirtualSlots#materialize(Availability, SlotStatus)}.
+	 *
+	 */
+	@Test
+	void testMaterialize() {
+		Integer slotId = VirtualSlots.encode(workingDays.get(0), LocalTime.of(9, 30));
+		Availability slot = virtualSlots.resolve(doctor, slotId).orElseThrow();
+		assertEquals(LocalTime.of(10, 0), slot.getEndTime());
+		assertFalse(virtualSlots.resolve(doctor, VirtualSlots.encode(workingDays.get(0), LocalTime.of(9, 15))).isPresent());
+
+		// Case when the virtual slot is booked, it is stored and no longer offered
+		Availability stored = virtualSlots.materialize(slot, SlotStatus.BOOKED);
+		assertTrue(stored.getId() > 0);
+		assertEquals(SlotStatus.BOOKED, stored.getStatus());
+		assertFalse(virtualSlots.resolve(doctor, slotId).isPresent());
+
+		// Case when another request stored the same slot in between
+		AvailabilityException availabilityException = assertThrows(AvailabilityException.class, () -> virtualSlots.materialize(slot, SlotStatus.BOOKED));
+		assertEquals(IExceptionConstants.SLOT_JUST_TAKEN, availabilityException.getMessage());
+	}
+
+	/**
+	 * Test {@link VirtualSlots#cancel(Doctor, LocalDate, LocalDate, LocalTime, LocalTime)}.
+	 *
+	 */
+	@Test
+	void testCancel() {
+		LocalDate from = workingDays.get(0);
+		LocalDate to = workingDays.get(1);
+		assertEquals(2, virtualSlots.cancel(doctor, from, to, LocalTime.of(9, 0), LocalTime.of(9, 30)));
+		assertEquals(2, virtualSlots.cancel(doctor, from, to, null, null));
+		assertEquals(0, virtualSlots.cancel(doctor, from, to, null, null));
+		assertEquals(4, availabilityRepository.findByDoctorIdAndDateBetween(doctor.getId(), from, to).stream()
+				.filter(slot -> slot.getStatus() == SlotStatus.CANCELLED).count());
+		assertEquals((workingDays.size() - 2) * SLOTS_PER_DAY, virtualSlots.findOpenSlots(doctor.getId(), null).size());
+	}
+}